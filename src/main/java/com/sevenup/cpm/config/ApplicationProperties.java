@@ -1,5 +1,8 @@
 package com.sevenup.cpm.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +13,663 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final ChangeLog changeLog = new ChangeLog();
+
+    private final ChangeStream changeStream = new ChangeStream();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final LoadShedding loadShedding = new LoadShedding();
+
+    private final ReplicaDataSource replicaDataSource = new ReplicaDataSource();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Jobs jobs = new Jobs();
+
+    private final TaskExecution taskExecution = new TaskExecution();
+
+    private final SchemaMigration schemaMigration = new SchemaMigration();
+
+    private final DepartmentScoping departmentScoping = new DepartmentScoping();
+
+    private final RoleHierarchy roleHierarchy = new RoleHierarchy();
+
+    private final MembershipExpiry membershipExpiry = new MembershipExpiry();
+
+    private final Search search = new Search();
+
     // jhipster-needle-application-properties-property
+
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public ChangeStream getChangeStream() {
+        return changeStream;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public LoadShedding getLoadShedding() {
+        return loadShedding;
+    }
+
+    public ReplicaDataSource getReplicaDataSource() {
+        return replicaDataSource;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public TaskExecution getTaskExecution() {
+        return taskExecution;
+    }
+
+    public SchemaMigration getSchemaMigration() {
+        return schemaMigration;
+    }
+
+    public DepartmentScoping getDepartmentScoping() {
+        return departmentScoping;
+    }
+
+    public RoleHierarchy getRoleHierarchy() {
+        return roleHierarchy;
+    }
+
+    public MembershipExpiry getMembershipExpiry() {
+        return membershipExpiry;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class ChangeLog {
+
+        /**
+         * Changes younger than this are not served by the change feed yet. The change log ids are allocated in commit
+         * order, so that no change slips behind the watermark of a consumer whatever this delay: it only holds back the
+         * changes for the consumers which would rather get them in fewer, larger pages.
+         */
+        private Duration settleTime = Duration.ZERO;
+
+        /**
+         * Maximum number of changes returned by one call of the change feed.
+         */
+        private int maxPageSize = 10000;
+
+        public Duration getSettleTime() {
+            return settleTime;
+        }
+
+        public void setSettleTime(Duration settleTime) {
+            this.settleTime = settleTime;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    public static class ChangeStream {
+
+        /**
+         * Number of changes kept in the ring buffer shared by all the subscribers, rounded up to a power of two.
+         * A subscriber lagging further behind is disconnected.
+         */
+        private int bufferSize = 4096;
+
+        /**
+         * Number of threads kept to write the changes to the subscribers, more are started while writes are blocked.
+         */
+        private int dispatcherThreads = 4;
+
+        /**
+         * How long writing a change or a heartbeat to a subscriber may block before it is disconnected as a slow consumer.
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Lifetime of a stream, after which the client reconnects with its {@code Last-Event-ID}.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getDispatcherThreads() {
+            return dispatcherThreads;
+        }
+
+        public void setDispatcherThreads(int dispatcherThreads) {
+            this.dispatcherThreads = dispatcherThreads;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+    }
+
+    public static class VirtualThreads {
+
+        /**
+         * Maximum number of threads using a database connection at the same time, {@code 0} for the connection pool size.
+         */
+        private int maxConnectionConcurrency = 0;
+
+        /**
+         * How long a thread waits for its turn before the request fails.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        public int getMaxConnectionConcurrency() {
+            return maxConnectionConcurrency;
+        }
+
+        public void setMaxConnectionConcurrency(int maxConnectionConcurrency) {
+            this.maxConnectionConcurrency = maxConnectionConcurrency;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    public static class LoadShedding {
+
+        private boolean enabled = true;
+
+        /**
+         * Concurrency limit of each endpoint class before any latency was measured.
+         */
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 200;
+
+        /**
+         * Value of the {@code Retry-After} header of the rejected requests.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    public static class ReplicaDataSource {
+
+        /**
+         * JDBC URL of the read replica, read-only transactions stay on the primary database when not set.
+         */
+        private String url;
+
+        /**
+         * Login of the read replica, the one of the primary database when not set.
+         */
+        private String username;
+
+        private String password;
+
+        /**
+         * How long after a write the read-only transactions of the same user still go to the primary database,
+         * so that they see their own writes in spite of the replication lag.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+    }
+
+    public static class Idempotency {
+
+        private boolean enabled = true;
+
+        /**
+         * How long the response to a request carrying an {@code Idempotency-Key} is replayed to its retries.
+         */
+        private Duration ttl = Duration.ofHours(1);
+
+        /**
+         * Count of responses kept at most, the requests beyond it are served without being remembered.
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * Size of the largest response body kept, in bytes.
+         */
+        private int maxBodySize = 64 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(int maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+
+    public static class Jobs {
+
+        /**
+         * Count of jobs run at once by each instance, all types together.
+         */
+        private int workerThreads = 4;
+
+        /**
+         * Count of jobs of each type run at once by each instance, 1 for the types not listed.
+         */
+        private Map<String, Integer> concurrency = new HashMap<>();
+
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long a running job may go without heartbeat before another instance resumes it.
+         */
+        private Duration heartbeatTimeout = Duration.ofMinutes(2);
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public Map<String, Integer> getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(Map<String, Integer> concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getHeartbeatTimeout() {
+            return heartbeatTimeout;
+        }
+
+        public void setHeartbeatTimeout(Duration heartbeatTimeout) {
+            this.heartbeatTimeout = heartbeatTimeout;
+        }
+    }
+
+    /**
+     * How the async task executor grows and pushes back, on top of the pool sizes of {@code spring.task.execution}.
+     */
+    public static class TaskExecution {
+
+        public enum RejectionPolicy {
+            /**
+             * Fail the submission with a {@link java.util.concurrent.RejectedExecutionException}.
+             */
+            ABORT,
+            /**
+             * Run the task in the submitting thread, which slows the submitter down.
+             */
+            CALLER_RUNS,
+            /**
+             * Wait up to the block timeout for room in the queue, then fail the submission.
+             */
+            BLOCK,
+        }
+
+        /**
+         * Count of queued tasks beyond which a thread is added, as long as the pool is below its maximum size.
+         */
+        private int growThreshold = 16;
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+        private Duration blockTimeout = Duration.ofSeconds(5);
+
+        public int getGrowThreshold() {
+            return growThreshold;
+        }
+
+        public void setGrowThreshold(int growThreshold) {
+            this.growThreshold = growThreshold;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public Duration getBlockTimeout() {
+            return blockTimeout;
+        }
+
+        public void setBlockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+        }
+    }
+
+    /**
+     * When the instances run Liquibase, see {@link GatedSpringLiquibase}.
+     */
+    public static class SchemaMigration {
+
+        /**
+         * Whether to skip Liquibase when the database was already migrated with the changelogs of this build.
+         */
+        private boolean gate = true;
+
+        /**
+         * Whether the instances migrate the database when they start. When not, an instance refuses to start on a database
+         * not migrated with its changelogs, which the {@code migrate} profile does once per deployment.
+         */
+        private boolean migrateOnStartup = true;
+
+        public boolean isGate() {
+            return gate;
+        }
+
+        public void setGate(boolean gate) {
+            this.gate = gate;
+        }
+
+        public boolean isMigrateOnStartup() {
+            return migrateOnStartup;
+        }
+
+        public void setMigrateOnStartup(boolean migrateOnStartup) {
+            this.migrateOnStartup = migrateOnStartup;
+        }
+    }
+
+    /**
+     * Which departments the callers may read and write, see {@code DepartmentScopeService}.
+     */
+    public static class DepartmentScoping {
+
+        /**
+         * Whether the callers are restricted to the subtree of their department. When not, every authenticated caller
+         * reaches every department and group.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The department of each scoped login. The callers not listed here reach every department if they hold
+         * {@code ROLE_ADMIN}, and none otherwise.
+         */
+        private Map<String, Long> users = new HashMap<>();
+
+        /**
+         * How long the department intervals cached by an instance may lag behind the writes of the other instances.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Map<String, Long> getUsers() {
+            return users;
+        }
+
+        public void setUsers(Map<String, Long> users) {
+            this.users = users;
+        }
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+
+    public static class RoleHierarchy {
+
+        /**
+         * How long the role closure cached by an instance may lag behind the inheritance writes of the other instances.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(5);
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+    }
+
+    public static class MembershipExpiry {
+
+        /**
+         * The delay between two sweeps of the expired memberships, also read by {@code @Scheduled} which only takes
+         * ISO-8601 durations.
+         */
+        private Duration sweepInterval = Duration.ofMinutes(1);
+
+        /**
+         * The resolution of the timing wheel deleting the memberships which expire between two sweeps, also read by
+         * {@code @Scheduled} which only takes ISO-8601 durations.
+         */
+        private Duration tick = Duration.ofSeconds(1);
+
+        /**
+         * The count of memberships deleted by each transaction.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * The maximum count of batches deleted by a sweep, the rest being left to the next sweeps.
+         */
+        private int maxBatchesPerSweep = 100;
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+
+        public Duration getTick() {
+            return tick;
+        }
+
+        public void setTick(Duration tick) {
+            this.tick = tick;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerSweep() {
+            return maxBatchesPerSweep;
+        }
+
+        public void setMaxBatchesPerSweep(int maxBatchesPerSweep) {
+            this.maxBatchesPerSweep = maxBatchesPerSweep;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * How long the name index of an instance may lag behind the writes of the other instances, on top of the
+         * settle time of the change log.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(5);
+
+        private int maxPageSize = 100;
+
+        public Duration getMaxStaleness() {
+            return maxStaleness;
+        }
+
+        public void setMaxStaleness(Duration maxStaleness) {
+            this.maxStaleness = maxStaleness;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
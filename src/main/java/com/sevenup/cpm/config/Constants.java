@@ -7,5 +7,13 @@ public final class Constants {
 
     public static final String SYSTEM = "system";
 
+    public static final String SPRING_PROFILE_VIRTUAL_THREADS = "virtual-threads";
+
+    public static final String SPRING_PROFILE_FAST_START = "fast-start";
+
+    public static final String SPRING_PROFILE_CDS_TRAINING = "cds-training";
+
+    public static final String SPRING_PROFILE_MIGRATE = "migrate";
+
     private Constants() {}
 }
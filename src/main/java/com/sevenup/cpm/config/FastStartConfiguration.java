@@ -0,0 +1,75 @@
+package com.sevenup.cpm.config;
+
+import java.util.Arrays;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Configuration of the {@code fast-start} profile, which initializes most beans lazily to get the application ready
+ * sooner when it is scaled out.
+ * <p>
+ * The database and security beans stay eager: the schema is migrated and the connection pool and Hibernate are up
+ * before the application reports ready, and a misconfiguration fails the startup rather than the first request.
+ * <p>
+ * So do the beans with {@link Scheduled} methods and the {@link SmartLifecycle} ones: their work is not triggered by a
+ * request, a lazy one would only start once another bean happens to need it.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_FAST_START)
+public class FastStartConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(FastStartConfiguration.class);
+
+    private static final String SECURITY_PACKAGE = "com.sevenup.cpm.security.";
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        LazyInitializationExcludeFilter byType = LazyInitializationExcludeFilter.forBeanTypes(
+            DataSource.class,
+            SpringLiquibase.class,
+            EntityManagerFactory.class,
+            PlatformTransactionManager.class,
+            SecurityFilterChain.class,
+            SecurityConfiguration.class,
+            SmartLifecycle.class
+        );
+        return (beanName, beanDefinition, beanType) ->
+            byType.isExcluded(beanName, beanDefinition, beanType) ||
+            (beanType != null && (beanType.getName().startsWith(SECURITY_PACKAGE) || hasScheduledMethods(beanType)));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return Arrays
+            .stream(ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS))
+            .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+
+    /**
+     * Stops the application as soon as it is ready, once the classes loaded during the startup have been recorded for
+     * the class data sharing archive.
+     */
+    @Bean
+    @Profile(Constants.SPRING_PROFILE_CDS_TRAINING)
+    public ApplicationListener<ApplicationReadyEvent> cdsTrainingExit() {
+        return event -> {
+            log.info("Startup recorded for the class data sharing archive, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.sevenup.cpm.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
+import liquibase.exception.LiquibaseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import tech.jhipster.config.liquibase.AsyncSpringLiquibase;
+
+/**
+ * An {@link AsyncSpringLiquibase} which only runs Liquibase when the changelogs changed.
+ * <p>
+ * Liquibase parses all the changelogs and takes its lock on every start, even when there is nothing to migrate, which
+ * serializes the instances starting together. Instead, the changelogs packaged with the application are hashed, and
+ * each successful migration records the hash in the {@code schema_migration_marker} table: an instance finding the hash
+ * of its changelogs there skips Liquibase entirely.
+ * <p>
+ * With {@link ApplicationProperties.SchemaMigration#isMigrateOnStartup()} off, the instances never migrate the
+ * database: a run with the {@code migrate} profile does it once per deployment, and the instances refuse to start
+ * until it has.
+ */
+public class GatedSpringLiquibase extends AsyncSpringLiquibase {
+
+    private static final String CHANGELOG_LOCATION = "classpath:config/liquibase/";
+
+    private static final String CHANGELOG_DIRECTORY = "config/liquibase/";
+
+    private final Logger log = LoggerFactory.getLogger(GatedSpringLiquibase.class);
+
+    private final Environment env;
+
+    private final ApplicationProperties.SchemaMigration properties;
+
+    private boolean closeDataSourceOnceMigrated = true;
+
+    public GatedSpringLiquibase(Executor executor, Environment env, ApplicationProperties.SchemaMigration properties) {
+        super(executor, env);
+        this.env = env;
+        this.properties = properties;
+        super.setCloseDataSourceOnceMigrated(false);
+    }
+
+    @Override
+    public void setCloseDataSourceOnceMigrated(boolean closeDataSourceOnceMigrated) {
+        // Closed here rather than by the parent class, the marker being written after the migration
+        this.closeDataSourceOnceMigrated = closeDataSourceOnceMigrated;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (isMigrateRun()) {
+            // The migrate run exits as soon as it is ready, the migration must be over by then
+            initDb();
+        } else {
+            super.afterPropertiesSet();
+        }
+    }
+
+    @Override
+    protected void initDb() throws LiquibaseException {
+        if (!shouldRun) {
+            super.initDb();
+            return;
+        }
+        try {
+            String hash = changelogHash(
+                ResourcePatternUtils.getResourcePatternResolver(getResourceLoader()),
+                getContexts(),
+                getLabels()
+            );
+            boolean migrating = properties.isMigrateOnStartup() || isMigrateRun();
+            if (isMigrated(hash)) {
+                if (properties.isGate() || !migrating) {
+                    log.info("Database already migrated with changelogs {}, skipping Liquibase", hash);
+                    return;
+                }
+            } else if (!migrating) {
+                throw new LiquibaseException(
+                    "Database not migrated with changelogs " + hash + ", run the application with the migrate profile first"
+                );
+            }
+            super.initDb();
+            markMigrated(hash);
+        } finally {
+            if (closeDataSourceOnceMigrated) {
+                closeDataSource();
+            }
+        }
+    }
+
+    /**
+     * Hash the changelogs with the contexts and labels selecting their change sets.
+     *
+     * @param resolver the resolver of the classpath resources.
+     * @param contexts the Liquibase contexts.
+     * @param labels the Liquibase labels.
+     * @return the SHA-256 hash, in hexadecimal.
+     * @throws LiquibaseException if the changelogs cannot be read.
+     */
+    static String changelogHash(ResourcePatternResolver resolver, String contexts, String labels) throws LiquibaseException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Resource[] resources = resolver.getResources(CHANGELOG_LOCATION + "**/*");
+            // The same files hash the same whether they are packaged in a jar or not
+            Arrays.sort(resources, Comparator.comparing(GatedSpringLiquibase::changelogPath));
+            for (Resource resource : resources) {
+                String path = changelogPath(resource);
+                if (path.isEmpty() || path.endsWith("/") || !resource.isReadable()) {
+                    continue;
+                }
+                update(digest, path);
+                try (InputStream content = resource.getInputStream()) {
+                    digest.update(content.readAllBytes());
+                }
+                digest.update((byte) 0);
+            }
+            update(digest, String.valueOf(contexts));
+            update(digest, String.valueOf(labels));
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new LiquibaseException("Could not hash the changelogs", e);
+        }
+    }
+
+    private static String changelogPath(Resource resource) {
+        try {
+            String url = resource.getURL().toString();
+            int directory = url.lastIndexOf(CHANGELOG_DIRECTORY);
+            return directory < 0 ? url : url.substring(directory + CHANGELOG_DIRECTORY.length());
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private boolean isMigrated(String hash) {
+        try (
+            Connection connection = getDataSource().getConnection();
+            PreparedStatement statement = connection.prepareStatement("select 1 from schema_migration_marker where changelog_hash = ?")
+        ) {
+            statement.setString(1, hash);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            // The table comes with the changelogs: it is missing until the first migration
+            log.debug("Could not read the schema migration marker: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void markMigrated(String hash) {
+        try (
+            Connection connection = getDataSource().getConnection();
+            PreparedStatement statement = connection.prepareStatement(
+                "insert into schema_migration_marker (changelog_hash, migrated_date) values (?, ?)"
+            )
+        ) {
+            statement.setString(1, hash);
+            statement.setTimestamp(2, Timestamp.from(Instant.now()));
+            statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            log.info("Database migrated with changelogs {}", hash);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            log.debug("Database already marked as migrated with changelogs {} by another instance", hash);
+        } catch (SQLException e) {
+            // Liquibase runs again on the next start, finding nothing to do
+            log.warn("Could not write the schema migration marker: {}", e.getMessage());
+        }
+    }
+
+    private void closeDataSource() {
+        DataSource dataSource = getDataSource();
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                log.warn("Could not close the Liquibase data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean isMigrateRun() {
+        return env.acceptsProfiles(Profiles.of(Constants.SPRING_PROFILE_MIGRATE));
+    }
+}
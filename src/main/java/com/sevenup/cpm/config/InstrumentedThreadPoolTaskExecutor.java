@@ -0,0 +1,159 @@
+package com.sevenup.cpm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * A {@link ThreadPoolTaskExecutor} which grows under load and reports what it does.
+ * <p>
+ * A plain {@link ThreadPoolExecutor} only adds threads beyond its core size once its queue is full, which with a
+ * large queue means never. Here the queue absorbs the short bursts only: past the grow threshold, tasks go to new
+ * threads up to the maximum pool size, and only then fill the rest of the queue. When the queue is full too, the
+ * configured {@link ApplicationProperties.TaskExecution.RejectionPolicy} applies.
+ * <p>
+ * Besides the gauges of {@link ExecutorServiceMetrics} (queue depth, active threads, pool size), the time tasks
+ * wait in the queue and the time they run are timed, and the rejected tasks counted.
+ */
+public class InstrumentedThreadPoolTaskExecutor extends ThreadPoolTaskExecutor implements MeterBinder {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    private final int growThreshold;
+
+    private final ApplicationProperties.TaskExecution.RejectionPolicy rejectionPolicy;
+
+    private final long blockTimeoutNanos;
+
+    private volatile Timer waitTimer;
+
+    private volatile Timer runTimer;
+
+    private volatile Counter rejectedCounter;
+
+    public InstrumentedThreadPoolTaskExecutor(String name, ApplicationProperties.TaskExecution properties) {
+        this.name = name;
+        this.growThreshold = properties.getGrowThreshold();
+        this.rejectionPolicy = properties.getRejectionPolicy();
+        this.blockTimeoutNanos = properties.getBlockTimeout().toNanos();
+        setTaskDecorator(this::instrument);
+        setRejectedExecutionHandler(new QueueThenReject());
+    }
+
+    @Override
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            return super.createQueue(queueCapacity);
+        }
+        return new GrowingQueue(queueCapacity);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("name", name);
+        new ExecutorServiceMetrics(getThreadPoolExecutor(), name, Tags.empty()).bindTo(registry);
+        waitTimer = Timer.builder("executor.idle").description("Time tasks wait in the queue").tags(tags).register(registry);
+        runTimer = Timer.builder("executor").description("Time tasks run").tags(tags).register(registry);
+        rejectedCounter =
+            Counter
+                .builder("executor.rejected")
+                .description("Tasks which found the queue full")
+                .tags(tags.and("policy", rejectionPolicy.name()))
+                .register(registry);
+    }
+
+    private Runnable instrument(Runnable task) {
+        long queuedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            Timer wait = waitTimer;
+            if (wait != null) {
+                wait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                task.run();
+            } finally {
+                Timer run = runTimer;
+                if (run != null) {
+                    run.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+
+    /**
+     * Refuses the tasks beyond the grow threshold while the pool can still grow, for the executor to start a thread
+     * for them instead.
+     */
+    private final class GrowingQueue extends LinkedBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        private GrowingQueue(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            ThreadPoolExecutor executor = getThreadPoolExecutor();
+            boolean idleThread = executor.getActiveCount() < executor.getPoolSize();
+            if (!idleThread && size() >= growThreshold && executor.getPoolSize() < executor.getMaximumPoolSize()) {
+                return false;
+            }
+            return super.offer(task);
+        }
+
+        private boolean forceOffer(Runnable task, long timeoutNanos) throws InterruptedException {
+            return timeoutNanos > 0 ? super.offer(task, timeoutNanos, TimeUnit.NANOSECONDS) : super.offer(task);
+        }
+    }
+
+    /**
+     * Called when the pool is at its maximum size: queues the task if there is room left, or applies the rejection policy.
+     */
+    private final class QueueThenReject implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor " + name + " is shut down");
+            }
+            try {
+                if (
+                    executor.getQueue() instanceof GrowingQueue &&
+                    ((GrowingQueue) executor.getQueue()).forceOffer(task, waitingTime())
+                ) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for room in executor " + name, e);
+            }
+            Counter rejected = rejectedCounter;
+            if (rejected != null) {
+                rejected.increment();
+            }
+            if (rejectionPolicy == ApplicationProperties.TaskExecution.RejectionPolicy.CALLER_RUNS) {
+                task.run();
+            } else {
+                throw new RejectedExecutionException("Executor " + name + " is saturated");
+            }
+        }
+
+        private long waitingTime() {
+            return rejectionPolicy == ApplicationProperties.TaskExecution.RejectionPolicy.BLOCK ? blockTimeoutNanos : 0;
+        }
+    }
+}
@@ -7,11 +7,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 import tech.jhipster.config.JHipsterConstants;
@@ -24,8 +29,11 @@ public class LiquibaseConfiguration {
 
     private final Environment env;
 
-    public LiquibaseConfiguration(Environment env) {
+    private final ApplicationProperties applicationProperties;
+
+    public LiquibaseConfiguration(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -38,14 +46,15 @@ public class LiquibaseConfiguration {
     ) {
         // If you don't want Liquibase to start asynchronously, substitute by this:
         // SpringLiquibase liquibase = SpringLiquibaseUtil.createSpringLiquibase(liquibaseDataSource.getIfAvailable(), liquibaseProperties, dataSource.getIfUnique(), dataSourceProperties);
-        SpringLiquibase liquibase = SpringLiquibaseUtil.createAsyncSpringLiquibase(
-            this.env,
-            executor,
-            liquibaseDataSource.getIfAvailable(),
-            liquibaseProperties,
-            dataSource.getIfUnique(),
-            dataSourceProperties
-        );
+        DataSource ownDataSource = liquibaseDataSource.getIfAvailable();
+        DataSource applicationDataSource = dataSource.getIfUnique();
+        DataSource resolvedDataSource = SpringLiquibaseUtil
+            .createAsyncSpringLiquibase(this.env, executor, ownDataSource, liquibaseProperties, applicationDataSource, dataSourceProperties)
+            .getDataSource();
+        GatedSpringLiquibase liquibase = new GatedSpringLiquibase(executor, this.env, applicationProperties.getSchemaMigration());
+        liquibase.setDataSource(resolvedDataSource);
+        // Like SpringLiquibaseUtil, only a data source created for Liquibase is closed once migrated
+        liquibase.setCloseDataSourceOnceMigrated(resolvedDataSource != ownDataSource && resolvedDataSource != applicationDataSource);
         liquibase.setChangeLog("classpath:config/liquibase/master.xml");
         liquibase.setContexts(liquibaseProperties.getContexts());
         liquibase.setDefaultSchema(liquibaseProperties.getDefaultSchema());
@@ -66,4 +75,32 @@ public class LiquibaseConfiguration {
         }
         return liquibase;
     }
+
+    /**
+     * Stops the application of the {@code migrate} profile as soon as it is ready, the database being migrated by then.
+     */
+    @Bean
+    @Profile(Constants.SPRING_PROFILE_MIGRATE)
+    public MigrateExit migrateExit() {
+        return new MigrateExit();
+    }
+
+    /**
+     * Runs before the other listeners of {@link ApplicationReadyEvent}, for nothing else to start.
+     */
+    static class MigrateExit implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+        private final Logger log = LoggerFactory.getLogger(MigrateExit.class);
+
+        @Override
+        public void onApplicationEvent(ApplicationReadyEvent event) {
+            log.info("Database migrated, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
 }
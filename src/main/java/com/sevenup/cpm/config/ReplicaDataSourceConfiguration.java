@@ -0,0 +1,81 @@
+package com.sevenup.cpm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the database traffic between the primary database and a read replica, when
+ * {@code application.replica-datasource.url} is set.
+ * <p>
+ * Both pools get the {@code spring.datasource.hikari} settings. Liquibase keeps running on the primary database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.replica-datasource", name = "url")
+public class ReplicaDataSourceConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    private final Environment env;
+
+    public ReplicaDataSourceConfiguration(Environment env) {
+        this.env = env;
+    }
+
+    @Bean
+    @LiquibaseDataSource
+    public DataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return hikari(dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build(), "");
+    }
+
+    @Bean
+    public DataSource replicaDataSource(DataSourceProperties dataSourceProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.ReplicaDataSource replica = applicationProperties.getReplicaDataSource();
+        DataSourceBuilder<HikariDataSource> builder = dataSourceProperties
+            .initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(replica.getUrl());
+        if (replica.getUsername() != null) {
+            builder.username(replica.getUsername()).password(replica.getPassword());
+        }
+        HikariDataSource dataSource = hikari(builder.build(), "-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        log.debug("Routing the read-only transactions to the read replica");
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primaryDataSource,
+            replicaDataSource,
+            applicationProperties.getReplicaDataSource().getReadYourWritesWindow()
+        );
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource hikari(HikariDataSource dataSource, String poolNameSuffix) {
+        Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName((dataSource.getPoolName() != null ? dataSource.getPoolName() : "Hikari") + poolNameSuffix);
+        return dataSource;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sevenup.cpm.config;
+
+import com.sevenup.cpm.security.SecurityUtils;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link DataSource} sending the read-only transactions to a read replica and everything else to the primary database.
+ * <p>
+ * A user who committed a write within the read-your-writes window keeps reading from the primary database, so that
+ * the replication lag never hides their own writes from them. The routing happens when the connection is fetched,
+ * so this data source has to be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * for the transaction to be known by then.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA,
+    }
+
+    /**
+     * Past this number of tracked users, the ones out of the window are forgotten.
+     */
+    private static final int MAX_TRACKED_WRITERS = 10000;
+
+    private final long readYourWritesWindowNanos;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource, Duration readYourWritesWindow) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        Optional<String> user = SecurityUtils.getCurrentUserLogin();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return user.filter(this::hasWrittenRecently).isPresent() ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            user.ifPresent(this::recordWriteOnCommit);
+        }
+        return Route.PRIMARY;
+    }
+
+    private boolean hasWrittenRecently(String user) {
+        Long lastWrite = lastWrites.get(user);
+        return lastWrite != null && System.nanoTime() - lastWrite < readYourWritesWindowNanos;
+    }
+
+    private void recordWriteOnCommit(String user) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    long now = System.nanoTime();
+                    lastWrites.put(user, now);
+                    if (lastWrites.size() > MAX_TRACKED_WRITERS) {
+                        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowNanos);
+                    }
+                }
+            }
+        );
+    }
+}
@@ -1,15 +1,21 @@
 package com.sevenup.cpm.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sevenup.cpm.security.*;
 import com.sevenup.cpm.security.jwt.*;
+import com.sevenup.cpm.web.filter.IdempotencyKeyFilter;
+import com.sevenup.cpm.web.filter.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.filter.CorsFilter;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
@@ -27,16 +33,28 @@ public class SecurityConfiguration {
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper;
+
     public SecurityConfiguration(
         TokenProvider tokenProvider,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        SecurityProblemSupport problemSupport,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        ObjectMapper objectMapper
     ) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
@@ -69,8 +87,27 @@ public class SecurityConfiguration {
             .httpBasic()
         .and()
             .apply(securityConfigurerAdapter());
-        return http.build();
         // @formatter:on
+        if (applicationProperties.getLoadShedding().isEnabled()) {
+            // Ahead of the JWTFilter, so that shed requests cost as little as possible
+            http.addFilterBefore(
+                new LoadSheddingFilter(applicationProperties.getLoadShedding(), meterRegistry, objectMapper),
+                UsernamePasswordAuthenticationFilter.class
+            );
+        }
+        if (applicationProperties.getIdempotency().isEnabled()) {
+            // Behind the authorization, as the replayed responses are scoped to the authenticated user
+            http.addFilterAfter(new IdempotencyKeyFilter(applicationProperties.getIdempotency()), FilterSecurityInterceptor.class);
+        }
+        return http.build();
+    }
+
+    /**
+     * Picked up by the method security of {@link EnableGlobalMethodSecurity}, static for it not to wait for this configuration.
+     */
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+        return new AuthorityBitsMethodSecurityExpressionHandler();
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
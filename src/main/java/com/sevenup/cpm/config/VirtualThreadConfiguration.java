@@ -0,0 +1,88 @@
+package com.sevenup.cpm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Runs the servlet requests on virtual threads, with the {@code virtual-threads} profile and Java 21 or later.
+ * <p>
+ * The {@code @Async} tasks are switched over in {@link AsyncConfiguration}, and the database access is capped
+ * by a {@link ConcurrencyLimitingDataSource}.
+ */
+@Configuration
+@Profile(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+public class VirtualThreadConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    /**
+     * Pool size HikariCP uses when none is configured.
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> virtualThreadUndertowCustomizer(ExecutorService requestExecutor) {
+        log.info("Dispatching the requests on virtual threads");
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(requestExecutor));
+    }
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment env) {
+        ApplicationProperties.VirtualThreads properties = Binder
+            .get(env)
+            .bind("application.virtual-threads", ApplicationProperties.VirtualThreads.class)
+            .orElseGet(ApplicationProperties.VirtualThreads::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the pools are limited, not the data sources routing to them
+                if (!(bean instanceof HikariDataSource)) {
+                    return bean;
+                }
+                int maxConcurrency = properties.getMaxConnectionConcurrency();
+                if (maxConcurrency <= 0) {
+                    int poolSize = ((HikariDataSource) bean).getMaximumPoolSize();
+                    maxConcurrency = poolSize > 0 ? poolSize : DEFAULT_POOL_SIZE;
+                }
+                log.debug("Limiting the database access of '{}' to {} threads at a time", beanName, maxConcurrency);
+                return new ConcurrencyLimitingDataSource((DataSource) bean, maxConcurrency, properties.getAcquireTimeout());
+            }
+        };
+    }
+
+    /**
+     * Create an executor starting a virtual thread per task.
+     * <p>
+     * Looked up reflectively, as the default build still targets Java 11.
+     *
+     * @return the executor.
+     * @throws IllegalStateException if the running JVM has no virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                "The " + Constants.SPRING_PROFILE_VIRTUAL_THREADS + " profile needs Java 21 or later, running on " + Runtime.version(),
+                e
+            );
+        }
+    }
+}
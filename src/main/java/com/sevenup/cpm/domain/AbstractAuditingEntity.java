@@ -6,6 +6,7 @@ import java.time.Instant;
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -14,7 +15,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
  * Base abstract class for entities which will hold definitions for created, last modified, created by,
- * last modified by attributes.
+ * last modified by attributes, and for the version used both for optimistic locking and as entity tag.
  */
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
@@ -41,6 +42,10 @@ public abstract class AbstractAuditingEntity<T> implements Serializable {
     @Column(name = "last_modified_date")
     private Instant lastModifiedDate = Instant.now();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public String getCreatedBy() {
         return createdBy;
     }
@@ -72,4 +77,12 @@ public abstract class AbstractAuditingEntity<T> implements Serializable {
     public void setLastModifiedDate(Instant lastModifiedDate) {
         this.lastModifiedDate = lastModifiedDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,64 @@
+package com.sevenup.cpm.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * A per-entity counter, bumped on every write to the entity table.
+ * <p>
+ * Its value is the entity tag of the entity collection.
+ */
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "entity_name", length = 50)
+    private String entityName;
+
+    @Column(name = "counter", nullable = false)
+    private Long counter;
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public Long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(Long counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeCounter)) {
+            return false;
+        }
+        return entityName != null && entityName.equals(((ChangeCounter) o).entityName);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeCounter{" +
+            "entityName='" + getEntityName() + "'" +
+            ", counter=" + getCounter() +
+            "}";
+    }
+}
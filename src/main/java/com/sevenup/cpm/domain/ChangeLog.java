@@ -0,0 +1,130 @@
+package com.sevenup.cpm.domain;
+
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * A ChangeLog entry, written in the same transaction as the change it records, right before it commits.
+ * <p>
+ * Its id is allocated in commit order and serves as the watermark of the change feed.
+ */
+@Entity
+@Table(name = "change_log")
+public class ChangeLog implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "entity_name", length = 50, nullable = false)
+    private String entityName;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 10, nullable = false)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_date", nullable = false)
+    private Instant changedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ChangeLog id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityName() {
+        return this.entityName;
+    }
+
+    public ChangeLog entityName(String entityName) {
+        this.setEntityName(entityName);
+        return this;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public Long getEntityId() {
+        return this.entityId;
+    }
+
+    public ChangeLog entityId(Long entityId) {
+        this.setEntityId(entityId);
+        return this;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeOperation getOperation() {
+        return this.operation;
+    }
+
+    public ChangeLog operation(ChangeOperation operation) {
+        this.setOperation(operation);
+        return this;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedDate() {
+        return this.changedDate;
+    }
+
+    public ChangeLog changedDate(Instant changedDate) {
+        this.setChangedDate(changedDate);
+        return this;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeLog)) {
+            return false;
+        }
+        return id != null && id.equals(((ChangeLog) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeLog{" +
+            "id=" + getId() +
+            ", entityName='" + getEntityName() + "'" +
+            ", entityId=" + getEntityId() +
+            ", operation='" + getOperation() + "'" +
+            ", changedDate='" + getChangedDate() + "'" +
+            "}";
+    }
+}
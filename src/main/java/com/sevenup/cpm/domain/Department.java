@@ -9,7 +9,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "department")
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Department implements Serializable {
+public class Department extends AbstractAuditingEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -24,8 +24,21 @@ public class Department implements Serializable {
     @Column(name = "id_parent")
     private Long idParent;
 
+    /**
+     * Pre-order number of the department in the department tree, maintained by {@code DepartmentIntervalService} only.
+     */
+    @Column(name = "lft", insertable = false, updatable = false)
+    private Integer lft;
+
+    /**
+     * Post-order number of the department in the department tree, maintained by {@code DepartmentIntervalService} only.
+     */
+    @Column(name = "rgt", insertable = false, updatable = false)
+    private Integer rgt;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
+    @Override
     public Long getId() {
         return this.id;
     }
@@ -65,6 +78,14 @@ public class Department implements Serializable {
         this.idParent = idParent;
     }
 
+    public Integer getLft() {
+        return this.lft;
+    }
+
+    public Integer getRgt() {
+        return this.rgt;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
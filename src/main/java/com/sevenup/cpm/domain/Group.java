@@ -9,7 +9,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "jhi_group")
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Group implements Serializable {
+public class Group extends AbstractAuditingEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -26,6 +26,7 @@ public class Group implements Serializable {
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
+    @Override
     public Long getId() {
         return this.id;
     }
@@ -1,6 +1,7 @@
 package com.sevenup.cpm.domain;
 
 import java.io.Serializable;
+import java.time.Instant;
 import javax.persistence.*;
 
 /**
@@ -9,7 +10,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "group_user")
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class GroupUser implements Serializable {
+public class GroupUser extends AbstractAuditingEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -24,8 +25,15 @@ public class GroupUser implements Serializable {
     @Column(name = "user_id")
     private Long userId;
 
+    @Column(name = "valid_from")
+    private Instant validFrom;
+
+    @Column(name = "valid_until")
+    private Instant validUntil;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
+    @Override
     public Long getId() {
         return this.id;
     }
@@ -65,6 +73,32 @@ public class GroupUser implements Serializable {
         this.userId = userId;
     }
 
+    public Instant getValidFrom() {
+        return this.validFrom;
+    }
+
+    public GroupUser validFrom(Instant validFrom) {
+        this.setValidFrom(validFrom);
+        return this;
+    }
+
+    public void setValidFrom(Instant validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public Instant getValidUntil() {
+        return this.validUntil;
+    }
+
+    public GroupUser validUntil(Instant validUntil) {
+        this.setValidUntil(validUntil);
+        return this;
+    }
+
+    public void setValidUntil(Instant validUntil) {
+        this.validUntil = validUntil;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -91,6 +125,8 @@ public class GroupUser implements Serializable {
             "id=" + getId() +
             ", groupId=" + getGroupId() +
             ", userId=" + getUserId() +
+            ", validFrom='" + getValidFrom() + "'" +
+            ", validUntil='" + getValidUntil() + "'" +
             "}";
     }
 }
@@ -0,0 +1,301 @@
+package com.sevenup.cpm.domain;
+
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * A Job, run in the background by one of the application instances.
+ * <p>
+ * Its state changes through conditional updates rather than through optimistic locking, as the instance running it
+ * and the users cancelling it write concurrently.
+ */
+@Entity
+@Table(name = "job")
+public class Job implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "type", length = 50, nullable = false)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private JobStatus status;
+
+    @Column(name = "parameters", length = 2000)
+    private String parameters;
+
+    @Column(name = "progress", nullable = false)
+    private Long progress = 0L;
+
+    @Column(name = "total")
+    private Long total;
+
+    @Column(name = "checkpoint", length = 2000)
+    private String checkpoint;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    @Column(name = "created_by", length = 50, nullable = false)
+    private String createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "started_date")
+    private Instant startedDate;
+
+    @Column(name = "heartbeat_date")
+    private Instant heartbeatDate;
+
+    @Column(name = "ended_date")
+    private Instant endedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Job id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    public Job type(String type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public JobStatus getStatus() {
+        return this.status;
+    }
+
+    public Job status(JobStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public String getParameters() {
+        return this.parameters;
+    }
+
+    public Job parameters(String parameters) {
+        this.setParameters(parameters);
+        return this;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public Long getProgress() {
+        return this.progress;
+    }
+
+    public Job progress(Long progress) {
+        this.setProgress(progress);
+        return this;
+    }
+
+    public void setProgress(Long progress) {
+        this.progress = progress;
+    }
+
+    public Long getTotal() {
+        return this.total;
+    }
+
+    public Job total(Long total) {
+        this.setTotal(total);
+        return this;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public String getCheckpoint() {
+        return this.checkpoint;
+    }
+
+    public Job checkpoint(String checkpoint) {
+        this.setCheckpoint(checkpoint);
+        return this;
+    }
+
+    public void setCheckpoint(String checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public Job error(String error) {
+        this.setError(error);
+        return this;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Boolean getCancelRequested() {
+        return this.cancelRequested;
+    }
+
+    public Job cancelRequested(Boolean cancelRequested) {
+        this.setCancelRequested(cancelRequested);
+        return this;
+    }
+
+    public void setCancelRequested(Boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    public Job owner(String owner) {
+        this.setOwner(owner);
+        return this;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getCreatedBy() {
+        return this.createdBy;
+    }
+
+    public Job createdBy(String createdBy) {
+        this.setCreatedBy(createdBy);
+        return this;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public Job createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getStartedDate() {
+        return this.startedDate;
+    }
+
+    public Job startedDate(Instant startedDate) {
+        this.setStartedDate(startedDate);
+        return this;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getHeartbeatDate() {
+        return this.heartbeatDate;
+    }
+
+    public Job heartbeatDate(Instant heartbeatDate) {
+        this.setHeartbeatDate(heartbeatDate);
+        return this;
+    }
+
+    public void setHeartbeatDate(Instant heartbeatDate) {
+        this.heartbeatDate = heartbeatDate;
+    }
+
+    public Instant getEndedDate() {
+        return this.endedDate;
+    }
+
+    public Job endedDate(Instant endedDate) {
+        this.setEndedDate(endedDate);
+        return this;
+    }
+
+    public void setEndedDate(Instant endedDate) {
+        this.endedDate = endedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Job)) {
+            return false;
+        }
+        return id != null && id.equals(((Job) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Job{" +
+            "id=" + getId() +
+            ", type='" + getType() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", parameters='" + getParameters() + "'" +
+            ", progress=" + getProgress() +
+            ", total=" + getTotal() +
+            ", checkpoint='" + getCheckpoint() + "'" +
+            ", error='" + getError() + "'" +
+            ", cancelRequested=" + getCancelRequested() +
+            ", owner='" + getOwner() + "'" +
+            ", createdBy='" + getCreatedBy() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", startedDate='" + getStartedDate() + "'" +
+            ", heartbeatDate='" + getHeartbeatDate() + "'" +
+            ", endedDate='" + getEndedDate() + "'" +
+            "}";
+    }
+}
@@ -9,7 +9,7 @@ import javax.persistence.*;
 @Entity
 @Table(name = "role")
 @SuppressWarnings("common-java:DuplicatedBlocks")
-public class Role implements Serializable {
+public class Role extends AbstractAuditingEntity<Long> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -26,6 +26,7 @@ public class Role implements Serializable {
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
+    @Override
     public Long getId() {
         return this.id;
     }
@@ -0,0 +1,97 @@
+package com.sevenup.cpm.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * A RoleInheritance: the holders of the role also hold the inherited role, and whatever it inherits in turn.
+ */
+@Entity
+@Table(name = "role_inheritance")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RoleInheritance extends AbstractAuditingEntity<Long> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "role_id", nullable = false)
+    private Long roleId;
+
+    @Column(name = "inherited_role_id", nullable = false)
+    private Long inheritedRoleId;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    public RoleInheritance id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRoleId() {
+        return this.roleId;
+    }
+
+    public RoleInheritance roleId(Long roleId) {
+        this.setRoleId(roleId);
+        return this;
+    }
+
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+
+    public Long getInheritedRoleId() {
+        return this.inheritedRoleId;
+    }
+
+    public RoleInheritance inheritedRoleId(Long inheritedRoleId) {
+        this.setInheritedRoleId(inheritedRoleId);
+        return this;
+    }
+
+    public void setInheritedRoleId(Long inheritedRoleId) {
+        this.inheritedRoleId = inheritedRoleId;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoleInheritance)) {
+            return false;
+        }
+        return id != null && id.equals(((RoleInheritance) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoleInheritance{" +
+            "id=" + getId() +
+            ", roleId=" + getRoleId() +
+            ", inheritedRoleId=" + getInheritedRoleId() +
+            "}";
+    }
+}
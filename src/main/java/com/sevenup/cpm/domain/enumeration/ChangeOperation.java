@@ -0,0 +1,10 @@
+package com.sevenup.cpm.domain.enumeration;
+
+/**
+ * The ChangeOperation enumeration.
+ */
+public enum ChangeOperation {
+    CREATE,
+    UPDATE,
+    DELETE,
+}
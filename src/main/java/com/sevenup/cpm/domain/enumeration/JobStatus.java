@@ -0,0 +1,12 @@
+package com.sevenup.cpm.domain.enumeration;
+
+/**
+ * The JobStatus enumeration.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+}
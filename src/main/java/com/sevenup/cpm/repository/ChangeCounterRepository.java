@@ -0,0 +1,29 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.ChangeCounter;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ChangeCounter entity.
+ */
+@Repository
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+    @Query("select changeCounter.counter from ChangeCounter changeCounter where changeCounter.entityName = :entityName")
+    Optional<Long> findCounterByEntityName(@Param("entityName") String entityName);
+
+    /**
+     * Lock the counter of an entity table until the end of the transaction, to serialize the writes of the entity.
+     *
+     * @param entityName the name of the entity.
+     * @return the current value of the counter.
+     */
+    @Query(value = "select counter from change_counter where entity_name = :entityName for update", nativeQuery = true)
+    Optional<Long> findCounterByEntityNameForUpdate(@Param("entityName") String entityName);
+
+    @Modifying
+    @Query("update ChangeCounter changeCounter set changeCounter.counter = changeCounter.counter + 1 where changeCounter.entityName = :entityName")
+    int increment(@Param("entityName") String entityName);
+}
@@ -0,0 +1,30 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.ChangeLog;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ChangeLog entity.
+ */
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long>, ChangeLogRepositoryWithBatchInserts {
+    List<ChangeLog> findByIdGreaterThanAndChangedDateLessThanEqualOrderByIdAsc(Long id, Instant changedDate, Pageable pageable);
+
+    List<ChangeLog> findByIdGreaterThanAndEntityNameInAndChangedDateLessThanEqualOrderByIdAsc(
+        Long id,
+        Collection<String> entityNames,
+        Instant changedDate,
+        Pageable pageable
+    );
+
+    /**
+     * Get the latest entry recorded before an instant, walking the primary key down from the latest entry.
+     */
+    Optional<ChangeLog> findFirstByChangedDateLessThanEqualOrderByIdDesc(Instant changedDate);
+}
@@ -0,0 +1,16 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.ChangeLog;
+import java.util.List;
+
+/**
+ * Inserts of many change log entries at once, as JDBC batches rather than one statement per entity.
+ */
+public interface ChangeLogRepositoryWithBatchInserts {
+    /**
+     * Inserts the entries in batches, and sets their generated ids.
+     *
+     * @param entries the entries to insert.
+     */
+    void insertAll(List<ChangeLog> entries);
+}
@@ -0,0 +1,54 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.ChangeLog;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+public class ChangeLogRepositoryWithBatchInsertsImpl implements ChangeLogRepositoryWithBatchInserts {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "insert into change_log (entity_name, entity_id, operation, changed_date) values (?, ?, ?, ?)";
+
+    private static final PreparedStatementCreator INSERT = connection ->
+        connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeLogRepositoryWithBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<ChangeLog> entries) {
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            List<ChangeLog> batch = entries.subList(from, Math.min(from + BATCH_SIZE, entries.size()));
+            jdbcTemplate.execute(
+                INSERT,
+                (PreparedStatement ps) -> {
+                    for (ChangeLog entry : batch) {
+                        ps.setString(1, entry.getEntityName());
+                        ps.setLong(2, entry.getEntityId());
+                        ps.setString(3, entry.getOperation().name());
+                        ps.setTimestamp(4, Timestamp.from(entry.getChangedDate()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    // The generated keys come back in the order of the batch, rewritten as one statement or not
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (ChangeLog entry : batch) {
+                            keys.next();
+                            entry.setId(keys.getLong(1));
+                        }
+                    }
+                    return null;
+                }
+            );
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.sevenup.cpm.repository;
 
 import com.sevenup.cpm.domain.Department;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,69 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {}
+public interface DepartmentRepository extends JpaRepository<Department, Long>, JpaSpecificationExecutor<Department> {
+    <T> List<T> findAllProjectedBy(Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    /**
+     * Resolve a department and all of its descendants in a single recursive query.
+     * {@code UNION} (rather than {@code UNION ALL}) stops the recursion on cyclic {@code id_parent} chains.
+     * As a native query, the ids come back as the numeric type of the driver rather than as {@link Long}.
+     *
+     * @param id the id of the root department.
+     * @return the ids of the department subtree, root included.
+     */
+    @Query(
+        value = "with recursive subtree (id) as (" +
+        "select d.id from department d where d.id = :id " +
+        "union " +
+        "select child.id from department child join subtree on child.id_parent = subtree.id" +
+        ") select id from subtree",
+        nativeQuery = true
+    )
+    List<Number> findSubtreeIds(@Param("id") Long id);
+
+    @Query("select department.id, department.idParent from Department department where department.id in :ids")
+    List<Object[]> findIdAndParentIdByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select department.id from Department department where department.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select department.version from Department department where department.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select department.idParent from Department department where department.id = :id")
+    Optional<Long> findIdParentById(@Param("id") Long id);
+
+    /**
+     * Get the departments of a subtree from the index over their pre-order number.
+     *
+     * @param lft the pre-order number of the subtree root.
+     * @param rgt the post-order number of the subtree root.
+     * @param type the projection.
+     * @return the departments of the subtree, root included.
+     */
+    <T> List<T> findByLftBetween(Integer lft, Integer rgt, Class<T> type);
+
+    @Query("select department.id, department.name from Department department")
+    List<Object[]> findAllIdAndName();
+
+    @Query("select department.id, department.lft, department.rgt from Department department where department.lft is not null")
+    List<Object[]> findAllIntervals();
+
+    /**
+     * Reads the whole department tree and locks it, so that the concurrent renumberings run one after the other.
+     *
+     * @return the id, parent id, pre-order and post-order numbers of each department.
+     */
+    @Query(value = "select id, id_parent, lft, rgt from department for update", nativeQuery = true)
+    List<Object[]> findAllTreeNodesForUpdate();
+
+    /**
+     * Set the interval of a department, without bumping its version as the department itself did not change.
+     */
+    @Modifying
+    @Query("update Department department set department.lft = :lft, department.rgt = :rgt where department.id = :id")
+    void updateInterval(@Param("id") Long id, @Param("lft") Integer lft, @Param("rgt") Integer rgt);
+}
@@ -1,7 +1,13 @@
 package com.sevenup.cpm.repository;
 
 import com.sevenup.cpm.domain.Group;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,48 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface GroupRepository extends JpaRepository<Group, Long> {}
+public interface GroupRepository extends JpaRepository<Group, Long>, JpaSpecificationExecutor<Group> {
+    <T> List<T> findAllProjectedBy(Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    <T> Page<T> findByDepartmentId(Long departmentId, Pageable pageable, Class<T> type);
+
+    <T> Page<T> findByDepartmentIdIn(Collection<Long> departmentIds, Pageable pageable, Class<T> type);
+
+    @Query("select jhiGroup.version from Group jhiGroup where jhiGroup.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select jhiGroup.id from Group jhiGroup where jhiGroup.departmentId in :departmentIds")
+    List<Long> findIdsByDepartmentIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+
+    @Query("select jhiGroup.id from Group jhiGroup where jhiGroup.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select jhiGroup.departmentId from Group jhiGroup where jhiGroup.id = :id")
+    Optional<Long> findDepartmentIdById(@Param("id") Long id);
+
+    @Query("select jhiGroup.id, jhiGroup.name, jhiGroup.departmentId from Group jhiGroup")
+    List<Object[]> findAllIdAndNameAndDepartmentId();
+
+    /**
+     * Get the groups of a department subtree, with a range predicate over the pre-order number of their department.
+     *
+     * @param lft the pre-order number of the subtree root.
+     * @param rgt the post-order number of the subtree root.
+     * @return the groups.
+     */
+    @Query(
+        "select jhiGroup from Group jhiGroup, Department department " +
+        "where department.id = jhiGroup.departmentId and department.lft between :lft and :rgt"
+    )
+    List<Group> findAllByDepartmentInterval(@Param("lft") Integer lft, @Param("rgt") Integer rgt);
+
+    @Query(
+        value = "select jhiGroup from Group jhiGroup, Department department " +
+        "where department.id = jhiGroup.departmentId and department.lft between :lft and :rgt",
+        countQuery = "select count(jhiGroup) from Group jhiGroup, Department department " +
+        "where department.id = jhiGroup.departmentId and department.lft between :lft and :rgt"
+    )
+    Page<Group> findAllByDepartmentInterval(@Param("lft") Integer lft, @Param("rgt") Integer rgt, Pageable pageable);
+}
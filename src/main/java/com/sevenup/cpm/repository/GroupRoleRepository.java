@@ -1,7 +1,14 @@
 package com.sevenup.cpm.repository;
 
 import com.sevenup.cpm.domain.GroupRole;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,133 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface GroupRoleRepository extends JpaRepository<GroupRole, Long> {}
+public interface GroupRoleRepository extends JpaRepository<GroupRole, Long>, JpaSpecificationExecutor<GroupRole> {
+    /**
+     * Get the memberships which have not expired.
+     *
+     * @param now the current instant.
+     * @param type the projection type.
+     * @return the memberships.
+     */
+    <T> List<T> findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(Instant now, Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    /**
+     * Reads a chunk of the memberships of groups, to delete them.
+     *
+     * @param groupIds the ids of the groups.
+     * @param pageable the chunk size; the offset is always expected to be zero, as each chunk is deleted before reading the next.
+     * @return the ids of the memberships.
+     */
+    @Query("select groupRole.id from GroupRole groupRole where groupRole.groupId in :groupIds")
+    List<Long> findIdsByGroupIdIn(@Param("groupIds") Collection<Long> groupIds, Pageable pageable);
+
+    /**
+     * Reads a chunk of the memberships of a role, to delete them.
+     *
+     * @param roleId the id of the role.
+     * @param pageable the chunk size; the offset is always expected to be zero, as each chunk is deleted before reading the next.
+     * @return the ids of the memberships.
+     */
+    @Query("select groupRole.id from GroupRole groupRole where groupRole.roleId = :roleId")
+    List<Long> findIdsByRoleId(@Param("roleId") Long roleId, Pageable pageable);
+
+    Optional<GroupRole> findOneByGroupIdAndRoleId(Long groupId, Long roleId);
+
+    /**
+     * Reads a membership with a shared lock, which sees it once committed even if this transaction read before.
+     *
+     * @param groupId the id of the group.
+     * @param roleId the id of the role.
+     * @return the membership.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    Optional<GroupRole> findLockedByGroupIdAndRoleId(Long groupId, Long roleId);
+
+    /**
+     * Inserts the membership unless it already exists, relying on the unique index over its group and role.
+     * {@code insert ignore} rather than {@code on duplicate key update} reports an existing membership as no row
+     * affected, whether or not the driver counts the rows found instead of the rows changed.
+     *
+     * @param groupId the id of the group.
+     * @param roleId the id of the role.
+     * @param auditor the login recorded as creator.
+     * @param now the creation date.
+     * @return 1 if the membership was inserted, 0 if it already existed.
+     */
+    @Modifying
+    @Query(
+        value = "insert ignore into group_role " +
+        "(group_id, role_id, created_by, created_date, last_modified_by, last_modified_date, version) " +
+        "values (:groupId, :roleId, :auditor, :now, :auditor, :now, 0)",
+        nativeQuery = true
+    )
+    int insertIfAbsent(
+        @Param("groupId") Long groupId,
+        @Param("roleId") Long roleId,
+        @Param("auditor") String auditor,
+        @Param("now") Instant now
+    );
+
+    @Query("select groupRole.version from GroupRole groupRole where groupRole.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(
+        "select jhiGroup.departmentId from GroupRole groupRole, Group jhiGroup where jhiGroup.id = groupRole.groupId and groupRole.id = :id"
+    )
+    Optional<Long> findDepartmentIdById(@Param("id") Long id);
+
+    /**
+     * Get the memberships of the groups of a department subtree, with a range predicate over the pre-order number of their department.
+     *
+     * @param lft the pre-order number of the subtree root.
+     * @param rgt the post-order number of the subtree root.
+     * @param now the current instant, the memberships expired by then are left out.
+     * @return the memberships.
+     */
+    @Query(
+        "select groupRole from GroupRole groupRole, Group jhiGroup, Department department " +
+        "where jhiGroup.id = groupRole.groupId and department.id = jhiGroup.departmentId and department.lft between :lft and :rgt " +
+        "and (groupRole.validUntil is null or groupRole.validUntil > :now)"
+    )
+    List<GroupRole> findAllByDepartmentInterval(@Param("lft") Integer lft, @Param("rgt") Integer rgt, @Param("now") Instant now);
+
+    /**
+     * Reads and locks a batch of the expired memberships, to delete them. The rows locked by the sweep of another
+     * instance are skipped rather than waited for.
+     *
+     * @param now the current instant.
+     * @param limit the batch size.
+     * @return the ids of the memberships, the earliest expired first.
+     */
+    @Query(
+        value = "select id from group_role where valid_until <= :now order by valid_until limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    List<Number> findExpiredIdsForUpdate(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Reads and locks the memberships which expired among some, to delete them. The rows locked by the sweep of
+     * another instance are skipped rather than waited for.
+     *
+     * @param ids the ids of the memberships.
+     * @param now the current instant.
+     * @return the ids of the expired memberships.
+     */
+    @Query(value = "select id from group_role where id in (:ids) and valid_until <= :now for update skip locked", nativeQuery = true)
+    List<Number> findExpiredIdsForUpdate(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Get the memberships which expire within a period, from the index over their expiry.
+     *
+     * @param from the start of the period, excluded.
+     * @param to the end of the period, included.
+     * @return the id and expiry of each membership.
+     */
+    @Query(
+        "select groupRole.id, groupRole.validUntil from GroupRole groupRole " +
+        "where groupRole.validUntil > :from and groupRole.validUntil <= :to"
+    )
+    List<Object[]> findIdAndValidUntilByValidUntilBetween(@Param("from") Instant from, @Param("to") Instant to);
+}
@@ -1,7 +1,14 @@
 package com.sevenup.cpm.repository;
 
 import com.sevenup.cpm.domain.GroupUser;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,169 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface GroupUserRepository extends JpaRepository<GroupUser, Long> {}
+public interface GroupUserRepository
+    extends GroupUserRepositoryWithBatchInserts, JpaRepository<GroupUser, Long>, JpaSpecificationExecutor<GroupUser> {
+    /**
+     * Get the memberships which have not expired.
+     *
+     * @param now the current instant.
+     * @param type the projection type.
+     * @return the memberships.
+     */
+    <T> List<T> findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(Instant now, Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    Optional<GroupUser> findOneByGroupIdAndUserId(Long groupId, Long userId);
+
+    /**
+     * Reads a membership with a shared lock, which sees it once committed even if this transaction read before.
+     *
+     * @param groupId the id of the group.
+     * @param userId the id of the user.
+     * @return the membership.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    Optional<GroupUser> findLockedByGroupIdAndUserId(Long groupId, Long userId);
+
+    List<GroupUser> findAllByGroupIdAndUserIdIn(Long groupId, Collection<Long> userIds);
+
+    /**
+     * Reads the members of a group from the index over the group and user, without touching the table rows.
+     *
+     * @param groupId the id of the group.
+     * @return the id and user id of each membership, in ascending order of user id.
+     */
+    @Query("select groupUser.id, groupUser.userId from GroupUser groupUser where groupUser.groupId = :groupId order by groupUser.userId")
+    List<Object[]> findIdAndUserIdByGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Reads a chunk of the memberships of groups, to delete them.
+     *
+     * @param groupIds the ids of the groups.
+     * @param pageable the chunk size; the offset is always expected to be zero, as each chunk is deleted before reading the next.
+     * @return the ids of the memberships.
+     */
+    @Query("select groupUser.id from GroupUser groupUser where groupUser.groupId in :groupIds")
+    List<Long> findIdsByGroupIdIn(@Param("groupIds") Collection<Long> groupIds, Pageable pageable);
+
+    @Query("select groupUser.id from GroupUser groupUser where groupUser.groupId = :groupId and groupUser.validUntil <= :now")
+    List<Long> findExpiredIdsByGroupId(@Param("groupId") Long groupId, @Param("now") Instant now);
+
+    /**
+     * Inserts the membership unless it already exists, relying on the unique index over its group and user.
+     * {@code insert ignore} rather than {@code on duplicate key update} reports an existing membership as no row
+     * affected, whether or not the driver counts the rows found instead of the rows changed.
+     *
+     * @param groupId the id of the group.
+     * @param userId the id of the user.
+     * @param auditor the login recorded as creator.
+     * @param now the creation date.
+     * @return 1 if the membership was inserted, 0 if it already existed.
+     */
+    @Modifying
+    @Query(
+        value = "insert ignore into group_user " +
+        "(group_id, user_id, created_by, created_date, last_modified_by, last_modified_date, version) " +
+        "values (:groupId, :userId, :auditor, :now, :auditor, :now, 0)",
+        nativeQuery = true
+    )
+    int insertIfAbsent(
+        @Param("groupId") Long groupId,
+        @Param("userId") Long userId,
+        @Param("auditor") String auditor,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Keyset-paginated lookup of the distinct users holding any of some roles through one of their groups, with both
+     * memberships within their validity period.
+     * <p>
+     * Driven by the memberships in user order from the index on their user and group, with the roles of each group
+     * probed by their own index: a chunk only reads the memberships of the users up to the last one it returns.
+     *
+     * @param roleIds the ids of the roles.
+     * @param afterUserId only user ids strictly greater than this one are returned.
+     * @param now the current instant.
+     * @param pageable the chunk size; the offset is always expected to be zero.
+     * @return the next chunk of user ids, in ascending order.
+     */
+    @Query(
+        "select distinct groupUser.userId from GroupUser groupUser " +
+        "where groupUser.userId > :afterUserId " +
+        "and (groupUser.validFrom is null or groupUser.validFrom <= :now) " +
+        "and (groupUser.validUntil is null or groupUser.validUntil > :now) " +
+        "and exists (select groupRole.id from GroupRole groupRole " +
+        "where groupRole.groupId = groupUser.groupId and groupRole.roleId in :roleIds " +
+        "and (groupRole.validFrom is null or groupRole.validFrom <= :now) " +
+        "and (groupRole.validUntil is null or groupRole.validUntil > :now)) " +
+        "order by groupUser.userId"
+    )
+    List<Long> findUserIdsByRoleIdIn(
+        @Param("roleIds") Collection<Long> roleIds,
+        @Param("afterUserId") Long afterUserId,
+        @Param("now") Instant now,
+        Pageable pageable
+    );
+
+    @Query("select groupUser.version from GroupUser groupUser where groupUser.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(
+        "select jhiGroup.departmentId from GroupUser groupUser, Group jhiGroup where jhiGroup.id = groupUser.groupId and groupUser.id = :id"
+    )
+    Optional<Long> findDepartmentIdById(@Param("id") Long id);
+
+    /**
+     * Get the memberships of the groups of a department subtree, with a range predicate over the pre-order number of their department.
+     *
+     * @param lft the pre-order number of the subtree root.
+     * @param rgt the post-order number of the subtree root.
+     * @param now the current instant, the memberships expired by then are left out.
+     * @return the memberships.
+     */
+    @Query(
+        "select groupUser from GroupUser groupUser, Group jhiGroup, Department department " +
+        "where jhiGroup.id = groupUser.groupId and department.id = jhiGroup.departmentId and department.lft between :lft and :rgt " +
+        "and (groupUser.validUntil is null or groupUser.validUntil > :now)"
+    )
+    List<GroupUser> findAllByDepartmentInterval(@Param("lft") Integer lft, @Param("rgt") Integer rgt, @Param("now") Instant now);
+
+    /**
+     * Reads and locks a batch of the expired memberships, to delete them. The rows locked by the sweep of another
+     * instance are skipped rather than waited for.
+     *
+     * @param now the current instant.
+     * @param limit the batch size.
+     * @return the ids of the memberships, the earliest expired first.
+     */
+    @Query(
+        value = "select id from group_user where valid_until <= :now order by valid_until limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    List<Number> findExpiredIdsForUpdate(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Reads and locks the memberships which expired among some, to delete them. The rows locked by the sweep of
+     * another instance are skipped rather than waited for.
+     *
+     * @param ids the ids of the memberships.
+     * @param now the current instant.
+     * @return the ids of the expired memberships.
+     */
+    @Query(value = "select id from group_user where id in (:ids) and valid_until <= :now for update skip locked", nativeQuery = true)
+    List<Number> findExpiredIdsForUpdate(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Get the memberships which expire within a period, from the index over their expiry.
+     *
+     * @param from the start of the period, excluded.
+     * @param to the end of the period, included.
+     * @return the id and expiry of each membership.
+     */
+    @Query(
+        "select groupUser.id, groupUser.validUntil from GroupUser groupUser " +
+        "where groupUser.validUntil > :from and groupUser.validUntil <= :to"
+    )
+    List<Object[]> findIdAndValidUntilByValidUntilBetween(@Param("from") Instant from, @Param("to") Instant to);
+}
@@ -0,0 +1,18 @@
+package com.sevenup.cpm.repository;
+
+import java.time.Instant;
+
+/**
+ * Inserts of many memberships of a group at once, as JDBC batches rather than one statement per entity.
+ */
+public interface GroupUserRepositoryWithBatchInserts {
+    /**
+     * Inserts the memberships missing among the given ones, in batches.
+     *
+     * @param groupId the id of the group.
+     * @param userIds the ids of the users to add to the group.
+     * @param auditor the login recorded as creator.
+     * @param now the creation date.
+     */
+    void insertAllIfAbsent(Long groupId, long[] userIds, String auditor, Instant now);
+}
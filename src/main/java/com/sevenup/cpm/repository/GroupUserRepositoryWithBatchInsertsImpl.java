@@ -0,0 +1,41 @@
+package com.sevenup.cpm.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class GroupUserRepositoryWithBatchInsertsImpl implements GroupUserRepositoryWithBatchInserts {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+        "insert into group_user (group_id, user_id, created_by, created_date, last_modified_by, last_modified_date, version) " +
+        "values (?, ?, ?, ?, ?, ?, 0) " +
+        "on duplicate key update group_id = group_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GroupUserRepositoryWithBatchInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAllIfAbsent(Long groupId, long[] userIds, String auditor, Instant now) {
+        Timestamp timestamp = Timestamp.from(now);
+        jdbcTemplate.batchUpdate(
+            INSERT_SQL,
+            Arrays.stream(userIds).boxed().collect(Collectors.toList()),
+            BATCH_SIZE,
+            (ps, userId) -> {
+                ps.setLong(1, groupId);
+                ps.setLong(2, userId);
+                ps.setString(3, auditor);
+                ps.setTimestamp(4, timestamp);
+                ps.setString(5, auditor);
+                ps.setTimestamp(6, timestamp);
+            }
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.Job;
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the Job entity.
+ * <p>
+ * Every state change is a conditional update, which tells through its count of updated rows whether it applied.
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+    @Query("select job.id from Job job where job.type = :type and job.status = :status order by job.id")
+    List<Long> findIdsByTypeAndStatus(@Param("type") String type, @Param("status") JobStatus status, Pageable pageable);
+
+    @Query("select job.cancelRequested from Job job where job.id = :id")
+    Optional<Boolean> findCancelRequestedById(@Param("id") Long id);
+
+    /**
+     * Takes a queued job for an instance to run it; only one of the instances competing for a job gets it.
+     *
+     * @return {@code 1} if the job was taken, {@code 0} if it was not queued anymore.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update Job job set job.status = :running, job.owner = :owner, job.heartbeatDate = :now, " +
+        "job.startedDate = coalesce(job.startedDate, :now) where job.id = :id and job.status = :queued"
+    )
+    int claim(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("now") Instant now,
+        @Param("queued") JobStatus queued,
+        @Param("running") JobStatus running
+    );
+
+    /**
+     * Saves the progress of a job, unless its instance lost it or its cancellation was requested in the meantime.
+     *
+     * @return {@code 1} if the progress was saved, {@code 0} if the job should stop.
+     */
+    @Modifying
+    @Query(
+        "update Job job set job.progress = :progress, job.total = :total, job.checkpoint = :checkpoint, job.heartbeatDate = :now " +
+        "where job.id = :id and job.owner = :owner and job.cancelRequested = false"
+    )
+    int saveProgress(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("progress") long progress,
+        @Param("total") Long total,
+        @Param("checkpoint") String checkpoint,
+        @Param("now") Instant now
+    );
+
+    @Modifying
+    @Query("update Job job set job.heartbeatDate = :now where job.owner = :owner and job.status = :running")
+    int heartbeat(@Param("owner") String owner, @Param("now") Instant now, @Param("running") JobStatus running);
+
+    /**
+     * Ends a job run by an instance, unless the instance lost it in the meantime.
+     *
+     * @return {@code 1} if the job was ended, {@code 0} if the instance was not running it anymore.
+     */
+    @Modifying
+    @Query(
+        "update Job job set job.status = :status, job.error = :error, job.endedDate = :now " +
+        "where job.id = :id and job.owner = :owner and job.status = :running"
+    )
+    int finish(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("status") JobStatus status,
+        @Param("error") String error,
+        @Param("now") Instant now,
+        @Param("running") JobStatus running
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Job job set job.status = :cancelled, job.endedDate = :now where job.id = :id and job.status = :queued")
+    int cancelQueued(
+        @Param("id") Long id,
+        @Param("now") Instant now,
+        @Param("queued") JobStatus queued,
+        @Param("cancelled") JobStatus cancelled
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Job job set job.cancelRequested = true where job.id = :id and job.status = :running")
+    int requestCancel(@Param("id") Long id, @Param("running") JobStatus running);
+
+    /**
+     * Puts back in the queue the running jobs whose instance stopped sending heartbeats, to be resumed from their checkpoint.
+     *
+     * @return the count of jobs put back in the queue.
+     */
+    @Modifying
+    @Query(
+        "update Job job set job.status = :queued, job.owner = null " +
+        "where job.status = :running and job.heartbeatDate < :staleBefore"
+    )
+    int requeueStale(@Param("staleBefore") Instant staleBefore, @Param("queued") JobStatus queued, @Param("running") JobStatus running);
+
+    @Modifying
+    @Query("update Job job set job.status = :queued, job.owner = null where job.owner = :owner and job.status = :running")
+    int requeueOwned(@Param("owner") String owner, @Param("queued") JobStatus queued, @Param("running") JobStatus running);
+}
@@ -0,0 +1,50 @@
+package com.sevenup.cpm.repository;
+
+import com.sevenup.cpm.domain.RoleInheritance;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the RoleInheritance entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface RoleInheritanceRepository extends JpaRepository<RoleInheritance, Long> {
+    <T> List<T> findByRoleIdOrderByInheritedRoleId(Long roleId, Class<T> type);
+
+    Optional<RoleInheritance> findOneByRoleIdAndInheritedRoleId(Long roleId, Long inheritedRoleId);
+
+    /**
+     * Get the whole inheritance relation, to compute its transitive closure.
+     *
+     * @return the role id and inherited role id of each inheritance.
+     */
+    @Query("select roleInheritance.roleId, roleInheritance.inheritedRoleId from RoleInheritance roleInheritance")
+    List<Object[]> findAllEdges();
+
+    /**
+     * Get the whole inheritance relation with a locking read, which sees the latest committed inheritances whatever the
+     * snapshot of the transaction.
+     *
+     * @return the role id and inherited role id of each inheritance.
+     */
+    @Query(value = "select role_id, inherited_role_id from role_inheritance for update", nativeQuery = true)
+    List<Object[]> findAllEdgesForUpdate();
+
+    /**
+     * Reads a chunk of the inheritances from or to a role, to delete them.
+     *
+     * @param roleId the id of the role.
+     * @param pageable the chunk size; the offset is always expected to be zero, as each chunk is deleted before reading the next.
+     * @return the ids of the inheritances.
+     */
+    @Query(
+        "select roleInheritance.id from RoleInheritance roleInheritance " +
+        "where roleInheritance.roleId = :roleId or roleInheritance.inheritedRoleId = :roleId"
+    )
+    List<Long> findIdsByRoleIdOrInheritedRoleId(@Param("roleId") Long roleId, Pageable pageable);
+}
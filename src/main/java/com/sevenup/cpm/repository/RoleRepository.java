@@ -1,7 +1,11 @@
 package com.sevenup.cpm.repository;
 
 import com.sevenup.cpm.domain.Role;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,17 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface RoleRepository extends JpaRepository<Role, Long> {}
+public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
+    <T> List<T> findAllProjectedBy(Class<T> type);
+
+    <T> Optional<T> findProjectedById(Long id, Class<T> type);
+
+    @Query("select role.version from Role role where role.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select role.id from Role role where role.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select role.id, role.name from Role role")
+    List<Object[]> findAllIdAndName();
+}
@@ -0,0 +1,231 @@
+package com.sevenup.cpm.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * An immutable set of authorities, as a bitset.
+ * <p>
+ * The authorities checked by the application get a bit for the rest of its life: the ones of
+ * {@link AuthoritiesConstants}, and the ones of the masks built with {@link #of(String...)}, up to
+ * {@value #MAX_INDEXES}. Checking whether an authentication holds some of them then takes a few bitwise operations on
+ * precomputed masks, instead of streaming and comparing its authority names. The other authorities of an
+ * authentication, which no check names, are kept by name, so that the authorities coming with the tokens never grow
+ * the registry nor the masks. The bits are only meaningful within this application instance, and are never sent or
+ * stored.
+ */
+public final class AuthorityBits {
+
+    /**
+     * Maximum number of authorities getting a bit.
+     */
+    static final int MAX_INDEXES = 256;
+
+    private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<>();
+
+    private static final AtomicReferenceArray<String> NAMES = new AtomicReferenceArray<>(MAX_INDEXES);
+
+    public static final AuthorityBits EMPTY = new AuthorityBits(new long[0], Collections.emptySet());
+
+    static {
+        of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER, AuthoritiesConstants.ANONYMOUS);
+    }
+
+    private final long[] words;
+
+    /**
+     * The authorities which had no bit when this set was built.
+     */
+    private final Set<String> unindexed;
+
+    private AuthorityBits(long[] words, Set<String> unindexed) {
+        this.words = words;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Get the authorities of an authentication, as cached by an {@link AuthorityBitsAuthenticationToken}.
+     *
+     * @param authentication the authentication, may be {@code null}.
+     * @return the authorities of the authentication, empty if there is none.
+     */
+    public static AuthorityBits of(Authentication authentication) {
+        if (authentication == null) {
+            return EMPTY;
+        }
+        if (authentication instanceof AuthorityBitsAuthenticationToken) {
+            return ((AuthorityBitsAuthenticationToken) authentication).getAuthorityBits();
+        }
+        return of(authentication.getAuthorities());
+    }
+
+    public static AuthorityBits of(Collection<? extends GrantedAuthority> authorities) {
+        return build(authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()), false);
+    }
+
+    /**
+     * Get a mask to check authentications against, best computed once and kept in a constant.
+     *
+     * @param authorities the authority names.
+     * @return the authorities.
+     */
+    public static AuthorityBits of(String... authorities) {
+        return build(Arrays.asList(authorities), true);
+    }
+
+    private static AuthorityBits build(Collection<String> authorities, boolean register) {
+        long[] words = new long[0];
+        Set<String> unindexed = Collections.emptySet();
+        for (String authority : authorities) {
+            if (authority == null) {
+                continue;
+            }
+            Integer index = register ? register(authority) : INDEXES.get(authority);
+            if (index == null) {
+                if (unindexed.isEmpty()) {
+                    unindexed = new HashSet<>();
+                }
+                unindexed.add(authority);
+                continue;
+            }
+            int word = index >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, word + 1);
+            }
+            words[word] |= 1L << index;
+        }
+        return new AuthorityBits(words, unindexed);
+    }
+
+    /**
+     * @param authority the authority name.
+     * @return the bit of the authority, {@code null} if the registry is full.
+     */
+    private static Integer register(String authority) {
+        Integer index = INDEXES.get(authority);
+        if (index != null) {
+            return index;
+        }
+        synchronized (INDEXES) {
+            index = INDEXES.get(authority);
+            if (index == null && INDEXES.size() < MAX_INDEXES) {
+                index = INDEXES.size();
+                // The name goes first, for a reader finding the bit to find its name
+                NAMES.set(index, authority);
+                INDEXES.put(authority, index);
+            }
+            return index;
+        }
+    }
+
+    static int getIndexCount() {
+        return INDEXES.size();
+    }
+
+    /**
+     * @param authority the authority name.
+     * @return whether the authority is in this set.
+     */
+    public boolean contains(String authority) {
+        Integer index = INDEXES.get(authority);
+        if (index != null) {
+            int word = index >>> 6;
+            if (word < words.length && (words[word] & (1L << index)) != 0) {
+                return true;
+            }
+        }
+        // Also the authority which got its bit after this set was built
+        return unindexed.contains(authority);
+    }
+
+    /**
+     * @param mask the authorities to look for.
+     * @return whether at least one of the authorities of the mask is in this set.
+     */
+    public boolean containsAny(AuthorityBits mask) {
+        int length = Math.min(words.length, mask.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & mask.words[i]) != 0) {
+                return true;
+            }
+        }
+        for (String authority : mask.unindexed) {
+            if (contains(authority)) {
+                return true;
+            }
+        }
+        for (String authority : unindexed) {
+            if (mask.contains(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param mask the authorities to look for.
+     * @return whether all the authorities of the mask are in this set.
+     */
+    public boolean containsAll(AuthorityBits mask) {
+        for (int i = 0; i < mask.words.length; i++) {
+            long missing = mask.words[i] & ~(i < words.length ? words[i] : 0);
+            // A missing bit may be an authority kept by name, which got its bit after this set was built
+            for (; missing != 0; missing &= missing - 1) {
+                if (!unindexed.contains(NAMES.get((i << 6) + Long.numberOfTrailingZeros(missing)))) {
+                    return false;
+                }
+            }
+        }
+        for (String authority : mask.unindexed) {
+            if (!contains(authority)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return unindexed.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuthorityBits)) {
+            return false;
+        }
+        AuthorityBits other = (AuthorityBits) o;
+        return containsAll(other) && other.containsAll(this);
+    }
+
+    @Override
+    public int hashCode() {
+        // Hashes the names, as an authority may be a bit in a set and a name in an equal one
+        int hashCode = 0;
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                hashCode += NAMES.get((i << 6) + Long.numberOfTrailingZeros(word)).hashCode();
+            }
+        }
+        for (String authority : unindexed) {
+            hashCode += authority.hashCode();
+        }
+        return hashCode;
+    }
+}
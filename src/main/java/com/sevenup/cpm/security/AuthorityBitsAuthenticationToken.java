@@ -0,0 +1,33 @@
+package com.sevenup.cpm.security;
+
+import java.util.Collection;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * An authenticated {@link UsernamePasswordAuthenticationToken} which keeps its authorities as {@link AuthorityBits},
+ * computed once for all the authorization checks of the request.
+ */
+public class AuthorityBitsAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The bits are only meaningful within this application instance, they are computed again after deserialization.
+     */
+    private transient volatile AuthorityBits authorityBits;
+
+    public AuthorityBitsAuthenticationToken(Object principal, Object credentials, Collection<? extends GrantedAuthority> authorities) {
+        super(principal, credentials, authorities);
+        this.authorityBits = AuthorityBits.of(getAuthorities());
+    }
+
+    public AuthorityBits getAuthorityBits() {
+        AuthorityBits bits = authorityBits;
+        if (bits == null) {
+            bits = AuthorityBits.of(getAuthorities());
+            authorityBits = bits;
+        }
+        return bits;
+    }
+}
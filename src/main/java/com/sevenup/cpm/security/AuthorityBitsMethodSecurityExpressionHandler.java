@@ -0,0 +1,33 @@
+package com.sevenup.cpm.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Evaluates the method security expressions against an {@link AuthorityBitsMethodSecurityExpressionRoot}.
+ * <p>
+ * The expressions are parsed once per method by Spring Security; they are also compiled to bytecode once they have
+ * run a few times, falling back to interpretation for the ones which cannot be.
+ */
+public class AuthorityBitsMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    public AuthorityBitsMethodSecurityExpressionHandler() {
+        setExpressionParser(new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader())));
+    }
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication, MethodInvocation invocation) {
+        AuthorityBitsMethodSecurityExpressionRoot root = new AuthorityBitsMethodSecurityExpressionRoot(
+            authentication,
+            getTrustResolver(),
+            getPermissionEvaluator()
+        );
+        root.setThis(invocation.getThis());
+        return root;
+    }
+}
@@ -0,0 +1,172 @@
+package com.sevenup.cpm.security;
+
+import java.io.Serializable;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.core.Authentication;
+
+/**
+ * The root object of the {@code @PreAuthorize} and {@code @PostAuthorize} expressions, which checks the authorities
+ * against the {@link AuthorityBits} of the authentication.
+ * <p>
+ * It offers the same operations as the root object of Spring Security, whose authority checks cannot be overridden.
+ */
+public class AuthorityBitsMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    public final boolean permitAll = true;
+
+    public final boolean denyAll = false;
+
+    public final String read = "read";
+
+    public final String write = "write";
+
+    public final String create = "create";
+
+    public final String delete = "delete";
+
+    public final String admin = "administration";
+
+    private final Authentication authentication;
+
+    private final AuthorityBits authorities;
+
+    private final AuthenticationTrustResolver trustResolver;
+
+    private final PermissionEvaluator permissionEvaluator;
+
+    private Object filterObject;
+
+    private Object returnObject;
+
+    private Object target;
+
+    public AuthorityBitsMethodSecurityExpressionRoot(
+        Authentication authentication,
+        AuthenticationTrustResolver trustResolver,
+        PermissionEvaluator permissionEvaluator
+    ) {
+        if (authentication == null) {
+            throw new IllegalArgumentException("Authentication object cannot be null");
+        }
+        this.authentication = authentication;
+        this.authorities = AuthorityBits.of(authentication);
+        this.trustResolver = trustResolver;
+        this.permissionEvaluator = permissionEvaluator;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    public Object getPrincipal() {
+        return authentication.getPrincipal();
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return authorities.contains(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        for (String authority : authorities) {
+            if (this.authorities.contains(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return authorities.contains(withRolePrefix(role));
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (authorities.contains(withRolePrefix(role))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withRolePrefix(String role) {
+        return role == null || role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return trustResolver.isAnonymous(authentication);
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return !isAnonymous();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return trustResolver.isRememberMe(authentication);
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return !trustResolver.isAnonymous(authentication) && !trustResolver.isRememberMe(authentication);
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return permissionEvaluator.hasPermission(authentication, target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return permissionEvaluator.hasPermission(authentication, (Serializable) targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+}
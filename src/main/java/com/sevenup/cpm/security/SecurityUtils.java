@@ -1,10 +1,7 @@
 package com.sevenup.cpm.security;
 
-import java.util.Arrays;
 import java.util.Optional;
-import java.util.stream.Stream;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +11,8 @@ import org.springframework.security.core.userdetails.UserDetails;
  */
 public final class SecurityUtils {
 
+    private static final AuthorityBits ANONYMOUS = AuthorityBits.of(AuthoritiesConstants.ANONYMOUS);
+
     private SecurityUtils() {}
 
     /**
@@ -58,7 +57,7 @@ public final class SecurityUtils {
      */
     public static boolean isAuthenticated() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null && getAuthorities(authentication).noneMatch(AuthoritiesConstants.ANONYMOUS::equals);
+        return authentication != null && !AuthorityBits.of(authentication).containsAny(ANONYMOUS);
     }
 
     /**
@@ -68,10 +67,17 @@ public final class SecurityUtils {
      * @return true if the current user has any of the authorities, false otherwise.
      */
     public static boolean hasCurrentUserAnyOfAuthorities(String... authorities) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return (
-            authentication != null && getAuthorities(authentication).anyMatch(authority -> Arrays.asList(authorities).contains(authority))
-        );
+        return hasCurrentUserAnyOfAuthorities(AuthorityBits.of(authorities));
+    }
+
+    /**
+     * Checks if the current user has any of the authorities of a mask.
+     *
+     * @param authorities the authorities to check, best kept in a constant.
+     * @return true if the current user has any of the authorities, false otherwise.
+     */
+    public static boolean hasCurrentUserAnyOfAuthorities(AuthorityBits authorities) {
+        return AuthorityBits.of(SecurityContextHolder.getContext().getAuthentication()).containsAny(authorities);
     }
 
     /**
@@ -91,10 +97,6 @@ public final class SecurityUtils {
      * @return true if the current user has the authority, false otherwise.
      */
     public static boolean hasCurrentUserThisAuthority(String authority) {
-        return hasCurrentUserAnyOfAuthorities(authority);
-    }
-
-    private static Stream<String> getAuthorities(Authentication authentication) {
-        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority);
+        return AuthorityBits.of(SecurityContextHolder.getContext().getAuthentication()).contains(authority);
     }
 }
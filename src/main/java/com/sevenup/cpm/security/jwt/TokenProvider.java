@@ -1,6 +1,7 @@
 package com.sevenup.cpm.security.jwt;
 
 import com.sevenup.cpm.management.SecurityMetersService;
+import com.sevenup.cpm.security.AuthorityBitsAuthenticationToken;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,7 +12,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -93,7 +93,7 @@ public class TokenProvider {
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return new AuthorityBitsAuthenticationToken(principal, token, authorities);
     }
 
     public boolean validateToken(String authToken) {
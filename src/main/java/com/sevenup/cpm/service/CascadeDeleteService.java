@@ -0,0 +1,232 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service deleting groups, roles and departments together with the rows depending on them.
+ * <p>
+ * The dependents are deleted by chunks, each in its own transaction, so that no lock is held for the whole cascade.
+ * The deleted entity itself goes last: a cascade interrupted halfway can simply be run again. Only the rows still
+ * there are deleted, read by one query per chunk, so that only actual deletions are recorded.
+ */
+@Service
+public class CascadeDeleteService {
+
+    private final Logger log = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final GroupRepository groupRepository;
+
+    private final RoleRepository roleRepository;
+
+    private final GroupUserRepository groupUserRepository;
+
+    private final GroupRoleRepository groupRoleRepository;
+
+    private final RoleInheritanceRepository roleInheritanceRepository;
+
+    private final ChangeLogService changeLogService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CascadeDeleteService(
+        DepartmentRepository departmentRepository,
+        GroupRepository groupRepository,
+        RoleRepository roleRepository,
+        GroupUserRepository groupUserRepository,
+        GroupRoleRepository groupRoleRepository,
+        RoleInheritanceRepository roleInheritanceRepository,
+        ChangeLogService changeLogService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.departmentRepository = departmentRepository;
+        this.groupRepository = groupRepository;
+        this.roleRepository = roleRepository;
+        this.groupUserRepository = groupUserRepository;
+        this.groupRoleRepository = groupRoleRepository;
+        this.roleInheritanceRepository = roleInheritanceRepository;
+        this.changeLogService = changeLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Delete a group with its user and role memberships.
+     *
+     * @param id the id of the group.
+     * @param progress notified of the count of rows deleted by each chunk.
+     * @return the count of deleted rows.
+     */
+    public long deleteGroup(Long id, LongConsumer progress) {
+        log.debug("Request to delete Group with its dependents : {}", id);
+        return deleteGroups(List.of(id), progress);
+    }
+
+    /**
+     * Delete a role with its group memberships and its inheritances.
+     *
+     * @param id the id of the role.
+     * @param progress notified of the count of rows deleted by each chunk.
+     * @return the count of deleted rows.
+     */
+    public long deleteRole(Long id, LongConsumer progress) {
+        log.debug("Request to delete Role with its dependents : {}", id);
+        long deleted = deleteInChunks(
+            "groupRole",
+            groupRoleRepository,
+            pageable -> groupRoleRepository.findIdsByRoleId(id, pageable),
+            progress
+        );
+        deleted +=
+            deleteInChunks(
+                "roleInheritance",
+                roleInheritanceRepository,
+                pageable -> roleInheritanceRepository.findIdsByRoleIdOrInheritedRoleId(id, pageable),
+                progress
+            );
+        return deleted + deleteInChunks("role", roleRepository, pageable -> roleRepository.findIdsByIdIn(List.of(id)), progress);
+    }
+
+    /**
+     * Delete a department with its whole subtree, the groups of the subtree and their memberships.
+     *
+     * @param id the id of the root department.
+     * @param progress notified of the count of rows deleted by each chunk.
+     * @return the count of deleted rows.
+     */
+    public long deleteDepartment(Long id, LongConsumer progress) {
+        log.debug("Request to delete Department with its dependents : {}", id);
+        List<Long> departmentIds = departmentRepository.findSubtreeIds(id).stream().map(Number::longValue).collect(Collectors.toList());
+        long deleted = 0;
+        for (List<Long> departmentChunk : chunks(departmentIds)) {
+            deleted += deleteGroups(groupRepository.findIdsByDepartmentIdIn(departmentChunk), progress);
+        }
+        // Descendants go before their ancestors, for an interrupted cascade to still reach all of them when run again
+        for (List<Long> departmentChunk : chunks(bottomUp(id, departmentIds))) {
+            deleted +=
+                deleteInChunks(
+                    "department",
+                    departmentRepository,
+                    pageable -> departmentRepository.findIdsByIdIn(departmentChunk),
+                    progress
+                );
+        }
+        return deleted;
+    }
+
+    /**
+     * Order the departments of a subtree from the leaves up to the root.
+     */
+    private List<Long> bottomUp(Long rootId, List<Long> departmentIds) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (List<Long> departmentChunk : chunks(departmentIds)) {
+            for (Object[] row : departmentRepository.findIdAndParentIdByIdIn(departmentChunk)) {
+                children.computeIfAbsent((Long) row[1], parentId -> new ArrayList<>()).add((Long) row[0]);
+            }
+        }
+        List<Long> topDown = new ArrayList<>(departmentIds.size());
+        Set<Long> visited = new HashSet<>();
+        topDown.add(rootId);
+        visited.add(rootId);
+        for (int i = 0; i < topDown.size(); i++) {
+            for (Long childId : children.getOrDefault(topDown.get(i), List.of())) {
+                if (visited.add(childId)) {
+                    topDown.add(childId);
+                }
+            }
+        }
+        Collections.reverse(topDown);
+        return topDown;
+    }
+
+    private long deleteGroups(Collection<Long> groupIds, LongConsumer progress) {
+        long deleted = 0;
+        for (List<Long> groupChunk : chunks(new ArrayList<>(groupIds))) {
+            deleted +=
+                deleteInChunks(
+                    "groupUser",
+                    groupUserRepository,
+                    pageable -> groupUserRepository.findIdsByGroupIdIn(groupChunk, pageable),
+                    progress
+                );
+            deleted +=
+                deleteInChunks(
+                    "groupRole",
+                    groupRoleRepository,
+                    pageable -> groupRoleRepository.findIdsByGroupIdIn(groupChunk, pageable),
+                    progress
+                );
+            deleted += deleteInChunks("group", groupRepository, pageable -> groupRepository.findIdsByIdIn(groupChunk), progress);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete rows chunk by chunk, each chunk in its own transaction, until no row is left.
+     *
+     * @param entityName the name of the entity recorded in the change log.
+     * @param repository the repository of the entity.
+     * @param nextChunk reads the ids of the next chunk of rows to delete.
+     * @param progress notified of the count of rows deleted by each chunk.
+     * @return the count of deleted rows.
+     */
+    private long deleteInChunks(
+        String entityName,
+        JpaRepository<?, Long> repository,
+        Function<Pageable, List<Long>> nextChunk,
+        LongConsumer progress
+    ) {
+        long deleted = 0;
+        int chunkSize;
+        do {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = nextChunk.apply(PageRequest.of(0, CHUNK_SIZE));
+                if (!chunk.isEmpty()) {
+                    repository.deleteAllByIdInBatch(chunk);
+                    changeLogService.recordDeletions(entityName, chunk);
+                }
+                return chunk;
+            });
+            chunkSize = ids == null ? 0 : ids.size();
+            deleted += chunkSize;
+            if (chunkSize > 0) {
+                progress.accept(chunkSize);
+            }
+        } while (chunkSize == CHUNK_SIZE);
+        return deleted;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
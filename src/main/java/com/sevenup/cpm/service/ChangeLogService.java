@@ -0,0 +1,390 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.AbstractAuditingEntity;
+import com.sevenup.cpm.domain.ChangeLog;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.ChangeCounterRepository;
+import com.sevenup.cpm.repository.ChangeLogRepository;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.dto.ChangeSetDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service recording every write to the entity tables, and serving them back as a change feed.
+ * <p>
+ * The change log entries of a transaction are inserted right before it commits, under the lock of the
+ * {@value #SEQUENCE} counter held until the commit: their ids are allocated in commit order, so that a consumer past
+ * an id has seen every change committed before it, however long the transactions run. The change counters of the
+ * written entities are bumped then too, in the order of their names, rather than locked from the first write on in
+ * whatever order the writes come.
+ * <p>
+ * Each recorded change is also published as a {@link ChangeDTO} application event, for the listeners
+ * which act once the write is committed.
+ */
+@Service
+@Transactional
+public class ChangeLogService {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeLogService.class);
+
+    /**
+     * The name of the counter locked while the change log entries are inserted.
+     */
+    static final String SEQUENCE = "changeLog";
+
+    private final ChangeLogRepository changeLogRepository;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<String, JpaRepository<? extends AbstractAuditingEntity<Long>, Long>> entityRepositories = new HashMap<>();
+
+    public ChangeLogService(
+        ChangeLogRepository changeLogRepository,
+        ChangeCounterRepository changeCounterRepository,
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher applicationEventPublisher,
+        DepartmentRepository departmentRepository,
+        GroupRepository groupRepository,
+        RoleRepository roleRepository,
+        GroupUserRepository groupUserRepository,
+        GroupRoleRepository groupRoleRepository,
+        RoleInheritanceRepository roleInheritanceRepository
+    ) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeCounterRepository = changeCounterRepository;
+        this.applicationProperties = applicationProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        entityRepositories.put("department", departmentRepository);
+        entityRepositories.put("group", groupRepository);
+        entityRepositories.put("role", roleRepository);
+        entityRepositories.put("groupUser", groupUserRepository);
+        entityRepositories.put("groupRole", groupRoleRepository);
+        entityRepositories.put("roleInheritance", roleInheritanceRepository);
+    }
+
+    /**
+     * Record a write, as part of the transaction performing it.
+     *
+     * @param entityName the name of the written entity.
+     * @param entityId the id of the written entity.
+     * @param operation the kind of write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String entityName, Long entityId, ChangeOperation operation) {
+        record(entityName, operation, Collections.singletonList(entityId), Collections.singletonList(null));
+    }
+
+    /**
+     * Record the creation or update of an entity, as part of the transaction performing it.
+     *
+     * @param entityName the name of the written entity.
+     * @param entity the written entity.
+     * @param operation the kind of write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String entityName, AbstractAuditingEntity<Long> entity, ChangeOperation operation) {
+        record(entityName, operation, Collections.singletonList(entity.getId()), Collections.singletonList(entity));
+    }
+
+    /**
+     * Record the deletion of several entities, as part of the transaction performing it.
+     *
+     * @param entityName the name of the deleted entities.
+     * @param entityIds the ids of the deleted entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(String entityName, List<Long> entityIds) {
+        record(entityName, ChangeOperation.DELETE, entityIds, Collections.nCopies(entityIds.size(), null));
+    }
+
+    /**
+     * Record the creation or update of several entities, as part of the transaction performing it.
+     *
+     * @param entityName the name of the written entities.
+     * @param entities the written entities.
+     * @param operation the kind of write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String entityName, List<? extends AbstractAuditingEntity<Long>> entities, ChangeOperation operation) {
+        record(entityName, operation, entities.stream().map(AbstractAuditingEntity::getId).collect(Collectors.toList()), entities);
+    }
+
+    private void record(String entityName, ChangeOperation operation, List<Long> entityIds, List<?> entities) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        log.debug("Request to record {} of {} : {}", operation, entityName, entityIds);
+        Instant now = Instant.now();
+        List<ChangeLog> entries = entityIds
+            .stream()
+            .map(entityId -> new ChangeLog().entityName(entityName).entityId(entityId).operation(operation).changedDate(now))
+            .collect(Collectors.toList());
+        List<ChangeDTO> changes = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ChangeLog entry = entries.get(i);
+            ChangeDTO change = new ChangeDTO();
+            change.setEntityName(entityName);
+            change.setEntityId(entry.getEntityId());
+            change.setOperation(operation);
+            change.setChangedDate(entry.getChangedDate());
+            change.setEntity(entities.get(i));
+            changes.add(change);
+        }
+        // The watermarks are set once the entries are inserted, before the listeners get the changes after the commit
+        pendingChanges().add(entityName, entries, changes);
+        changes.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    /**
+     * @return the changes recorded by the current transaction and not inserted yet, registered to be inserted before
+     * it commits.
+     */
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Without synchronization the entries cannot wait for the commit, they are inserted right away
+            PendingChanges pending = new PendingChanges();
+            pending.insert();
+            return pending;
+        }
+        PendingChanges pending = findPendingChanges();
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Insert the change log entries recorded so far by the current transaction, if any, so that it reads them back.
+     * The {@value #SEQUENCE} counter stays locked until the commit, the entries recorded later are inserted right away.
+     */
+    private void insertPendingChanges() {
+        PendingChanges pending = TransactionSynchronizationManager.isSynchronizationActive() ? findPendingChanges() : null;
+        if (pending != null) {
+            pending.insert();
+        }
+    }
+
+    private static PendingChanges findPendingChanges() {
+        // The synchronizations, unlike the bound resources, are suspended along with an enclosing transaction
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges) {
+                return (PendingChanges) synchronization;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the change counter of an entity table, bumped by every recorded write.
+     *
+     * @param entityName the name of the entity.
+     * @return the current value of the counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter(String entityName) {
+        return changeCounterRepository.findCounterByEntityName(entityName).orElse(0L);
+    }
+
+    /**
+     * Lock the change counter of an entity table until the end of the current transaction, so that the writes of the
+     * entity which check the whole table run one at a time, across instances.
+     *
+     * @param entityName the name of the entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(String entityName) {
+        changeCounterRepository.findCounterByEntityNameForUpdate(entityName);
+    }
+
+    /**
+     * Get the changes recorded after a watermark.
+     * <p>
+     * Several changes of the same entity are collapsed into the latest one, which carries the entity current state.
+     *
+     * @param since the watermark returned by the previous call, {@code 0} for a first call.
+     * @param size the maximum number of change log entries to read.
+     * @return the changes, and the watermark to resume from.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSetDTO findChangesSince(long since, int size) {
+        return findChangesSince(since, null, size);
+    }
+
+    /**
+     * Get the changes of some entities recorded after a watermark.
+     *
+     * @param since the watermark returned by the previous call, {@code 0} for a first call.
+     * @param entityNames the names of the entities, {@code null} for all of them.
+     * @param size the maximum number of change log entries to read.
+     * @return the changes, and the watermark to resume from.
+     * @see #findChangesSince(long, int)
+     */
+    @Transactional(readOnly = true)
+    public ChangeSetDTO findChangesSince(long since, Collection<String> entityNames, int size) {
+        log.debug("Request to get the changes of {} since : {}", entityNames, since);
+        insertPendingChanges();
+        int pageSize = Math.max(1, Math.min(size, applicationProperties.getChangeLog().getMaxPageSize()));
+        Instant settled = Instant.now().minus(applicationProperties.getChangeLog().getSettleTime());
+        List<ChangeLog> entries = entityNames == null
+            ? changeLogRepository.findByIdGreaterThanAndChangedDateLessThanEqualOrderByIdAsc(since, settled, PageRequest.of(0, pageSize))
+            : changeLogRepository.findByIdGreaterThanAndEntityNameInAndChangedDateLessThanEqualOrderByIdAsc(
+                since,
+                entityNames,
+                settled,
+                PageRequest.of(0, pageSize)
+            );
+
+        Map<String, ChangeDTO> latestChanges = new LinkedHashMap<>();
+        for (ChangeLog entry : entries) {
+            String key = entry.getEntityName() + ':' + entry.getEntityId();
+            ChangeDTO previous = latestChanges.remove(key);
+            ChangeDTO change = new ChangeDTO();
+            change.setWatermark(entry.getId());
+            change.setEntityName(entry.getEntityName());
+            change.setEntityId(entry.getEntityId());
+            change.setChangedDate(entry.getChangedDate());
+            // An entity created then updated within the page is still new to the consumer
+            boolean created = previous != null && previous.getOperation() == ChangeOperation.CREATE;
+            change.setOperation(created && entry.getOperation() == ChangeOperation.UPDATE ? ChangeOperation.CREATE : entry.getOperation());
+            latestChanges.put(key, change);
+        }
+        loadEntities(latestChanges.values());
+
+        ChangeSetDTO changeSet = new ChangeSetDTO();
+        changeSet.setChanges(new ArrayList<>(latestChanges.values()));
+        changeSet.setWatermark(entries.isEmpty() ? since : entries.get(entries.size() - 1).getId());
+        changeSet.setHasMore(entries.size() == pageSize);
+        return changeSet;
+    }
+
+    /**
+     * Get the watermark of the change feed as of now: the changes after it are the ones still to be read from the
+     * feed, the earlier ones are settled and visible to a read starting now.
+     *
+     * @return the watermark.
+     */
+    @Transactional(readOnly = true)
+    public long getSettledWatermark() {
+        insertPendingChanges();
+        Instant settled = Instant.now().minus(applicationProperties.getChangeLog().getSettleTime());
+        return changeLogRepository.findFirstByChangedDateLessThanEqualOrderByIdDesc(settled).map(ChangeLog::getId).orElse(0L);
+    }
+
+    /**
+     * Attach their current state to the changes which are not deletions, with one query per entity table.
+     */
+    private void loadEntities(Iterable<ChangeDTO> changes) {
+        Map<String, List<ChangeDTO>> changesByEntityName = new HashMap<>();
+        for (ChangeDTO change : changes) {
+            if (change.getOperation() != ChangeOperation.DELETE) {
+                changesByEntityName.computeIfAbsent(change.getEntityName(), entityName -> new ArrayList<>()).add(change);
+            }
+        }
+        changesByEntityName.forEach((entityName, entityChanges) -> {
+            JpaRepository<? extends AbstractAuditingEntity<Long>, Long> repository = entityRepositories.get(entityName);
+            if (repository == null) {
+                return;
+            }
+            Set<Long> ids = entityChanges.stream().map(ChangeDTO::getEntityId).collect(Collectors.toSet());
+            Map<Long, AbstractAuditingEntity<Long>> entities = repository
+                .findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(AbstractAuditingEntity::getId, Function.identity()));
+            // An entity missing here was deleted since, its deletion comes later in the feed
+            entityChanges.forEach(change -> change.setEntity(entities.get(change.getEntityId())));
+        });
+    }
+
+    /**
+     * The change log entries of a transaction, inserted right before it commits.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<ChangeLog> entries = new ArrayList<>();
+
+        private final List<ChangeDTO> changes = new ArrayList<>();
+
+        /**
+         * The names of the entities whose change counters are still to be bumped, once per transaction being enough to
+         * invalidate the entity tags of the lists, sorted for all the transactions to lock the counters in one order.
+         */
+        private final Set<String> entityNames = new TreeSet<>();
+
+        private boolean sequenced;
+
+        void add(String entityName, List<ChangeLog> newEntries, List<ChangeDTO> newChanges) {
+            entityNames.add(entityName);
+            entries.addAll(newEntries);
+            changes.addAll(newChanges);
+            if (sequenced) {
+                insert();
+            }
+        }
+
+        void insert() {
+            if (!sequenced) {
+                // The other writes of the transaction go first, so that no row lock is waited for while holding the counter
+                changeLogRepository.flush();
+                // So do the entity counters: a transaction which locked one of them on purpose waits for the sequence too
+                incrementCounters();
+                changeCounterRepository.findCounterByEntityNameForUpdate(SEQUENCE);
+                sequenced = true;
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+            incrementCounters();
+            changeLogRepository.insertAll(entries);
+            for (int i = 0; i < entries.size(); i++) {
+                changes.get(i).setWatermark(entries.get(i).getId());
+            }
+            entries.clear();
+            changes.clear();
+        }
+
+        private void incrementCounters() {
+            entityNames.forEach(changeCounterRepository::increment);
+            entityNames.clear();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!entries.isEmpty()) {
+                insert();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.io.IOException;
+
+/**
+ * A subscriber of the {@link ChangeStreamService}.
+ * <p>
+ * Calls for one listener are never concurrent, except {@link #onClose(CloseReason)} on shutdown.
+ */
+public interface ChangeStreamListener {
+    /**
+     * Why the service ended a subscription.
+     */
+    enum CloseReason {
+        /**
+         * The listener fell further behind than the ring buffer capacity, or one of its calls blocked for longer than the
+         * send timeout.
+         */
+        SLOW_CONSUMER,
+        /**
+         * The resumption point is too old to be replayed, the subscriber has to resynchronize from the change feed.
+         */
+        RESYNC_REQUIRED,
+        SHUTDOWN,
+    }
+
+    void onChange(ChangeDTO change) throws IOException;
+
+    void onHeartbeat() throws IOException;
+
+    void onClose(CloseReason reason);
+}
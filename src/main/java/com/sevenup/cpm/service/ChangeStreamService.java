@@ -0,0 +1,372 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.service.ChangeStreamListener.CloseReason;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.dto.ChangeSetDTO;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service pushing the committed changes to the stream subscribers.
+ * <p>
+ * Changes are appended once to a ring buffer shared by all the subscribers; each subscriber only owns a cursor
+ * into it, and is drained by a dispatcher pool. A subscriber whose cursor has been overrun is disconnected, so a
+ * slow consumer never holds back the others nor makes the buffer grow.
+ * <p>
+ * The writes to a client which stopped reading block: the dispatcher pool starts more threads rather than letting a
+ * blocked write delay the other subscribers, and a subscriber whose write takes longer than the send timeout is
+ * disconnected as a slow consumer. The heartbeats are sent by each subscriber's own drain, so they never wait on
+ * another subscriber's write either.
+ */
+@Service
+public class ChangeStreamService {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    /**
+     * A live subscription, cancelled by the subscriber when it goes away.
+     */
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final ChangeLogService changeLogService;
+
+    private final int replayPageSize;
+
+    private final AtomicReferenceArray<Entry> slots;
+
+    private final int mask;
+
+    /**
+     * Sequence of the next published change.
+     */
+    private volatile long head;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor dispatcher;
+
+    /**
+     * Schedules the heartbeats and the send deadlines, never writing to a subscriber itself.
+     */
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final long sendTimeoutNanos;
+
+    public ChangeStreamService(ChangeLogService changeLogService, ApplicationProperties applicationProperties) {
+        this.changeLogService = changeLogService;
+        this.replayPageSize = applicationProperties.getChangeLog().getMaxPageSize();
+        ApplicationProperties.ChangeStream properties = applicationProperties.getChangeStream();
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize()) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher =
+            new ThreadPoolExecutor(
+                properties.getDispatcherThreads(),
+                Integer.MAX_VALUE,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreads(() -> "cpm-change-stream-" + threadCount.incrementAndGet())
+            );
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads(() -> "cpm-change-stream-timer"));
+        this.sendTimeoutNanos = properties.getSendTimeout().toNanos();
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        timer.scheduleWithFixedDelay(this::requestHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long deadlineCheckMillis = Math.max(1, properties.getSendTimeout().toMillis() / 4);
+        timer.scheduleWithFixedDelay(this::checkSendDeadlines, deadlineCheckMillis, deadlineCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(Supplier<String> names) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, names.get());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Publish a change to the subscribers, once the transaction which recorded it has committed.
+     *
+     * @param change the committed change.
+     */
+    @TransactionalEventListener
+    public void onChangeCommitted(ChangeDTO change) {
+        publish(change);
+    }
+
+    void publish(ChangeDTO change) {
+        synchronized (this) {
+            long sequence = head;
+            slots.set(index(sequence), new Entry(sequence, change));
+            head = sequence + 1;
+        }
+        subscribers.forEach(Subscriber::signal);
+    }
+
+    /**
+     * Subscribe to the changes of some entities.
+     *
+     * @param entityNames the names of the entities whose changes are pushed.
+     * @param lastEventId the watermark of the last change received before a reconnection, {@code null} to only get new changes.
+     * @param listener the listener receiving the changes.
+     * @return the subscription.
+     * @throws IOException if the listener failed while the missed changes were replayed.
+     */
+    public Subscription subscribe(Set<String> entityNames, Long lastEventId, ChangeStreamListener listener) throws IOException {
+        log.debug("Request to subscribe to the changes of {}, after : {}", entityNames, lastEventId);
+        Subscriber subscriber = new Subscriber(entityNames, listener);
+        subscriber.cursor = head;
+        if (lastEventId != null) {
+            long floor = lastEventId;
+            if (!covers(lastEventId)) {
+                // The ring buffer does not reach back to the last change received: replay the change log first
+                ChangeSetDTO missed = changeLogService.findChangesSince(lastEventId, replayPageSize);
+                if (missed.isHasMore()) {
+                    listener.onClose(CloseReason.RESYNC_REQUIRED);
+                    return subscriber;
+                }
+                for (ChangeDTO change : missed.getChanges()) {
+                    if (subscriber.accepts(change)) {
+                        listener.onChange(change);
+                    }
+                }
+                floor = missed.getWatermark();
+            }
+            subscriber.floor = floor;
+            subscriber.cursor = firstSequenceAfter(floor);
+        }
+        subscribers.add(subscriber);
+        subscriber.signal();
+        return subscriber;
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Whether the buffer reaches back to a watermark, proving no change after it was overwritten.
+     *
+     * @param watermark the watermark.
+     * @return whether the buffer holds a change at or before the watermark.
+     */
+    private boolean covers(long watermark) {
+        long end = head;
+        for (long sequence = Math.max(0, end - slots.length()); sequence < end; sequence++) {
+            Entry entry = slots.get(index(sequence));
+            // An entry overwritten while scanning no longer holds the sequence
+            if (entry != null && entry.sequence == sequence && entry.change.getWatermark() <= watermark) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the sequence of the first buffered change after a watermark.
+     * <p>
+     * The buffer is in the order the commits were notified, which may differ from the order of the watermarks: the
+     * changes after the one found may still hold lower watermarks, which the subscriber skips.
+     *
+     * @param watermark the watermark.
+     * @return the sequence, the current head if no buffered change is after the watermark.
+     */
+    private long firstSequenceAfter(long watermark) {
+        long end = head;
+        for (long sequence = Math.max(0, end - slots.length()); sequence < end; sequence++) {
+            Entry entry = slots.get(index(sequence));
+            if (entry != null && entry.sequence == sequence && entry.change.getWatermark() > watermark) {
+                return sequence;
+            }
+        }
+        return end;
+    }
+
+    private void requestHeartbeats() {
+        subscribers.forEach(Subscriber::requestHeartbeat);
+    }
+
+    private void checkSendDeadlines() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.checkSendDeadline(now));
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.close(CloseReason.SHUTDOWN));
+        timer.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private static final class Entry {
+
+        private final long sequence;
+
+        private final ChangeDTO change;
+
+        private Entry(long sequence, ChangeDTO change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+    }
+
+    private final class Subscriber implements Subscription {
+
+        private final Set<String> entityNames;
+
+        private final ChangeStreamListener listener;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private volatile boolean heartbeatDue;
+
+        /**
+         * Whether the dispatcher is in a call to the listener, started at {@link #sendStartedAt}.
+         */
+        private volatile boolean sending;
+
+        private volatile long sendStartedAt;
+
+        /**
+         * Set when the send deadline passed: the listener is only told once its blocked call returns, as calls for one
+         * listener are not concurrent.
+         */
+        private volatile boolean sendTimedOut;
+
+        /**
+         * Sequence of the next change to send, only accessed by the thread holding {@link #draining}.
+         */
+        private long cursor;
+
+        /**
+         * The watermark up to which the changes were already received before a reconnection, and are not sent again,
+         * only accessed by the thread holding {@link #draining}.
+         */
+        private long floor = -1;
+
+        private Subscriber(Set<String> entityNames, ChangeStreamListener listener) {
+            this.entityNames = entityNames;
+            this.listener = listener;
+        }
+
+        private boolean accepts(ChangeDTO change) {
+            return entityNames.contains(change.getEntityName());
+        }
+
+        private void signal() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    if (cursor < head) {
+                        Entry entry = slots.get(index(cursor));
+                        if (entry == null || entry.sequence != cursor) {
+                            log.info("Disconnecting a change stream subscriber which fell behind by more than {} changes", slots.length());
+                            close(CloseReason.SLOW_CONSUMER);
+                            return;
+                        }
+                        cursor++;
+                        if (accepts(entry.change) && entry.change.getWatermark() > floor) {
+                            // A change keeps the connection alive as well as a heartbeat
+                            heartbeatDue = false;
+                            send(entry.change);
+                        }
+                    } else if (heartbeatDue) {
+                        heartbeatDue = false;
+                        send(null);
+                    } else {
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Change stream subscriber gone : {}", e.getMessage());
+                cancel();
+            } finally {
+                draining.set(false);
+            }
+            if (sendTimedOut) {
+                listener.onClose(CloseReason.SLOW_CONSUMER);
+                return;
+            }
+            // A change published while the flag was still set would otherwise wait for the next one
+            if (!closed && (cursor < head || heartbeatDue)) {
+                signal();
+            }
+        }
+
+        private void send(ChangeDTO change) throws IOException {
+            sendStartedAt = System.nanoTime();
+            sending = true;
+            try {
+                if (change == null) {
+                    listener.onHeartbeat();
+                } else {
+                    listener.onChange(change);
+                }
+            } finally {
+                sending = false;
+            }
+        }
+
+        private void requestHeartbeat() {
+            heartbeatDue = true;
+            signal();
+        }
+
+        private void checkSendDeadline(long now) {
+            if (sending && now - sendStartedAt > sendTimeoutNanos && !closed) {
+                log.info("Disconnecting a change stream subscriber which did not take a change for {} ms", sendTimeoutNanos / 1_000_000);
+                sendTimedOut = true;
+                // Nothing more is dispatched to it; its blocked write only holds its own thread until the write fails
+                cancel();
+            }
+        }
+
+        private void close(CloseReason reason) {
+            if (!closed) {
+                cancel();
+                listener.onClose(reason);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sevenup.cpm.service;
+
+/**
+ * Thrown when an inheritance would make a role inherit itself, directly or through other roles.
+ */
+public class CyclicRoleInheritanceException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CyclicRoleInheritanceException(Long roleId, Long inheritedRoleId) {
+        super("Role " + inheritedRoleId + " already inherits Role " + roleId);
+    }
+}
@@ -0,0 +1,221 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service maintaining the interval encoding of the department tree: the {@code lft} and {@code rgt} of a department
+ * are its pre-order and post-order numbers, so that a department is in the subtree of another when its {@code lft}
+ * is between their {@code lft} and {@code rgt}.
+ * <p>
+ * The tree is renumbered on every department write, and the intervals are cached by each instance for the
+ * authorization checks: the cache is dropped when a department write commits, and compared with the department
+ * change counter at most once per {@code application.department-scoping.max-staleness} for the writes of the other
+ * instances.
+ */
+@Service
+public class DepartmentIntervalService {
+
+    private final Logger log = LoggerFactory.getLogger(DepartmentIntervalService.class);
+
+    private static final String ENTITY_NAME = "department";
+
+    private final DepartmentRepository departmentRepository;
+
+    private final ChangeLogService changeLogService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile Snapshot snapshot;
+
+    public DepartmentIntervalService(
+        DepartmentRepository departmentRepository,
+        ChangeLogService changeLogService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.departmentRepository = departmentRepository;
+        this.changeLogService = changeLogService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Renumber the tree, as part of the transaction writing a department. The tree is locked until the transaction
+     * ends, and only the departments whose interval changed are updated.
+     *
+     * @return the count of departments updated.
+     */
+    @Transactional
+    public int renumber() {
+        List<Object[]> nodes = departmentRepository.findAllTreeNodesForUpdate();
+        Map<Long, Long> parents = new HashMap<>();
+        for (Object[] node : nodes) {
+            parents.put(toLong(node[0]), toLong(node[1]));
+        }
+        Map<Long, int[]> intervals = number(parents);
+        int updated = 0;
+        for (Object[] node : nodes) {
+            Long id = toLong(node[0]);
+            int[] interval = intervals.get(id);
+            Integer lft = interval != null ? interval[0] : null;
+            Integer rgt = interval != null ? interval[1] : null;
+            if (!Objects.equals(lft, toInteger(node[2])) || !Objects.equals(rgt, toInteger(node[3]))) {
+                departmentRepository.updateInterval(id, lft, rgt);
+                updated++;
+            }
+        }
+        log.debug("Renumbered {} of {} Departments", updated, nodes.size());
+        return updated;
+    }
+
+    /**
+     * Drop the cached intervals once a department write is committed.
+     *
+     * @param change the committed change.
+     */
+    @TransactionalEventListener
+    public void onChangeCommitted(ChangeDTO change) {
+        if (ENTITY_NAME.equals(change.getEntityName())) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * @param departmentId the id of the subtree root.
+     * @return the scope of the subtree, empty if the department is not in the tree.
+     */
+    public DepartmentScope getScope(Long departmentId) {
+        Snapshot current = currentSnapshot();
+        int[] interval = current.intervals.get(departmentId);
+        if (interval == null) {
+            return DepartmentScope.NONE;
+        }
+        return new DepartmentScope(departmentId, interval[0], interval[1], current.changeCounter);
+    }
+
+    /**
+     * @param departmentId the id of the department.
+     * @return the pre-order number of the department, {@code null} if it is not in the tree.
+     */
+    public Integer getLft(Long departmentId) {
+        int[] interval = currentSnapshot().intervals.get(departmentId);
+        return interval != null ? interval[0] : null;
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isStale(applicationProperties.getDepartmentScoping().getMaxStaleness().toNanos())) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && !current.isStale(applicationProperties.getDepartmentScoping().getMaxStaleness().toNanos())) {
+                return current;
+            }
+            // Read ahead of the intervals, so that a write committed in between only causes another reload
+            long changeCounter = changeLogService.getChangeCounter(ENTITY_NAME);
+            if (current != null && current.changeCounter == changeCounter) {
+                current = new Snapshot(current.intervals, changeCounter);
+            } else {
+                current = new Snapshot(loadIntervals(), changeCounter);
+            }
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private Map<Long, int[]> loadIntervals() {
+        List<Object[]> rows = departmentRepository.findAllIntervals();
+        Map<Long, int[]> intervals = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (Object[] row : rows) {
+            intervals.put(toLong(row[0]), new int[] { toInteger(row[1]), toInteger(row[2]) });
+        }
+        return intervals;
+    }
+
+    /**
+     * Number the departments in depth-first order, the siblings in ascending order of id so that adding a department
+     * only shifts the departments after it. The departments whose parent does not exist are roots; the ones on a cycle
+     * of parents, or under one, are not reachable and get no interval.
+     *
+     * @param parents the parent id of each department id.
+     * @return the pre-order and post-order numbers of each reachable department.
+     */
+    static Map<Long, int[]> number(Map<Long, Long> parents) {
+        List<Long> roots = new ArrayList<>();
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : parents.entrySet()) {
+            Long parent = entry.getValue();
+            if (parent == null || !parents.containsKey(parent)) {
+                roots.add(entry.getKey());
+            } else {
+                children.computeIfAbsent(parent, id -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        Collections.sort(roots);
+        children.values().forEach(Collections::sort);
+
+        Map<Long, int[]> intervals = new HashMap<>(parents.size() * 4 / 3 + 1);
+        Deque<Long> path = new ArrayDeque<>();
+        Deque<Iterator<Long>> pendingChildren = new ArrayDeque<>();
+        int counter = 0;
+        for (Long root : roots) {
+            intervals.put(root, new int[] { ++counter, 0 });
+            path.push(root);
+            pendingChildren.push(children.getOrDefault(root, Collections.emptyList()).iterator());
+            while (!pendingChildren.isEmpty()) {
+                Iterator<Long> next = pendingChildren.peek();
+                if (next.hasNext()) {
+                    Long child = next.next();
+                    intervals.put(child, new int[] { ++counter, 0 });
+                    path.push(child);
+                    pendingChildren.push(children.getOrDefault(child, Collections.emptyList()).iterator());
+                } else {
+                    pendingChildren.pop();
+                    intervals.get(path.pop())[1] = ++counter;
+                }
+            }
+        }
+        return intervals;
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static Integer toInteger(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<Long, int[]> intervals;
+
+        private final long changeCounter;
+
+        private final long checkedAt = System.nanoTime();
+
+        private Snapshot(Map<Long, int[]> intervals, long changeCounter) {
+            this.intervals = intervals;
+            this.changeCounter = changeCounter;
+        }
+
+        private boolean isStale(long maxStalenessNanos) {
+            return System.nanoTime() - checkedAt > maxStalenessNanos;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.domain.Department_;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.service.criteria.DepartmentCriteria;
+import com.sevenup.cpm.service.dto.DepartmentDTO;
+import com.sevenup.cpm.service.mapper.DepartmentMapper;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Department} entities in the database.
+ * The main input is a {@link DepartmentCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link DepartmentDTO} which fulfills the criteria.
+ * Only the departments of the scope are matched.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DepartmentQueryService extends QueryService<Department> {
+
+    private final Logger log = LoggerFactory.getLogger(DepartmentQueryService.class);
+
+    private final DepartmentRepository departmentRepository;
+
+    private final DepartmentMapper departmentMapper;
+
+    public DepartmentQueryService(DepartmentRepository departmentRepository, DepartmentMapper departmentMapper) {
+        this.departmentRepository = departmentRepository;
+        this.departmentMapper = departmentMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link DepartmentDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentDTO> findByCriteria(DepartmentCriteria criteria, DepartmentScope scope) {
+        log.debug("find by criteria : {}, {}", criteria, scope);
+        final Specification<Department> specification = createSpecification(criteria, scope);
+        return departmentMapper.toDto(departmentRepository.findAll(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database, counted without loading them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(DepartmentCriteria criteria, DepartmentScope scope) {
+        log.debug("count by criteria : {}, {}", criteria, scope);
+        final Specification<Department> specification = createSpecification(criteria, scope);
+        return departmentRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link DepartmentCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Department> createSpecification(DepartmentCriteria criteria, DepartmentScope scope) {
+        Specification<Department> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Department_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Department_.name));
+            }
+            if (criteria.getIdParent() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getIdParent(), Department_.idParent));
+            }
+        }
+        if (!scope.isUnrestricted()) {
+            specification = specification.and(ScopeSpecifications.departmentInScope(scope));
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sevenup.cpm.service;
+
+/**
+ * The departments a caller may read and write: every department, none, or the subtree of one department.
+ * <p>
+ * The subtree is kept as the pre-order and post-order numbers of its root, so that checking whether a department is
+ * in it takes two integer comparisons, and listing its entities takes a range predicate.
+ */
+public final class DepartmentScope {
+
+    public static final DepartmentScope UNRESTRICTED = new DepartmentScope(null, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+
+    /**
+     * An empty interval, which contains no department.
+     */
+    public static final DepartmentScope NONE = new DepartmentScope(null, 1, 0, 0);
+
+    private final Long departmentId;
+
+    private final int lft;
+
+    private final int rgt;
+
+    private final long treeVersion;
+
+    DepartmentScope(Long departmentId, int lft, int rgt, long treeVersion) {
+        this.departmentId = departmentId;
+        this.lft = lft;
+        this.rgt = rgt;
+        this.treeVersion = treeVersion;
+    }
+
+    public boolean isUnrestricted() {
+        return this == UNRESTRICTED;
+    }
+
+    /**
+     * @param departmentLft the pre-order number of a department, {@code null} if it is not in the tree.
+     * @return whether the department is in this scope.
+     */
+    public boolean contains(Integer departmentLft) {
+        if (this == UNRESTRICTED) {
+            return true;
+        }
+        return departmentLft != null && lft <= departmentLft && departmentLft <= rgt;
+    }
+
+    /**
+     * @return the id of the subtree root, {@code null} for the unrestricted and empty scopes.
+     */
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public int getLft() {
+        return lft;
+    }
+
+    public int getRgt() {
+        return rgt;
+    }
+
+    /**
+     * @return the change counter of the departments when the interval was read, which tells the clients apart from
+     * the lists they read under an older tree.
+     */
+    public long getTreeVersion() {
+        return treeVersion;
+    }
+
+    @Override
+    public String toString() {
+        if (this == UNRESTRICTED) {
+            return "DepartmentScope{unrestricted}";
+        }
+        return "DepartmentScope{" + "departmentId=" + departmentId + ", lft=" + lft + ", rgt=" + rgt + "}";
+    }
+}
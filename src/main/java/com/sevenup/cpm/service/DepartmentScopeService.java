@@ -0,0 +1,181 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.security.AuthoritiesConstants;
+import com.sevenup.cpm.security.SecurityUtils;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service restricting the callers to the subtree of their department, when {@code application.department-scoping} is
+ * enabled.
+ * <p>
+ * The scope of the caller and the position of the checked department both come from the intervals cached by the
+ * {@link DepartmentIntervalService}: checking a department takes no query, checking a group or a membership takes
+ * the lookup of its department.
+ */
+@Service
+public class DepartmentScopeService {
+
+    private final Logger log = LoggerFactory.getLogger(DepartmentScopeService.class);
+
+    private final ApplicationProperties.DepartmentScoping departmentScoping;
+
+    private final DepartmentIntervalService departmentIntervalService;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final GroupRepository groupRepository;
+
+    private final GroupUserRepository groupUserRepository;
+
+    private final GroupRoleRepository groupRoleRepository;
+
+    public DepartmentScopeService(
+        ApplicationProperties applicationProperties,
+        DepartmentIntervalService departmentIntervalService,
+        DepartmentRepository departmentRepository,
+        GroupRepository groupRepository,
+        GroupUserRepository groupUserRepository,
+        GroupRoleRepository groupRoleRepository
+    ) {
+        this.departmentScoping = applicationProperties.getDepartmentScoping();
+        this.departmentIntervalService = departmentIntervalService;
+        this.departmentRepository = departmentRepository;
+        this.groupRepository = groupRepository;
+        this.groupUserRepository = groupUserRepository;
+        this.groupRoleRepository = groupRoleRepository;
+    }
+
+    /**
+     * Number the departments written before the intervals were introduced, or while the scoping was disabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void numberDepartments() {
+        if (departmentScoping.isEnabled()) {
+            log.debug("Renumbered {} Departments on startup", departmentIntervalService.renumber());
+        }
+    }
+
+    /**
+     * Get the departments the current user may read and write: the subtree of their department if they have one,
+     * every department if they are an administrator, none otherwise.
+     *
+     * @return the scope of the current user.
+     */
+    public DepartmentScope getCurrentScope() {
+        if (!departmentScoping.isEnabled()) {
+            return DepartmentScope.UNRESTRICTED;
+        }
+        Optional<Long> departmentId = SecurityUtils.getCurrentUserLogin().map(departmentScoping.getUsers()::get);
+        if (departmentId.isPresent()) {
+            return departmentIntervalService.getScope(departmentId.get());
+        }
+        return SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN) ? DepartmentScope.UNRESTRICTED : DepartmentScope.NONE;
+    }
+
+    /**
+     * @param departmentId the id of the department, {@code null} for none.
+     * @throws AccessDeniedException if the department is not in the scope of the current user.
+     */
+    public void checkDepartment(Long departmentId) {
+        DepartmentScope scope = getCurrentScope();
+        if (!scope.isUnrestricted()) {
+            check(scope, departmentId);
+        }
+    }
+
+    /**
+     * Check the update of a department: the department must be in the scope of the current user, and so must its new
+     * parent when it moves, which keeps the users from moving their own department out of their scope.
+     *
+     * @param id the id of the department.
+     * @param idParent the new parent of the department, {@code null} for a root.
+     * @param partial whether a {@code null} parent leaves the parent unchanged.
+     * @throws AccessDeniedException if the department or its new parent is not in the scope of the current user.
+     */
+    public void checkDepartmentUpdate(Long id, Long idParent, boolean partial) {
+        DepartmentScope scope = getCurrentScope();
+        if (scope.isUnrestricted()) {
+            return;
+        }
+        check(scope, id);
+        if (!(partial && idParent == null) && !Objects.equals(idParent, departmentRepository.findIdParentById(id).orElse(null))) {
+            check(scope, idParent);
+        }
+    }
+
+    /**
+     * @param groupId the id of the group, {@code null} for none.
+     * @throws AccessDeniedException if the department of the group is not in the scope of the current user.
+     */
+    public void checkGroup(Long groupId) {
+        DepartmentScope scope = getCurrentScope();
+        if (!scope.isUnrestricted()) {
+            check(scope, groupId != null ? groupRepository.findDepartmentIdById(groupId).orElse(null) : null);
+        }
+    }
+
+    /**
+     * Check the update of a group: the department of the group must be in the scope of the current user, and so must
+     * its new department when it moves.
+     *
+     * @param id the id of the group.
+     * @param departmentId the new department of the group.
+     * @param partial whether a {@code null} department leaves the department unchanged.
+     * @throws AccessDeniedException if the current or new department is not in the scope of the current user.
+     */
+    public void checkGroupUpdate(Long id, Long departmentId, boolean partial) {
+        DepartmentScope scope = getCurrentScope();
+        if (scope.isUnrestricted()) {
+            return;
+        }
+        Long currentDepartmentId = groupRepository.findDepartmentIdById(id).orElse(null);
+        check(scope, currentDepartmentId);
+        if (!(partial && departmentId == null) && !Objects.equals(departmentId, currentDepartmentId)) {
+            check(scope, departmentId);
+        }
+    }
+
+    /**
+     * @param id the id of the user membership.
+     * @throws AccessDeniedException if the department of the group of the membership is not in the scope of the current user.
+     */
+    public void checkGroupUser(Long id) {
+        DepartmentScope scope = getCurrentScope();
+        if (!scope.isUnrestricted()) {
+            check(scope, groupUserRepository.findDepartmentIdById(id).orElse(null));
+        }
+    }
+
+    /**
+     * @param id the id of the role membership.
+     * @throws AccessDeniedException if the department of the group of the membership is not in the scope of the current user.
+     */
+    public void checkGroupRole(Long id) {
+        DepartmentScope scope = getCurrentScope();
+        if (!scope.isUnrestricted()) {
+            check(scope, groupRoleRepository.findDepartmentIdById(id).orElse(null));
+        }
+    }
+
+    /**
+     * The entities which do not exist are out of every restricted scope, so that they cannot be told apart from the
+     * ones of the other departments.
+     */
+    private void check(DepartmentScope scope, Long departmentId) {
+        if (departmentId == null || !scope.contains(departmentIntervalService.getLft(departmentId))) {
+            throw new AccessDeniedException("Department " + departmentId + " is out of the scope of the current user");
+        }
+    }
+}
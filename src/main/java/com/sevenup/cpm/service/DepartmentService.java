@@ -0,0 +1,176 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.service.dto.DepartmentDTO;
+import com.sevenup.cpm.service.mapper.DepartmentMapper;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Department}.
+ */
+@Service
+@Transactional
+public class DepartmentService {
+
+    private final Logger log = LoggerFactory.getLogger(DepartmentService.class);
+
+    private static final String ENTITY_NAME = "department";
+
+    private final DepartmentRepository departmentRepository;
+
+    private final DepartmentMapper departmentMapper;
+
+    private final ChangeLogService changeLogService;
+
+    private final DepartmentIntervalService departmentIntervalService;
+
+    public DepartmentService(
+        DepartmentRepository departmentRepository,
+        DepartmentMapper departmentMapper,
+        ChangeLogService changeLogService,
+        DepartmentIntervalService departmentIntervalService
+    ) {
+        this.departmentRepository = departmentRepository;
+        this.departmentMapper = departmentMapper;
+        this.changeLogService = changeLogService;
+        this.departmentIntervalService = departmentIntervalService;
+    }
+
+    /**
+     * Save a department.
+     *
+     * @param departmentDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public DepartmentDTO save(DepartmentDTO departmentDTO) {
+        log.debug("Request to save Department : {}", departmentDTO);
+        Department department = departmentRepository.save(departmentMapper.toEntity(departmentDTO));
+        departmentIntervalService.renumber();
+        changeLogService.record(ENTITY_NAME, department, ChangeOperation.CREATE);
+        return departmentMapper.toDto(department);
+    }
+
+    /**
+     * Update a department.
+     *
+     * @param departmentDTO the entity to save, without version to overwrite whatever version is current.
+     * @return the persisted entity, or empty if the department does not exist.
+     */
+    public Optional<DepartmentDTO> update(DepartmentDTO departmentDTO) {
+        log.debug("Request to update Department : {}", departmentDTO);
+        Optional<Long> currentVersion = departmentRepository.findVersionById(departmentDTO.getId());
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        if (departmentDTO.getVersion() == null) {
+            // Last write wins for the clients which do not send back the version they have read
+            departmentDTO.setVersion(currentVersion.get());
+        }
+        // Flushed right away, for the returned version to be the new one
+        Department department = departmentRepository.saveAndFlush(departmentMapper.toEntity(departmentDTO));
+        departmentIntervalService.renumber();
+        changeLogService.record(ENTITY_NAME, department, ChangeOperation.UPDATE);
+        return Optional.of(departmentMapper.toDto(department));
+    }
+
+    /**
+     * Partially update a department.
+     *
+     * @param departmentDTO the entity to update partially.
+     * @return the persisted entity, or empty if the department does not exist.
+     */
+    public Optional<DepartmentDTO> partialUpdate(DepartmentDTO departmentDTO) {
+        log.debug("Request to partially update Department : {}", departmentDTO);
+
+        return departmentRepository
+            .findById(departmentDTO.getId())
+            .map(existingDepartment -> {
+                departmentMapper.partialUpdate(existingDepartment, departmentDTO);
+
+                return existingDepartment;
+            })
+            .map(departmentRepository::saveAndFlush)
+            .map(saved -> {
+                departmentIntervalService.renumber();
+                changeLogService.record(ENTITY_NAME, saved, ChangeOperation.UPDATE);
+                return departmentMapper.toDto(saved);
+            });
+    }
+
+    /**
+     * Get all the departments.
+     *
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentDTO> findAll() {
+        log.debug("Request to get all Departments");
+        return departmentRepository.findAllProjectedBy(DepartmentDTO.class);
+    }
+
+    /**
+     * Get the departments of a scope.
+     *
+     * @param scope the scope of the current user.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentDTO> findAll(DepartmentScope scope) {
+        if (scope.isUnrestricted()) {
+            return findAll();
+        }
+        log.debug("Request to get the Departments of : {}", scope);
+        return departmentRepository.findByLftBetween(scope.getLft(), scope.getRgt(), DepartmentDTO.class);
+    }
+
+    /**
+     * Get one department by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DepartmentDTO> findOne(Long id) {
+        log.debug("Request to get Department : {}", id);
+        return departmentRepository.findProjectedById(id, DepartmentDTO.class);
+    }
+
+    /**
+     * Get the version of one department, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the department does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return departmentRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the change counter of the departments, bumped by every write to any of them.
+     *
+     * @return the change counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter() {
+        return changeLogService.getChangeCounter(ENTITY_NAME);
+    }
+
+    /**
+     * Delete the department by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Department : {}", id);
+        departmentRepository.deleteById(id);
+        changeLogService.record(ENTITY_NAME, id, ChangeOperation.DELETE);
+    }
+}
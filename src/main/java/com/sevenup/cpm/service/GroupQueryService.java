@@ -0,0 +1,93 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.Group_;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.service.criteria.GroupCriteria;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import com.sevenup.cpm.service.mapper.GroupMapper;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Group} entities in the database.
+ * The main input is a {@link GroupCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link GroupDTO} which fulfills the criteria.
+ * Only the groups of the departments of the scope are matched.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GroupQueryService extends QueryService<Group> {
+
+    private final Logger log = LoggerFactory.getLogger(GroupQueryService.class);
+
+    private final GroupRepository groupRepository;
+
+    private final GroupMapper groupMapper;
+
+    public GroupQueryService(GroupRepository groupRepository, GroupMapper groupMapper) {
+        this.groupRepository = groupRepository;
+        this.groupMapper = groupMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link GroupDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupDTO> findByCriteria(GroupCriteria criteria, DepartmentScope scope) {
+        log.debug("find by criteria : {}, {}", criteria, scope);
+        final Specification<Group> specification = createSpecification(criteria, scope);
+        return groupMapper.toDto(groupRepository.findAll(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database, counted without loading them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(GroupCriteria criteria, DepartmentScope scope) {
+        log.debug("count by criteria : {}, {}", criteria, scope);
+        final Specification<Group> specification = createSpecification(criteria, scope);
+        return groupRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link GroupCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Group> createSpecification(GroupCriteria criteria, DepartmentScope scope) {
+        Specification<Group> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Group_.id));
+            }
+            if (criteria.getDepartmentId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDepartmentId(), Group_.departmentId));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Group_.name));
+            }
+        }
+        if (!scope.isUnrestricted()) {
+            specification = specification.and(ScopeSpecifications.departmentIdInScope(scope, Group_.departmentId));
+        }
+        return specification;
+    }
+}
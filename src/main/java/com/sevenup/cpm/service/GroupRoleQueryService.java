@@ -0,0 +1,101 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.domain.GroupRole_;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.service.criteria.GroupRoleCriteria;
+import com.sevenup.cpm.service.dto.GroupRoleDTO;
+import com.sevenup.cpm.service.mapper.GroupRoleMapper;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link GroupRole} entities in the database.
+ * The main input is a {@link GroupRoleCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link GroupRoleDTO} which fulfills the criteria.
+ * Only the unexpired role memberships of the groups of the departments of the scope are matched.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GroupRoleQueryService extends QueryService<GroupRole> {
+
+    private final Logger log = LoggerFactory.getLogger(GroupRoleQueryService.class);
+
+    private final GroupRoleRepository groupRoleRepository;
+
+    private final GroupRoleMapper groupRoleMapper;
+
+    public GroupRoleQueryService(GroupRoleRepository groupRoleRepository, GroupRoleMapper groupRoleMapper) {
+        this.groupRoleRepository = groupRoleRepository;
+        this.groupRoleMapper = groupRoleMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link GroupRoleDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupRoleDTO> findByCriteria(GroupRoleCriteria criteria, DepartmentScope scope) {
+        log.debug("find by criteria : {}, {}", criteria, scope);
+        final Specification<GroupRole> specification = createSpecification(criteria, scope);
+        return groupRoleMapper.toDto(groupRoleRepository.findAll(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database, counted without loading them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(GroupRoleCriteria criteria, DepartmentScope scope) {
+        log.debug("count by criteria : {}, {}", criteria, scope);
+        final Specification<GroupRole> specification = createSpecification(criteria, scope);
+        return groupRoleRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link GroupRoleCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<GroupRole> createSpecification(GroupRoleCriteria criteria, DepartmentScope scope) {
+        Specification<GroupRole> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), GroupRole_.id));
+            }
+            if (criteria.getGroupId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getGroupId(), GroupRole_.groupId));
+            }
+            if (criteria.getRoleId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getRoleId(), GroupRole_.roleId));
+            }
+            if (criteria.getValidFrom() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getValidFrom(), GroupRole_.validFrom));
+            }
+            if (criteria.getValidUntil() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getValidUntil(), GroupRole_.validUntil));
+            }
+        }
+        specification = specification.and(ScopeSpecifications.unexpired(GroupRole_.validUntil, Instant.now()));
+        if (!scope.isUnrestricted()) {
+            specification = specification.and(ScopeSpecifications.groupIdInScope(scope, GroupRole_.groupId));
+        }
+        return specification;
+    }
+}
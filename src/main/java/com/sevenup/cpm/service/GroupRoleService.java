@@ -0,0 +1,207 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.Constants;
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.security.SecurityUtils;
+import com.sevenup.cpm.service.dto.GroupRoleDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
+import com.sevenup.cpm.service.mapper.GroupRoleMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link GroupRole}.
+ */
+@Service
+@Transactional
+public class GroupRoleService {
+
+    private final Logger log = LoggerFactory.getLogger(GroupRoleService.class);
+
+    private static final String ENTITY_NAME = "groupRole";
+
+    private final GroupRoleRepository groupRoleRepository;
+
+    private final GroupRoleMapper groupRoleMapper;
+
+    private final ChangeLogService changeLogService;
+
+    public GroupRoleService(GroupRoleRepository groupRoleRepository, GroupRoleMapper groupRoleMapper, ChangeLogService changeLogService) {
+        this.groupRoleRepository = groupRoleRepository;
+        this.groupRoleMapper = groupRoleMapper;
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * Save a groupRole.
+     *
+     * @param groupRoleDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public GroupRoleDTO save(GroupRoleDTO groupRoleDTO) {
+        log.debug("Request to save GroupRole : {}", groupRoleDTO);
+        GroupRole groupRole = groupRoleRepository.save(groupRoleMapper.toEntity(groupRoleDTO));
+        changeLogService.record(ENTITY_NAME, groupRole, ChangeOperation.CREATE);
+        return groupRoleMapper.toDto(groupRole);
+    }
+
+    /**
+     * Add a role to a group unless it is already there, so that retried calls do not create duplicates.
+     *
+     * @param groupId the id of the group.
+     * @param roleId the id of the role.
+     * @return the membership, and whether this call created it.
+     */
+    public UpsertResultDTO<GroupRoleDTO> upsert(Long groupId, Long roleId) {
+        log.debug("Request to upsert GroupRole : {}, {}", groupId, roleId);
+        // Retries mostly find the membership in place, and return without writing anything
+        Optional<GroupRole> existing = groupRoleRepository.findOneByGroupIdAndRoleId(groupId, roleId);
+        if (existing.isPresent() && !isExpired(existing.get().getValidUntil(), Instant.now())) {
+            return new UpsertResultDTO<>(groupRoleMapper.toDto(existing.get()), false);
+        }
+        // An expired membership not swept yet is absent, it makes room for the new one
+        existing.ifPresent(expired -> delete(expired.getId()));
+        // A concurrent call may insert it in the meantime, the unique index turns the insert into a no-op then
+        String auditor = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        boolean inserted = groupRoleRepository.insertIfAbsent(groupId, roleId, auditor, Instant.now()) > 0;
+        GroupRole groupRole = groupRoleRepository.findLockedByGroupIdAndRoleId(groupId, roleId).orElseThrow();
+        if (!inserted) {
+            // Only the call which inserted the membership records its creation
+            return new UpsertResultDTO<>(groupRoleMapper.toDto(groupRole), false);
+        }
+        changeLogService.record(ENTITY_NAME, groupRole, ChangeOperation.CREATE);
+        return new UpsertResultDTO<>(groupRoleMapper.toDto(groupRole), true);
+    }
+
+    /**
+     * Update a groupRole.
+     *
+     * @param groupRoleDTO the entity to save, without version to overwrite whatever version is current.
+     * @return the persisted entity, or empty if the groupRole does not exist.
+     */
+    public Optional<GroupRoleDTO> update(GroupRoleDTO groupRoleDTO) {
+        log.debug("Request to update GroupRole : {}", groupRoleDTO);
+        Optional<Long> currentVersion = groupRoleRepository.findVersionById(groupRoleDTO.getId());
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        if (groupRoleDTO.getVersion() == null) {
+            // Last write wins for the clients which do not send back the version they have read
+            groupRoleDTO.setVersion(currentVersion.get());
+        }
+        // Flushed right away, for the returned version to be the new one
+        GroupRole groupRole = groupRoleRepository.saveAndFlush(groupRoleMapper.toEntity(groupRoleDTO));
+        changeLogService.record(ENTITY_NAME, groupRole, ChangeOperation.UPDATE);
+        return Optional.of(groupRoleMapper.toDto(groupRole));
+    }
+
+    /**
+     * Partially update a groupRole.
+     *
+     * @param groupRoleDTO the entity to update partially.
+     * @return the persisted entity, or empty if the groupRole does not exist.
+     */
+    public Optional<GroupRoleDTO> partialUpdate(GroupRoleDTO groupRoleDTO) {
+        log.debug("Request to partially update GroupRole : {}", groupRoleDTO);
+
+        return groupRoleRepository
+            .findById(groupRoleDTO.getId())
+            .map(existingGroupRole -> {
+                groupRoleMapper.partialUpdate(existingGroupRole, groupRoleDTO);
+
+                return existingGroupRole;
+            })
+            .map(groupRoleRepository::saveAndFlush)
+            .map(saved -> {
+                changeLogService.record(ENTITY_NAME, saved, ChangeOperation.UPDATE);
+                return groupRoleMapper.toDto(saved);
+            });
+    }
+
+    /**
+     * Get all the groupRoles which have not expired.
+     *
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupRoleDTO> findAll() {
+        log.debug("Request to get all GroupRoles");
+        return groupRoleRepository.findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(Instant.now(), GroupRoleDTO.class);
+    }
+
+    /**
+     * Get the groupRoles of the groups of the departments of a scope.
+     *
+     * @param scope the scope of the current user.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupRoleDTO> findAll(DepartmentScope scope) {
+        if (scope.isUnrestricted()) {
+            return findAll();
+        }
+        log.debug("Request to get the GroupRoles of : {}", scope);
+        return groupRoleMapper.toDto(groupRoleRepository.findAllByDepartmentInterval(scope.getLft(), scope.getRgt(), Instant.now()));
+    }
+
+    /**
+     * Get one groupRole by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity, or empty if it does not exist or has expired.
+     */
+    @Transactional(readOnly = true)
+    public Optional<GroupRoleDTO> findOne(Long id) {
+        log.debug("Request to get GroupRole : {}", id);
+        Instant now = Instant.now();
+        return groupRoleRepository
+            .findProjectedById(id, GroupRoleDTO.class)
+            .filter(groupRoleDTO -> !isExpired(groupRoleDTO.getValidUntil(), now));
+    }
+
+    /**
+     * Get the version of one groupRole, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the groupRole does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return groupRoleRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the change counter of the groupRoles, bumped by every write to any of them.
+     *
+     * @return the change counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter() {
+        return changeLogService.getChangeCounter(ENTITY_NAME);
+    }
+
+    /**
+     * Delete the groupRole by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete GroupRole : {}", id);
+        groupRoleRepository.deleteById(id);
+        changeLogService.record(ENTITY_NAME, id, ChangeOperation.DELETE);
+    }
+
+    /**
+     * The expired memberships are deleted by the {@link MembershipExpiryService}, and treated as absent until then.
+     */
+    static boolean isExpired(Instant validUntil, Instant now) {
+        return validUntil != null && !validUntil.isAfter(now);
+    }
+}
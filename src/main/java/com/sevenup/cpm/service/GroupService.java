@@ -0,0 +1,203 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import com.sevenup.cpm.service.mapper.GroupMapper;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Group}.
+ */
+@Service
+@Transactional
+public class GroupService {
+
+    private final Logger log = LoggerFactory.getLogger(GroupService.class);
+
+    private static final String ENTITY_NAME = "group";
+
+    private final GroupRepository groupRepository;
+
+    private final GroupMapper groupMapper;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final ChangeLogService changeLogService;
+
+    public GroupService(
+        GroupRepository groupRepository,
+        GroupMapper groupMapper,
+        DepartmentRepository departmentRepository,
+        ChangeLogService changeLogService
+    ) {
+        this.groupRepository = groupRepository;
+        this.groupMapper = groupMapper;
+        this.departmentRepository = departmentRepository;
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * Save a group.
+     *
+     * @param groupDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public GroupDTO save(GroupDTO groupDTO) {
+        log.debug("Request to save Group : {}", groupDTO);
+        Group group = groupRepository.save(groupMapper.toEntity(groupDTO));
+        changeLogService.record(ENTITY_NAME, group, ChangeOperation.CREATE);
+        return groupMapper.toDto(group);
+    }
+
+    /**
+     * Update a group.
+     *
+     * @param groupDTO the entity to save, without version to overwrite whatever version is current.
+     * @return the persisted entity, or empty if the group does not exist.
+     */
+    public Optional<GroupDTO> update(GroupDTO groupDTO) {
+        log.debug("Request to update Group : {}", groupDTO);
+        Optional<Long> currentVersion = groupRepository.findVersionById(groupDTO.getId());
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        if (groupDTO.getVersion() == null) {
+            // Last write wins for the clients which do not send back the version they have read
+            groupDTO.setVersion(currentVersion.get());
+        }
+        // Flushed right away, for the returned version to be the new one
+        Group group = groupRepository.saveAndFlush(groupMapper.toEntity(groupDTO));
+        changeLogService.record(ENTITY_NAME, group, ChangeOperation.UPDATE);
+        return Optional.of(groupMapper.toDto(group));
+    }
+
+    /**
+     * Partially update a group.
+     *
+     * @param groupDTO the entity to update partially.
+     * @return the persisted entity, or empty if the group does not exist.
+     */
+    public Optional<GroupDTO> partialUpdate(GroupDTO groupDTO) {
+        log.debug("Request to partially update Group : {}", groupDTO);
+
+        return groupRepository
+            .findById(groupDTO.getId())
+            .map(existingGroup -> {
+                groupMapper.partialUpdate(existingGroup, groupDTO);
+
+                return existingGroup;
+            })
+            .map(groupRepository::saveAndFlush)
+            .map(saved -> {
+                changeLogService.record(ENTITY_NAME, saved, ChangeOperation.UPDATE);
+                return groupMapper.toDto(saved);
+            });
+    }
+
+    /**
+     * Get all the groups.
+     *
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupDTO> findAll() {
+        log.debug("Request to get all Groups");
+        return groupRepository.findAllProjectedBy(GroupDTO.class);
+    }
+
+    /**
+     * Get the groups of the departments of a scope.
+     *
+     * @param scope the scope of the current user.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupDTO> findAll(DepartmentScope scope) {
+        if (scope.isUnrestricted()) {
+            return findAll();
+        }
+        log.debug("Request to get the Groups of : {}", scope);
+        return groupMapper.toDto(groupRepository.findAllByDepartmentInterval(scope.getLft(), scope.getRgt()));
+    }
+
+    /**
+     * Get a page of the groups of a department.
+     *
+     * @param departmentId the id of the department.
+     * @param includeSubDepartments whether the groups of all the descendant departments are included too.
+     * @param pageable the pagination information.
+     * @return the page of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<GroupDTO> findAllByDepartment(Long departmentId, boolean includeSubDepartments, Pageable pageable) {
+        log.debug(
+            "Request to get a page of the Groups of Department : {}, includeSubDepartments : {}",
+            departmentId,
+            includeSubDepartments
+        );
+        if (!includeSubDepartments) {
+            return groupRepository.findByDepartmentId(departmentId, pageable, GroupDTO.class);
+        }
+        List<Long> departmentIds = departmentRepository
+            .findSubtreeIds(departmentId)
+            .stream()
+            .map(Number::longValue)
+            .collect(Collectors.toList());
+        return groupRepository.findByDepartmentIdIn(departmentIds, pageable, GroupDTO.class);
+    }
+
+    /**
+     * Get one group by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<GroupDTO> findOne(Long id) {
+        log.debug("Request to get Group : {}", id);
+        return groupRepository.findProjectedById(id, GroupDTO.class);
+    }
+
+    /**
+     * Get the version of one group, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the group does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return groupRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the change counter of the groups, bumped by every write to any of them.
+     *
+     * @return the change counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter() {
+        return changeLogService.getChangeCounter(ENTITY_NAME);
+    }
+
+    /**
+     * Delete the group by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Group : {}", id);
+        groupRepository.deleteById(id);
+        changeLogService.record(ENTITY_NAME, id, ChangeOperation.DELETE);
+    }
+}
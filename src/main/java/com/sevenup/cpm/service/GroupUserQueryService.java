@@ -0,0 +1,101 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.domain.GroupUser_;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.criteria.GroupUserCriteria;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import com.sevenup.cpm.service.mapper.GroupUserMapper;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link GroupUser} entities in the database.
+ * The main input is a {@link GroupUserCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link GroupUserDTO} which fulfills the criteria.
+ * Only the unexpired user memberships of the groups of the departments of the scope are matched.
+ */
+@Service
+@Transactional(readOnly = true)
+public class GroupUserQueryService extends QueryService<GroupUser> {
+
+    private final Logger log = LoggerFactory.getLogger(GroupUserQueryService.class);
+
+    private final GroupUserRepository groupUserRepository;
+
+    private final GroupUserMapper groupUserMapper;
+
+    public GroupUserQueryService(GroupUserRepository groupUserRepository, GroupUserMapper groupUserMapper) {
+        this.groupUserRepository = groupUserRepository;
+        this.groupUserMapper = groupUserMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link GroupUserDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupUserDTO> findByCriteria(GroupUserCriteria criteria, DepartmentScope scope) {
+        log.debug("find by criteria : {}, {}", criteria, scope);
+        final Specification<GroupUser> specification = createSpecification(criteria, scope);
+        return groupUserMapper.toDto(groupUserRepository.findAll(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database, counted without loading them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(GroupUserCriteria criteria, DepartmentScope scope) {
+        log.debug("count by criteria : {}, {}", criteria, scope);
+        final Specification<GroupUser> specification = createSpecification(criteria, scope);
+        return groupUserRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link GroupUserCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param scope the scope of the current user.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<GroupUser> createSpecification(GroupUserCriteria criteria, DepartmentScope scope) {
+        Specification<GroupUser> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), GroupUser_.id));
+            }
+            if (criteria.getGroupId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getGroupId(), GroupUser_.groupId));
+            }
+            if (criteria.getUserId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getUserId(), GroupUser_.userId));
+            }
+            if (criteria.getValidFrom() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getValidFrom(), GroupUser_.validFrom));
+            }
+            if (criteria.getValidUntil() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getValidUntil(), GroupUser_.validUntil));
+            }
+        }
+        specification = specification.and(ScopeSpecifications.unexpired(GroupUser_.validUntil, Instant.now()));
+        if (!scope.isUnrestricted()) {
+            specification = specification.and(ScopeSpecifications.groupIdInScope(scope, GroupUser_.groupId));
+        }
+        return specification;
+    }
+}
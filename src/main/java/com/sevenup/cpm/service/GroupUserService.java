@@ -0,0 +1,297 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.Constants;
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.security.SecurityUtils;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import com.sevenup.cpm.service.dto.MembershipSyncDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
+import com.sevenup.cpm.service.mapper.GroupUserMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link GroupUser}.
+ */
+@Service
+@Transactional
+public class GroupUserService {
+
+    private final Logger log = LoggerFactory.getLogger(GroupUserService.class);
+
+    private static final String ENTITY_NAME = "groupUser";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final GroupUserRepository groupUserRepository;
+
+    private final GroupUserMapper groupUserMapper;
+
+    private final ChangeLogService changeLogService;
+
+    private final GroupRepository groupRepository;
+
+    public GroupUserService(
+        GroupUserRepository groupUserRepository,
+        GroupUserMapper groupUserMapper,
+        ChangeLogService changeLogService,
+        GroupRepository groupRepository
+    ) {
+        this.groupUserRepository = groupUserRepository;
+        this.groupUserMapper = groupUserMapper;
+        this.changeLogService = changeLogService;
+        this.groupRepository = groupRepository;
+    }
+
+    /**
+     * Save a groupUser.
+     *
+     * @param groupUserDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public GroupUserDTO save(GroupUserDTO groupUserDTO) {
+        log.debug("Request to save GroupUser : {}", groupUserDTO);
+        GroupUser groupUser = groupUserRepository.save(groupUserMapper.toEntity(groupUserDTO));
+        changeLogService.record(ENTITY_NAME, groupUser, ChangeOperation.CREATE);
+        return groupUserMapper.toDto(groupUser);
+    }
+
+    /**
+     * Add a user to a group unless it is already there, so that retried calls do not create duplicates.
+     *
+     * @param groupId the id of the group.
+     * @param userId the id of the user.
+     * @return the membership, and whether this call created it.
+     */
+    public UpsertResultDTO<GroupUserDTO> upsert(Long groupId, Long userId) {
+        log.debug("Request to upsert GroupUser : {}, {}", groupId, userId);
+        // Retries mostly find the membership in place, and return without writing anything
+        Optional<GroupUser> existing = groupUserRepository.findOneByGroupIdAndUserId(groupId, userId);
+        if (existing.isPresent() && !isExpired(existing.get().getValidUntil(), Instant.now())) {
+            return new UpsertResultDTO<>(groupUserMapper.toDto(existing.get()), false);
+        }
+        // An expired membership not swept yet is absent, it makes room for the new one
+        existing.ifPresent(expired -> delete(expired.getId()));
+        // A concurrent call may insert it in the meantime, the unique index turns the insert into a no-op then
+        String auditor = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        boolean inserted = groupUserRepository.insertIfAbsent(groupId, userId, auditor, Instant.now()) > 0;
+        GroupUser groupUser = groupUserRepository.findLockedByGroupIdAndUserId(groupId, userId).orElseThrow();
+        if (!inserted) {
+            // Only the call which inserted the membership records its creation
+            return new UpsertResultDTO<>(groupUserMapper.toDto(groupUser), false);
+        }
+        changeLogService.record(ENTITY_NAME, groupUser, ChangeOperation.CREATE);
+        return new UpsertResultDTO<>(groupUserMapper.toDto(groupUser), true);
+    }
+
+    /**
+     * Replace the members of a group, writing only the memberships to add and to remove.
+     *
+     * @param groupId the id of the group.
+     * @param userIds the ids of all the users which should be members of the group.
+     * @return the counts of memberships added, removed and left in place, or empty if the group does not exist.
+     */
+    public Optional<MembershipSyncDTO> syncMembers(Long groupId, Collection<Long> userIds) {
+        log.debug("Request to sync the members of Group : {}, {} users", groupId, userIds.size());
+        if (!groupRepository.existsById(groupId)) {
+            return Optional.empty();
+        }
+        long[] desired = userIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        // The expired memberships not swept yet are absent, they make room for the desired ones
+        List<Long> expired = groupUserRepository.findExpiredIdsByGroupId(groupId, Instant.now());
+        if (!expired.isEmpty()) {
+            groupUserRepository.deleteAllByIdInBatch(expired);
+            changeLogService.recordDeletions(ENTITY_NAME, expired);
+        }
+        List<Object[]> current = groupUserRepository.findIdAndUserIdByGroupId(groupId);
+
+        // Both sides are sorted by user id, a single merge pass tells the memberships to add and to remove
+        long[] toAdd = new long[desired.length];
+        int addCount = 0;
+        List<Long> toRemove = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < desired.length || j < current.size()) {
+            Long currentUserId = j < current.size() ? (Long) current.get(j)[1] : null;
+            if (j < current.size() && currentUserId == null) {
+                // Memberships without user come first, and never belong to the desired set
+                toRemove.add((Long) current.get(j++)[0]);
+            } else if (j == current.size() || (i < desired.length && desired[i] < currentUserId)) {
+                toAdd[addCount++] = desired[i++];
+            } else if (i == desired.length || desired[i] > currentUserId) {
+                toRemove.add((Long) current.get(j++)[0]);
+            } else {
+                i++;
+                j++;
+            }
+        }
+
+        for (List<Long> chunk : chunks(toRemove)) {
+            groupUserRepository.deleteAllByIdInBatch(chunk);
+        }
+        changeLogService.recordDeletions(ENTITY_NAME, toRemove);
+
+        long[] added = Arrays.copyOf(toAdd, addCount);
+        String auditor = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        groupUserRepository.insertAllIfAbsent(groupId, added, auditor, Instant.now());
+        for (List<Long> chunk : chunks(Arrays.stream(added).boxed().collect(Collectors.toList()))) {
+            List<GroupUser> inserted = groupUserRepository.findAllByGroupIdAndUserIdIn(groupId, chunk);
+            changeLogService.recordAll(ENTITY_NAME, inserted, ChangeOperation.CREATE);
+        }
+
+        MembershipSyncDTO result = new MembershipSyncDTO();
+        result.setGroupId(groupId);
+        result.setAdded(addCount);
+        result.setRemoved(toRemove.size());
+        result.setUnchanged(desired.length - addCount);
+        return Optional.of(result);
+    }
+
+    /**
+     * Update a groupUser.
+     *
+     * @param groupUserDTO the entity to save, without version to overwrite whatever version is current.
+     * @return the persisted entity, or empty if the groupUser does not exist.
+     */
+    public Optional<GroupUserDTO> update(GroupUserDTO groupUserDTO) {
+        log.debug("Request to update GroupUser : {}", groupUserDTO);
+        Optional<Long> currentVersion = groupUserRepository.findVersionById(groupUserDTO.getId());
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        if (groupUserDTO.getVersion() == null) {
+            // Last write wins for the clients which do not send back the version they have read
+            groupUserDTO.setVersion(currentVersion.get());
+        }
+        // Flushed right away, for the returned version to be the new one
+        GroupUser groupUser = groupUserRepository.saveAndFlush(groupUserMapper.toEntity(groupUserDTO));
+        changeLogService.record(ENTITY_NAME, groupUser, ChangeOperation.UPDATE);
+        return Optional.of(groupUserMapper.toDto(groupUser));
+    }
+
+    /**
+     * Partially update a groupUser.
+     *
+     * @param groupUserDTO the entity to update partially.
+     * @return the persisted entity, or empty if the groupUser does not exist.
+     */
+    public Optional<GroupUserDTO> partialUpdate(GroupUserDTO groupUserDTO) {
+        log.debug("Request to partially update GroupUser : {}", groupUserDTO);
+
+        return groupUserRepository
+            .findById(groupUserDTO.getId())
+            .map(existingGroupUser -> {
+                groupUserMapper.partialUpdate(existingGroupUser, groupUserDTO);
+
+                return existingGroupUser;
+            })
+            .map(groupUserRepository::saveAndFlush)
+            .map(saved -> {
+                changeLogService.record(ENTITY_NAME, saved, ChangeOperation.UPDATE);
+                return groupUserMapper.toDto(saved);
+            });
+    }
+
+    /**
+     * Get all the groupUsers which have not expired.
+     *
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupUserDTO> findAll() {
+        log.debug("Request to get all GroupUsers");
+        return groupUserRepository.findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(Instant.now(), GroupUserDTO.class);
+    }
+
+    /**
+     * Get the groupUsers of the groups of the departments of a scope.
+     *
+     * @param scope the scope of the current user.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupUserDTO> findAll(DepartmentScope scope) {
+        if (scope.isUnrestricted()) {
+            return findAll();
+        }
+        log.debug("Request to get the GroupUsers of : {}", scope);
+        return groupUserMapper.toDto(groupUserRepository.findAllByDepartmentInterval(scope.getLft(), scope.getRgt(), Instant.now()));
+    }
+
+    /**
+     * Get one groupUser by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity, or empty if it does not exist or has expired.
+     */
+    @Transactional(readOnly = true)
+    public Optional<GroupUserDTO> findOne(Long id) {
+        log.debug("Request to get GroupUser : {}", id);
+        Instant now = Instant.now();
+        return groupUserRepository
+            .findProjectedById(id, GroupUserDTO.class)
+            .filter(groupUserDTO -> !isExpired(groupUserDTO.getValidUntil(), now));
+    }
+
+    /**
+     * Get the version of one groupUser, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the groupUser does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return groupUserRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the change counter of the groupUsers, bumped by every write to any of them.
+     *
+     * @return the change counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter() {
+        return changeLogService.getChangeCounter(ENTITY_NAME);
+    }
+
+    /**
+     * Delete the groupUser by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete GroupUser : {}", id);
+        groupUserRepository.deleteById(id);
+        changeLogService.record(ENTITY_NAME, id, ChangeOperation.DELETE);
+    }
+
+    /**
+     * Split ids in chunks, to bound the size of the {@code in} lists of the statements.
+     */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    /**
+     * The expired memberships are deleted by the {@link MembershipExpiryService}, and treated as absent until then.
+     */
+    static boolean isExpired(Instant validUntil, Instant now) {
+        return validUntil != null && !validUntil.isAfter(now);
+    }
+}
@@ -0,0 +1,240 @@
+package com.sevenup.cpm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sevenup.cpm.config.Constants;
+import com.sevenup.cpm.domain.Job;
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import com.sevenup.cpm.repository.JobRepository;
+import com.sevenup.cpm.security.SecurityUtils;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.service.job.JobHandler;
+import com.sevenup.cpm.service.mapper.JobMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Job}.
+ * <p>
+ * Besides the requests of the users, it holds the state transitions of the jobs, each in its own transaction, for
+ * the {@link com.sevenup.cpm.service.job.JobDispatcher} running them.
+ */
+@Service
+@Transactional
+public class JobService {
+
+    private final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private static final TypeReference<Map<String, String>> PARAMETERS_TYPE = new TypeReference<>() {};
+
+    private static final int MAX_PARAMETERS_LENGTH = 2000;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobRepository jobRepository;
+
+    private final JobMapper jobMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final Set<String> types;
+
+    public JobService(JobRepository jobRepository, JobMapper jobMapper, ObjectMapper objectMapper, List<JobHandler> handlers) {
+        this.jobRepository = jobRepository;
+        this.jobMapper = jobMapper;
+        this.objectMapper = objectMapper;
+        this.types = handlers.stream().map(JobHandler::getType).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param type the type of job.
+     * @return whether a handler runs the jobs of this type.
+     */
+    public boolean isSupported(String type) {
+        return types.contains(type);
+    }
+
+    /**
+     * Queue a job, to be run by the first instance with a free worker.
+     *
+     * @param type the type of job.
+     * @param parameters the parameters of the job.
+     * @return the queued job.
+     * @throws IllegalArgumentException if no handler runs the jobs of this type, or if the parameters are too long.
+     */
+    public JobDTO submit(String type, Map<String, String> parameters) {
+        log.debug("Request to submit Job : {}, {}", type, parameters);
+        if (!isSupported(type)) {
+            throw new IllegalArgumentException("No handler for the jobs of type " + type);
+        }
+        String json = writeParameters(parameters);
+        if (json.length() > MAX_PARAMETERS_LENGTH) {
+            throw new IllegalArgumentException("Job parameters longer than " + MAX_PARAMETERS_LENGTH + " characters");
+        }
+        Job job = new Job()
+            .type(type)
+            .status(JobStatus.QUEUED)
+            .parameters(json)
+            .createdBy(SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM))
+            .createdDate(Instant.now());
+        return toDto(jobRepository.save(job));
+    }
+
+    /**
+     * Get all the jobs.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<JobDTO> findAll(Pageable pageable) {
+        log.debug("Request to get all Jobs");
+        return jobRepository.findAll(pageable).map(this::toDto);
+    }
+
+    /**
+     * Get one job by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<JobDTO> findOne(Long id) {
+        log.debug("Request to get Job : {}", id);
+        return jobRepository.findById(id).map(this::toDto);
+    }
+
+    /**
+     * Cancel a job: a queued job is cancelled right away, a running job at its next checkpoint.
+     *
+     * @param id the id of the entity.
+     * @return the job, or empty if it does not exist.
+     */
+    public Optional<JobDTO> cancel(Long id) {
+        log.debug("Request to cancel Job : {}", id);
+        if (jobRepository.cancelQueued(id, Instant.now(), JobStatus.QUEUED, JobStatus.CANCELLED) == 0) {
+            jobRepository.requestCancel(id, JobStatus.RUNNING);
+        }
+        return jobRepository.findById(id).map(this::toDto);
+    }
+
+    /**
+     * Get the ids of the oldest queued jobs of a type.
+     *
+     * @param type the type of job.
+     * @param size the maximum number of ids.
+     * @return the job ids.
+     */
+    public List<Long> findQueuedIds(String type, int size) {
+        return jobRepository.findIdsByTypeAndStatus(type, JobStatus.QUEUED, PageRequest.of(0, size));
+    }
+
+    /**
+     * Take a queued job for an instance to run it.
+     *
+     * @param id the id of the job.
+     * @param owner the name of the instance.
+     * @return the job, or empty if another instance took it first or it was cancelled.
+     */
+    public Optional<Job> claim(Long id, String owner) {
+        if (jobRepository.claim(id, owner, Instant.now(), JobStatus.QUEUED, JobStatus.RUNNING) == 0) {
+            return Optional.empty();
+        }
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Save the progress of a running job.
+     *
+     * @return whether the job goes on: {@code false} if its cancellation was requested or its instance lost it.
+     */
+    public boolean saveProgress(Long id, String owner, long progress, Long total, String checkpoint) {
+        return jobRepository.saveProgress(id, owner, progress, total, checkpoint, Instant.now()) == 1;
+    }
+
+    /**
+     * End a running job.
+     *
+     * @param id the id of the job.
+     * @param owner the name of the instance running it.
+     * @param status the final status.
+     * @param error the reason of the failure, {@code null} unless the job failed.
+     */
+    public void finish(Long id, String owner, JobStatus status, String error) {
+        String truncatedError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (jobRepository.finish(id, owner, status, truncatedError, Instant.now(), JobStatus.RUNNING) == 0) {
+            log.info("Job {} was taken over before it ended as {}", id, status);
+        }
+    }
+
+    /**
+     * Tell that an instance is alive, for its running jobs not to be resumed by another one.
+     *
+     * @param owner the name of the instance.
+     */
+    public void heartbeat(String owner) {
+        jobRepository.heartbeat(owner, Instant.now(), JobStatus.RUNNING);
+    }
+
+    /**
+     * Put back in the queue the running jobs whose instance went silent.
+     *
+     * @param heartbeatTimeout how long a running job may go without heartbeat.
+     * @return the count of jobs put back in the queue.
+     */
+    public int requeueStale(Duration heartbeatTimeout) {
+        return jobRepository.requeueStale(Instant.now().minus(heartbeatTimeout), JobStatus.QUEUED, JobStatus.RUNNING);
+    }
+
+    /**
+     * Put back in the queue the running jobs of an instance, when it stops.
+     *
+     * @param owner the name of the instance.
+     * @return the count of jobs put back in the queue.
+     */
+    public int requeueOwned(String owner) {
+        return jobRepository.requeueOwned(owner, JobStatus.QUEUED, JobStatus.RUNNING);
+    }
+
+    /**
+     * @param job the job.
+     * @return the parameters the job was submitted with.
+     */
+    public Map<String, String> readParameters(Job job) {
+        if (job.getParameters() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(job.getParameters(), PARAMETERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable parameters of Job " + job.getId(), e);
+        }
+    }
+
+    private String writeParameters(Map<String, String> parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters != null ? parameters : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private JobDTO toDto(Job job) {
+        JobDTO jobDTO = jobMapper.toDto(job);
+        jobDTO.setParameters(readParameters(job));
+        return jobDTO;
+    }
+}
@@ -0,0 +1,205 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service deleting the user and role memberships once they expire.
+ * <p>
+ * A sweep runs every {@code application.membership-expiry.sweep-interval}: it deletes the expired memberships from the
+ * index over their expiry, by batches each in its own transaction, and puts the memberships expiring before the next
+ * sweeps on a timing wheel, which deletes them on the tick they expire at. The memberships written by this instance go
+ * on the wheel as soon as they are committed. The deletions are recorded in the change log like any other, so that
+ * the entity tags and the consumers of the change feed see the memberships go on time.
+ * <p>
+ * Until then, the reads leave the expired memberships out with a predicate of their queries.
+ */
+@Service
+public class MembershipExpiryService {
+
+    private final Logger log = LoggerFactory.getLogger(MembershipExpiryService.class);
+
+    private final ApplicationProperties.MembershipExpiry properties;
+
+    private final ChangeLogService changeLogService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Memberships> memberships = new LinkedHashMap<>();
+
+    public MembershipExpiryService(
+        GroupUserRepository groupUserRepository,
+        GroupRoleRepository groupRoleRepository,
+        ChangeLogService changeLogService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.properties = applicationProperties.getMembershipExpiry();
+        this.changeLogService = changeLogService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The wheel spans two sweeps, for every membership to be on it before it expires even if a sweep runs late
+        int wheelSize = (int) Math.max(1, 2 * properties.getSweepInterval().toMillis() / properties.getTick().toMillis());
+        long now = System.currentTimeMillis();
+        memberships.put(
+            "groupUser",
+            new Memberships(
+                "groupUser",
+                groupUserRepository,
+                groupUserRepository::findExpiredIdsForUpdate,
+                groupUserRepository::findExpiredIdsForUpdate,
+                groupUserRepository::findIdAndValidUntilByValidUntilBetween,
+                entity -> entity instanceof GroupUser ? ((GroupUser) entity).getValidUntil() : null,
+                new TimingWheel<>(properties.getTick(), wheelSize, now)
+            )
+        );
+        memberships.put(
+            "groupRole",
+            new Memberships(
+                "groupRole",
+                groupRoleRepository,
+                groupRoleRepository::findExpiredIdsForUpdate,
+                groupRoleRepository::findExpiredIdsForUpdate,
+                groupRoleRepository::findIdAndValidUntilByValidUntilBetween,
+                entity -> entity instanceof GroupRole ? ((GroupRole) entity).getValidUntil() : null,
+                new TimingWheel<>(properties.getTick(), wheelSize, now)
+            )
+        );
+    }
+
+    /**
+     * Delete the expired memberships, at most {@code max-batches-per-sweep} batches of each, and put the memberships
+     * expiring before the next sweeps on the timing wheel.
+     */
+    @Scheduled(fixedDelayString = "${application.membership-expiry.sweep-interval}")
+    public void sweep() {
+        Instant now = Instant.now();
+        for (Memberships table : memberships.values()) {
+            long deleted = 0;
+            int batches = 0;
+            int batch;
+            do {
+                batch = deleteExpired(table, () -> table.findExpired.apply(now, properties.getBatchSize()));
+                deleted += batch;
+            } while (batch == properties.getBatchSize() && ++batches < properties.getMaxBatchesPerSweep());
+
+            int scheduled = 0;
+            for (Object[] row : table.findExpiring.apply(now, now.plus(table.wheel.getSpan()))) {
+                if (table.wheel.schedule((Long) row[0], ((Instant) row[1]).toEpochMilli())) {
+                    scheduled++;
+                }
+            }
+            log.debug("Deleted {} expired {}, {} more expiring within {}", deleted, table.entityName, scheduled, table.wheel.getSpan());
+        }
+    }
+
+    /**
+     * Delete the memberships of the timing wheel which are due.
+     */
+    @Scheduled(fixedRateString = "${application.membership-expiry.tick}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (Memberships table : memberships.values()) {
+            List<Long> due = table.wheel.advance(now);
+            for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+                List<Long> chunk = due.subList(from, Math.min(due.size(), from + properties.getBatchSize()));
+                // Skips the memberships extended or deleted since they were put on the wheel
+                deleteExpired(table, () -> table.findExpiredAmong.apply(chunk, Instant.ofEpochMilli(now)));
+            }
+        }
+    }
+
+    /**
+     * Put the memberships written by this instance on the timing wheel once the write is committed, when they expire
+     * before the next sweeps.
+     *
+     * @param change the committed change.
+     */
+    @TransactionalEventListener
+    public void onChangeCommitted(ChangeDTO change) {
+        Memberships table = memberships.get(change.getEntityName());
+        if (table == null || change.getOperation() == ChangeOperation.DELETE) {
+            return;
+        }
+        Instant validUntil = table.validUntil.apply(change.getEntity());
+        if (validUntil != null) {
+            table.wheel.schedule(change.getEntityId(), validUntil.toEpochMilli());
+        }
+    }
+
+    /**
+     * Delete a batch of expired memberships in its own transaction.
+     *
+     * @return the count of deleted memberships.
+     */
+    private int deleteExpired(Memberships table, Supplier<List<Number>> expiredIds) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> ids = expiredIds.get().stream().map(Number::longValue).collect(Collectors.toList());
+            if (!ids.isEmpty()) {
+                table.repository.deleteAllByIdInBatch(ids);
+                changeLogService.recordDeletions(table.entityName, ids);
+            }
+            return ids.size();
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * The queries of one membership table, and the wheel of its memberships expiring soon.
+     */
+    private static final class Memberships {
+
+        private final String entityName;
+
+        private final JpaRepository<?, Long> repository;
+
+        private final BiFunction<Instant, Integer, List<Number>> findExpired;
+
+        private final BiFunction<Collection<Long>, Instant, List<Number>> findExpiredAmong;
+
+        private final BiFunction<Instant, Instant, List<Object[]>> findExpiring;
+
+        private final Function<Object, Instant> validUntil;
+
+        private final TimingWheel<Long> wheel;
+
+        private Memberships(
+            String entityName,
+            JpaRepository<?, Long> repository,
+            BiFunction<Instant, Integer, List<Number>> findExpired,
+            BiFunction<Collection<Long>, Instant, List<Number>> findExpiredAmong,
+            BiFunction<Instant, Instant, List<Object[]>> findExpiring,
+            Function<Object, Instant> validUntil,
+            TimingWheel<Long> wheel
+        ) {
+            this.entityName = entityName;
+            this.repository = repository;
+            this.findExpired = findExpired;
+            this.findExpiredAmong = findExpiredAmong;
+            this.findExpiring = findExpiring;
+            this.validUntil = validUntil;
+            this.wheel = wheel;
+        }
+    }
+}
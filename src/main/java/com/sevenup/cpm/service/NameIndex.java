@@ -0,0 +1,276 @@
+package com.sevenup.cpm.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory prefix index over the names of the groups, roles and departments.
+ * <p>
+ * Each word of a normalized name is a posting of a sorted set, so that the names holding a word which starts with a
+ * prefix are one range of the set: a search seeks to the prefix, then only scans the postings matching it. The word
+ * equal to the prefix sorts before its extensions, and the postings of a word are ordered by whether the word starts
+ * the name, then by the length of the name; the extensions themselves come in the order of the words. A search
+ * therefore ranks a bounded window of the first matches of the range, by exact word, first word and name length, the
+ * exact words always being in it, and reads the matches beyond the window in the order of the range, without going
+ * through the others.
+ * <p>
+ * The writes are serialized, the searches take no lock: a search running along a write sees the name before or after
+ * it, or not at all while it changes.
+ */
+final class NameIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Number of the first matches of a search which are ranked.
+     */
+    static final int RANKED_WINDOW = 256;
+
+    private final NavigableSet<Posting> postings = new ConcurrentSkipListSet<>();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Fold the case and the accents of a text: {@code "Phòng Đào tạo"} becomes {@code "phong dao tao"}.
+     *
+     * @param text the text.
+     * @return the normalized text.
+     */
+    static String normalize(String text) {
+        String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        // Upper then lower case folds the letters which only match case-insensitively through their upper case
+        String folded = decomposed.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        // The stroke of đ is part of the letter, not a combining mark
+        return folded.replace('đ', 'd');
+    }
+
+    /**
+     * @param text the text.
+     * @return the normalized words of the text.
+     */
+    static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATORS.split(normalize(text))).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+
+    /**
+     * Index a name, replacing the previous name of the same entity.
+     *
+     * @param type the name of the entity.
+     * @param id the id of the entity.
+     * @param name the name, {@code null} to only remove the previous one.
+     * @param departmentId the id of the department the entity belongs to, {@code null} for none.
+     */
+    synchronized void put(String type, Long id, String name, Long departmentId) {
+        remove(type, id);
+        String[] words = words(name);
+        if (words.length == 0) {
+            return;
+        }
+        Entry entry = new Entry(type, id, name, departmentId, words);
+        entries.put(key(type, id), entry);
+        for (int i = 0; i < words.length; i++) {
+            postings.add(new Posting(words[i], i == 0, entry));
+        }
+    }
+
+    /**
+     * @param type the name of the entity.
+     * @param id the id of the entity.
+     */
+    synchronized void remove(String type, Long id) {
+        Entry entry = entries.remove(key(type, id));
+        if (entry != null) {
+            for (int i = 0; i < entry.words.length; i++) {
+                postings.remove(new Posting(entry.words[i], i == 0, entry));
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Find the names holding, for every word of a query, a word starting with it.
+     * <p>
+     * The range of the longest word of the query is scanned, as the most selective one, and the other words are
+     * checked on the names found. The first {@value #RANKED_WINDOW} matches are ranked, the next ones follow in the
+     * order of the range.
+     *
+     * @param query the query.
+     * @param filter the entries which may be returned.
+     * @param offset the count of matches to skip.
+     * @param limit the maximum count of matches to return.
+     * @return the matches, ranked.
+     */
+    List<Entry> search(String query, Predicate<Entry> filter, long offset, int limit) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String prefix = Arrays.stream(queryWords).max(Comparator.comparingInt(String::length)).orElseThrow();
+        Iterator<Posting> range = postings.tailSet(new Posting(prefix, true, null), true).iterator();
+        // A name holding several words starting with the prefix is only counted on its first posting
+        Set<Entry> seen = new HashSet<>();
+        List<Entry> window = new ArrayList<>();
+        Entry entry;
+        while (window.size() < RANKED_WINDOW && (entry = nextMatch(range, prefix, queryWords, filter, seen)) != null) {
+            window.add(entry);
+        }
+        window.sort(ranking(prefix));
+
+        List<Entry> matches = new ArrayList<>(limit);
+        long position = 0;
+        Iterator<Entry> ranked = window.iterator();
+        while ((entry = ranked.hasNext() ? ranked.next() : nextMatch(range, prefix, queryWords, filter, seen)) != null) {
+            if (position++ < offset) {
+                continue;
+            }
+            matches.add(entry);
+            if (matches.size() == limit) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private static Entry nextMatch(Iterator<Posting> range, String prefix, String[] queryWords, Predicate<Entry> filter, Set<Entry> seen) {
+        while (range.hasNext()) {
+            Posting posting = range.next();
+            if (!posting.word.startsWith(prefix)) {
+                return null;
+            }
+            Entry entry = posting.entry;
+            if (seen.add(entry) && entry.matches(queryWords) && filter.test(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Names holding the prefix as a word first, then the ones starting with a word starting with it, then the shortest.
+     */
+    private static Comparator<Entry> ranking(String prefix) {
+        return Comparator
+            .comparing((Entry entry) -> !Arrays.asList(entry.words).contains(prefix))
+            .thenComparing(entry -> !entry.words[0].startsWith(prefix))
+            .thenComparingInt(entry -> entry.name.length())
+            .thenComparing(entry -> entry.type)
+            .thenComparing(entry -> entry.id);
+    }
+
+    private static String key(String type, Long id) {
+        return type + ':' + id;
+    }
+
+    /**
+     * An indexed name.
+     */
+    static final class Entry {
+
+        private final String type;
+
+        private final Long id;
+
+        private final String name;
+
+        private final Long departmentId;
+
+        private final String[] words;
+
+        private Entry(String type, Long id, String name, Long departmentId, String[] words) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.departmentId = departmentId;
+            this.words = words;
+        }
+
+        String getType() {
+            return type;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Long getDepartmentId() {
+            return departmentId;
+        }
+
+        private boolean matches(String[] queryWords) {
+            for (String queryWord : queryWords) {
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(queryWord)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One word of an indexed name. The probe seeking to a prefix has no entry, and sorts before the postings of the
+     * word equal to the prefix.
+     */
+    private static final class Posting implements Comparable<Posting> {
+
+        private final String word;
+
+        private final boolean first;
+
+        private final Entry entry;
+
+        private Posting(String word, boolean first, Entry entry) {
+            this.word = word;
+            this.first = first;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(Posting other) {
+            int result = word.compareTo(other.word);
+            if (result != 0 || entry == null || other.entry == null) {
+                return result != 0 ? result : Boolean.compare(other.entry == null, entry == null);
+            }
+            result = Boolean.compare(other.first, first);
+            if (result == 0) {
+                result = Integer.compare(entry.name.length(), other.entry.name.length());
+            }
+            if (result == 0) {
+                result = entry.type.compareTo(other.entry.type);
+            }
+            return result != 0 ? result : entry.id.compareTo(other.entry.id);
+        }
+    }
+}
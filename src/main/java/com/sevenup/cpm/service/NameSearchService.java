@@ -0,0 +1,225 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.dto.ChangeSetDTO;
+import com.sevenup.cpm.service.dto.SearchHitDTO;
+import com.sevenup.cpm.service.dto.SearchResultDTO;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service searching the names of the groups, roles and departments, from a {@link NameIndex} held by each instance.
+ * <p>
+ * The index is built from the database on the first search, then kept up to date without reading the names again:
+ * the writes of this instance are applied once committed, and the writes of the other instances are read from the
+ * change feed, when the change counters of the three entities moved. The counters are compared at most once per
+ * {@code application.search.max-staleness}.
+ */
+@Service
+public class NameSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(NameSearchService.class);
+
+    public static final String GROUP = "group";
+
+    public static final String ROLE = "role";
+
+    public static final String DEPARTMENT = "department";
+
+    public static final List<String> TYPES = List.of(GROUP, ROLE, DEPARTMENT);
+
+    private final GroupRepository groupRepository;
+
+    private final RoleRepository roleRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final ChangeLogService changeLogService;
+
+    private final DepartmentIntervalService departmentIntervalService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile NameIndex index;
+
+    private volatile long checkedAt;
+
+    /**
+     * The change feed position the index is up to date with, guarded by this service.
+     */
+    private long watermark;
+
+    /**
+     * The sum of the change counters when the change feed was last read, guarded by this service.
+     */
+    private long changeCounters;
+
+    /**
+     * When the changes behind the last move of the counters are past the settle time of the change feed, which holds
+     * back the younger changes, guarded by this service.
+     */
+    private long settledAt;
+
+    /**
+     * Whether the change feed was last read before {@link #settledAt}, and is to be read again, guarded by this service.
+     */
+    private boolean unsettled;
+
+    public NameSearchService(
+        GroupRepository groupRepository,
+        RoleRepository roleRepository,
+        DepartmentRepository departmentRepository,
+        ChangeLogService changeLogService,
+        DepartmentIntervalService departmentIntervalService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.groupRepository = groupRepository;
+        this.roleRepository = roleRepository;
+        this.departmentRepository = departmentRepository;
+        this.changeLogService = changeLogService;
+        this.departmentIntervalService = departmentIntervalService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Apply a name write to the index once it is committed.
+     *
+     * @param change the committed change.
+     */
+    @TransactionalEventListener
+    public void onChangeCommitted(ChangeDTO change) {
+        NameIndex current = index;
+        if (current != null && TYPES.contains(change.getEntityName())) {
+            apply(current, change);
+        }
+    }
+
+    /**
+     * Search the names starting with the words of a query, ignoring their case and accents.
+     *
+     * @param query the query.
+     * @param types the names of the entities searched, among {@link #TYPES}.
+     * @param scope the departments whose groups, and which, may be returned.
+     * @param offset the count of matches to skip.
+     * @param size the maximum count of matches to return.
+     * @return the matches, best first.
+     */
+    public SearchResultDTO search(String query, Collection<String> types, DepartmentScope scope, long offset, int size) {
+        log.debug("Request to search {} : {}", types, query);
+        Predicate<NameIndex.Entry> filter = entry -> types.contains(entry.getType());
+        if (!scope.isUnrestricted()) {
+            // The roles belong to no department
+            filter =
+                filter.and(entry ->
+                    ROLE.equals(entry.getType()) || scope.contains(departmentIntervalService.getLft(entry.getDepartmentId()))
+                );
+        }
+        // One more match than asked tells whether there is a next page
+        List<NameIndex.Entry> matches = currentIndex().search(query, filter, offset, size + 1);
+        SearchResultDTO result = new SearchResultDTO();
+        result.setHasMore(matches.size() > size);
+        result.setHits(
+            matches
+                .stream()
+                .limit(size)
+                .map(entry -> new SearchHitDTO(entry.getType(), entry.getId(), entry.getName()))
+                .collect(Collectors.toList())
+        );
+        return result;
+    }
+
+    private NameIndex currentIndex() {
+        long maxStalenessNanos = applicationProperties.getSearch().getMaxStaleness().toNanos();
+        NameIndex current = index;
+        if (current != null && System.nanoTime() - checkedAt <= maxStalenessNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = index;
+            long now = System.nanoTime();
+            if (current != null && now - checkedAt <= maxStalenessNanos) {
+                return current;
+            }
+            long counters = TYPES.stream().mapToLong(changeLogService::getChangeCounter).sum();
+            if (current == null || counters != changeCounters) {
+                settledAt = now + applicationProperties.getChangeLog().getSettleTime().toNanos();
+            }
+            if (current == null) {
+                current = build();
+                index = current;
+            } else if (counters != changeCounters || unsettled) {
+                catchUp(current);
+            }
+            changeCounters = counters;
+            unsettled = now - settledAt < 0;
+            checkedAt = now;
+            return current;
+        }
+    }
+
+    /**
+     * Build the index from the database. The changes recorded since the settled watermark may or may not be in it, and
+     * are read again from the change feed.
+     */
+    private NameIndex build() {
+        watermark = changeLogService.getSettledWatermark();
+        NameIndex built = new NameIndex();
+        for (Object[] row : groupRepository.findAllIdAndNameAndDepartmentId()) {
+            built.put(GROUP, toLong(row[0]), (String) row[1], toLong(row[2]));
+        }
+        for (Object[] row : roleRepository.findAllIdAndName()) {
+            built.put(ROLE, toLong(row[0]), (String) row[1], null);
+        }
+        for (Object[] row : departmentRepository.findAllIdAndName()) {
+            built.put(DEPARTMENT, toLong(row[0]), (String) row[1], toLong(row[0]));
+        }
+        log.debug("Indexed {} names", built.size());
+        return built;
+    }
+
+    /**
+     * Apply the changes of the change feed after the watermark, which carry the current state of the entities.
+     */
+    private void catchUp(NameIndex current) {
+        ChangeSetDTO changes;
+        do {
+            changes = changeLogService.findChangesSince(watermark, TYPES, applicationProperties.getChangeLog().getMaxPageSize());
+            changes.getChanges().forEach(change -> apply(current, change));
+            watermark = changes.getWatermark();
+        } while (changes.isHasMore());
+    }
+
+    private static void apply(NameIndex target, ChangeDTO change) {
+        Object entity = change.getEntity();
+        if (change.getOperation() == ChangeOperation.DELETE || entity == null) {
+            target.remove(change.getEntityName(), change.getEntityId());
+        } else if (entity instanceof Group) {
+            Group group = (Group) entity;
+            target.put(GROUP, group.getId(), group.getName(), group.getDepartmentId());
+        } else if (entity instanceof Role) {
+            Role role = (Role) entity;
+            target.put(ROLE, role.getId(), role.getName(), null);
+        } else if (entity instanceof Department) {
+            Department department = (Department) entity;
+            target.put(DEPARTMENT, department.getId(), department.getName(), department.getId());
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+}
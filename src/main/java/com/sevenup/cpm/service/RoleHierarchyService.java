@@ -0,0 +1,355 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.RoleInheritance;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.dto.RoleInheritanceDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
+import com.sevenup.cpm.service.mapper.RoleInheritanceMapper;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service managing the inheritances between roles, and answering from their transitive closure.
+ * <p>
+ * The closure is computed once per change of the inheritances and cached by each instance as two bitsets per role,
+ * over the roles in ascending order of id: the roles it inherits and the roles inheriting it, itself included. Whether
+ * a role inherits another is then one bit test, and the effective roles are read off a bitset without any query. The
+ * cache is dropped when an inheritance write commits, and compared with the inheritance change counter at most once
+ * per {@code application.role-hierarchy.max-staleness} for the writes of the other instances.
+ * <p>
+ * The inheritances are added one at a time, each checked against the latest committed ones, so that no cycle is ever
+ * committed.
+ */
+@Service
+public class RoleHierarchyService {
+
+    private final Logger log = LoggerFactory.getLogger(RoleHierarchyService.class);
+
+    private static final String ENTITY_NAME = "roleInheritance";
+
+    private final RoleInheritanceRepository roleInheritanceRepository;
+
+    private final RoleInheritanceMapper roleInheritanceMapper;
+
+    private final ChangeLogService changeLogService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile Snapshot snapshot;
+
+    public RoleHierarchyService(
+        RoleInheritanceRepository roleInheritanceRepository,
+        RoleInheritanceMapper roleInheritanceMapper,
+        ChangeLogService changeLogService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.roleInheritanceRepository = roleInheritanceRepository;
+        this.roleInheritanceMapper = roleInheritanceMapper;
+        this.changeLogService = changeLogService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Make a role inherit another unless it already does, so that retried calls do not create duplicates.
+     *
+     * @param roleId the id of the inheriting role.
+     * @param inheritedRoleId the id of the inherited role.
+     * @return the inheritance, and whether this call created it.
+     * @throws CyclicRoleInheritanceException if the inherited role is the role itself or already inherits it.
+     */
+    @Transactional
+    public UpsertResultDTO<RoleInheritanceDTO> addInheritance(Long roleId, Long inheritedRoleId) {
+        log.debug("Request to add RoleInheritance : {}, {}", roleId, inheritedRoleId);
+        // Taken before any read, for this write to see the inheritances committed by the writes which held it before
+        changeLogService.lock(ENTITY_NAME);
+        Optional<RoleInheritance> existing = roleInheritanceRepository.findOneByRoleIdAndInheritedRoleId(roleId, inheritedRoleId);
+        if (existing.isPresent()) {
+            return new UpsertResultDTO<>(roleInheritanceMapper.toDto(existing.get()), false);
+        }
+        if (Closure.of(roleInheritanceRepository.findAllEdgesForUpdate()).inherits(inheritedRoleId, roleId)) {
+            throw new CyclicRoleInheritanceException(roleId, inheritedRoleId);
+        }
+        RoleInheritance roleInheritance = roleInheritanceRepository.save(
+            new RoleInheritance().roleId(roleId).inheritedRoleId(inheritedRoleId)
+        );
+        changeLogService.record(ENTITY_NAME, roleInheritance, ChangeOperation.CREATE);
+        return new UpsertResultDTO<>(roleInheritanceMapper.toDto(roleInheritance), true);
+    }
+
+    /**
+     * Stop a role from inheriting another.
+     *
+     * @param roleId the id of the inheriting role.
+     * @param inheritedRoleId the id of the inherited role.
+     * @return whether the role inherited the other directly.
+     */
+    @Transactional
+    public boolean removeInheritance(Long roleId, Long inheritedRoleId) {
+        log.debug("Request to remove RoleInheritance : {}, {}", roleId, inheritedRoleId);
+        Optional<RoleInheritance> existing = roleInheritanceRepository.findOneByRoleIdAndInheritedRoleId(roleId, inheritedRoleId);
+        existing.ifPresent(roleInheritance -> {
+            roleInheritanceRepository.delete(roleInheritance);
+            changeLogService.record(ENTITY_NAME, roleInheritance.getId(), ChangeOperation.DELETE);
+        });
+        return existing.isPresent();
+    }
+
+    /**
+     * Delete the inheritances from and to a role, as part of its deletion.
+     *
+     * @param roleId the id of the role.
+     */
+    @Transactional
+    public void deleteInheritances(Long roleId) {
+        List<Long> ids = roleInheritanceRepository.findIdsByRoleIdOrInheritedRoleId(roleId, Pageable.unpaged());
+        if (!ids.isEmpty()) {
+            roleInheritanceRepository.deleteAllByIdInBatch(ids);
+            changeLogService.recordDeletions(ENTITY_NAME, ids);
+        }
+    }
+
+    /**
+     * Get the inheritances of a role.
+     *
+     * @param roleId the id of the inheriting role.
+     * @return the inheritances, in ascending order of inherited role id.
+     */
+    @Transactional(readOnly = true)
+    public List<RoleInheritanceDTO> findInheritances(Long roleId) {
+        log.debug("Request to get the RoleInheritances of Role : {}", roleId);
+        return roleInheritanceRepository.findByRoleIdOrderByInheritedRoleId(roleId, RoleInheritanceDTO.class);
+    }
+
+    /**
+     * Drop the cached closure once an inheritance write is committed.
+     *
+     * @param change the committed change.
+     */
+    @TransactionalEventListener
+    public void onChangeCommitted(ChangeDTO change) {
+        if (ENTITY_NAME.equals(change.getEntityName())) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * @param roleId the id of a role.
+     * @param inheritedRoleId the id of another role.
+     * @return whether the holders of the role also hold the other one, which every role does of itself.
+     */
+    public boolean inherits(Long roleId, Long inheritedRoleId) {
+        return currentSnapshot().closure.inherits(roleId, inheritedRoleId);
+    }
+
+    /**
+     * @param roleId the id of the role.
+     * @return the ids of the roles the role inherits directly or transitively, itself excluded, in ascending order.
+     */
+    public List<Long> getInheritedRoleIds(Long roleId) {
+        List<Long> roleIds = new ArrayList<>(currentSnapshot().closure.getInheritedRoleIds(roleId));
+        roleIds.remove(roleId);
+        return roleIds;
+    }
+
+    /**
+     * @param roleId the id of the role.
+     * @return the ids of the roles whose holders hold the role: itself and the roles inheriting it, in ascending order.
+     */
+    public List<Long> getGrantingRoleIds(Long roleId) {
+        return currentSnapshot().closure.getInheritingRoleIds(roleId);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isStale(applicationProperties.getRoleHierarchy().getMaxStaleness().toNanos())) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && !current.isStale(applicationProperties.getRoleHierarchy().getMaxStaleness().toNanos())) {
+                return current;
+            }
+            // Read ahead of the inheritances, so that a write committed in between only causes another reload
+            long changeCounter = changeLogService.getChangeCounter(ENTITY_NAME);
+            if (current != null && current.changeCounter == changeCounter) {
+                current = new Snapshot(current.closure, changeCounter);
+            } else {
+                current = new Snapshot(Closure.of(roleInheritanceRepository.findAllEdges()), changeCounter);
+            }
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * The transitive closure of the inheritances, over the roles having any.
+     */
+    static final class Closure {
+
+        private final long[] roleIds;
+
+        private final long[][] inherited;
+
+        private final long[][] inheriting;
+
+        private Closure(long[] roleIds, long[][] inherited, long[][] inheriting) {
+            this.roleIds = roleIds;
+            this.inherited = inherited;
+            this.inheriting = inheriting;
+        }
+
+        /**
+         * Close the inheritances in one depth-first pass, each role being closed once the roles it inherits are. An
+         * inheritance closing a cycle, which only writes bypassing this service can commit, is ignored.
+         *
+         * @param edges the role id and inherited role id of each inheritance.
+         * @return the closure.
+         */
+        static Closure of(List<Object[]> edges) {
+            long[] roleIds = edges
+                .stream()
+                .flatMapToLong(edge -> LongStream.of(toLong(edge[0]), toLong(edge[1])))
+                .distinct()
+                .sorted()
+                .toArray();
+            int size = roleIds.length;
+            int words = (size + 63) >>> 6;
+            List<List<Integer>> children = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                children.add(new ArrayList<>());
+            }
+            for (Object[] edge : edges) {
+                children.get(Arrays.binarySearch(roleIds, toLong(edge[0]))).add(Arrays.binarySearch(roleIds, toLong(edge[1])));
+            }
+
+            long[][] inherited = new long[size][];
+            boolean[] open = new boolean[size];
+            Deque<int[]> path = new ArrayDeque<>();
+            for (int root = 0; root < size; root++) {
+                if (open[root]) {
+                    continue;
+                }
+                open[root] = true;
+                path.push(new int[] { root, 0 });
+                while (!path.isEmpty()) {
+                    int[] top = path.peek();
+                    List<Integer> next = children.get(top[0]);
+                    if (top[1] < next.size()) {
+                        int child = next.get(top[1]++);
+                        if (!open[child]) {
+                            open[child] = true;
+                            path.push(new int[] { child, 0 });
+                        }
+                    } else {
+                        long[] bits = new long[words];
+                        bits[top[0] >>> 6] |= 1L << top[0];
+                        for (int child : next) {
+                            // A child not closed yet is on the path, its inheritance closes a cycle
+                            if (inherited[child] != null) {
+                                for (int word = 0; word < words; word++) {
+                                    bits[word] |= inherited[child][word];
+                                }
+                            }
+                        }
+                        inherited[top[0]] = bits;
+                        path.pop();
+                    }
+                }
+            }
+
+            long[][] inheriting = new long[size][words];
+            for (int i = 0; i < size; i++) {
+                for (int j : bitIndexes(inherited[i])) {
+                    inheriting[j][i >>> 6] |= 1L << i;
+                }
+            }
+            return new Closure(roleIds, inherited, inheriting);
+        }
+
+        boolean inherits(Long roleId, Long inheritedRoleId) {
+            if (roleId.equals(inheritedRoleId)) {
+                return true;
+            }
+            int i = Arrays.binarySearch(roleIds, roleId);
+            int j = Arrays.binarySearch(roleIds, inheritedRoleId);
+            return i >= 0 && j >= 0 && (inherited[i][j >>> 6] & (1L << j)) != 0;
+        }
+
+        /**
+         * @return the roles the role inherits, itself included.
+         */
+        List<Long> getInheritedRoleIds(Long roleId) {
+            int i = Arrays.binarySearch(roleIds, roleId);
+            return i >= 0 ? toRoleIds(inherited[i]) : Collections.singletonList(roleId);
+        }
+
+        /**
+         * @return the roles inheriting the role, itself included.
+         */
+        List<Long> getInheritingRoleIds(Long roleId) {
+            int i = Arrays.binarySearch(roleIds, roleId);
+            return i >= 0 ? toRoleIds(inheriting[i]) : Collections.singletonList(roleId);
+        }
+
+        private List<Long> toRoleIds(long[] bits) {
+            int[] indexes = bitIndexes(bits);
+            List<Long> ids = new ArrayList<>(indexes.length);
+            for (int index : indexes) {
+                ids.add(roleIds[index]);
+            }
+            return ids;
+        }
+
+        private static int[] bitIndexes(long[] bits) {
+            int count = 0;
+            for (long word : bits) {
+                count += Long.bitCount(word);
+            }
+            int[] indexes = new int[count];
+            int next = 0;
+            for (int word = 0; word < bits.length; word++) {
+                for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+                    indexes[next++] = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                }
+            }
+            return indexes;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Closure closure;
+
+        private final long changeCounter;
+
+        private final long checkedAt = System.nanoTime();
+
+        private Snapshot(Closure closure, long changeCounter) {
+            this.closure = closure;
+            this.changeCounter = changeCounter;
+        }
+
+        private boolean isStale(long maxStalenessNanos) {
+            return System.nanoTime() - checkedAt > maxStalenessNanos;
+        }
+    }
+}
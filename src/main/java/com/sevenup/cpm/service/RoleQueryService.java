@@ -0,0 +1,86 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.domain.Role_;
+import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.criteria.RoleCriteria;
+import com.sevenup.cpm.service.dto.RoleDTO;
+import com.sevenup.cpm.service.mapper.RoleMapper;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Role} entities in the database.
+ * The main input is a {@link RoleCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link RoleDTO} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RoleQueryService extends QueryService<Role> {
+
+    private final Logger log = LoggerFactory.getLogger(RoleQueryService.class);
+
+    private final RoleRepository roleRepository;
+
+    private final RoleMapper roleMapper;
+
+    public RoleQueryService(RoleRepository roleRepository, RoleMapper roleMapper) {
+        this.roleRepository = roleRepository;
+        this.roleMapper = roleMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link RoleDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<RoleDTO> findByCriteria(RoleCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Role> specification = createSpecification(criteria);
+        return roleMapper.toDto(roleRepository.findAll(specification));
+    }
+
+    /**
+     * Return the number of matching entities in the database, counted without loading them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(RoleCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Role> specification = createSpecification(criteria);
+        return roleRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link RoleCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Role> createSpecification(RoleCriteria criteria) {
+        Specification<Role> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Role_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Role_.name));
+            }
+            if (criteria.getSystem() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getSystem(), Role_.system));
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,185 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.dto.RoleDTO;
+import com.sevenup.cpm.service.mapper.RoleMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Role}.
+ */
+@Service
+@Transactional
+public class RoleService {
+
+    private final Logger log = LoggerFactory.getLogger(RoleService.class);
+
+    private static final String ENTITY_NAME = "role";
+
+    private final RoleRepository roleRepository;
+
+    private final RoleMapper roleMapper;
+
+    private final GroupUserRepository groupUserRepository;
+
+    private final ChangeLogService changeLogService;
+
+    private final RoleHierarchyService roleHierarchyService;
+
+    public RoleService(
+        RoleRepository roleRepository,
+        RoleMapper roleMapper,
+        GroupUserRepository groupUserRepository,
+        ChangeLogService changeLogService,
+        RoleHierarchyService roleHierarchyService
+    ) {
+        this.roleRepository = roleRepository;
+        this.roleMapper = roleMapper;
+        this.groupUserRepository = groupUserRepository;
+        this.changeLogService = changeLogService;
+        this.roleHierarchyService = roleHierarchyService;
+    }
+
+    /**
+     * Save a role.
+     *
+     * @param roleDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public RoleDTO save(RoleDTO roleDTO) {
+        log.debug("Request to save Role : {}", roleDTO);
+        Role role = roleRepository.save(roleMapper.toEntity(roleDTO));
+        changeLogService.record(ENTITY_NAME, role, ChangeOperation.CREATE);
+        return roleMapper.toDto(role);
+    }
+
+    /**
+     * Update a role.
+     *
+     * @param roleDTO the entity to save, without version to overwrite whatever version is current.
+     * @return the persisted entity, or empty if the role does not exist.
+     */
+    public Optional<RoleDTO> update(RoleDTO roleDTO) {
+        log.debug("Request to update Role : {}", roleDTO);
+        Optional<Long> currentVersion = roleRepository.findVersionById(roleDTO.getId());
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        if (roleDTO.getVersion() == null) {
+            // Last write wins for the clients which do not send back the version they have read
+            roleDTO.setVersion(currentVersion.get());
+        }
+        // Flushed right away, for the returned version to be the new one
+        Role role = roleRepository.saveAndFlush(roleMapper.toEntity(roleDTO));
+        changeLogService.record(ENTITY_NAME, role, ChangeOperation.UPDATE);
+        return Optional.of(roleMapper.toDto(role));
+    }
+
+    /**
+     * Partially update a role.
+     *
+     * @param roleDTO the entity to update partially.
+     * @return the persisted entity, or empty if the role does not exist.
+     */
+    public Optional<RoleDTO> partialUpdate(RoleDTO roleDTO) {
+        log.debug("Request to partially update Role : {}", roleDTO);
+
+        return roleRepository
+            .findById(roleDTO.getId())
+            .map(existingRole -> {
+                roleMapper.partialUpdate(existingRole, roleDTO);
+
+                return existingRole;
+            })
+            .map(roleRepository::saveAndFlush)
+            .map(saved -> {
+                changeLogService.record(ENTITY_NAME, saved, ChangeOperation.UPDATE);
+                return roleMapper.toDto(saved);
+            });
+    }
+
+    /**
+     * Get all the roles.
+     *
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public List<RoleDTO> findAll() {
+        log.debug("Request to get all Roles");
+        return roleRepository.findAllProjectedBy(RoleDTO.class);
+    }
+
+    /**
+     * Get one role by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RoleDTO> findOne(Long id) {
+        log.debug("Request to get Role : {}", id);
+        return roleRepository.findProjectedById(id, RoleDTO.class);
+    }
+
+    /**
+     * Get a chunk of the distinct ids of the users holding a role through their groups, in ascending order: the users
+     * holding the role itself or any role inheriting it, through memberships within their validity period.
+     *
+     * @param id the id of the role.
+     * @param afterUserId only get the user ids greater than this one.
+     * @param size the maximum number of user ids.
+     * @return the user ids.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findUserIds(Long id, Long afterUserId, int size) {
+        return groupUserRepository.findUserIdsByRoleIdIn(
+            roleHierarchyService.getGrantingRoleIds(id),
+            afterUserId,
+            Instant.now(),
+            PageRequest.of(0, size)
+        );
+    }
+
+    /**
+     * Get the version of one role, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, or empty if the role does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return roleRepository.findVersionById(id);
+    }
+
+    /**
+     * Get the change counter of the roles, bumped by every write to any of them.
+     *
+     * @return the change counter.
+     */
+    @Transactional(readOnly = true)
+    public long getChangeCounter() {
+        return changeLogService.getChangeCounter(ENTITY_NAME);
+    }
+
+    /**
+     * Delete the role by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Role : {}", id);
+        roleHierarchyService.deleteInheritances(id);
+        roleRepository.deleteById(id);
+        changeLogService.record(ENTITY_NAME, id, ChangeOperation.DELETE);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sevenup.cpm.service;
+
+import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.domain.Department_;
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.Group_;
+import java.time.Instant;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The specifications restricting the criteria queries to a department scope, with the same range predicate over the
+ * pre-order number of the departments as the repository queries of the scoped lists.
+ */
+final class ScopeSpecifications {
+
+    private ScopeSpecifications() {}
+
+    /**
+     * @param scope a restricted scope.
+     * @return the departments of the scope.
+     */
+    static Specification<Department> departmentInScope(DepartmentScope scope) {
+        return (root, query, builder) -> builder.between(root.get(Department_.lft), scope.getLft(), scope.getRgt());
+    }
+
+    /**
+     * @param scope a restricted scope.
+     * @param departmentId the department of the entities.
+     * @param <T> the type of the entities.
+     * @return the entities of the departments of the scope.
+     */
+    static <T> Specification<T> departmentIdInScope(DepartmentScope scope, SingularAttribute<? super T, Long> departmentId) {
+        return (root, query, builder) -> {
+            Subquery<Long> departmentIds = query.subquery(Long.class);
+            Root<Department> department = departmentIds.from(Department.class);
+            departmentIds
+                .select(department.get(Department_.id))
+                .where(builder.between(department.get(Department_.lft), scope.getLft(), scope.getRgt()));
+            return root.get(departmentId).in(departmentIds);
+        };
+    }
+
+    /**
+     * @param scope a restricted scope.
+     * @param groupId the group of the entities.
+     * @param <T> the type of the entities.
+     * @return the entities of the groups of the departments of the scope.
+     */
+    static <T> Specification<T> groupIdInScope(DepartmentScope scope, SingularAttribute<? super T, Long> groupId) {
+        return (root, query, builder) -> {
+            Subquery<Long> groupIds = query.subquery(Long.class);
+            Root<Group> group = groupIds.from(Group.class);
+            Root<Department> department = groupIds.from(Department.class);
+            groupIds
+                .select(group.get(Group_.id))
+                .where(
+                    builder.equal(group.get(Group_.departmentId), department.get(Department_.id)),
+                    builder.between(department.get(Department_.lft), scope.getLft(), scope.getRgt())
+                );
+            return root.get(groupId).in(groupIds);
+        };
+    }
+
+    /**
+     * @param validUntil the end of the validity of the memberships.
+     * @param now the current instant.
+     * @param <T> the type of the memberships.
+     * @return the memberships which did not expire.
+     */
+    static <T> Specification<T> unexpired(SingularAttribute<? super T, Instant> validUntil, Instant now) {
+        return (root, query, builder) -> builder.or(builder.isNull(root.get(validUntil)), builder.greaterThan(root.get(validUntil), now));
+    }
+}
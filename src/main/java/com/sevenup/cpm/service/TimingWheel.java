@@ -0,0 +1,83 @@
+package com.sevenup.cpm.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hashed timing wheel: each key is kept in the slot of the tick it is due at, so that scheduling a key and collecting
+ * the keys due both take constant time per key, whatever the count of keys waiting.
+ * <p>
+ * The wheel only holds the keys due within its span, one turn of the wheel; the keys due later are left to be
+ * scheduled again once they come within the span.
+ *
+ * @param <K> the type of the keys.
+ */
+final class TimingWheel<K> {
+
+    private final long tickMillis;
+
+    private final List<Set<K>> slots;
+
+    /**
+     * The last tick collected: the keys of the following ticks are still waiting.
+     */
+    private long currentTick;
+
+    TimingWheel(Duration tick, int size, long nowMillis) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new HashSet<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * @return how far ahead the keys may be scheduled.
+     */
+    Duration getSpan() {
+        return Duration.ofMillis(tickMillis * slots.size());
+    }
+
+    /**
+     * Schedule a key, on the first tick at or after its deadline; a key already due goes to the next tick.
+     *
+     * @param key the key.
+     * @param deadlineMillis the instant the key is due at, in milliseconds since the epoch.
+     * @return whether the key was scheduled, rather than being due beyond the span.
+     */
+    synchronized boolean schedule(K key, long deadlineMillis) {
+        long tick = Math.max(currentTick + 1, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        if (tick > currentTick + slots.size()) {
+            return false;
+        }
+        slots.get(slot(tick)).add(key);
+        return true;
+    }
+
+    /**
+     * Collect the keys due by now, taking them off the wheel.
+     *
+     * @param nowMillis the current instant, in milliseconds since the epoch.
+     * @return the keys due.
+     */
+    synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        // After a pause longer than the span, every slot is collected once
+        for (long tick = currentTick + 1; tick <= Math.min(targetTick, currentTick + slots.size()); tick++) {
+            Set<K> slot = slots.get(slot(tick));
+            due.addAll(slot);
+            slot.clear();
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.sevenup.cpm.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.sevenup.cpm.domain.Group} entity. This class is used
+ * in {@link com.sevenup.cpm.web.rest.GroupResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /groups?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GroupCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private LongFilter departmentId;
+
+    private StringFilter name;
+
+    private Boolean distinct;
+
+    public GroupCriteria() {}
+
+    public GroupCriteria(GroupCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.departmentId = other.departmentId == null ? null : other.departmentId.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public GroupCriteria copy() {
+        return new GroupCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public LongFilter getDepartmentId() {
+        return departmentId;
+    }
+
+    public LongFilter departmentId() {
+        if (departmentId == null) {
+            departmentId = new LongFilter();
+        }
+        return departmentId;
+    }
+
+    public void setDepartmentId(LongFilter departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public StringFilter name() {
+        if (name == null) {
+            name = new StringFilter();
+        }
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final GroupCriteria that = (GroupCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(departmentId, that.departmentId) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, departmentId, name, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GroupCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (departmentId != null ? "departmentId=" + departmentId + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,171 @@
+package com.sevenup.cpm.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.sevenup.cpm.domain.GroupUser} entity. This class is used
+ * in {@link com.sevenup.cpm.web.rest.GroupUserResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /group-users?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GroupUserCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private LongFilter groupId;
+
+    private LongFilter userId;
+
+    private InstantFilter validFrom;
+
+    private InstantFilter validUntil;
+
+    private Boolean distinct;
+
+    public GroupUserCriteria() {}
+
+    public GroupUserCriteria(GroupUserCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.groupId = other.groupId == null ? null : other.groupId.copy();
+        this.userId = other.userId == null ? null : other.userId.copy();
+        this.validFrom = other.validFrom == null ? null : other.validFrom.copy();
+        this.validUntil = other.validUntil == null ? null : other.validUntil.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public GroupUserCriteria copy() {
+        return new GroupUserCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public LongFilter getGroupId() {
+        return groupId;
+    }
+
+    public LongFilter groupId() {
+        if (groupId == null) {
+            groupId = new LongFilter();
+        }
+        return groupId;
+    }
+
+    public void setGroupId(LongFilter groupId) {
+        this.groupId = groupId;
+    }
+
+    public LongFilter getUserId() {
+        return userId;
+    }
+
+    public LongFilter userId() {
+        if (userId == null) {
+            userId = new LongFilter();
+        }
+        return userId;
+    }
+
+    public void setUserId(LongFilter userId) {
+        this.userId = userId;
+    }
+
+    public InstantFilter getValidFrom() {
+        return validFrom;
+    }
+
+    public InstantFilter validFrom() {
+        if (validFrom == null) {
+            validFrom = new InstantFilter();
+        }
+        return validFrom;
+    }
+
+    public void setValidFrom(InstantFilter validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public InstantFilter getValidUntil() {
+        return validUntil;
+    }
+
+    public InstantFilter validUntil() {
+        if (validUntil == null) {
+            validUntil = new InstantFilter();
+        }
+        return validUntil;
+    }
+
+    public void setValidUntil(InstantFilter validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final GroupUserCriteria that = (GroupUserCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(groupId, that.groupId) &&
+            Objects.equals(userId, that.userId) &&
+            Objects.equals(validFrom, that.validFrom) &&
+            Objects.equals(validUntil, that.validUntil) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, groupId, userId, validFrom, validUntil, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GroupUserCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (groupId != null ? "groupId=" + groupId + ", " : "") +
+            (userId != null ? "userId=" + userId + ", " : "") +
+            (validFrom != null ? "validFrom=" + validFrom + ", " : "") +
+            (validUntil != null ? "validUntil=" + validUntil + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
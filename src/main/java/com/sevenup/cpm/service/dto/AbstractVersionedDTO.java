@@ -0,0 +1,36 @@
+package com.sevenup.cpm.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Base class of the DTOs of the versioned entities.
+ * <p>
+ * The version is sent back by the clients on update for optimistic locking, the last modification date is read-only.
+ */
+public abstract class AbstractVersionedDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long version;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModifiedDate;
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+}
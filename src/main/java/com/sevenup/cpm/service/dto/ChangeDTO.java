@@ -0,0 +1,86 @@
+package com.sevenup.cpm.service.dto;
+
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO for one entry of the change feed: the latest change of an entity, with the entity current state
+ * unless it was deleted.
+ */
+public class ChangeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long watermark;
+
+    private String entityName;
+
+    private Long entityId;
+
+    private ChangeOperation operation;
+
+    private Instant changedDate;
+
+    private Object entity;
+
+    public Long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Long watermark) {
+        this.watermark = watermark;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public void setEntityName(String entityName) {
+        this.entityName = entityName;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public ChangeOperation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(ChangeOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedDate() {
+        return changedDate;
+    }
+
+    public void setChangedDate(Instant changedDate) {
+        this.changedDate = changedDate;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public void setEntity(Object entity) {
+        this.entity = entity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeDTO{" +
+            "watermark=" + getWatermark() +
+            ", entityName='" + getEntityName() + "'" +
+            ", entityId=" + getEntityId() +
+            ", operation='" + getOperation() + "'" +
+            ", changedDate='" + getChangedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.sevenup.cpm.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for a page of the change feed.
+ */
+public class ChangeSetDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long watermark;
+
+    private boolean hasMore;
+
+    private List<ChangeDTO> changes = new ArrayList<>();
+
+    /**
+     * @return the watermark to pass as {@code since} to get the next changes.
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    /**
+     * @return whether more changes are immediately available after the watermark.
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<ChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ChangeSetDTO{" +
+            "watermark=" + getWatermark() +
+            ", hasMore=" + isHasMore() +
+            ", changes=" + getChanges().size() +
+            "}";
+    }
+}
@@ -0,0 +1,88 @@
+package com.sevenup.cpm.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.Department} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class DepartmentDTO extends AbstractVersionedDTO {
+
+    private Long id;
+
+    private String name;
+
+    private Long idParent;
+
+    public DepartmentDTO() {}
+
+    /**
+     * Constructor of the repository projections, which select these columns only.
+     */
+    @PersistenceCreator
+    public DepartmentDTO(Long id, String name, Long idParent, Long version, Instant lastModifiedDate) {
+        this.id = id;
+        this.name = name;
+        this.idParent = idParent;
+        setVersion(version);
+        setLastModifiedDate(lastModifiedDate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getIdParent() {
+        return idParent;
+    }
+
+    public void setIdParent(Long idParent) {
+        this.idParent = idParent;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DepartmentDTO)) {
+            return false;
+        }
+
+        DepartmentDTO departmentDTO = (DepartmentDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, departmentDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DepartmentDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", idParent=" + getIdParent() +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
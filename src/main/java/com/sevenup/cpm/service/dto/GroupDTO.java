@@ -0,0 +1,88 @@
+package com.sevenup.cpm.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.Group} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GroupDTO extends AbstractVersionedDTO {
+
+    private Long id;
+
+    private Long departmentId;
+
+    private String name;
+
+    public GroupDTO() {}
+
+    /**
+     * Constructor of the repository projections, which select these columns only.
+     */
+    @PersistenceCreator
+    public GroupDTO(Long id, Long departmentId, String name, Long version, Instant lastModifiedDate) {
+        this.id = id;
+        this.departmentId = departmentId;
+        this.name = name;
+        setVersion(version);
+        setLastModifiedDate(lastModifiedDate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupDTO)) {
+            return false;
+        }
+
+        GroupDTO groupDTO = (GroupDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, groupDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GroupDTO{" +
+            "id=" + getId() +
+            ", departmentId=" + getDepartmentId() +
+            ", name='" + getName() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -0,0 +1,123 @@
+package com.sevenup.cpm.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.GroupUser} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class GroupUserDTO extends AbstractVersionedDTO {
+
+    private Long id;
+
+    private Long groupId;
+
+    private Long userId;
+
+    private Instant validFrom;
+
+    private Instant validUntil;
+
+    public GroupUserDTO() {}
+
+    /**
+     * Constructor of the repository projections, which select these columns only.
+     */
+    @PersistenceCreator
+    public GroupUserDTO(
+        Long id,
+        Long groupId,
+        Long userId,
+        Instant validFrom,
+        Instant validUntil,
+        Long version,
+        Instant lastModifiedDate
+    ) {
+        this.id = id;
+        this.groupId = groupId;
+        this.userId = userId;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        setVersion(version);
+        setLastModifiedDate(lastModifiedDate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Instant getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(Instant validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    /**
+     * @return the instant the membership expires at, {@code null} if it never does.
+     */
+    public Instant getValidUntil() {
+        return validUntil;
+    }
+
+    public void setValidUntil(Instant validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupUserDTO)) {
+            return false;
+        }
+
+        GroupUserDTO groupUserDTO = (GroupUserDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, groupUserDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "GroupUserDTO{" +
+            "id=" + getId() +
+            ", groupId=" + getGroupId() +
+            ", userId=" + getUserId() +
+            ", validFrom='" + getValidFrom() + "'" +
+            ", validUntil='" + getValidUntil() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -0,0 +1,181 @@
+package com.sevenup.cpm.service.dto;
+
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.Job} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    /**
+     * The type of the job, which tells the handler running it.
+     */
+    private String type;
+
+    private JobStatus status;
+
+    private Map<String, String> parameters = new HashMap<>();
+
+    /**
+     * The count of work items already done.
+     */
+    private Long progress;
+
+    /**
+     * The total count of work items, {@code null} until the job knows it.
+     */
+    private Long total;
+
+    private String error;
+
+    private Boolean cancelRequested;
+
+    private String createdBy;
+
+    private Instant createdDate;
+
+    private Instant startedDate;
+
+    private Instant endedDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
+
+    public Long getProgress() {
+        return progress;
+    }
+
+    public void setProgress(Long progress) {
+        this.progress = progress;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Boolean getCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(Boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getEndedDate() {
+        return endedDate;
+    }
+
+    public void setEndedDate(Instant endedDate) {
+        this.endedDate = endedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobDTO)) {
+            return false;
+        }
+
+        JobDTO jobDTO = (JobDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, jobDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobDTO{" +
+            "id=" + getId() +
+            ", type='" + getType() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", parameters=" + getParameters() +
+            ", progress=" + getProgress() +
+            ", total=" + getTotal() +
+            ", cancelRequested='" + getCancelRequested() + "'" +
+            "}";
+    }
+}
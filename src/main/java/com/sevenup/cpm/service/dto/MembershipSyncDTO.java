@@ -0,0 +1,71 @@
+package com.sevenup.cpm.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the outcome of replacing the members of a group.
+ */
+public class MembershipSyncDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long groupId;
+
+    private int added;
+
+    private int removed;
+
+    private int unchanged;
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    /**
+     * @return the count of memberships created.
+     */
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    /**
+     * @return the count of memberships deleted.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(int removed) {
+        this.removed = removed;
+    }
+
+    /**
+     * @return the count of memberships left in place.
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MembershipSyncDTO{" +
+            "groupId=" + getGroupId() +
+            ", added=" + getAdded() +
+            ", removed=" + getRemoved() +
+            ", unchanged=" + getUnchanged() +
+            "}";
+    }
+}
@@ -0,0 +1,88 @@
+package com.sevenup.cpm.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.Role} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RoleDTO extends AbstractVersionedDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String system;
+
+    public RoleDTO() {}
+
+    /**
+     * Constructor of the repository projections, which select these columns only.
+     */
+    @PersistenceCreator
+    public RoleDTO(Long id, String name, String system, Long version, Instant lastModifiedDate) {
+        this.id = id;
+        this.name = name;
+        this.system = system;
+        setVersion(version);
+        setLastModifiedDate(lastModifiedDate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSystem() {
+        return system;
+    }
+
+    public void setSystem(String system) {
+        this.system = system;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoleDTO)) {
+            return false;
+        }
+
+        RoleDTO roleDTO = (RoleDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, roleDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoleDTO{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", system='" + getSystem() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
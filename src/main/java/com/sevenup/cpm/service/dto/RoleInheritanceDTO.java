@@ -0,0 +1,88 @@
+package com.sevenup.cpm.service.dto;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * A DTO for the {@link com.sevenup.cpm.domain.RoleInheritance} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RoleInheritanceDTO extends AbstractVersionedDTO {
+
+    private Long id;
+
+    private Long roleId;
+
+    private Long inheritedRoleId;
+
+    public RoleInheritanceDTO() {}
+
+    /**
+     * Constructor of the repository projections, which select these columns only.
+     */
+    @PersistenceCreator
+    public RoleInheritanceDTO(Long id, Long roleId, Long inheritedRoleId, Long version, Instant lastModifiedDate) {
+        this.id = id;
+        this.roleId = roleId;
+        this.inheritedRoleId = inheritedRoleId;
+        setVersion(version);
+        setLastModifiedDate(lastModifiedDate);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRoleId() {
+        return roleId;
+    }
+
+    public void setRoleId(Long roleId) {
+        this.roleId = roleId;
+    }
+
+    public Long getInheritedRoleId() {
+        return inheritedRoleId;
+    }
+
+    public void setInheritedRoleId(Long inheritedRoleId) {
+        this.inheritedRoleId = inheritedRoleId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoleInheritanceDTO)) {
+            return false;
+        }
+
+        RoleInheritanceDTO roleInheritanceDTO = (RoleInheritanceDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, roleInheritanceDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoleInheritanceDTO{" +
+            "id=" + getId() +
+            ", roleId=" + getRoleId() +
+            ", inheritedRoleId=" + getInheritedRoleId() +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
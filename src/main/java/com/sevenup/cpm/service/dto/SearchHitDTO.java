@@ -0,0 +1,62 @@
+package com.sevenup.cpm.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for one name matching a search: a group, a role or a department.
+ */
+public class SearchHitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String type;
+
+    private Long id;
+
+    private String name;
+
+    public SearchHitDTO() {}
+
+    public SearchHitDTO(String type, Long id, String name) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the matching entity: {@code group}, {@code role} or {@code department}.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHitDTO{" +
+            "type='" + getType() + "'" +
+            ", id=" + getId() +
+            ", name='" + getName() + "'" +
+            "}";
+    }
+}
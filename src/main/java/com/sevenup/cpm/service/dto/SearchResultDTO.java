@@ -0,0 +1,45 @@
+package com.sevenup.cpm.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for a page of the names matching a search, best matches first.
+ */
+public class SearchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean hasMore;
+
+    private List<SearchHitDTO> hits = new ArrayList<>();
+
+    /**
+     * @return whether more names match, on the next pages.
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<SearchHitDTO> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHitDTO> hits) {
+        this.hits = hits;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchResultDTO{" +
+            "hasMore=" + isHasMore() +
+            ", hits=" + getHits().size() +
+            "}";
+    }
+}
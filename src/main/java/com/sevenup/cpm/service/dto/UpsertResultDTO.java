@@ -0,0 +1,40 @@
+package com.sevenup.cpm.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of an upsert: the entity, and whether it was created by this call.
+ */
+public class UpsertResultDTO<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final T entity;
+
+    private final boolean created;
+
+    public UpsertResultDTO(T entity, boolean created) {
+        this.entity = entity;
+        this.created = created;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return whether the entity did not exist before the call.
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UpsertResultDTO{" +
+            "entity=" + getEntity() +
+            ", created=" + isCreated() +
+            "}";
+    }
+}
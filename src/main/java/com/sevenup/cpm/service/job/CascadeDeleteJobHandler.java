@@ -0,0 +1,62 @@
+package com.sevenup.cpm.service.job;
+
+import com.sevenup.cpm.service.CascadeDeleteService;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the cascading deletions of groups, roles and departments in the background.
+ * <p>
+ * A cascade needs no checkpoint of its own: run again, it goes on with the rows left. The progress, in deleted
+ * rows, is saved after each chunk, which is also where a cancellation stops the cascade.
+ */
+@Component
+public class CascadeDeleteJobHandler implements JobHandler {
+
+    public static final String TYPE = "cascade-delete";
+
+    public static final String ENTITY_NAME = "entityName";
+
+    public static final String ENTITY_ID = "entityId";
+
+    private final CascadeDeleteService cascadeDeleteService;
+
+    public CascadeDeleteJobHandler(CascadeDeleteService cascadeDeleteService) {
+        this.cascadeDeleteService = cascadeDeleteService;
+    }
+
+    /**
+     * @param entityName the name of the deleted entity: {@code group}, {@code role} or {@code department}.
+     * @param id the id of the deleted entity.
+     * @return the parameters of the job deleting the entity.
+     */
+    public static Map<String, String> parameters(String entityName, Long id) {
+        return Map.of(ENTITY_NAME, entityName, ENTITY_ID, id.toString());
+    }
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public void run(JobContext context) {
+        String entityName = context.getParameter(ENTITY_NAME);
+        Long id = Long.valueOf(context.getParameter(ENTITY_ID));
+        LongConsumer progress = context::addProgress;
+        switch (entityName) {
+            case "group":
+                cascadeDeleteService.deleteGroup(id, progress);
+                break;
+            case "role":
+                cascadeDeleteService.deleteRole(id, progress);
+                break;
+            case "department":
+                cascadeDeleteService.deleteDepartment(id, progress);
+                break;
+            default:
+                throw new IllegalArgumentException("No cascading deletion of " + entityName);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sevenup.cpm.service.job;
+
+/**
+ * Thrown by a checkpoint when the job must stop: its cancellation was requested, or its instance lost it.
+ */
+public class JobCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobCancelledException(Long jobId) {
+        super("Job " + jobId + " stopped");
+    }
+}
@@ -0,0 +1,97 @@
+package com.sevenup.cpm.service.job;
+
+import com.sevenup.cpm.service.JobService;
+import java.util.Map;
+
+/**
+ * The context of a job being run: its parameters, and where it stands.
+ */
+public class JobContext {
+
+    private final JobService jobService;
+
+    private final String owner;
+
+    private final Long jobId;
+
+    private final Map<String, String> parameters;
+
+    private long progress;
+
+    private Long total;
+
+    private String checkpoint;
+
+    JobContext(
+        JobService jobService,
+        String owner,
+        Long jobId,
+        Map<String, String> parameters,
+        long progress,
+        Long total,
+        String checkpoint
+    ) {
+        this.jobService = jobService;
+        this.owner = owner;
+        this.jobId = jobId;
+        this.parameters = parameters;
+        this.progress = progress;
+        this.total = total;
+        this.checkpoint = checkpoint;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * @param name the name of the parameter.
+     * @return the value of the parameter.
+     * @throws IllegalArgumentException if the job was submitted without the parameter.
+     */
+    public String getParameter(String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing job parameter: " + name);
+        }
+        return value;
+    }
+
+    public long getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return the last checkpoint saved, {@code null} if the job starts from scratch.
+     */
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Save where the job stands, for it to be resumed from there if its instance stops.
+     *
+     * @param progress the count of work items done.
+     * @param total the total count of work items, {@code null} if unknown.
+     * @param checkpoint what the handler needs to resume the job, {@code null} if it starts over.
+     * @throws JobCancelledException if the job must stop.
+     */
+    public void checkpoint(long progress, Long total, String checkpoint) {
+        this.progress = progress;
+        this.total = total;
+        this.checkpoint = checkpoint;
+        if (!jobService.saveProgress(jobId, owner, progress, total, checkpoint)) {
+            throw new JobCancelledException(jobId);
+        }
+    }
+
+    /**
+     * Add to the progress of the job, keeping its last checkpoint.
+     *
+     * @param done the count of work items done since the last call.
+     * @throws JobCancelledException if the job must stop.
+     */
+    public void addProgress(long done) {
+        checkpoint(progress + done, total, checkpoint);
+    }
+}
@@ -0,0 +1,209 @@
+package com.sevenup.cpm.service.job;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.Job;
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import com.sevenup.cpm.service.JobService;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the queued jobs on a bounded pool of workers.
+ * <p>
+ * Every instance of the application polls the job table and claims the jobs it has room for, within the count of
+ * workers and the concurrency limit of each job type; a conditional update makes sure each job goes to one instance
+ * only. The running jobs are kept alive by heartbeats: the jobs of an instance which stops sending them are put back
+ * in the queue and resumed from their last checkpoint, by whichever instance claims them next.
+ */
+@Component
+public class JobDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(JobDispatcher.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final JobService jobService;
+
+    private final ApplicationProperties.Jobs properties;
+
+    private final Map<String, JobHandler> handlers;
+
+    /**
+     * The name of this instance, recorded as the owner of the jobs it runs.
+     */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + '/' + UUID.randomUUID();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final Map<String, AtomicInteger> runningByType = new ConcurrentHashMap<>();
+
+    /**
+     * Whether this instance ever claimed a job, and may have some to put back in the queue when it stops.
+     */
+    private volatile boolean claimed;
+
+    public JobDispatcher(JobService jobService, List<JobHandler> handlers, ApplicationProperties applicationProperties) {
+        this.jobService = jobService;
+        this.properties = applicationProperties.getJobs();
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::getType, Function.identity()));
+        int workerThreads = properties.getWorkerThreads();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory("cpm-job-dispatcher-"));
+        // Jobs are only handed over when a worker is free, the queue merely covers a worker finishing its previous job
+        this.workers =
+            new ThreadPoolExecutor(
+                workerThreads,
+                workerThreads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerThreads),
+                threadFactory("cpm-job-worker-")
+            );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Starting the job dispatcher {} with {} workers", owner, properties.getWorkerThreads());
+        long pollMillis = properties.getPollInterval().toMillis();
+        long heartbeatMillis = Math.max(1, properties.getHeartbeatTimeout().toMillis() / 4);
+        scheduler.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the workers, and put their jobs back in the queue for another instance to resume them without waiting
+     * for the heartbeat timeout.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Some jobs were still running when the job dispatcher stopped");
+        }
+        if (!claimed) {
+            return;
+        }
+        try {
+            int requeued = jobService.requeueOwned(owner);
+            if (requeued > 0) {
+                log.info("Put {} interrupted jobs back in the queue", requeued);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not put the interrupted jobs back in the queue, they will be after the heartbeat timeout", e);
+        }
+    }
+
+    void poll() {
+        try {
+            int requeued = jobService.requeueStale(properties.getHeartbeatTimeout());
+            if (requeued > 0) {
+                log.info("Put {} jobs without heartbeat back in the queue", requeued);
+            }
+            for (JobHandler handler : handlers.values()) {
+                int room = Math.min(
+                    properties.getWorkerThreads() - running.get(),
+                    concurrency(handler.getType()) - runningOfType(handler.getType()).get()
+                );
+                if (room <= 0) {
+                    continue;
+                }
+                for (Long id : jobService.findQueuedIds(handler.getType(), room)) {
+                    jobService.claim(id, owner).ifPresent(job -> launch(handler, job));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not poll the job queue", e);
+        }
+    }
+
+    private void heartbeat() {
+        if (running.get() == 0) {
+            return;
+        }
+        try {
+            jobService.heartbeat(owner);
+        } catch (RuntimeException e) {
+            log.warn("Could not send the heartbeat of the running jobs", e);
+        }
+    }
+
+    private void launch(JobHandler handler, Job job) {
+        AtomicInteger runningOfType = runningOfType(handler.getType());
+        claimed = true;
+        running.incrementAndGet();
+        runningOfType.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                run(handler, job);
+            } finally {
+                runningOfType.decrementAndGet();
+                running.decrementAndGet();
+            }
+        });
+    }
+
+    private void run(JobHandler handler, Job job) {
+        log.debug("Running Job {} of type {}", job.getId(), job.getType());
+        JobContext context = new JobContext(
+            jobService,
+            owner,
+            job.getId(),
+            jobService.readParameters(job),
+            job.getProgress(),
+            job.getTotal(),
+            job.getCheckpoint()
+        );
+        try {
+            handler.run(context);
+            jobService.finish(job.getId(), owner, JobStatus.COMPLETED, null);
+        } catch (JobCancelledException e) {
+            log.debug("Job {} cancelled", job.getId());
+            jobService.finish(job.getId(), owner, JobStatus.CANCELLED, null);
+        } catch (RuntimeException e) {
+            if (workers.isShutdown()) {
+                // Interrupted by the shutdown: left running, to be put back in the queue
+                return;
+            }
+            log.warn("Job {} of type {} failed", job.getId(), job.getType(), e);
+            jobService.finish(job.getId(), owner, JobStatus.FAILED, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private int concurrency(String type) {
+        return properties.getConcurrency().getOrDefault(type, 1);
+    }
+
+    private AtomicInteger runningOfType(String type) {
+        return runningByType.computeIfAbsent(type, t -> new AtomicInteger());
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.sevenup.cpm.service.job;
+
+/**
+ * Runs the jobs of one type.
+ * <p>
+ * A job may be run more than once: when its instance stops before the job is over, another instance resumes it
+ * from its last checkpoint. Handlers must therefore tolerate redoing the work done since that checkpoint.
+ */
+public interface JobHandler {
+    /**
+     * @return the type of the jobs run by this handler.
+     */
+    String getType();
+
+    /**
+     * Run a job, checkpointing regularly through its context.
+     *
+     * @param context the context of the job.
+     * @throws JobCancelledException if the job must stop, as reported by a checkpoint.
+     */
+    void run(JobContext context);
+}
@@ -0,0 +1,4 @@
+/**
+ * Background jobs: their handlers and the dispatcher running them.
+ */
+package com.sevenup.cpm.service.job;
@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.service.dto.DepartmentDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Department} and its DTO {@link DepartmentDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface DepartmentMapper extends EntityMapper<DepartmentDTO, Department> {}
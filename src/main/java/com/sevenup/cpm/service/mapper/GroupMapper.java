@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Group} and its DTO {@link GroupDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface GroupMapper extends EntityMapper<GroupDTO, Group> {}
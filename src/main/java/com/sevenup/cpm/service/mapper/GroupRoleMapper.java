@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.service.dto.GroupRoleDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link GroupRole} and its DTO {@link GroupRoleDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface GroupRoleMapper extends EntityMapper<GroupRoleDTO, GroupRole> {}
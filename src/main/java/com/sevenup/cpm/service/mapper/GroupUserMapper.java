@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link GroupUser} and its DTO {@link GroupUserDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface GroupUserMapper extends EntityMapper<GroupUserDTO, GroupUser> {}
@@ -0,0 +1,17 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.Job;
+import com.sevenup.cpm.service.dto.JobDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Job} and its DTO {@link JobDTO}.
+ * <p>
+ * Jobs are only ever written through {@link com.sevenup.cpm.service.JobService}, so the mapping goes one way;
+ * the parameters, stored as JSON, are read by the service.
+ */
+@Mapper(componentModel = "spring")
+public interface JobMapper {
+    @Mapping(target = "parameters", ignore = true)
+    JobDTO toDto(Job job);
+}
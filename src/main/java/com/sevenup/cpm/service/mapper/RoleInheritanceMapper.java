@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.RoleInheritance;
+import com.sevenup.cpm.service.dto.RoleInheritanceDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link RoleInheritance} and its DTO {@link RoleInheritanceDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface RoleInheritanceMapper extends EntityMapper<RoleInheritanceDTO, RoleInheritance> {}
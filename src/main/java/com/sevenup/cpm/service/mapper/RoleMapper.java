@@ -0,0 +1,11 @@
+package com.sevenup.cpm.service.mapper;
+
+import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.service.dto.RoleDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Role} and its DTO {@link RoleDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface RoleMapper extends EntityMapper<RoleDTO, Role> {}
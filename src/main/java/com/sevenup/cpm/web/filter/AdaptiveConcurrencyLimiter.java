@@ -0,0 +1,115 @@
+package com.sevenup.cpm.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit adapting itself to the measured latency.
+ * <p>
+ * The limit follows the gradient between the long term latency and the latest one: it grows while requests are as
+ * fast as usual and shrinks as soon as they queue up somewhere, before the latency balloons. A failed request
+ * shrinks it multiplicatively.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * The long term latency averages about the last 600 requests.
+     */
+    private static final double LONG_RTT_SMOOTHING = 1.0 / 600;
+
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Take a slot, to be given back with {@link #release(long, boolean)} or {@link #release(boolean)}.
+     *
+     * @return false if the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot and adapt the limit.
+     *
+     * @param rttNanos how long the request took.
+     * @param failed whether the request failed on the server side.
+     */
+    public void release(long rttNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        update(rttNanos, failed, current);
+    }
+
+    /**
+     * Give back a slot without a latency sample, for a request whose duration says nothing about the capacity: only a
+     * failure adapts the limit.
+     *
+     * @param failed whether the request failed on the server side.
+     */
+    public void release(boolean failed) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            backOff();
+        }
+    }
+
+    private synchronized void backOff() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    private synchronized void update(long rttNanos, boolean failed, int inFlightAtCompletion) {
+        double newLimit;
+        if (failed) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * (1 - LONG_RTT_SMOOTHING) + rttNanos * LONG_RTT_SMOOTHING;
+            if (inFlightAtCompletion < limit / 2) {
+                // Too few requests to tell anything about the capacity
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / Math.max(1, rttNanos)));
+            double queueSize = Math.sqrt(limit);
+            newLimit = limit * (1 - LIMIT_SMOOTHING) + (limit * gradient + queueSize) * LIMIT_SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Whether more than the given share of the limit is in use.
+     */
+    public boolean isBusierThan(double share) {
+        return inFlight.get() >= getLimit() * share;
+    }
+}
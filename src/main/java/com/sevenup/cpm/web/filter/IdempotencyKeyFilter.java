@@ -0,0 +1,253 @@
+package com.sevenup.cpm.web.filter;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.security.SecurityUtils;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Replays the response of an API write to its retries carrying the same {@code Idempotency-Key} header, instead of
+ * performing the write again.
+ * <p>
+ * Keys are scoped to the authenticated user and remembered in memory for a while: a retry reaching another instance
+ * of the application is performed again. A key reused for a different request is rejected with a 422, and a retry
+ * arriving while the original request is still running with a 409. Server errors are not remembered, so that their
+ * retries go through.
+ */
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    private final int maxBodySize;
+
+    private final LongSupplier nanoClock;
+
+    public IdempotencyKeyFilter(ApplicationProperties.Idempotency properties) {
+        this(properties, System::nanoTime);
+    }
+
+    IdempotencyKeyFilter(ApplicationProperties.Idempotency properties, LongSupplier nanoClock) {
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxEntries = properties.getMaxEntries();
+        this.maxBodySize = properties.getMaxBodySize();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        boolean write =
+            method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+        return !write || !path.startsWith("/api/") || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + IDEMPOTENCY_KEY_HEADER + " header");
+            return;
+        }
+        Optional<String> login = SecurityUtils.getCurrentUserLogin();
+        if (login.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        HttpServletRequest bufferedRequest = new BufferedBodyRequest(request, body);
+        String cacheKey = login.get() + '\n' + key;
+        long now = nanoClock.getAsLong();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            if (entries.size() >= maxEntries) {
+                filterChain.doFilter(bufferedRequest, response);
+                return;
+            }
+        }
+
+        Entry entry = new Entry(fingerprint(request, body), now + ttlNanos);
+        Entry current = entries.compute(cacheKey, (k, existing) -> existing == null || existing.isExpired(now) ? entry : existing);
+        if (current != entry) {
+            replay(current, entry.fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean remembered = false;
+        try {
+            filterChain.doFilter(bufferedRequest, responseWrapper);
+            boolean serverError = responseWrapper.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            if (!serverError && responseWrapper.getContentSize() <= maxBodySize) {
+                entry.response = new RecordedResponse(responseWrapper);
+                remembered = true;
+            }
+        } finally {
+            if (!remembered) {
+                entries.remove(cacheKey, entry);
+            }
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void replay(Entry entry, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!entry.fingerprint.equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), IDEMPOTENCY_KEY_HEADER + " already used for another request");
+            return;
+        }
+        RecordedResponse recorded = entry.response;
+        if (recorded == null) {
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with the same " + IDEMPOTENCY_KEY_HEADER + " is in progress");
+            return;
+        }
+        response.setStatus(recorded.status);
+        recorded.headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(recorded.body.length);
+        response.getOutputStream().write(recorded.body);
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String target = request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n';
+            digest.update(target.getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return String.format("%064x", new BigInteger(1, digest.digest()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    int getEntryCount() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        /**
+         * The response to replay, {@code null} as long as the original request is running.
+         */
+        private volatile RecordedResponse response;
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private static final class RecordedResponse {
+
+        private final int status;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final byte[] body;
+
+        private RecordedResponse(ContentCachingResponseWrapper response) {
+            this.status = response.getStatus();
+            for (String name : response.getHeaderNames()) {
+                headers.addAll(name, new ArrayList<>(response.getHeaders(name)));
+            }
+            if (response.getContentType() != null) {
+                headers.set(HttpHeaders.CONTENT_TYPE, response.getContentType());
+            }
+            this.body = response.getContentAsByteArray();
+        }
+    }
+
+    /**
+     * Serves a request body already read, as the filter needs it before the request is handled.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(
+                new InputStreamReader(getInputStream(), encoding != null ? encoding : StandardCharsets.UTF_8.name())
+            );
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.sevenup.cpm.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.web.rest.errors.ErrorConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+/**
+ * Rejects the API requests exceeding the adaptive concurrency limit of their endpoint class, with a 503 problem and a
+ * {@code Retry-After} header, instead of letting them queue up while the database is slow.
+ * <p>
+ * The requests processed asynchronously, such as the streamed responses, hold their slot until they complete, but their
+ * duration is not taken as a latency sample: it is the time the client takes to read the stream, and would shrink the
+ * limit of the quick requests of their class.
+ * <p>
+ * Reads, which serve the permission checks, have priority: writes are shed as soon as the reads use most of their
+ * own limit.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_METER_NAME = "http.server.concurrency.limit";
+
+    public static final String IN_FLIGHT_METER_NAME = "http.server.concurrency.in-flight";
+
+    public static final String REJECTED_METER_NAME = "http.server.requests.rejected";
+
+    public static final String ENDPOINT_CLASS_DIMENSION = "endpoint-class";
+
+    /**
+     * Share of the read limit beyond which writes are rejected.
+     */
+    private static final double READ_PRIORITY_SHARE = 0.8;
+
+    enum EndpointClass {
+        READ,
+        WRITE,
+    }
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Counter> rejectedCounters = new EnumMap<>(EndpointClass.class);
+
+    private final String retryAfter;
+
+    private final ObjectMapper objectMapper;
+
+    public LoadSheddingFilter(ApplicationProperties.LoadShedding properties, MeterRegistry registry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.retryAfter = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit()
+            );
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            limiters.put(endpointClass, limiter);
+            Gauge.builder(LIMIT_METER_NAME, limiter, AdaptiveConcurrencyLimiter::getLimit).tag(ENDPOINT_CLASS_DIMENSION, tag).register(registry);
+            Gauge
+                .builder(IN_FLIGHT_METER_NAME, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag(ENDPOINT_CLASS_DIMENSION, tag)
+                .register(registry);
+            rejectedCounters.put(
+                endpointClass,
+                Counter
+                    .builder(REJECTED_METER_NAME)
+                    .description("Requests rejected by the concurrency limit")
+                    .tag(ENDPOINT_CLASS_DIMENSION, tag)
+                    .register(registry)
+            );
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Event streams stay open for minutes, they would hold their slot all along
+        return !path.startsWith("/api/") || path.startsWith("/api/stream/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+        boolean yieldToReads = endpointClass == EndpointClass.WRITE && limiters.get(EndpointClass.READ).isBusierThan(READ_PRIORITY_SHARE);
+        if (yieldToReads || !limiter.tryAcquire()) {
+            rejectedCounters.get(endpointClass).increment();
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The response is still being written, the slot is released once it completes
+                request.getAsyncContext().addListener(new ReleasingListener(limiter, response));
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.DEFAULT_TYPE)
+            .withTitle(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withDetail("Too many concurrent requests, retry later")
+            .with("path", request.getRequestURI())
+            .with("message", "error.http." + HttpStatus.SERVICE_UNAVAILABLE.value())
+            .build();
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+            ? EndpointClass.READ
+            : EndpointClass.WRITE;
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    /**
+     * Releases the slot of an asynchronous request once, when it completes, fails or times out, without a latency sample.
+     */
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private final HttpServletResponse response;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response) {
+            this.limiter = limiter;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Another asynchronous cycle of the same request, this listener stays registered only if added again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(failed);
+            }
+        }
+    }
+}
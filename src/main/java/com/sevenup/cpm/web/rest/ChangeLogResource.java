@@ -0,0 +1,42 @@
+package com.sevenup.cpm.web.rest;
+
+import com.sevenup.cpm.service.ChangeLogService;
+import com.sevenup.cpm.service.dto.ChangeSetDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller serving the change feed of the entities, recorded in {@link com.sevenup.cpm.domain.ChangeLog}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeLogResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeLogResource.class);
+
+    private final ChangeLogService changeLogService;
+
+    public ChangeLogResource(ChangeLogService changeLogService) {
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * {@code GET  /changes?since=:watermark} : get the created, updated and deleted entities since a watermark.
+     * <p>
+     * Consumers keep the returned watermark and pass it as {@code since} on their next call; while {@code hasMore}
+     * is true, more changes can be fetched right away.
+     *
+     * @param since the watermark returned by the previous call, {@code 0} to read the feed from its start.
+     * @param size the maximum number of change log entries to read.
+     * @return the changes and the next watermark.
+     */
+    @GetMapping("/changes")
+    public ChangeSetDTO getChanges(
+        @RequestParam(value = "since", defaultValue = "0") long since,
+        @RequestParam(value = "size", defaultValue = "1000") int size
+    ) {
+        log.debug("REST request to get the changes since : {}", since);
+        return changeLogService.findChangesSince(since, size);
+    }
+}
@@ -0,0 +1,98 @@
+package com.sevenup.cpm.web.rest;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.service.ChangeStreamListener;
+import com.sevenup.cpm.service.ChangeStreamService;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller pushing the entity changes as Server-Sent Events.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeStreamResource {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeStreamResource.class);
+
+    private final ChangeStreamService changeStreamService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ChangeStreamResource(ChangeStreamService changeStreamService, ApplicationProperties applicationProperties) {
+        this.changeStreamService = changeStreamService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code GET  /stream/changes} : stream the changes of the entities as they are committed.
+     * <p>
+     * Each {@code change} event carries the change log watermark as its id, so a reconnecting client sending
+     * {@code Last-Event-ID} first gets the changes it missed. A {@code resync} event tells the client to catch up
+     * from {@code GET /api/changes} instead, an {@code overflow} event that it fell too far behind.
+     *
+     * @param lastEventId the id of the last event received before a reconnection.
+     * @param entityNames the names of the entities whose changes are streamed.
+     * @return the event stream.
+     * @throws IOException if the missed changes could not be replayed.
+     */
+    @GetMapping(value = "/stream/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+        @RequestParam(value = "entityNames", defaultValue = "groupUser,groupRole,role") List<String> entityNames
+    ) throws IOException {
+        log.debug("REST request to stream the changes of {}, after : {}", entityNames, lastEventId);
+        SseEmitter emitter = new SseEmitter(applicationProperties.getChangeStream().getTimeout().toMillis());
+        ChangeStreamService.Subscription subscription = changeStreamService.subscribe(
+            new LinkedHashSet<>(entityNames),
+            lastEventId,
+            new EmitterListener(emitter)
+        );
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    private static final class EmitterListener implements ChangeStreamListener {
+
+        private final SseEmitter emitter;
+
+        private EmitterListener(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onChange(ChangeDTO change) throws IOException {
+            emitter.send(
+                SseEmitter.event().id(String.valueOf(change.getWatermark())).name("change").data(change, MediaType.APPLICATION_JSON)
+            );
+        }
+
+        @Override
+        public void onHeartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void onClose(CloseReason reason) {
+            try {
+                if (reason == CloseReason.RESYNC_REQUIRED) {
+                    emitter.send(SseEmitter.event().name("resync").data(""));
+                } else if (reason == CloseReason.SLOW_CONSUMER) {
+                    emitter.send(SseEmitter.event().name("overflow").data(""));
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package com.sevenup.cpm.web.rest;
 
-import com.sevenup.cpm.domain.Department;
 import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.service.CascadeDeleteService;
+import com.sevenup.cpm.service.DepartmentQueryService;
+import com.sevenup.cpm.service.DepartmentScope;
+import com.sevenup.cpm.service.DepartmentScopeService;
+import com.sevenup.cpm.service.DepartmentService;
+import com.sevenup.cpm.service.GroupService;
+import com.sevenup.cpm.service.JobService;
+import com.sevenup.cpm.service.criteria.DepartmentCriteria;
+import com.sevenup.cpm.service.dto.DepartmentDTO;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.service.job.CascadeDeleteJobHandler;
 import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import com.sevenup.cpm.web.rest.util.ConditionalResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -10,11 +22,17 @@ import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -22,7 +40,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class DepartmentResource {
 
     private final Logger log = LoggerFactory.getLogger(DepartmentResource.class);
@@ -34,24 +51,51 @@ public class DepartmentResource {
 
     private final DepartmentRepository departmentRepository;
 
-    public DepartmentResource(DepartmentRepository departmentRepository) {
+    private final DepartmentService departmentService;
+
+    private final DepartmentQueryService departmentQueryService;
+
+    private final CascadeDeleteService cascadeDeleteService;
+
+    private final JobService jobService;
+
+    private final GroupService groupService;
+
+    private final DepartmentScopeService departmentScopeService;
+
+    public DepartmentResource(
+        DepartmentRepository departmentRepository,
+        GroupService groupService,
+        DepartmentService departmentService,
+        DepartmentQueryService departmentQueryService,
+        CascadeDeleteService cascadeDeleteService,
+        JobService jobService,
+        DepartmentScopeService departmentScopeService
+    ) {
         this.departmentRepository = departmentRepository;
+        this.groupService = groupService;
+        this.departmentService = departmentService;
+        this.departmentQueryService = departmentQueryService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.jobService = jobService;
+        this.departmentScopeService = departmentScopeService;
     }
 
     /**
      * {@code POST  /departments} : Create a new department.
      *
-     * @param department the department to create.
+     * @param departmentDTO the departmentDTO to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new department, or with status {@code 400 (Bad Request)} if the department has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/departments")
-    public ResponseEntity<Department> createDepartment(@RequestBody Department department) throws URISyntaxException {
-        log.debug("REST request to save Department : {}", department);
-        if (department.getId() != null) {
+    public ResponseEntity<DepartmentDTO> createDepartment(@RequestBody DepartmentDTO departmentDTO) throws URISyntaxException {
+        log.debug("REST request to save Department : {}", departmentDTO);
+        if (departmentDTO.getId() != null) {
             throw new BadRequestAlertException("A new department cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Department result = departmentRepository.save(department);
+        departmentScopeService.checkDepartment(departmentDTO.getIdParent());
+        DepartmentDTO result = departmentService.save(departmentDTO);
         return ResponseEntity
             .created(new URI("/api/departments/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,33 +106,32 @@ public class DepartmentResource {
      * {@code PUT  /departments/:id} : Updates an existing department.
      *
      * @param id the id of the department to save.
-     * @param department the department to update.
+     * @param departmentDTO the departmentDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated department,
      * or with status {@code 400 (Bad Request)} if the department is not valid,
      * or with status {@code 500 (Internal Server Error)} if the department couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/departments/{id}")
-    public ResponseEntity<Department> updateDepartment(
+    public ResponseEntity<DepartmentDTO> updateDepartment(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Department department
+        @RequestBody DepartmentDTO departmentDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update Department : {}, {}", id, department);
-        if (department.getId() == null) {
+        log.debug("REST request to update Department : {}, {}", id, departmentDTO);
+        if (departmentDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, department.getId())) {
+        if (!Objects.equals(id, departmentDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkDepartmentUpdate(id, departmentDTO.getIdParent(), false);
 
-        if (!departmentRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Department result = departmentRepository.save(department);
+        DepartmentDTO result = departmentService
+            .update(departmentDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, department.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, departmentDTO.getId().toString()))
             .body(result);
     }
 
@@ -96,7 +139,7 @@ public class DepartmentResource {
      * {@code PATCH  /departments/:id} : Partial updates given fields of an existing department, field will ignore if it is null
      *
      * @param id the id of the department to save.
-     * @param department the department to update.
+     * @param departmentDTO the departmentDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated department,
      * or with status {@code 400 (Bad Request)} if the department is not valid,
      * or with status {@code 404 (Not Found)} if the department is not found,
@@ -104,76 +147,137 @@ public class DepartmentResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/departments/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Department> partialUpdateDepartment(
+    public ResponseEntity<DepartmentDTO> partialUpdateDepartment(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Department department
+        @RequestBody DepartmentDTO departmentDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update Department partially : {}, {}", id, department);
-        if (department.getId() == null) {
+        log.debug("REST request to partial update Department partially : {}, {}", id, departmentDTO);
+        if (departmentDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, department.getId())) {
+        if (!Objects.equals(id, departmentDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkDepartmentUpdate(id, departmentDTO.getIdParent(), true);
 
         if (!departmentRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Department> result = departmentRepository
-            .findById(department.getId())
-            .map(existingDepartment -> {
-                if (department.getName() != null) {
-                    existingDepartment.setName(department.getName());
-                }
-                if (department.getIdParent() != null) {
-                    existingDepartment.setIdParent(department.getIdParent());
-                }
-
-                return existingDepartment;
-            })
-            .map(departmentRepository::save);
+        Optional<DepartmentDTO> result = departmentService.partialUpdate(departmentDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, department.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, departmentDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /departments} : get all the departments.
+     * {@code GET  /departments} : get all the departments in the scope of the current user.
+     * <p>
+     * The list may be filtered with criteria, for example {@code ?id.greaterThan=5&name.contains=sales}.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param request the current request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of departments in body.
      */
     @GetMapping("/departments")
-    public List<Department> getAllDepartments() {
-        log.debug("REST request to get all Departments");
-        return departmentRepository.findAll();
+    public ResponseEntity<List<DepartmentDTO>> getAllDepartments(DepartmentCriteria criteria, WebRequest request) {
+        log.debug("REST request to get Departments by criteria: {}", criteria);
+        DepartmentScope scope = departmentScopeService.getCurrentScope();
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            ConditionalResponseUtil.entityTag(scope, departmentService::getChangeCounter),
+            // Without any filter, the list is read as projections rather than entities
+            () ->
+                new DepartmentCriteria().equals(criteria)
+                    ? departmentService.findAll(scope)
+                    : departmentQueryService.findByCriteria(criteria, scope)
+        );
+    }
+
+    /**
+     * {@code GET  /departments/count} : count all the departments in the scope of the current user.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/departments/count")
+    public ResponseEntity<Long> countDepartments(DepartmentCriteria criteria) {
+        log.debug("REST request to count Departments by criteria: {}", criteria);
+        return ResponseEntity.ok().body(departmentQueryService.countByCriteria(criteria, departmentScopeService.getCurrentScope()));
     }
 
     /**
      * {@code GET  /departments/:id} : get the "id" department.
      *
      * @param id the id of the department to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the department, or with status {@code 404 (Not Found)}.
+     * @param request the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the department,
+     * or with status {@code 304 (Not Modified)} if the client holds its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/departments/{id}")
-    public ResponseEntity<Department> getDepartment(@PathVariable Long id) {
+    public ResponseEntity<DepartmentDTO> getDepartment(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Department : {}", id);
-        Optional<Department> department = departmentRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(department);
+        departmentScopeService.checkDepartment(id);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            departmentService.findVersion(id),
+            () -> departmentService.findOne(id)
+        );
+    }
+
+    /**
+     * {@code GET  /departments/:id/groups} : get a page of the groups of the "id" department.
+     *
+     * @param id the id of the department.
+     * @param includeSubDepartments whether the groups of all the descendant departments are included too.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of groups in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/departments/{id}/groups")
+    public ResponseEntity<List<GroupDTO>> getDepartmentGroups(
+        @PathVariable Long id,
+        @RequestParam(value = "includeSubDepartments", defaultValue = "false") boolean includeSubDepartments,
+        @ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of the Groups of Department : {}, includeSubDepartments : {}", id, includeSubDepartments);
+        departmentScopeService.checkDepartment(id);
+        if (!departmentRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Page<GroupDTO> page = groupService.findAllByDepartment(id, includeSubDepartments, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
      * {@code DELETE  /departments/:id} : delete the "id" department.
      *
      * @param id the id of the department to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @param cascade whether to also delete the sub-departments, their groups and the memberships of these groups.
+     * @param async whether to run the cascade in the background.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 202 (Accepted)} and with body the job running the cascade in the background.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @DeleteMapping("/departments/{id}")
-    public ResponseEntity<Void> deleteDepartment(@PathVariable Long id) {
-        log.debug("REST request to delete Department : {}", id);
-        departmentRepository.deleteById(id);
+    public ResponseEntity<JobDTO> deleteDepartment(
+        @PathVariable Long id,
+        @RequestParam(required = false, defaultValue = "false") boolean cascade,
+        @RequestParam(required = false, defaultValue = "false") boolean async
+    ) throws URISyntaxException {
+        log.debug("REST request to delete Department : {}, cascade: {}", id, cascade);
+        departmentScopeService.checkDepartment(id);
+        if (cascade && async) {
+            JobDTO job = jobService.submit(CascadeDeleteJobHandler.TYPE, CascadeDeleteJobHandler.parameters(ENTITY_NAME, id));
+            return ResponseEntity.accepted().location(new URI("/api/jobs/" + job.getId())).body(job);
+        }
+        if (cascade) {
+            cascadeDeleteService.deleteDepartment(id, deleted -> {});
+        } else {
+            departmentService.delete(id);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
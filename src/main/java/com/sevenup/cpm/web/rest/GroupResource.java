@@ -1,8 +1,18 @@
 package com.sevenup.cpm.web.rest;
 
-import com.sevenup.cpm.domain.Group;
 import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.service.CascadeDeleteService;
+import com.sevenup.cpm.service.DepartmentScope;
+import com.sevenup.cpm.service.DepartmentScopeService;
+import com.sevenup.cpm.service.GroupQueryService;
+import com.sevenup.cpm.service.GroupService;
+import com.sevenup.cpm.service.JobService;
+import com.sevenup.cpm.service.criteria.GroupCriteria;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.service.job.CascadeDeleteJobHandler;
 import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import com.sevenup.cpm.web.rest.util.ConditionalResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -12,8 +22,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -22,7 +32,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class GroupResource {
 
     private final Logger log = LoggerFactory.getLogger(GroupResource.class);
@@ -34,24 +43,47 @@ public class GroupResource {
 
     private final GroupRepository groupRepository;
 
-    public GroupResource(GroupRepository groupRepository) {
+    private final GroupService groupService;
+
+    private final GroupQueryService groupQueryService;
+
+    private final CascadeDeleteService cascadeDeleteService;
+
+    private final JobService jobService;
+
+    private final DepartmentScopeService departmentScopeService;
+
+    public GroupResource(
+        GroupRepository groupRepository,
+        GroupService groupService,
+        GroupQueryService groupQueryService,
+        CascadeDeleteService cascadeDeleteService,
+        JobService jobService,
+        DepartmentScopeService departmentScopeService
+    ) {
         this.groupRepository = groupRepository;
+        this.groupService = groupService;
+        this.groupQueryService = groupQueryService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.jobService = jobService;
+        this.departmentScopeService = departmentScopeService;
     }
 
     /**
      * {@code POST  /groups} : Create a new group.
      *
-     * @param group the group to create.
+     * @param groupDTO the groupDTO to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new group, or with status {@code 400 (Bad Request)} if the group has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/groups")
-    public ResponseEntity<Group> createGroup(@RequestBody Group group) throws URISyntaxException {
-        log.debug("REST request to save Group : {}", group);
-        if (group.getId() != null) {
+    public ResponseEntity<GroupDTO> createGroup(@RequestBody GroupDTO groupDTO) throws URISyntaxException {
+        log.debug("REST request to save Group : {}", groupDTO);
+        if (groupDTO.getId() != null) {
             throw new BadRequestAlertException("A new group cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Group result = groupRepository.save(group);
+        departmentScopeService.checkDepartment(groupDTO.getDepartmentId());
+        GroupDTO result = groupService.save(groupDTO);
         return ResponseEntity
             .created(new URI("/api/groups/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,31 +94,30 @@ public class GroupResource {
      * {@code PUT  /groups/:id} : Updates an existing group.
      *
      * @param id the id of the group to save.
-     * @param group the group to update.
+     * @param groupDTO the groupDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated group,
      * or with status {@code 400 (Bad Request)} if the group is not valid,
      * or with status {@code 500 (Internal Server Error)} if the group couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/groups/{id}")
-    public ResponseEntity<Group> updateGroup(@PathVariable(value = "id", required = false) final Long id, @RequestBody Group group)
+    public ResponseEntity<GroupDTO> updateGroup(@PathVariable(value = "id", required = false) final Long id, @RequestBody GroupDTO groupDTO)
         throws URISyntaxException {
-        log.debug("REST request to update Group : {}, {}", id, group);
-        if (group.getId() == null) {
+        log.debug("REST request to update Group : {}, {}", id, groupDTO);
+        if (groupDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, group.getId())) {
+        if (!Objects.equals(id, groupDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkGroupUpdate(id, groupDTO.getDepartmentId(), false);
 
-        if (!groupRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Group result = groupRepository.save(group);
+        GroupDTO result = groupService
+            .update(groupDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, group.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupDTO.getId().toString()))
             .body(result);
     }
 
@@ -94,7 +125,7 @@ public class GroupResource {
      * {@code PATCH  /groups/:id} : Partial updates given fields of an existing group, field will ignore if it is null
      *
      * @param id the id of the group to save.
-     * @param group the group to update.
+     * @param groupDTO the groupDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated group,
      * or with status {@code 400 (Bad Request)} if the group is not valid,
      * or with status {@code 404 (Not Found)} if the group is not found,
@@ -102,74 +133,106 @@ public class GroupResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/groups/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Group> partialUpdateGroup(@PathVariable(value = "id", required = false) final Long id, @RequestBody Group group)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Group partially : {}, {}", id, group);
-        if (group.getId() == null) {
+    public ResponseEntity<GroupDTO> partialUpdateGroup(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody GroupDTO groupDTO
+    ) throws URISyntaxException {
+        log.debug("REST request to partial update Group partially : {}, {}", id, groupDTO);
+        if (groupDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, group.getId())) {
+        if (!Objects.equals(id, groupDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkGroupUpdate(id, groupDTO.getDepartmentId(), true);
 
         if (!groupRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Group> result = groupRepository
-            .findById(group.getId())
-            .map(existingGroup -> {
-                if (group.getDepartmentId() != null) {
-                    existingGroup.setDepartmentId(group.getDepartmentId());
-                }
-                if (group.getName() != null) {
-                    existingGroup.setName(group.getName());
-                }
-
-                return existingGroup;
-            })
-            .map(groupRepository::save);
+        Optional<GroupDTO> result = groupService.partialUpdate(groupDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, group.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /groups} : get all the groups.
+     * {@code GET  /groups} : get all the groups of the departments in the scope of the current user.
+     * <p>
+     * The list may be filtered with criteria, for example {@code ?id.greaterThan=5&name.contains=sales}.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param request the current request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of groups in body.
      */
     @GetMapping("/groups")
-    public List<Group> getAllGroups() {
-        log.debug("REST request to get all Groups");
-        return groupRepository.findAll();
+    public ResponseEntity<List<GroupDTO>> getAllGroups(GroupCriteria criteria, WebRequest request) {
+        log.debug("REST request to get Groups by criteria: {}", criteria);
+        DepartmentScope scope = departmentScopeService.getCurrentScope();
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            ConditionalResponseUtil.entityTag(scope, groupService::getChangeCounter),
+            // Without any filter, the list is read as projections rather than entities
+            () -> new GroupCriteria().equals(criteria) ? groupService.findAll(scope) : groupQueryService.findByCriteria(criteria, scope)
+        );
+    }
+
+    /**
+     * {@code GET  /groups/count} : count all the groups of the departments in the scope of the current user.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/groups/count")
+    public ResponseEntity<Long> countGroups(GroupCriteria criteria) {
+        log.debug("REST request to count Groups by criteria: {}", criteria);
+        return ResponseEntity.ok().body(groupQueryService.countByCriteria(criteria, departmentScopeService.getCurrentScope()));
     }
 
     /**
      * {@code GET  /groups/:id} : get the "id" group.
      *
      * @param id the id of the group to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the group, or with status {@code 404 (Not Found)}.
+     * @param request the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the group,
+     * or with status {@code 304 (Not Modified)} if the client holds its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/groups/{id}")
-    public ResponseEntity<Group> getGroup(@PathVariable Long id) {
+    public ResponseEntity<GroupDTO> getGroup(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Group : {}", id);
-        Optional<Group> group = groupRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(group);
+        departmentScopeService.checkGroup(id);
+        return ConditionalResponseUtil.wrapOrNotModified(request, groupService.findVersion(id), () -> groupService.findOne(id));
     }
 
     /**
      * {@code DELETE  /groups/:id} : delete the "id" group.
      *
      * @param id the id of the group to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @param cascade whether to also delete the user and role memberships of the group.
+     * @param async whether to run the cascade in the background.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 202 (Accepted)} and with body the job running the cascade in the background.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @DeleteMapping("/groups/{id}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable Long id) {
-        log.debug("REST request to delete Group : {}", id);
-        groupRepository.deleteById(id);
+    public ResponseEntity<JobDTO> deleteGroup(
+        @PathVariable Long id,
+        @RequestParam(required = false, defaultValue = "false") boolean cascade,
+        @RequestParam(required = false, defaultValue = "false") boolean async
+    ) throws URISyntaxException {
+        log.debug("REST request to delete Group : {}, cascade: {}", id, cascade);
+        departmentScopeService.checkGroup(id);
+        if (cascade && async) {
+            JobDTO job = jobService.submit(CascadeDeleteJobHandler.TYPE, CascadeDeleteJobHandler.parameters(ENTITY_NAME, id));
+            return ResponseEntity.accepted().location(new URI("/api/jobs/" + job.getId())).body(job);
+        }
+        if (cascade) {
+            cascadeDeleteService.deleteGroup(id, deleted -> {});
+        } else {
+            groupService.delete(id);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
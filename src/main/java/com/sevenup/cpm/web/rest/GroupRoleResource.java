@@ -1,8 +1,16 @@
 package com.sevenup.cpm.web.rest;
 
-import com.sevenup.cpm.domain.GroupRole;
 import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.service.DepartmentScope;
+import com.sevenup.cpm.service.DepartmentScopeService;
+import com.sevenup.cpm.service.GroupRoleQueryService;
+import com.sevenup.cpm.service.GroupRoleService;
+import com.sevenup.cpm.service.GroupService;
+import com.sevenup.cpm.service.criteria.GroupRoleCriteria;
+import com.sevenup.cpm.service.dto.GroupRoleDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
 import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import com.sevenup.cpm.web.rest.util.ConditionalResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -12,8 +20,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -22,7 +30,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class GroupRoleResource {
 
     private final Logger log = LoggerFactory.getLogger(GroupRoleResource.class);
@@ -34,24 +41,44 @@ public class GroupRoleResource {
 
     private final GroupRoleRepository groupRoleRepository;
 
-    public GroupRoleResource(GroupRoleRepository groupRoleRepository) {
+    private final GroupRoleService groupRoleService;
+
+    private final GroupRoleQueryService groupRoleQueryService;
+
+    private final GroupService groupService;
+
+    private final DepartmentScopeService departmentScopeService;
+
+    public GroupRoleResource(
+        GroupRoleRepository groupRoleRepository,
+        GroupRoleService groupRoleService,
+        GroupRoleQueryService groupRoleQueryService,
+        GroupService groupService,
+        DepartmentScopeService departmentScopeService
+    ) {
         this.groupRoleRepository = groupRoleRepository;
+        this.groupRoleService = groupRoleService;
+        this.groupRoleQueryService = groupRoleQueryService;
+        this.groupService = groupService;
+        this.departmentScopeService = departmentScopeService;
     }
 
     /**
      * {@code POST  /group-roles} : Create a new groupRole.
      *
-     * @param groupRole the groupRole to create.
+     * @param groupRoleDTO the groupRoleDTO to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new groupRole, or with status {@code 400 (Bad Request)} if the groupRole has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/group-roles")
-    public ResponseEntity<GroupRole> createGroupRole(@RequestBody GroupRole groupRole) throws URISyntaxException {
-        log.debug("REST request to save GroupRole : {}", groupRole);
-        if (groupRole.getId() != null) {
+    public ResponseEntity<GroupRoleDTO> createGroupRole(@RequestBody GroupRoleDTO groupRoleDTO) throws URISyntaxException {
+        log.debug("REST request to save GroupRole : {}", groupRoleDTO);
+        if (groupRoleDTO.getId() != null) {
             throw new BadRequestAlertException("A new groupRole cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        GroupRole result = groupRoleRepository.save(groupRole);
+        checkValidityPeriod(groupRoleDTO);
+        departmentScopeService.checkGroup(groupRoleDTO.getGroupId());
+        GroupRoleDTO result = groupRoleService.save(groupRoleDTO);
         return ResponseEntity
             .created(new URI("/api/group-roles/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,41 +89,68 @@ public class GroupRoleResource {
      * {@code PUT  /group-roles/:id} : Updates an existing groupRole.
      *
      * @param id the id of the groupRole to save.
-     * @param groupRole the groupRole to update.
+     * @param groupRoleDTO the groupRoleDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated groupRole,
      * or with status {@code 400 (Bad Request)} if the groupRole is not valid,
      * or with status {@code 500 (Internal Server Error)} if the groupRole couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/group-roles/{id}")
-    public ResponseEntity<GroupRole> updateGroupRole(
+    public ResponseEntity<GroupRoleDTO> updateGroupRole(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody GroupRole groupRole
+        @RequestBody GroupRoleDTO groupRoleDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update GroupRole : {}, {}", id, groupRole);
-        if (groupRole.getId() == null) {
+        log.debug("REST request to update GroupRole : {}, {}", id, groupRoleDTO);
+        if (groupRoleDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, groupRole.getId())) {
+        if (!Objects.equals(id, groupRoleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        checkValidityPeriod(groupRoleDTO);
+        departmentScopeService.checkGroupRole(id);
+        departmentScopeService.checkGroup(groupRoleDTO.getGroupId());
 
-        if (!groupRoleRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        GroupRole result = groupRoleRepository.save(groupRole);
+        GroupRoleDTO result = groupRoleService
+            .update(groupRoleDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupRole.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupRoleDTO.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code PUT  /groups/:groupId/roles/:roleId} : Add a role to a group, unless it is already there.
+     * <p>
+     * Retrying the call is safe: it never creates a duplicate membership.
+     *
+     * @param groupId the id of the group.
+     * @param roleId the id of the role.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new groupRole,
+     * or with status {@code 200 (OK)} and with body the existing groupRole.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PutMapping("/groups/{groupId}/roles/{roleId}")
+    public ResponseEntity<GroupRoleDTO> upsertGroupRole(@PathVariable Long groupId, @PathVariable Long roleId) throws URISyntaxException {
+        log.debug("REST request to upsert GroupRole : {}, {}", groupId, roleId);
+        departmentScopeService.checkGroup(groupId);
+        UpsertResultDTO<GroupRoleDTO> result = groupRoleService.upsert(groupId, roleId);
+        GroupRoleDTO groupRoleDTO = result.getEntity();
+        if (!result.isCreated()) {
+            return ResponseEntity.ok(groupRoleDTO);
+        }
+        return ResponseEntity
+            .created(new URI("/api/group-roles/" + groupRoleDTO.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, groupRoleDTO.getId().toString()))
+            .body(groupRoleDTO);
+    }
+
     /**
      * {@code PATCH  /group-roles/:id} : Partial updates given fields of an existing groupRole, field will ignore if it is null
      *
      * @param id the id of the groupRole to save.
-     * @param groupRole the groupRole to update.
+     * @param groupRoleDTO the groupRoleDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated groupRole,
      * or with status {@code 400 (Bad Request)} if the groupRole is not valid,
      * or with status {@code 404 (Not Found)} if the groupRole is not found,
@@ -104,64 +158,83 @@ public class GroupRoleResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/group-roles/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<GroupRole> partialUpdateGroupRole(
+    public ResponseEntity<GroupRoleDTO> partialUpdateGroupRole(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody GroupRole groupRole
+        @RequestBody GroupRoleDTO groupRoleDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update GroupRole partially : {}, {}", id, groupRole);
-        if (groupRole.getId() == null) {
+        log.debug("REST request to partial update GroupRole partially : {}, {}", id, groupRoleDTO);
+        if (groupRoleDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, groupRole.getId())) {
+        if (!Objects.equals(id, groupRoleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkGroupRole(id);
+        if (groupRoleDTO.getGroupId() != null) {
+            departmentScopeService.checkGroup(groupRoleDTO.getGroupId());
+        }
 
         if (!groupRoleRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<GroupRole> result = groupRoleRepository
-            .findById(groupRole.getId())
-            .map(existingGroupRole -> {
-                if (groupRole.getGroupId() != null) {
-                    existingGroupRole.setGroupId(groupRole.getGroupId());
-                }
-                if (groupRole.getRoleId() != null) {
-                    existingGroupRole.setRoleId(groupRole.getRoleId());
-                }
-
-                return existingGroupRole;
-            })
-            .map(groupRoleRepository::save);
+        Optional<GroupRoleDTO> result = groupRoleService.partialUpdate(groupRoleDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupRole.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupRoleDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /group-roles} : get all the groupRoles.
+     * {@code GET  /group-roles} : get all the groupRoles of the groups of the departments in the scope of the current user.
+     * <p>
+     * The list may be filtered with criteria, for example {@code ?id.greaterThan=5&name.contains=sales}.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param request the current request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of groupRoles in body.
      */
     @GetMapping("/group-roles")
-    public List<GroupRole> getAllGroupRoles() {
-        log.debug("REST request to get all GroupRoles");
-        return groupRoleRepository.findAll();
+    public ResponseEntity<List<GroupRoleDTO>> getAllGroupRoles(GroupRoleCriteria criteria, WebRequest request) {
+        log.debug("REST request to get GroupRoles by criteria: {}", criteria);
+        DepartmentScope scope = departmentScopeService.getCurrentScope();
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            ConditionalResponseUtil.entityTag(scope, groupRoleService::getChangeCounter, groupService::getChangeCounter),
+            // Without any filter, the list is read as projections rather than entities
+            () ->
+                new GroupRoleCriteria().equals(criteria)
+                    ? groupRoleService.findAll(scope)
+                    : groupRoleQueryService.findByCriteria(criteria, scope)
+        );
+    }
+
+    /**
+     * {@code GET  /group-roles/count} : count all the groupRoles of the groups of the departments in the scope of the current user.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/group-roles/count")
+    public ResponseEntity<Long> countGroupRoles(GroupRoleCriteria criteria) {
+        log.debug("REST request to count GroupRoles by criteria: {}", criteria);
+        return ResponseEntity.ok().body(groupRoleQueryService.countByCriteria(criteria, departmentScopeService.getCurrentScope()));
     }
 
     /**
      * {@code GET  /group-roles/:id} : get the "id" groupRole.
      *
      * @param id the id of the groupRole to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the groupRole, or with status {@code 404 (Not Found)}.
+     * @param request the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the groupRole,
+     * or with status {@code 304 (Not Modified)} if the client holds its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/group-roles/{id}")
-    public ResponseEntity<GroupRole> getGroupRole(@PathVariable Long id) {
+    public ResponseEntity<GroupRoleDTO> getGroupRole(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get GroupRole : {}", id);
-        Optional<GroupRole> groupRole = groupRoleRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(groupRole);
+        departmentScopeService.checkGroupRole(id);
+        return ConditionalResponseUtil.wrapOrNotModified(request, groupRoleService.findVersion(id), () -> groupRoleService.findOne(id));
     }
 
     /**
@@ -173,10 +246,21 @@ public class GroupRoleResource {
     @DeleteMapping("/group-roles/{id}")
     public ResponseEntity<Void> deleteGroupRole(@PathVariable Long id) {
         log.debug("REST request to delete GroupRole : {}", id);
-        groupRoleRepository.deleteById(id);
+        departmentScopeService.checkGroupRole(id);
+        groupRoleService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static void checkValidityPeriod(GroupRoleDTO groupRoleDTO) {
+        if (
+            groupRoleDTO.getValidFrom() != null &&
+            groupRoleDTO.getValidUntil() != null &&
+            !groupRoleDTO.getValidFrom().isBefore(groupRoleDTO.getValidUntil())
+        ) {
+            throw new BadRequestAlertException("A membership must start before it expires", ENTITY_NAME, "invalidvalidityperiod");
+        }
+    }
 }
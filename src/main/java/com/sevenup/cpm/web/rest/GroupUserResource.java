@@ -1,8 +1,17 @@
 package com.sevenup.cpm.web.rest;
 
-import com.sevenup.cpm.domain.GroupUser;
 import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.DepartmentScope;
+import com.sevenup.cpm.service.DepartmentScopeService;
+import com.sevenup.cpm.service.GroupUserQueryService;
+import com.sevenup.cpm.service.GroupUserService;
+import com.sevenup.cpm.service.GroupService;
+import com.sevenup.cpm.service.criteria.GroupUserCriteria;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import com.sevenup.cpm.service.dto.MembershipSyncDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
 import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import com.sevenup.cpm.web.rest.util.ConditionalResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -12,8 +21,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -22,7 +31,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class GroupUserResource {
 
     private final Logger log = LoggerFactory.getLogger(GroupUserResource.class);
@@ -34,24 +42,44 @@ public class GroupUserResource {
 
     private final GroupUserRepository groupUserRepository;
 
-    public GroupUserResource(GroupUserRepository groupUserRepository) {
+    private final GroupUserService groupUserService;
+
+    private final GroupUserQueryService groupUserQueryService;
+
+    private final GroupService groupService;
+
+    private final DepartmentScopeService departmentScopeService;
+
+    public GroupUserResource(
+        GroupUserRepository groupUserRepository,
+        GroupUserService groupUserService,
+        GroupUserQueryService groupUserQueryService,
+        GroupService groupService,
+        DepartmentScopeService departmentScopeService
+    ) {
         this.groupUserRepository = groupUserRepository;
+        this.groupUserService = groupUserService;
+        this.groupUserQueryService = groupUserQueryService;
+        this.groupService = groupService;
+        this.departmentScopeService = departmentScopeService;
     }
 
     /**
      * {@code POST  /group-users} : Create a new groupUser.
      *
-     * @param groupUser the groupUser to create.
+     * @param groupUserDTO the groupUserDTO to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new groupUser, or with status {@code 400 (Bad Request)} if the groupUser has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/group-users")
-    public ResponseEntity<GroupUser> createGroupUser(@RequestBody GroupUser groupUser) throws URISyntaxException {
-        log.debug("REST request to save GroupUser : {}", groupUser);
-        if (groupUser.getId() != null) {
+    public ResponseEntity<GroupUserDTO> createGroupUser(@RequestBody GroupUserDTO groupUserDTO) throws URISyntaxException {
+        log.debug("REST request to save GroupUser : {}", groupUserDTO);
+        if (groupUserDTO.getId() != null) {
             throw new BadRequestAlertException("A new groupUser cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        GroupUser result = groupUserRepository.save(groupUser);
+        checkValidityPeriod(groupUserDTO);
+        departmentScopeService.checkGroup(groupUserDTO.getGroupId());
+        GroupUserDTO result = groupUserService.save(groupUserDTO);
         return ResponseEntity
             .created(new URI("/api/group-users/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,41 +90,86 @@ public class GroupUserResource {
      * {@code PUT  /group-users/:id} : Updates an existing groupUser.
      *
      * @param id the id of the groupUser to save.
-     * @param groupUser the groupUser to update.
+     * @param groupUserDTO the groupUserDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated groupUser,
      * or with status {@code 400 (Bad Request)} if the groupUser is not valid,
      * or with status {@code 500 (Internal Server Error)} if the groupUser couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/group-users/{id}")
-    public ResponseEntity<GroupUser> updateGroupUser(
+    public ResponseEntity<GroupUserDTO> updateGroupUser(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody GroupUser groupUser
+        @RequestBody GroupUserDTO groupUserDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update GroupUser : {}, {}", id, groupUser);
-        if (groupUser.getId() == null) {
+        log.debug("REST request to update GroupUser : {}, {}", id, groupUserDTO);
+        if (groupUserDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, groupUser.getId())) {
+        if (!Objects.equals(id, groupUserDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        checkValidityPeriod(groupUserDTO);
+        departmentScopeService.checkGroupUser(id);
+        departmentScopeService.checkGroup(groupUserDTO.getGroupId());
 
-        if (!groupUserRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        GroupUser result = groupUserRepository.save(groupUser);
+        GroupUserDTO result = groupUserService
+            .update(groupUserDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupUser.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupUserDTO.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code PUT  /groups/:groupId/users/:userId} : Add a user to a group, unless it is already there.
+     * <p>
+     * Retrying the call is safe: it never creates a duplicate membership.
+     *
+     * @param groupId the id of the group.
+     * @param userId the id of the user.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new groupUser,
+     * or with status {@code 200 (OK)} and with body the existing groupUser.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PutMapping("/groups/{groupId}/users/{userId}")
+    public ResponseEntity<GroupUserDTO> upsertGroupUser(@PathVariable Long groupId, @PathVariable Long userId) throws URISyntaxException {
+        log.debug("REST request to upsert GroupUser : {}, {}", groupId, userId);
+        departmentScopeService.checkGroup(groupId);
+        UpsertResultDTO<GroupUserDTO> result = groupUserService.upsert(groupId, userId);
+        GroupUserDTO groupUserDTO = result.getEntity();
+        if (!result.isCreated()) {
+            return ResponseEntity.ok(groupUserDTO);
+        }
+        return ResponseEntity
+            .created(new URI("/api/group-users/" + groupUserDTO.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, groupUserDTO.getId().toString()))
+            .body(groupUserDTO);
+    }
+
+    /**
+     * {@code PUT  /groups/:groupId/members} : Replace the members of a group.
+     *
+     * @param groupId the id of the group.
+     * @param userIds the ids of all the users which should be members of the group.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the counts of memberships added, removed and left in place,
+     * or with status {@code 400 (Bad Request)} if a user id is null, or with status {@code 404 (Not Found)} if the group does not exist.
+     */
+    @PutMapping("/groups/{groupId}/members")
+    public ResponseEntity<MembershipSyncDTO> syncGroupMembers(@PathVariable Long groupId, @RequestBody List<Long> userIds) {
+        log.debug("REST request to sync the members of Group : {}, {} users", groupId, userIds.size());
+        departmentScopeService.checkGroup(groupId);
+        if (userIds.contains(null)) {
+            throw new BadRequestAlertException("Invalid user id", ENTITY_NAME, "useridnull");
+        }
+        return ResponseUtil.wrapOrNotFound(groupUserService.syncMembers(groupId, userIds));
+    }
+
     /**
      * {@code PATCH  /group-users/:id} : Partial updates given fields of an existing groupUser, field will ignore if it is null
      *
      * @param id the id of the groupUser to save.
-     * @param groupUser the groupUser to update.
+     * @param groupUserDTO the groupUserDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated groupUser,
      * or with status {@code 400 (Bad Request)} if the groupUser is not valid,
      * or with status {@code 404 (Not Found)} if the groupUser is not found,
@@ -104,64 +177,83 @@ public class GroupUserResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/group-users/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<GroupUser> partialUpdateGroupUser(
+    public ResponseEntity<GroupUserDTO> partialUpdateGroupUser(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody GroupUser groupUser
+        @RequestBody GroupUserDTO groupUserDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update GroupUser partially : {}, {}", id, groupUser);
-        if (groupUser.getId() == null) {
+        log.debug("REST request to partial update GroupUser partially : {}, {}", id, groupUserDTO);
+        if (groupUserDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, groupUser.getId())) {
+        if (!Objects.equals(id, groupUserDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        departmentScopeService.checkGroupUser(id);
+        if (groupUserDTO.getGroupId() != null) {
+            departmentScopeService.checkGroup(groupUserDTO.getGroupId());
+        }
 
         if (!groupUserRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<GroupUser> result = groupUserRepository
-            .findById(groupUser.getId())
-            .map(existingGroupUser -> {
-                if (groupUser.getGroupId() != null) {
-                    existingGroupUser.setGroupId(groupUser.getGroupId());
-                }
-                if (groupUser.getUserId() != null) {
-                    existingGroupUser.setUserId(groupUser.getUserId());
-                }
-
-                return existingGroupUser;
-            })
-            .map(groupUserRepository::save);
+        Optional<GroupUserDTO> result = groupUserService.partialUpdate(groupUserDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupUser.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, groupUserDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /group-users} : get all the groupUsers.
+     * {@code GET  /group-users} : get all the groupUsers of the groups of the departments in the scope of the current user.
+     * <p>
+     * The list may be filtered with criteria, for example {@code ?id.greaterThan=5&name.contains=sales}.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param request the current request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of groupUsers in body.
      */
     @GetMapping("/group-users")
-    public List<GroupUser> getAllGroupUsers() {
-        log.debug("REST request to get all GroupUsers");
-        return groupUserRepository.findAll();
+    public ResponseEntity<List<GroupUserDTO>> getAllGroupUsers(GroupUserCriteria criteria, WebRequest request) {
+        log.debug("REST request to get GroupUsers by criteria: {}", criteria);
+        DepartmentScope scope = departmentScopeService.getCurrentScope();
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            ConditionalResponseUtil.entityTag(scope, groupUserService::getChangeCounter, groupService::getChangeCounter),
+            // Without any filter, the list is read as projections rather than entities
+            () ->
+                new GroupUserCriteria().equals(criteria)
+                    ? groupUserService.findAll(scope)
+                    : groupUserQueryService.findByCriteria(criteria, scope)
+        );
+    }
+
+    /**
+     * {@code GET  /group-users/count} : count all the groupUsers of the groups of the departments in the scope of the current user.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/group-users/count")
+    public ResponseEntity<Long> countGroupUsers(GroupUserCriteria criteria) {
+        log.debug("REST request to count GroupUsers by criteria: {}", criteria);
+        return ResponseEntity.ok().body(groupUserQueryService.countByCriteria(criteria, departmentScopeService.getCurrentScope()));
     }
 
     /**
      * {@code GET  /group-users/:id} : get the "id" groupUser.
      *
      * @param id the id of the groupUser to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the groupUser, or with status {@code 404 (Not Found)}.
+     * @param request the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the groupUser,
+     * or with status {@code 304 (Not Modified)} if the client holds its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/group-users/{id}")
-    public ResponseEntity<GroupUser> getGroupUser(@PathVariable Long id) {
+    public ResponseEntity<GroupUserDTO> getGroupUser(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get GroupUser : {}", id);
-        Optional<GroupUser> groupUser = groupUserRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(groupUser);
+        departmentScopeService.checkGroupUser(id);
+        return ConditionalResponseUtil.wrapOrNotModified(request, groupUserService.findVersion(id), () -> groupUserService.findOne(id));
     }
 
     /**
@@ -173,10 +265,21 @@ public class GroupUserResource {
     @DeleteMapping("/group-users/{id}")
     public ResponseEntity<Void> deleteGroupUser(@PathVariable Long id) {
         log.debug("REST request to delete GroupUser : {}", id);
-        groupUserRepository.deleteById(id);
+        departmentScopeService.checkGroupUser(id);
+        groupUserService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static void checkValidityPeriod(GroupUserDTO groupUserDTO) {
+        if (
+            groupUserDTO.getValidFrom() != null &&
+            groupUserDTO.getValidUntil() != null &&
+            !groupUserDTO.getValidFrom().isBefore(groupUserDTO.getValidUntil())
+        ) {
+            throw new BadRequestAlertException("A membership must start before it expires", ENTITY_NAME, "invalidvalidityperiod");
+        }
+    }
 }
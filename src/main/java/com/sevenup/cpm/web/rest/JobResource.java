@@ -0,0 +1,111 @@
+package com.sevenup.cpm.web.rest;
+
+import com.sevenup.cpm.service.JobService;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link com.sevenup.cpm.domain.Job}.
+ */
+@RestController
+@RequestMapping("/api")
+public class JobResource {
+
+    private final Logger log = LoggerFactory.getLogger(JobResource.class);
+
+    private static final String ENTITY_NAME = "job";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final JobService jobService;
+
+    public JobResource(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * {@code POST  /jobs} : Submit a new job, to be run in the background.
+     *
+     * @param jobDTO the type and the parameters of the job to submit.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the queued job,
+     * or with status {@code 400 (Bad Request)} if the job has already an ID, is of an unknown type or has too long parameters.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<JobDTO> submitJob(@RequestBody JobDTO jobDTO) throws URISyntaxException {
+        log.debug("REST request to submit Job : {}", jobDTO);
+        if (jobDTO.getId() != null) {
+            throw new BadRequestAlertException("A new job cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (!jobService.isSupported(jobDTO.getType())) {
+            throw new BadRequestAlertException("Unknown job type", ENTITY_NAME, "unknownjobtype");
+        }
+        JobDTO result;
+        try {
+            result = jobService.submit(jobDTO.getType(), jobDTO.getParameters());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidparameters");
+        }
+        return ResponseEntity
+            .created(new URI("/api/jobs/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /jobs} : get all the jobs.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body.
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobDTO>> getAllJobs(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of Jobs");
+        Page<JobDTO> page = jobService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /jobs/:id} : get the "id" job, with its status and progress.
+     *
+     * @param id the id of the job to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<JobDTO> getJob(@PathVariable Long id) {
+        log.debug("REST request to get Job : {}", id);
+        return ResponseUtil.wrapOrNotFound(jobService.findOne(id));
+    }
+
+    /**
+     * {@code POST  /jobs/:id/cancel} : cancel the "id" job, right away if it is queued or at its next checkpoint if it is running.
+     *
+     * @param id the id of the job to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/jobs/{id}/cancel")
+    public ResponseEntity<JobDTO> cancelJob(@PathVariable Long id) {
+        log.debug("REST request to cancel Job : {}", id);
+        return ResponseUtil.wrapOrNotFound(
+            jobService.cancel(id),
+            HeaderUtil.createAlert(applicationName, applicationName + "." + ENTITY_NAME + ".cancelled", id.toString())
+        );
+    }
+}
@@ -1,19 +1,35 @@
 package com.sevenup.cpm.web.rest;
 
-import com.sevenup.cpm.domain.Role;
 import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.CascadeDeleteService;
+import com.sevenup.cpm.service.CyclicRoleInheritanceException;
+import com.sevenup.cpm.service.JobService;
+import com.sevenup.cpm.service.RoleHierarchyService;
+import com.sevenup.cpm.service.RoleQueryService;
+import com.sevenup.cpm.service.RoleService;
+import com.sevenup.cpm.service.criteria.RoleCriteria;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.service.dto.RoleDTO;
+import com.sevenup.cpm.service.dto.RoleInheritanceDTO;
+import com.sevenup.cpm.service.dto.UpsertResultDTO;
+import com.sevenup.cpm.service.job.CascadeDeleteJobHandler;
 import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import com.sevenup.cpm.web.rest.util.ConditionalResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -22,36 +38,61 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class RoleResource {
 
     private final Logger log = LoggerFactory.getLogger(RoleResource.class);
 
     private static final String ENTITY_NAME = "role";
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int USER_ID_CHUNK_SIZE = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final RoleRepository roleRepository;
 
-    public RoleResource(RoleRepository roleRepository) {
+    private final RoleService roleService;
+
+    private final RoleQueryService roleQueryService;
+
+    private final CascadeDeleteService cascadeDeleteService;
+
+    private final JobService jobService;
+
+    private final RoleHierarchyService roleHierarchyService;
+
+    public RoleResource(
+        RoleRepository roleRepository,
+        RoleService roleService,
+        RoleQueryService roleQueryService,
+        CascadeDeleteService cascadeDeleteService,
+        JobService jobService,
+        RoleHierarchyService roleHierarchyService
+    ) {
         this.roleRepository = roleRepository;
+        this.roleService = roleService;
+        this.roleQueryService = roleQueryService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.jobService = jobService;
+        this.roleHierarchyService = roleHierarchyService;
     }
 
     /**
      * {@code POST  /roles} : Create a new role.
      *
-     * @param role the role to create.
+     * @param roleDTO the roleDTO to create.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new role, or with status {@code 400 (Bad Request)} if the role has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/roles")
-    public ResponseEntity<Role> createRole(@RequestBody Role role) throws URISyntaxException {
-        log.debug("REST request to save Role : {}", role);
-        if (role.getId() != null) {
+    public ResponseEntity<RoleDTO> createRole(@RequestBody RoleDTO roleDTO) throws URISyntaxException {
+        log.debug("REST request to save Role : {}", roleDTO);
+        if (roleDTO.getId() != null) {
             throw new BadRequestAlertException("A new role cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Role result = roleRepository.save(role);
+        RoleDTO result = roleService.save(roleDTO);
         return ResponseEntity
             .created(new URI("/api/roles/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,31 +103,29 @@ public class RoleResource {
      * {@code PUT  /roles/:id} : Updates an existing role.
      *
      * @param id the id of the role to save.
-     * @param role the role to update.
+     * @param roleDTO the roleDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated role,
      * or with status {@code 400 (Bad Request)} if the role is not valid,
      * or with status {@code 500 (Internal Server Error)} if the role couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/roles/{id}")
-    public ResponseEntity<Role> updateRole(@PathVariable(value = "id", required = false) final Long id, @RequestBody Role role)
+    public ResponseEntity<RoleDTO> updateRole(@PathVariable(value = "id", required = false) final Long id, @RequestBody RoleDTO roleDTO)
         throws URISyntaxException {
-        log.debug("REST request to update Role : {}, {}", id, role);
-        if (role.getId() == null) {
+        log.debug("REST request to update Role : {}, {}", id, roleDTO);
+        if (roleDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, role.getId())) {
+        if (!Objects.equals(id, roleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!roleRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Role result = roleRepository.save(role);
+        RoleDTO result = roleService
+            .update(roleDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, role.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, roleDTO.getId().toString()))
             .body(result);
     }
 
@@ -94,7 +133,7 @@ public class RoleResource {
      * {@code PATCH  /roles/:id} : Partial updates given fields of an existing role, field will ignore if it is null
      *
      * @param id the id of the role to save.
-     * @param role the role to update.
+     * @param roleDTO the roleDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated role,
      * or with status {@code 400 (Bad Request)} if the role is not valid,
      * or with status {@code 404 (Not Found)} if the role is not found,
@@ -102,13 +141,15 @@ public class RoleResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/roles/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Role> partialUpdateRole(@PathVariable(value = "id", required = false) final Long id, @RequestBody Role role)
-        throws URISyntaxException {
-        log.debug("REST request to partial update Role partially : {}, {}", id, role);
-        if (role.getId() == null) {
+    public ResponseEntity<RoleDTO> partialUpdateRole(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody RoleDTO roleDTO
+    ) throws URISyntaxException {
+        log.debug("REST request to partial update Role partially : {}, {}", id, roleDTO);
+        if (roleDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, role.getId())) {
+        if (!Objects.equals(id, roleDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -116,60 +157,208 @@ public class RoleResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Role> result = roleRepository
-            .findById(role.getId())
-            .map(existingRole -> {
-                if (role.getName() != null) {
-                    existingRole.setName(role.getName());
-                }
-                if (role.getSystem() != null) {
-                    existingRole.setSystem(role.getSystem());
-                }
-
-                return existingRole;
-            })
-            .map(roleRepository::save);
+        Optional<RoleDTO> result = roleService.partialUpdate(roleDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, role.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, roleDTO.getId().toString())
         );
     }
 
     /**
      * {@code GET  /roles} : get all the roles.
+     * <p>
+     * The list may be filtered with criteria, for example {@code ?id.greaterThan=5&name.contains=sales}.
      *
+     * @param criteria the criteria which the requested entities should match.
+     * @param request the current request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of roles in body.
      */
     @GetMapping("/roles")
-    public List<Role> getAllRoles() {
-        log.debug("REST request to get all Roles");
-        return roleRepository.findAll();
+    public ResponseEntity<List<RoleDTO>> getAllRoles(RoleCriteria criteria, WebRequest request) {
+        log.debug("REST request to get Roles by criteria: {}", criteria);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            request,
+            roleService.getChangeCounter(),
+            // Without any filter, the list is read as projections rather than entities
+            () -> new RoleCriteria().equals(criteria) ? roleService.findAll() : roleQueryService.findByCriteria(criteria)
+        );
+    }
+
+    /**
+     * {@code GET  /roles/count} : count all the roles.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/roles/count")
+    public ResponseEntity<Long> countRoles(RoleCriteria criteria) {
+        log.debug("REST request to count Roles by criteria: {}", criteria);
+        return ResponseEntity.ok().body(roleQueryService.countByCriteria(criteria));
     }
 
     /**
      * {@code GET  /roles/:id} : get the "id" role.
      *
      * @param id the id of the role to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the role, or with status {@code 404 (Not Found)}.
+     * @param request the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the role,
+     * or with status {@code 304 (Not Modified)} if the client holds its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/roles/{id}")
-    public ResponseEntity<Role> getRole(@PathVariable Long id) {
+    public ResponseEntity<RoleDTO> getRole(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get Role : {}", id);
-        Optional<Role> role = roleRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(role);
+        return ConditionalResponseUtil.wrapOrNotModified(request, roleService.findVersion(id), () -> roleService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /roles/:id/users} : stream the distinct ids of the users holding the "id" role through their groups,
+     * directly or through a role inheriting it.
+     * <p>
+     * Ids are written in ascending order as newline-delimited JSON and are read from the database in keyset-paginated
+     * chunks, so the whole id set is never held in memory. An interrupted stream can be resumed by passing the last
+     * id received as {@code after}.
+     *
+     * @param id the id of the role.
+     * @param after only stream user ids greater than this one.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the user ids in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping(value = "/roles/{id}/users", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getRoleUsers(
+        @PathVariable Long id,
+        @RequestParam(value = "after", required = false) Long after
+    ) {
+        log.debug("REST request to get the users of Role : {}, after : {}", id, after);
+        if (!roleRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            Long cursor = after != null ? after : Long.MIN_VALUE;
+            List<Long> userIds;
+            do {
+                userIds = roleService.findUserIds(id, cursor, USER_ID_CHUNK_SIZE);
+                StringBuilder chunk = new StringBuilder(userIds.size() * 8);
+                for (Long userId : userIds) {
+                    chunk.append(userId).append('\n');
+                }
+                outputStream.write(chunk.toString().getBytes(StandardCharsets.US_ASCII));
+                outputStream.flush();
+                if (!userIds.isEmpty()) {
+                    cursor = userIds.get(userIds.size() - 1);
+                }
+            } while (userIds.size() == USER_ID_CHUNK_SIZE);
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * {@code GET  /roles/:id/inherited-roles} : get the roles inherited by the "id" role.
+     *
+     * @param id the id of the role.
+     * @param transitive whether to also get the roles inherited through other roles.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the ids of the inherited roles in body, in ascending order,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/roles/{id}/inherited-roles")
+    public ResponseEntity<List<Long>> getInheritedRoles(
+        @PathVariable Long id,
+        @RequestParam(required = false, defaultValue = "false") boolean transitive
+    ) {
+        log.debug("REST request to get the inherited roles of Role : {}, transitive: {}", id, transitive);
+        if (!roleRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (transitive) {
+            return ResponseEntity.ok(roleHierarchyService.getInheritedRoleIds(id));
+        }
+        List<Long> inheritedRoleIds = roleHierarchyService
+            .findInheritances(id)
+            .stream()
+            .map(RoleInheritanceDTO::getInheritedRoleId)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(inheritedRoleIds);
+    }
+
+    /**
+     * {@code PUT  /roles/:id/inherited-roles/:inheritedRoleId} : Make the "id" role inherit another role, unless it already does.
+     * <p>
+     * Retrying the call is safe: it never creates a duplicate inheritance.
+     *
+     * @param id the id of the inheriting role.
+     * @param inheritedRoleId the id of the inherited role.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new inheritance,
+     * or with status {@code 200 (OK)} and with body the existing inheritance,
+     * or with status {@code 400 (Bad Request)} if either role does not exist or if the inherited role already inherits the "id" role.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PutMapping("/roles/{id}/inherited-roles/{inheritedRoleId}")
+    public ResponseEntity<RoleInheritanceDTO> addInheritedRole(@PathVariable Long id, @PathVariable Long inheritedRoleId)
+        throws URISyntaxException {
+        log.debug("REST request to add an inherited role to Role : {}, {}", id, inheritedRoleId);
+        if (!roleRepository.existsById(id) || !roleRepository.existsById(inheritedRoleId)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        UpsertResultDTO<RoleInheritanceDTO> result;
+        try {
+            result = roleHierarchyService.addInheritance(id, inheritedRoleId);
+        } catch (CyclicRoleInheritanceException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cyclicinheritance");
+        }
+        if (!result.isCreated()) {
+            return ResponseEntity.ok(result.getEntity());
+        }
+        return ResponseEntity
+            .created(new URI("/api/roles/" + id + "/inherited-roles/" + inheritedRoleId))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .body(result.getEntity());
+    }
+
+    /**
+     * {@code DELETE  /roles/:id/inherited-roles/:inheritedRoleId} : Stop the "id" role from inheriting another role.
+     *
+     * @param id the id of the inheriting role.
+     * @param inheritedRoleId the id of the inherited role.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 404 (Not Found)} if the "id" role does not inherit the other role directly.
+     */
+    @DeleteMapping("/roles/{id}/inherited-roles/{inheritedRoleId}")
+    public ResponseEntity<Void> removeInheritedRole(@PathVariable Long id, @PathVariable Long inheritedRoleId) {
+        log.debug("REST request to remove an inherited role from Role : {}, {}", id, inheritedRoleId);
+        if (!roleHierarchyService.removeInheritance(id, inheritedRoleId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
     }
 
     /**
      * {@code DELETE  /roles/:id} : delete the "id" role.
      *
      * @param id the id of the role to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @param cascade whether to also delete the group memberships of the role. Its inheritances are deleted either way.
+     * @param async whether to run the cascade in the background.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 202 (Accepted)} and with body the job running the cascade in the background.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @DeleteMapping("/roles/{id}")
-    public ResponseEntity<Void> deleteRole(@PathVariable Long id) {
-        log.debug("REST request to delete Role : {}", id);
-        roleRepository.deleteById(id);
+    public ResponseEntity<JobDTO> deleteRole(
+        @PathVariable Long id,
+        @RequestParam(required = false, defaultValue = "false") boolean cascade,
+        @RequestParam(required = false, defaultValue = "false") boolean async
+    ) throws URISyntaxException {
+        log.debug("REST request to delete Role : {}, cascade: {}", id, cascade);
+        if (cascade && async) {
+            JobDTO job = jobService.submit(CascadeDeleteJobHandler.TYPE, CascadeDeleteJobHandler.parameters(ENTITY_NAME, id));
+            return ResponseEntity.accepted().location(new URI("/api/jobs/" + job.getId())).body(job);
+        }
+        if (cascade) {
+            cascadeDeleteService.deleteRole(id, deleted -> {});
+        } else {
+            roleService.delete(id);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
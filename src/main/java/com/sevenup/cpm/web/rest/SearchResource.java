@@ -0,0 +1,68 @@
+package com.sevenup.cpm.web.rest;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.service.DepartmentScopeService;
+import com.sevenup.cpm.service.NameSearchService;
+import com.sevenup.cpm.service.dto.SearchResultDTO;
+import com.sevenup.cpm.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller searching the names of the groups, roles and departments.
+ */
+@RestController
+@RequestMapping("/api")
+public class SearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchResource.class);
+
+    private static final String ENTITY_NAME = "search";
+
+    private final NameSearchService nameSearchService;
+
+    private final DepartmentScopeService departmentScopeService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public SearchResource(
+        NameSearchService nameSearchService,
+        DepartmentScopeService departmentScopeService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.nameSearchService = nameSearchService;
+        this.departmentScopeService = departmentScopeService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code GET  /search?q=:query&types=group,role,department} : search the names starting with the words of a query,
+     * ignoring their case and accents, in the departments in the scope of the current user.
+     * <p>
+     * The names holding a word equal to the query come first, then the ones starting with it, then the shortest ones;
+     * while {@code hasMore} is true, the next page holds more matches.
+     *
+     * @param q the query.
+     * @param types the kinds of names searched, all of them by default.
+     * @param pageable the pagination information, the page size being capped by {@code application.search.max-page-size}.
+     * @return the matches, or with status {@code 400 (Bad Request)} if a type is unknown.
+     */
+    @GetMapping("/search")
+    public SearchResultDTO search(
+        @RequestParam(value = "q") String q,
+        @RequestParam(value = "types", required = false) List<String> types,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search {} : {}", types, q);
+        if (types == null || types.isEmpty()) {
+            types = NameSearchService.TYPES;
+        } else if (!NameSearchService.TYPES.containsAll(types)) {
+            throw new BadRequestAlertException("Unknown type, expected one of " + NameSearchService.TYPES, ENTITY_NAME, "invalidtype");
+        }
+        int size = Math.min(pageable.getPageSize(), applicationProperties.getSearch().getMaxPageSize());
+        return nameSearchService.search(q, types, departmentScopeService.getCurrentScope(), (long) pageable.getPageNumber() * size, size);
+    }
+}
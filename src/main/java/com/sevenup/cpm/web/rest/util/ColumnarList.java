@@ -0,0 +1,69 @@
+package com.sevenup.cpm.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list of DTOs written column by column: an object holding the array of the values of each field, in the order of
+ * the rows, so that the field names are written once rather than once per row. An empty list is an empty object.
+ * <p>
+ * The values are written by the property writers of the serializer of the DTO class, which keeps the names, the
+ * ignored fields and the value serializers of the row by row encoding.
+ */
+final class ColumnarList implements JsonSerializable {
+
+    private final List<?> rows;
+
+    private final Set<String> fields;
+
+    /**
+     * @param rows the DTOs, all of the same class.
+     * @param fields the names of the fields to write, {@code null} for all of them.
+     */
+    ColumnarList(List<?> rows, Set<String> fields) {
+        this.rows = rows;
+        this.fields = fields;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        if (!rows.isEmpty()) {
+            JsonSerializer<Object> serializer = serializers.findValueSerializer(rows.get(0).getClass());
+            for (Iterator<PropertyWriter> properties = serializer.properties(); properties.hasNext();) {
+                PropertyWriter property = properties.next();
+                if (!(property instanceof BeanPropertyWriter) || (fields != null && !fields.contains(property.getName()))) {
+                    continue;
+                }
+                gen.writeFieldName(property.getName());
+                gen.writeStartArray(rows, rows.size());
+                for (Object row : rows) {
+                    try {
+                        // Writes null in place of the values left out, which keeps the columns aligned
+                        ((BeanPropertyWriter) property).serializeAsElement(row, gen, serializers);
+                    } catch (IOException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IOException("Cannot write " + property.getName() + " of " + row, e);
+                    }
+                }
+                gen.writeEndArray();
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -0,0 +1,115 @@
+package com.sevenup.cpm.web.rest.util;
+
+import com.sevenup.cpm.service.DepartmentScope;
+import com.sevenup.cpm.service.dto.AbstractVersionedDTO;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for answering conditional {@code GET} requests ({@code If-None-Match}) with weak entity tags.
+ * <p>
+ * The entity tag is checked before the representation is loaded, so a {@code 304 (Not Modified)} only costs
+ * the lookup of a version number. The representation also varies with the {@code Accept} header, which picks
+ * the encoding, JSON or CBOR: the tags are weak, as the two encodings of a version are different bytes of the same
+ * content, and the tag is checked before the encoding is negotiated.
+ */
+public final class ConditionalResponseUtil {
+
+    private ConditionalResponseUtil() {}
+
+    /**
+     * Build the weak entity tag of a version.
+     *
+     * @param version the version of the entity or of the entity collection.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Build the weak entity tag of a collection read under a department scope, which tells the scopes apart and
+     * changes with the department tree.
+     *
+     * @param scope the scope of the current user.
+     * @param changeCounters the change counter of the entity table, then of the tables between its entities and their
+     * department, only read for a restricted scope.
+     * @return the quoted entity tag.
+     */
+    public static String entityTag(DepartmentScope scope, LongSupplier... changeCounters) {
+        if (scope.isUnrestricted()) {
+            return entityTag(changeCounters[0].getAsLong());
+        }
+        StringBuilder entityTag = new StringBuilder("W/\"");
+        for (LongSupplier changeCounter : changeCounters) {
+            entityTag.append(changeCounter.getAsLong()).append('-');
+        }
+        return entityTag.append(scope.getDepartmentId()).append('-').append(scope.getTreeVersion()).append('"').toString();
+    }
+
+    /**
+     * Wrap a single entity, or answer {@code 304 (Not Modified)} if the client already holds its current version.
+     *
+     * @param request the current request.
+     * @param version the current version of the entity, empty if the entity does not exist.
+     * @param loader loads the entity, only called when the client does not hold the current version.
+     * @param <X> type of the entity.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the entity tag and last modification date as headers and the entity as body,
+     * or with status {@code 304 (Not Modified)}.
+     * @throws ResponseStatusException with status {@code 404 (Not Found)} if the entity does not exist.
+     */
+    public static <X extends AbstractVersionedDTO> ResponseEntity<X> wrapOrNotModified(
+        WebRequest request,
+        Optional<Long> version,
+        Supplier<Optional<X>> loader
+    ) {
+        String currentEntityTag = entityTag(version.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+        if (request.checkNotModified(currentEntityTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentEntityTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        X entity = loader.get().orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(entityTag(entity.getVersion())).varyBy(HttpHeaders.ACCEPT);
+        if (entity.getLastModifiedDate() != null) {
+            builder.lastModified(entity.getLastModifiedDate());
+        }
+        return builder.body(entity);
+    }
+
+    /**
+     * Wrap an entity collection, or answer {@code 304 (Not Modified)} if the client already holds its current version.
+     *
+     * @param request the current request.
+     * @param changeCounter the change counter of the entity table.
+     * @param loader loads the collection, only called when the client does not hold the current version.
+     * @param <X> type of the entities.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the entity tag as header and the collection as body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    public static <X> ResponseEntity<List<X>> wrapOrNotModified(WebRequest request, long changeCounter, Supplier<List<X>> loader) {
+        return wrapOrNotModified(request, entityTag(changeCounter), loader);
+    }
+
+    /**
+     * Wrap an entity collection, or answer {@code 304 (Not Modified)} if the client already holds its current version.
+     *
+     * @param request the current request.
+     * @param currentEntityTag the entity tag of the current version of the collection.
+     * @param loader loads the collection, only called when the client does not hold the current version.
+     * @param <X> type of the entities.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the entity tag as header and the collection as body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    public static <X> ResponseEntity<List<X>> wrapOrNotModified(WebRequest request, String currentEntityTag, Supplier<List<X>> loader) {
+        if (request.checkNotModified(currentEntityTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentEntityTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(currentEntityTag).varyBy(HttpHeaders.ACCEPT).body(loader.get());
+    }
+}
@@ -0,0 +1,91 @@
+package com.sevenup.cpm.web.rest.util;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.sevenup.cpm.service.dto.AbstractVersionedDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Apply the representation asked for by the request to the lists of entities, in JSON as well as in CBOR:
+ * <ul>
+ *     <li>{@code ?fields=id,userId} only writes these fields of each entity, the unknown ones being ignored;</li>
+ *     <li>{@code ?layout=columnar} writes the list as an object holding the array of the values of each field.</li>
+ * </ul>
+ */
+@RestControllerAdvice(basePackages = "com.sevenup.cpm.web.rest")
+public class ListRepresentationAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * The id of the filter of the DTOs, set on them by the {@code JacksonConfiguration}.
+     */
+    public static final String FIELDS_FILTER = "fields";
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    public static final String LAYOUT_PARAMETER = "layout";
+
+    public static final String COLUMNAR_LAYOUT = "columnar";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        if (!(body instanceof Collection) || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        Collection<?> rows = (Collection<?>) body;
+        if (!rows.stream().allMatch(AbstractVersionedDTO.class::isInstance)) {
+            return body;
+        }
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Set<String> fields = parseFields(servletRequest.getParameter(FIELDS_PARAMETER));
+        if (COLUMNAR_LAYOUT.equals(servletRequest.getParameter(LAYOUT_PARAMETER))) {
+            return new ColumnarList(new ArrayList<>(rows), fields);
+        }
+        if (fields == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(
+            new SimpleFilterProvider().addFilter(FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields))
+        );
+        return value;
+    }
+
+    private static Set<String> parseFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        return Arrays
+            .stream(fields.split(","))
+            .map(String::trim)
+            .filter(field -> !field.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
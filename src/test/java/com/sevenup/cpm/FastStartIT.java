@@ -0,0 +1,92 @@
+package com.sevenup.cpm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.config.Constants;
+import java.time.Duration;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+
+/**
+ * Integration tests of the {@code fast-start} profile.
+ */
+@IntegrationTest
+@ActiveProfiles(resolver = FastStartIT.FastStartProfileResolver.class)
+@Import(FastStartIT.ReadyTimeConfiguration.class)
+class FastStartIT {
+
+    /**
+     * Time-to-ready budget of the application context, the database container being already up.
+     * <p>
+     * Only checked when asked to, as timings are too noisy for the build:
+     * {@code ./mvnw verify -Dit.test=FastStartIT -Dbenchmark=true}
+     */
+    private static final Duration READY_BUDGET = Duration.ofSeconds(20);
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    private ReadyTimeConfiguration readyTime;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void testReadyWithinBudget() {
+        assertThat(readyTime.readyDate).isNotNull();
+        Duration timeToReady = Duration.between(Instant.ofEpochMilli(applicationContext.getStartupDate()), readyTime.readyDate);
+        assertThat(timeToReady).isLessThan(READY_BUDGET);
+    }
+
+    @Test
+    void testDatabaseBeansAreEagerAndControllersLazy() {
+        ConfigurableListableBeanFactory beanFactory = applicationContext.getBeanFactory();
+        for (String beanName : beanFactory.getBeanNamesForType(DataSource.class, false, false)) {
+            assertThat(beanFactory.containsSingleton(beanName)).as(beanName).isTrue();
+        }
+        assertThat(beanFactory.containsSingleton("entityManagerFactory")).isTrue();
+        assertThat(beanFactory.containsSingleton("liquibase")).isTrue();
+        assertThat(beanFactory.containsSingleton("groupResource")).isFalse();
+    }
+
+    @Test
+    void testScheduledBeansAreEager() {
+        ConfigurableListableBeanFactory beanFactory = applicationContext.getBeanFactory();
+        // Its sweep and tick have to run from the startup on, not once a bean needing it is created
+        assertThat(beanFactory.containsSingleton("membershipExpiryService")).isTrue();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class ReadyTimeConfiguration {
+
+        private volatile Instant readyDate;
+
+        @Bean
+        ApplicationListener<ApplicationReadyEvent> readyTimeListener() {
+            return event -> readyDate = Instant.now();
+        }
+    }
+
+    /**
+     * Adds the {@code fast-start} profile to the test profile set by the build.
+     */
+    static class FastStartProfileResolver implements ActiveProfilesResolver {
+
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            String testProfiles = System.getProperty("spring.profiles.active", "testdev");
+            return (testProfiles + "," + Constants.SPRING_PROFILE_FAST_START).split(",");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.sevenup.cpm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sevenup.cpm.config.MysqlTestContainer;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+/**
+ * Smoke test of the native executable built by the {@code native} Maven profile: boots it against a MySQL container,
+ * reports its startup time and memory, and runs the happy paths of the REST API through HTTP.
+ * <p>
+ * Only runs when the {@code native.image.path} system property points to the executable, which the {@code native}
+ * profile does.
+ */
+@EnabledIfSystemProperty(named = "native.image.path", matches = ".+")
+class NativeImageSmokeIT {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeImageSmokeIT.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final MysqlTestContainer mysql = new MysqlTestContainer();
+
+    private static final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process application;
+
+    private static String baseUrl;
+
+    private static String token;
+
+    @BeforeAll
+    static void startApplication() throws Exception {
+        mysql.afterPropertiesSet();
+        JdbcDatabaseContainer<?> database = mysql.getTestContainer();
+        int port = freePort();
+        baseUrl = "http://localhost:" + port;
+
+        Path output = Path.of("target", "native-smoke-test.log");
+        long startedAt = System.nanoTime();
+        application =
+            new ProcessBuilder(
+                System.getProperty("native.image.path"),
+                "--server.port=" + port,
+                "--spring.datasource.url=" + database.getJdbcUrl(),
+                "--spring.datasource.username=" + database.getUsername(),
+                "--spring.datasource.password=" + database.getPassword(),
+                "--spring.liquibase.url=" + database.getJdbcUrl(),
+                "--spring.liquibase.user=" + database.getUsername(),
+                "--spring.liquibase.password=" + database.getPassword()
+            )
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+
+        awaitReadiness(output);
+        Duration startupTime = Duration.ofNanos(System.nanoTime() - startedAt);
+        log.info(
+            "Native executable ready in {} ms, resident memory: {}",
+            startupTime.toMillis(),
+            residentMemory().orElse("unknown")
+        );
+
+        JsonNode jwt = send("POST", "/api/authenticate", Map.of("username", "admin", "password", "admin"), 200);
+        token = jwt.get("id_token").asText();
+    }
+
+    @AfterAll
+    static void stopApplication() throws Exception {
+        if (application != null) {
+            application.destroy();
+            application.waitFor();
+        }
+        mysql.destroy();
+    }
+
+    @Test
+    void testHappyPaths() throws Exception {
+        JsonNode department = send("POST", "/api/departments", Map.of("name", "Smoke test"), 201);
+        long departmentId = department.get("id").asLong();
+        assertThat(send("GET", "/api/departments/" + departmentId, null, 200).get("name").asText()).isEqualTo("Smoke test");
+
+        JsonNode group = send("POST", "/api/groups", Map.of("name", "Smoke test", "departmentId", departmentId), 201);
+        long groupId = group.get("id").asLong();
+        assertThat(send("GET", "/api/groups/" + groupId, null, 200).get("departmentId").asLong()).isEqualTo(departmentId);
+
+        JsonNode role = send("POST", "/api/roles", Map.of("name", "Smoke test", "system", "smoke"), 201);
+        long roleId = role.get("id").asLong();
+        assertThat(send("GET", "/api/roles/" + roleId, null, 200).get("system").asText()).isEqualTo("smoke");
+
+        long groupUserId = send("PUT", "/api/groups/" + groupId + "/users/1", null, 201).get("id").asLong();
+        send("PUT", "/api/groups/" + groupId + "/users/1", null, 200);
+        long groupRoleId = send("PUT", "/api/groups/" + groupId + "/roles/" + roleId, null, 201).get("id").asLong();
+        assertThat(send("GET", "/api/group-users/" + groupUserId, null, 200).get("groupId").asLong()).isEqualTo(groupId);
+        assertThat(send("GET", "/api/group-roles/" + groupRoleId, null, 200).get("roleId").asLong()).isEqualTo(roleId);
+
+        send("DELETE", "/api/groups/" + groupId + "?cascade=true", null, 204);
+        send("GET", "/api/groups/" + groupId, null, 404);
+        send("GET", "/api/group-users/" + groupUserId, null, 404);
+        send("DELETE", "/api/roles/" + roleId, null, 204);
+        send("DELETE", "/api/departments/" + departmentId, null, 204);
+
+        assertThat(send("GET", "/api/jobs", null, 200).isArray()).isTrue();
+    }
+
+    private static JsonNode send(String method, String path, Object body, int expectedStatus) throws Exception {
+        HttpRequest.Builder request = HttpRequest
+            .newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+            request.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(method + " " + path + ": " + response.body()).isEqualTo(expectedStatus);
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    private static void awaitReadiness(Path output) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/management/health/readiness")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("The native executable exited, see " + output.toAbsolutePath());
+            }
+            try {
+                if (httpClient.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException(
+            "The native executable was not ready within " + STARTUP_TIMEOUT + ", see " + output.toAbsolutePath()
+        );
+    }
+
+    /**
+     * @return the resident set size of the application, as reported by Linux.
+     */
+    private static Optional<String> residentMemory() throws IOException {
+        File status = new File("/proc/" + application.pid() + "/status");
+        if (!status.exists()) {
+            return Optional.empty();
+        }
+        return Files
+            .readAllLines(status.toPath())
+            .stream()
+            .filter(line -> line.startsWith("VmRSS:"))
+            .map(line -> line.substring("VmRSS:".length()).trim())
+            .findFirst();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
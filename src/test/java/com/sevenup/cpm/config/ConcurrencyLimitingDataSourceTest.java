@@ -0,0 +1,64 @@
+package com.sevenup.cpm.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private DataSource target;
+
+    private Connection connection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new ConcurrencyLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testPermitIsReleasedOnceOnClose() throws SQLException {
+        Connection limited = dataSource.getConnection();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        assertThat(((ConnectionProxy) limited).getTargetConnection()).isSameAs(connection);
+
+        limited.close();
+        limited.close();
+
+        assertThat(limited.isClosed()).isTrue();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void testTimesOutWhenAllPermitsAreTaken() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void testPermitIsReleasedWhenThePoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+}
@@ -8,4 +8,8 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface EmbeddedSQL {
+    /**
+     * Whether to also start a second database, used as the read replica.
+     */
+    boolean replica() default false;
 }
@@ -0,0 +1,97 @@
+package com.sevenup.cpm.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.mock.env.MockEnvironment;
+
+class GatedSpringLiquibaseTest {
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    private final ApplicationProperties.SchemaMigration properties = new ApplicationProperties.SchemaMigration();
+
+    private final MockEnvironment env = new MockEnvironment();
+
+    private DataSource dataSource;
+
+    private ResultSet resultSet;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @Test
+    void testChangelogHashIsStable() throws LiquibaseException {
+        String hash = GatedSpringLiquibase.changelogHash(resolver, "prod", null);
+
+        assertThat(hash).hasSize(64).isEqualTo(GatedSpringLiquibase.changelogHash(resolver, "prod", null));
+    }
+
+    @Test
+    void testChangelogHashDependsOnTheContexts() throws LiquibaseException {
+        assertThat(GatedSpringLiquibase.changelogHash(resolver, "prod", null))
+            .isNotEqualTo(GatedSpringLiquibase.changelogHash(resolver, "dev, faker", null));
+    }
+
+    @Test
+    void testSkipsLiquibaseWhenMigrated() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        properties.setMigrateOnStartup(false);
+
+        liquibase().initDb();
+
+        // Liquibase itself would have asked for more connections
+        verify(dataSource).getConnection();
+    }
+
+    @Test
+    void testRefusesToStartWhenNotMigratedAndNotMigratingOnStartup() throws Exception {
+        when(resultSet.next()).thenReturn(false);
+        properties.setMigrateOnStartup(false);
+        GatedSpringLiquibase liquibase = liquibase();
+
+        assertThatThrownBy(liquibase::initDb).isInstanceOf(LiquibaseException.class).hasMessageContaining("migrate profile");
+    }
+
+    @Test
+    void testDoesNothingWhenDisabled() throws Exception {
+        GatedSpringLiquibase liquibase = liquibase();
+        liquibase.setShouldRun(false);
+
+        liquibase.initDb();
+
+        verify(dataSource, never()).getConnection();
+    }
+
+    private GatedSpringLiquibase liquibase() {
+        GatedSpringLiquibase liquibase = new GatedSpringLiquibase(Runnable::run, env, properties);
+        liquibase.setDataSource(dataSource);
+        liquibase.setCloseDataSourceOnceMigrated(false);
+        liquibase.setResourceLoader(resolver);
+        liquibase.setChangeLog("classpath:config/liquibase/master.xml");
+        liquibase.setContexts("test");
+        return liquibase;
+    }
+}
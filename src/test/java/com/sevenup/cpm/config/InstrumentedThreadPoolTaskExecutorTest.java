@@ -0,0 +1,124 @@
+package com.sevenup.cpm.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InstrumentedThreadPoolTaskExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private InstrumentedThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testQueuesUpToTheGrowThresholdThenGrows() {
+        executor = executor(2, ApplicationProperties.TaskExecution.RejectionPolicy.ABORT, 1, 3, 10);
+
+        for (int i = 0; i < 3; i++) {
+            submitBlocking();
+        }
+        assertThat(executor.getPoolSize()).isEqualTo(1);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).hasSize(2);
+
+        submitBlocking();
+        submitBlocking();
+        assertThat(executor.getPoolSize()).isEqualTo(3);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).hasSize(2);
+
+        // At the maximum size, the rest of the queue fills up
+        submitBlocking();
+        assertThat(executor.getThreadPoolExecutor().getQueue()).hasSize(3);
+    }
+
+    @Test
+    void testCallerRunsWhenSaturated() {
+        executor = executor(0, ApplicationProperties.TaskExecution.RejectionPolicy.CALLER_RUNS, 1, 1, 1);
+        executor.execute(this::block);
+        executor.execute(this::block);
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        executor.execute(() -> runner.set(Thread.currentThread()));
+
+        assertThat(runner).hasValue(Thread.currentThread());
+        assertThat(registry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAbortsWhenSaturated() {
+        executor = executor(0, ApplicationProperties.TaskExecution.RejectionPolicy.ABORT, 1, 1, 1);
+        executor.execute(this::block);
+        executor.execute(this::block);
+
+        assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void testTimesTheTasks() throws InterruptedException {
+        executor = executor(0, ApplicationProperties.TaskExecution.RejectionPolicy.ABORT, 1, 1, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.get("executor.idle").tag("name", "test").timer().count()).isEqualTo(1);
+        assertThat(registry.get("executor").tag("name", "test").timer().count()).isEqualTo(1);
+        assertThat(registry.get("executor.queued").tag("name", "test").gauge().value()).isZero();
+    }
+
+    private InstrumentedThreadPoolTaskExecutor executor(
+        int growThreshold,
+        ApplicationProperties.TaskExecution.RejectionPolicy rejectionPolicy,
+        int coreSize,
+        int maxSize,
+        int queueCapacity
+    ) {
+        ApplicationProperties.TaskExecution properties = new ApplicationProperties.TaskExecution();
+        properties.setGrowThreshold(growThreshold);
+        properties.setRejectionPolicy(rejectionPolicy);
+        properties.setBlockTimeout(Duration.ZERO);
+        InstrumentedThreadPoolTaskExecutor taskExecutor = new InstrumentedThreadPoolTaskExecutor("test", properties);
+        taskExecutor.setCorePoolSize(coreSize);
+        taskExecutor.setMaxPoolSize(maxSize);
+        taskExecutor.setQueueCapacity(queueCapacity);
+        taskExecutor.initialize();
+        taskExecutor.bindTo(registry);
+        return taskExecutor;
+    }
+
+    /**
+     * Submit a blocking task, and wait for the threads to be busy for the next submission to find none idle.
+     */
+    private void submitBlocking() {
+        executor.execute(this::block);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() < executor.getPoolSize() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void block() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
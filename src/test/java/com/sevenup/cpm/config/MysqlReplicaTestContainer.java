@@ -0,0 +1,8 @@
+package com.sevenup.cpm.config;
+
+/**
+ * A second MySQL container, standing for the read replica.
+ * <p>
+ * It does not replicate the first one, so that the tests can tell which database served a query.
+ */
+public class MysqlReplicaTestContainer extends MysqlTestContainer {}
@@ -28,6 +28,8 @@ public class MysqlTestContainer implements SqlTestContainer {
             mysqlContainer =
                 new MySQLContainer<>("mysql:8.0.30-debian")
                     .withDatabaseName("cpm")
+                    // Reused containers are told apart by their configuration
+                    .withLabel("com.sevenup.cpm.container", getClass().getSimpleName())
                     .withTmpFs(Collections.singletonMap("/testtmpfs", "rw"))
                     .withLogConsumer(new Slf4jLogConsumer(log))
                     .withReuse(true)
@@ -0,0 +1,67 @@
+package com.sevenup.cpm.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.IntegrationTest;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ReplicaRoutingDataSource}, the primary and the replica being two distinct databases.
+ */
+@IntegrationTest
+@EmbeddedSQL(replica = true)
+class ReplicaDataSourceIT {
+
+    private static final String SERVER_UUID_QUERY = "select @@server_uuid";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @WithMockUser("reader")
+    void readOnlyTransactionUsesTheReplica() {
+        String primary = serverUuid(primaryDataSource);
+        String replica = serverUuid(replicaDataSource);
+        assertThat(primary).isNotEqualTo(replica);
+
+        assertThat(inTransaction(true)).isEqualTo(replica);
+        assertThat(inTransaction(false)).isEqualTo(primary);
+    }
+
+    @Test
+    @WithMockUser("writer")
+    void readOnlyTransactionAfterAWriteUsesThePrimary() {
+        String primary = serverUuid(primaryDataSource);
+
+        assertThat(inTransaction(false)).isEqualTo(primary);
+        assertThat(inTransaction(true)).isEqualTo(primary);
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> serverUuid(dataSource));
+    }
+
+    private String serverUuid(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(SERVER_UUID_QUERY, String.class);
+    }
+}
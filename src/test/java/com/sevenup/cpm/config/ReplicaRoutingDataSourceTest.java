@@ -0,0 +1,93 @@
+package com.sevenup.cpm.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.sevenup.cpm.config.ReplicaRoutingDataSource.Route;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setup() {
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), Duration.ofMinutes(1));
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testOutsideOfTransactionUsesPrimary() {
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        login("reader");
+        beginTransaction(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    void testReadOnlyTransactionAfterWriteUsesPrimary() {
+        login("writer");
+        beginTransaction(false);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+        commit();
+
+        beginTransaction(true);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+        commit();
+
+        login("reader");
+        beginTransaction(true);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    void testReadYourWritesWindowExpires() {
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), Duration.ZERO);
+        routingDataSource.afterPropertiesSet();
+        login("writer");
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        commit();
+
+        beginTransaction(true);
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    private void login(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, login));
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commit() {
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.clear();
+    }
+}
@@ -20,6 +20,7 @@ public class TestContainersSpringContextCustomizerFactory implements ContextCust
 
     private static SqlTestContainer devTestContainer;
     private static SqlTestContainer prodTestContainer;
+    private static SqlTestContainer replicaTestContainer;
 
     @Override
     public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
@@ -82,6 +83,22 @@ public class TestContainersSpringContextCustomizerFactory implements ContextCust
                     testValues = testValues.and("spring.datasource.username=" + prodTestContainer.getTestContainer().getUsername());
                     testValues = testValues.and("spring.datasource.password=" + prodTestContainer.getTestContainer().getPassword());
                 }
+                if (sqlAnnotation.replica()) {
+                    if (null == replicaTestContainer) {
+                        replicaTestContainer = beanFactory.createBean(MysqlReplicaTestContainer.class);
+                        beanFactory.registerSingleton(MysqlReplicaTestContainer.class.getName(), replicaTestContainer);
+                    }
+                    testValues =
+                        testValues.and(
+                            "application.replica-datasource.url=" +
+                            replicaTestContainer.getTestContainer().getJdbcUrl() +
+                            "?useUnicode=true&characterEncoding=utf8&useSSL=false&useLegacyDatetimeCode=false&serverTimezone=UTC&createDatabaseIfNotExist=true"
+                        );
+                    testValues =
+                        testValues.and("application.replica-datasource.username=" + replicaTestContainer.getTestContainer().getUsername());
+                    testValues =
+                        testValues.and("application.replica-datasource.password=" + replicaTestContainer.getTestContainer().getPassword());
+                }
             }
             testValues.applyTo(context);
         };
@@ -0,0 +1,106 @@
+package com.sevenup.cpm.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Compares the authority checks on {@link AuthorityBits} with the checks on the authority names which they replace.
+ * <p>
+ * Only runs when asked to, as timings are too noisy for the build: {@code ./mvnw test -Dtest=AuthorityBitsBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AuthorityBitsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorityBitsBenchmarkTest.class);
+
+    private static final int WARMUP_ITERATIONS = 500_000;
+
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static final String EXPRESSION = "hasAnyAuthority('ROLE_ADMIN', 'ROLE_AUDITOR') or hasRole('USER')";
+
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(
+        new SimpleGrantedAuthority("ROLE_GUEST"),
+        new SimpleGrantedAuthority("ROLE_OPERATOR"),
+        new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+    );
+
+    private static final AuthorityBits ADMIN_OR_USER = AuthorityBits.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void benchmarkSecurityUtils() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "token", AUTHORITIES));
+        double names = measure(
+            "SecurityUtils, authority names",
+            () -> SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER)
+        );
+        SecurityContextHolder.getContext().setAuthentication(new AuthorityBitsAuthenticationToken("user", "token", AUTHORITIES));
+        double bits = measure(
+            "SecurityUtils, cached bits and constant mask",
+            () -> SecurityUtils.hasCurrentUserAnyOfAuthorities(ADMIN_OR_USER)
+        );
+
+        assertThat(bits).isLessThan(names);
+    }
+
+    @Test
+    void benchmarkExpressions() {
+        double names = measureExpression("@PreAuthorize, Spring Security root", new DefaultMethodSecurityExpressionHandler());
+        double bits = measureExpression("@PreAuthorize, bits root", new AuthorityBitsMethodSecurityExpressionHandler());
+
+        assertThat(bits).isLessThan(names);
+    }
+
+    private static double measureExpression(String name, MethodSecurityExpressionHandler handler) {
+        AuthorityBitsAuthenticationToken authentication = new AuthorityBitsAuthenticationToken("user", "token", AUTHORITIES);
+        MethodInvocation invocation = AuthorityBitsTest.invocation();
+        Expression expression = handler.getExpressionParser().parseExpression(EXPRESSION);
+        return measure(
+            name,
+            () -> {
+                // As for every secured call: a new evaluation context and root, the expression being parsed once
+                EvaluationContext context = handler.createEvaluationContext(authentication, invocation);
+                return ExpressionUtils.evaluateAsBoolean(expression, context);
+            }
+        );
+    }
+
+    /**
+     * @return the mean time of a check, in nanoseconds.
+     */
+    private static double measure(String name, BooleanSupplier check) {
+        int granted = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            granted += check.getAsBoolean() ? 1 : 0;
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            granted += check.getAsBoolean() ? 1 : 0;
+        }
+        double nanosPerCheck = (double) (System.nanoTime() - startedAt) / MEASURED_ITERATIONS;
+        assertThat(granted).isEqualTo(WARMUP_ITERATIONS + MEASURED_ITERATIONS);
+        log.info("{}: {} ns per check", name, String.format("%.1f", nanosPerCheck));
+        return nanosPerCheck;
+    }
+}
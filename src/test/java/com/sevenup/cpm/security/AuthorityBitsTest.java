@@ -0,0 +1,179 @@
+package com.sevenup.cpm.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Test class for {@link AuthorityBits} and the method security expressions evaluated with them.
+ */
+class AuthorityBitsTest {
+
+    private static final AuthorityBits ADMIN = AuthorityBits.of(AuthoritiesConstants.ADMIN);
+
+    private static final AuthorityBits ADMIN_OR_USER = AuthorityBits.of(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+
+    private final AuthorityBitsMethodSecurityExpressionHandler expressionHandler = new AuthorityBitsMethodSecurityExpressionHandler();
+
+    @Test
+    void testContainsAnyAndAll() {
+        AuthorityBits user = AuthorityBits.of(authentication(AuthoritiesConstants.USER));
+
+        assertThat(user.containsAny(ADMIN_OR_USER)).isTrue();
+        assertThat(user.containsAny(ADMIN)).isFalse();
+        assertThat(user.containsAll(ADMIN_OR_USER)).isFalse();
+        assertThat(AuthorityBits.of(authentication(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER)).containsAll(ADMIN_OR_USER))
+            .isTrue();
+        assertThat(user.contains(AuthoritiesConstants.USER)).isTrue();
+        assertThat(user.contains("ROLE_NEVER_SEEN")).isFalse();
+    }
+
+    @Test
+    void testEmpty() {
+        assertThat(AuthorityBits.of((Authentication) null)).isEqualTo(AuthorityBits.EMPTY);
+        assertThat(AuthorityBits.EMPTY.isEmpty()).isTrue();
+        assertThat(AuthorityBits.EMPTY.containsAny(ADMIN)).isFalse();
+        assertThat(ADMIN.containsAll(AuthorityBits.EMPTY)).isTrue();
+    }
+
+    @Test
+    void testBeyondSixtyFourAuthorities() {
+        List<String> names = IntStream.range(0, 150).mapToObj(i -> "ROLE_MANY_" + i).collect(Collectors.toList());
+        AuthorityBits last = AuthorityBits.of(names.get(149));
+        AuthorityBits all = AuthorityBits.of(names.toArray(new String[0]));
+
+        assertThat(all.containsAny(last)).isTrue();
+        assertThat(all.containsAny(ADMIN)).isFalse();
+        assertThat(ADMIN.containsAny(last)).isFalse();
+        assertThat(last.containsAll(ADMIN)).isFalse();
+        assertThat(AuthorityBits.of(names.get(149), AuthoritiesConstants.ADMIN))
+            .isEqualTo(AuthorityBits.of(AuthoritiesConstants.ADMIN, names.get(149)))
+            .hasSameHashCodeAs(AuthorityBits.of(AuthoritiesConstants.ADMIN, names.get(149)));
+    }
+
+    @Test
+    void testAuthoritiesOfTokensDoNotGetBits() {
+        int indexCount = AuthorityBits.getIndexCount();
+        AuthorityBits user = AuthorityBits.of(authentication(AuthoritiesConstants.USER, "ROLE_FROM_TOKEN"));
+
+        assertThat(AuthorityBits.getIndexCount()).isEqualTo(indexCount);
+        assertThat(user.contains("ROLE_FROM_TOKEN")).isTrue();
+        assertThat(user).isEqualTo(AuthorityBits.of(authentication("ROLE_FROM_TOKEN", AuthoritiesConstants.USER)));
+
+        // A mask checking the authority later gives it a bit, which the sets built before compare by name
+        AuthorityBits fromToken = AuthorityBits.of("ROLE_FROM_TOKEN");
+        assertThat(user.containsAny(fromToken)).isTrue();
+        assertThat(user.containsAll(AuthorityBits.of("ROLE_FROM_TOKEN", AuthoritiesConstants.USER))).isTrue();
+        assertThat(user)
+            .isEqualTo(AuthorityBits.of(AuthoritiesConstants.USER, "ROLE_FROM_TOKEN"))
+            .hasSameHashCodeAs(AuthorityBits.of(AuthoritiesConstants.USER, "ROLE_FROM_TOKEN"));
+        assertThat(ADMIN.containsAny(fromToken)).isFalse();
+    }
+
+    @Test
+    void testRegistryIsBounded() {
+        List<String> names = IntStream
+            .range(0, AuthorityBits.MAX_INDEXES + 10)
+            .mapToObj(i -> "ROLE_BOUNDED_" + i)
+            .collect(Collectors.toList());
+        AuthorityBits all = AuthorityBits.of(names.toArray(new String[0]));
+        String last = names.get(names.size() - 1);
+
+        assertThat(AuthorityBits.getIndexCount()).isEqualTo(AuthorityBits.MAX_INDEXES);
+        assertThat(all.contains(last)).isTrue();
+        assertThat(AuthorityBits.of(authentication(last)).containsAny(AuthorityBits.of(last))).isTrue();
+        assertThat(AuthorityBits.of(authentication(AuthoritiesConstants.ADMIN)).containsAny(AuthorityBits.of(last))).isFalse();
+        assertThat(all.containsAll(AuthorityBits.of(last, names.get(0)))).isTrue();
+    }
+
+    @Test
+    void testTokenCachesItsBits() {
+        AuthorityBitsAuthenticationToken token = authentication(AuthoritiesConstants.ADMIN);
+
+        assertThat(AuthorityBits.of(token)).isSameAs(token.getAuthorityBits()).isEqualTo(ADMIN);
+    }
+
+    @Test
+    void testExpressions() {
+        Authentication user = authentication(AuthoritiesConstants.USER);
+
+        assertThat(evaluate("hasAuthority('ROLE_USER')", user)).isTrue();
+        assertThat(evaluate("hasAnyAuthority('ROLE_ADMIN', 'ROLE_USER')", user)).isTrue();
+        assertThat(evaluate("hasRole('USER') and !hasRole('ADMIN')", user)).isTrue();
+        assertThat(evaluate("hasAnyRole('ADMIN')", user)).isFalse();
+        assertThat(evaluate("isAuthenticated() and principal == 'user'", user)).isTrue();
+        assertThat(evaluate("permitAll", user)).isTrue();
+    }
+
+    @Test
+    void testExpressionsForAnonymous() {
+        Authentication anonymous = new AnonymousAuthenticationToken(
+            "key",
+            "anonymousUser",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS))
+        );
+
+        assertThat(evaluate("isAnonymous()", anonymous)).isTrue();
+        assertThat(evaluate("isAuthenticated()", anonymous)).isFalse();
+    }
+
+    private boolean evaluate(String expression, Authentication authentication) {
+        EvaluationContext context = expressionHandler.createEvaluationContext(authentication, invocation());
+        return ExpressionUtils.evaluateAsBoolean(expressionHandler.getExpressionParser().parseExpression(expression), context);
+    }
+
+    /**
+     * @return an invocation of {@link Object#toString()}, a stub rather than a mock which would record every call.
+     */
+    static MethodInvocation invocation() {
+        Object target = new Object();
+        return new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return ReflectionUtils.findMethod(Object.class, "toString");
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() {
+                return target.toString();
+            }
+
+            @Override
+            public Object getThis() {
+                return target;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return getMethod();
+            }
+        };
+    }
+
+    private static AuthorityBitsAuthenticationToken authentication(String... authorities) {
+        List<GrantedAuthority> grantedAuthorities = Arrays
+            .stream(authorities)
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+        return new AuthorityBitsAuthenticationToken("user", "token", grantedAuthorities);
+    }
+}
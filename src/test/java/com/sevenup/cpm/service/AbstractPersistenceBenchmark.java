@@ -0,0 +1,148 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.GroupUserRepositoryWithBatchInsertsImpl;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base of the benchmarks of the persistence layer: the JPA mappings and repositories of the application, on an
+ * in-memory H2 database in MySQL mode, as a container cannot be relied upon.
+ * <p>
+ * The database engine runs in the measuring thread, its own work is the same for the compared reads: the differences
+ * are those of Hibernate and of the mapping, not the ones of a MySQL server and of the network.
+ */
+// Each read is measured many times, far longer than the default timeout of the tests
+@Timeout(value = 5, unit = TimeUnit.MINUTES)
+abstract class AbstractPersistenceBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractPersistenceBenchmark.class);
+
+    protected static final int ROWS = 10_000;
+
+    private static final int WARMUP_ITERATIONS = 50;
+
+    private static final int MEASURED_ITERATIONS = 100;
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    protected static JpaTransactionManager transactionManager;
+
+    protected static GroupUserRepository groupUserRepository;
+
+    @BeforeAll
+    static void setupPersistence() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.sevenup.cpm.domain");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(
+            Map.of(
+                "hibernate.hbm2ddl.auto",
+                "create-drop",
+                "hibernate.jdbc.time_zone",
+                "UTC",
+                "hibernate.physical_naming_strategy",
+                CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy",
+                SpringImplicitNamingStrategy.class.getName()
+            )
+        );
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+        transactionManager = new JpaTransactionManager(entityManagerFactory);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(
+            SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory)
+        );
+        groupUserRepository =
+            repositoryFactory.getRepository(
+                GroupUserRepository.class,
+                RepositoryFragments.just(new GroupUserRepositoryWithBatchInsertsImpl(jdbcTemplate))
+            );
+
+        Timestamp now = Timestamp.from(Instant.now());
+        Collection<Long> userIds = LongStream.rangeClosed(1, ROWS).boxed().collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(
+            "insert into group_user (group_id, user_id, created_by, created_date, last_modified_by, last_modified_date, version) " +
+            "values (?, ?, 'system', ?, 'system', ?, 0)",
+            userIds,
+            1000,
+            (ps, userId) -> {
+                ps.setLong(1, userId % 100);
+                ps.setLong(2, userId);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+            }
+        );
+    }
+
+    @AfterAll
+    static void destroyPersistence() {
+        entityManagerFactoryBean.destroy();
+    }
+
+    protected static TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+    /**
+     * Measure a read of all the rows.
+     *
+     * @param name the name of the read, for the log.
+     * @param read the read, returning the number of rows read.
+     * @return the mean bytes allocated by a read.
+     */
+    protected static long measure(String name, Supplier<Integer> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(read.get()).isEqualTo(ROWS);
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            assertThat(read.get()).isEqualTo(ROWS);
+        }
+        double millisPerRead = (System.nanoTime() - startedAt) / 1e6 / MEASURED_ITERATIONS;
+        long bytesPerRead = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_ITERATIONS;
+        log.info(
+            "{}: {} ms and {} KiB allocated per read of {} rows",
+            name,
+            String.format("%.2f", millisPerRead),
+            bytesPerRead / 1024,
+            ROWS
+        );
+        return bytesPerRead;
+    }
+}
@@ -0,0 +1,72 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Test class for the {@link CascadeDeleteService}.
+ */
+class CascadeDeleteServiceTest {
+
+    private DepartmentRepository departmentRepository;
+
+    private GroupRepository groupRepository;
+
+    private ChangeLogService changeLogService;
+
+    private CascadeDeleteService cascadeDeleteService;
+
+    @BeforeEach
+    public void setup() {
+        departmentRepository = mock(DepartmentRepository.class);
+        groupRepository = mock(GroupRepository.class);
+        changeLogService = mock(ChangeLogService.class);
+        cascadeDeleteService =
+            new CascadeDeleteService(
+                departmentRepository,
+                groupRepository,
+                mock(RoleRepository.class),
+                mock(GroupUserRepository.class),
+                mock(GroupRoleRepository.class),
+                mock(RoleInheritanceRepository.class),
+                changeLogService,
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @Test
+    void testDeleteDepartmentDeletesTheSubtreeBottomUp() {
+        // Department 1 holds department 2, the native subtree query returns the ids as BigInteger
+        when(departmentRepository.findSubtreeIds(1L)).thenReturn(List.of(BigInteger.ONE, BigInteger.valueOf(2)));
+        when(departmentRepository.findIdAndParentIdByIdIn(List.of(1L, 2L)))
+            .thenReturn(List.of(new Object[] { 1L, null }, new Object[] { 2L, 1L }));
+        when(departmentRepository.findIdsByIdIn(List.of(2L, 1L))).thenReturn(List.of(2L, 1L));
+        when(groupRepository.findIdsByDepartmentIdIn(List.of(1L, 2L))).thenReturn(List.of(10L));
+        when(groupRepository.findIdsByIdIn(List.of(10L))).thenReturn(List.of(10L));
+
+        assertThat(cascadeDeleteService.deleteDepartment(1L, deleted -> {})).isEqualTo(3);
+
+        verify(groupRepository).deleteAllByIdInBatch(List.of(10L));
+        verify(departmentRepository).deleteAllByIdInBatch(List.of(2L, 1L));
+        verify(changeLogService).recordDeletions("department", List.of(2L, 1L));
+        // The rows still there are read by one query per chunk
+        verify(departmentRepository, never()).existsById(anyLong());
+        verify(groupRepository, never()).existsById(anyLong());
+    }
+}
@@ -0,0 +1,117 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.ChangeLog;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.ChangeCounterRepository;
+import com.sevenup.cpm.repository.ChangeLogRepository;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Test class for the {@link ChangeLogService}.
+ */
+class ChangeLogServiceTest {
+
+    private ChangeLogRepository changeLogRepository;
+
+    private ChangeCounterRepository changeCounterRepository;
+
+    private final List<ChangeDTO> published = new ArrayList<>();
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    public void setup() {
+        changeLogRepository = mock(ChangeLogRepository.class);
+        changeCounterRepository = mock(ChangeCounterRepository.class);
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(invocation -> {
+                List<ChangeLog> entries = invocation.getArgument(0);
+                entries.forEach(entry -> entry.setId(ids.incrementAndGet()));
+                return null;
+            })
+            .when(changeLogRepository)
+            .insertAll(anyList());
+        changeLogService =
+            new ChangeLogService(
+                changeLogRepository,
+                changeCounterRepository,
+                new ApplicationProperties(),
+                event -> published.add((ChangeDTO) event),
+                mock(DepartmentRepository.class),
+                mock(GroupRepository.class),
+                mock(RoleRepository.class),
+                mock(GroupUserRepository.class),
+                mock(GroupRoleRepository.class),
+                mock(RoleInheritanceRepository.class)
+            );
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testEntriesInsertedUnderTheSequenceLockBeforeTheCommit() {
+        changeLogService.record("role", 1L, ChangeOperation.UPDATE);
+        changeLogService.recordDeletions("group", List.of(2L, 3L));
+
+        // Nothing is inserted while the transaction runs, the changes are published without watermark yet
+        verify(changeLogRepository, never()).insertAll(anyList());
+        verify(changeCounterRepository, never()).findCounterByEntityNameForUpdate(any());
+        verify(changeCounterRepository, never()).increment(any());
+        assertThat(published).hasSize(3).allMatch(change -> change.getWatermark() == null);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        InOrder inOrder = inOrder(changeLogRepository, changeCounterRepository);
+        inOrder.verify(changeLogRepository).flush();
+        // The counters in the order of the entity names, not of the writes
+        inOrder.verify(changeCounterRepository).increment("group");
+        inOrder.verify(changeCounterRepository).increment("role");
+        inOrder.verify(changeCounterRepository).findCounterByEntityNameForUpdate(ChangeLogService.SEQUENCE);
+        inOrder.verify(changeLogRepository).insertAll(anyList());
+        assertThat(published).extracting(ChangeDTO::getWatermark).containsExactly(101L, 102L, 103L);
+        assertThat(published).extracting(ChangeDTO::getEntityId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void testEntriesInsertedRightAwayOnceTheTransactionReadsTheFeed() {
+        changeLogService.record("role", 1L, ChangeOperation.UPDATE);
+        changeLogService.findChangesSince(0, 10);
+        assertThat(published.get(0).getWatermark()).isEqualTo(101L);
+
+        // The sequence is locked already, the next entries do not wait for the commit
+        changeLogService.record("role", 2L, ChangeOperation.UPDATE);
+        assertThat(published.get(1).getWatermark()).isEqualTo(102L);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        verify(changeCounterRepository).findCounterByEntityNameForUpdate(ChangeLogService.SEQUENCE);
+    }
+}
@@ -0,0 +1,233 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.service.ChangeStreamListener.CloseReason;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.dto.ChangeSetDTO;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChangeStreamServiceTest {
+
+    private static final Set<String> GROUP_USER = Collections.singleton("groupUser");
+
+    private ChangeLogService changeLogService;
+
+    private ChangeStreamService changeStreamService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getChangeStream().setBufferSize(4);
+        changeLogService = mock(ChangeLogService.class);
+        changeStreamService = new ChangeStreamService(changeLogService, applicationProperties);
+    }
+
+    @AfterEach
+    public void destroy() {
+        changeStreamService.destroy();
+    }
+
+    @Test
+    void testFanOutFiltersByEntityName() throws Exception {
+        RecordingListener first = new RecordingListener(2);
+        RecordingListener second = new RecordingListener(2);
+        changeStreamService.subscribe(GROUP_USER, null, first);
+        changeStreamService.subscribe(GROUP_USER, null, second);
+
+        changeStreamService.publish(change(1L, "groupUser"));
+        changeStreamService.publish(change(2L, "role"));
+        changeStreamService.publish(change(3L, "groupUser"));
+
+        assertThat(first.await()).containsExactly(1L, 3L);
+        assertThat(second.await()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void testResumeFromBuffer() throws Exception {
+        changeStreamService.publish(change(1L, "groupUser"));
+        changeStreamService.publish(change(2L, "groupUser"));
+        changeStreamService.publish(change(3L, "groupUser"));
+
+        RecordingListener listener = new RecordingListener(2);
+        changeStreamService.subscribe(GROUP_USER, 1L, listener);
+
+        assertThat(listener.await()).containsExactly(2L, 3L);
+        verify(changeLogService, never()).findChangesSince(anyLong(), anyInt());
+    }
+
+    @Test
+    void testResumeFromBufferOutOfWatermarkOrder() throws Exception {
+        // The commits are notified in another order than their watermarks
+        changeStreamService.publish(change(5L, "groupUser"));
+        changeStreamService.publish(change(3L, "groupUser"));
+        changeStreamService.publish(change(6L, "groupUser"));
+
+        RecordingListener listener = new RecordingListener(2);
+        changeStreamService.subscribe(GROUP_USER, 4L, listener);
+
+        assertThat(listener.await()).containsExactly(5L, 6L);
+        verify(changeLogService, never()).findChangesSince(anyLong(), anyInt());
+    }
+
+    @Test
+    void testResumeFromChangeLog() throws Exception {
+        ChangeSetDTO missed = new ChangeSetDTO();
+        missed.setWatermark(2L);
+        missed.setChanges(List.of(change(2L, "groupUser")));
+        when(changeLogService.findChangesSince(anyLong(), anyInt())).thenReturn(missed);
+        changeStreamService.publish(change(2L, "groupUser"));
+        changeStreamService.publish(change(3L, "groupUser"));
+
+        RecordingListener listener = new RecordingListener(2);
+        changeStreamService.subscribe(GROUP_USER, 1L, listener);
+
+        assertThat(listener.await()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void testResyncWhenTooFarBehind() throws Exception {
+        ChangeSetDTO missed = new ChangeSetDTO();
+        missed.setHasMore(true);
+        when(changeLogService.findChangesSince(anyLong(), anyInt())).thenReturn(missed);
+
+        RecordingListener listener = new RecordingListener(0);
+        changeStreamService.subscribe(GROUP_USER, 1L, listener);
+
+        assertThat(listener.closeReason).isEqualTo(CloseReason.RESYNC_REQUIRED);
+        assertThat(changeStreamService.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testSlowConsumerIsDisconnected() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener(1) {
+            @Override
+            public void onChange(ChangeDTO change) {
+                super.onChange(change);
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        changeStreamService.subscribe(GROUP_USER, null, slow);
+
+        changeStreamService.publish(change(1L, "groupUser"));
+        slow.await();
+        for (long watermark = 2; watermark <= 10; watermark++) {
+            changeStreamService.publish(change(watermark, "groupUser"));
+        }
+        blocked.countDown();
+
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.closeReason).isEqualTo(CloseReason.SLOW_CONSUMER);
+        assertThat(changeStreamService.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testBlockedConsumerIsDisconnectedWithoutHoldingBackTheOthers() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getChangeStream().setDispatcherThreads(1);
+        applicationProperties.getChangeStream().setSendTimeout(Duration.ofMillis(200));
+        changeStreamService.destroy();
+        changeStreamService = new ChangeStreamService(changeLogService, applicationProperties);
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingListener stuck = new RecordingListener(1) {
+            @Override
+            public void onChange(ChangeDTO change) {
+                super.onChange(change);
+                try {
+                    // A client which stopped reading
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        RecordingListener other = new RecordingListener(2);
+        changeStreamService.subscribe(GROUP_USER, null, stuck);
+        changeStreamService.subscribe(GROUP_USER, null, other);
+
+        changeStreamService.publish(change(1L, "groupUser"));
+        stuck.await();
+        changeStreamService.publish(change(2L, "groupUser"));
+
+        assertThat(other.await()).containsExactly(1L, 2L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (changeStreamService.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(changeStreamService.getSubscriberCount()).isEqualTo(1);
+        assertThat(stuck.closeReason).isNull();
+
+        blocked.countDown();
+
+        assertThat(stuck.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stuck.closeReason).isEqualTo(CloseReason.SLOW_CONSUMER);
+        assertThat(stuck.changes).hasSize(1);
+    }
+
+    private static ChangeDTO change(Long watermark, String entityName) {
+        ChangeDTO change = new ChangeDTO();
+        change.setWatermark(watermark);
+        change.setEntityName(entityName);
+        change.setEntityId(watermark);
+        change.setOperation(ChangeOperation.UPDATE);
+        return change;
+    }
+
+    private static class RecordingListener implements ChangeStreamListener {
+
+        private final List<ChangeDTO> changes = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch received;
+
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private volatile CloseReason closeReason;
+
+        RecordingListener(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        List<Long> await() throws InterruptedException {
+            assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+            return changes.stream().map(ChangeDTO::getWatermark).collect(Collectors.toList());
+        }
+
+        @Override
+        public void onChange(ChangeDTO change) {
+            changes.add(change);
+            received.countDown();
+        }
+
+        @Override
+        public void onHeartbeat() {}
+
+        @Override
+        public void onClose(CloseReason reason) {
+            closeReason = reason;
+            closed.countDown();
+        }
+    }
+}
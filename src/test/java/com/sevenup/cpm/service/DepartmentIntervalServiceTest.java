@@ -0,0 +1,200 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.security.AuthoritiesConstants;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Test class for the {@link DepartmentIntervalService} and the {@link DepartmentScopeService} checking against its intervals.
+ */
+class DepartmentIntervalServiceTest {
+
+    private DepartmentRepository departmentRepository;
+
+    private ChangeLogService changeLogService;
+
+    private GroupRepository groupRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private DepartmentIntervalService departmentIntervalService;
+
+    private DepartmentScopeService departmentScopeService;
+
+    @BeforeEach
+    public void setup() {
+        departmentRepository = mock(DepartmentRepository.class);
+        changeLogService = mock(ChangeLogService.class);
+        groupRepository = mock(GroupRepository.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getDepartmentScoping().setEnabled(true);
+        applicationProperties.getDepartmentScoping().setUsers(Map.of("scoped", 2L));
+        departmentIntervalService = new DepartmentIntervalService(departmentRepository, changeLogService, applicationProperties);
+        departmentScopeService =
+            new DepartmentScopeService(
+                applicationProperties,
+                departmentIntervalService,
+                departmentRepository,
+                groupRepository,
+                mock(GroupUserRepository.class),
+                mock(GroupRoleRepository.class)
+            );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testNumberNestsTheSubtrees() {
+        // 1 -> (2 -> (4, 5), 3), 6 whose parent does not exist, 7 <-> 8 on a cycle
+        Map<Long, Long> parents = new HashMap<>();
+        parents.put(1L, null);
+        parents.put(2L, 1L);
+        parents.put(3L, 1L);
+        parents.put(4L, 2L);
+        parents.put(5L, 2L);
+        parents.put(6L, 99L);
+        parents.put(7L, 8L);
+        parents.put(8L, 7L);
+
+        Map<Long, int[]> intervals = DepartmentIntervalService.number(parents);
+
+        assertThat(intervals.get(1L)).containsExactly(1, 10);
+        assertThat(intervals.get(2L)).containsExactly(2, 7);
+        assertThat(intervals.get(4L)).containsExactly(3, 4);
+        assertThat(intervals.get(5L)).containsExactly(5, 6);
+        assertThat(intervals.get(3L)).containsExactly(8, 9);
+        assertThat(intervals.get(6L)).containsExactly(11, 12);
+        assertThat(intervals).doesNotContainKeys(7L, 8L);
+    }
+
+    @Test
+    void testRenumberOnlyUpdatesTheShiftedDepartments() {
+        when(departmentRepository.findAllTreeNodesForUpdate())
+            .thenReturn(List.of(new Object[] { 1L, null, 1, 4 }, new Object[] { 2L, 1L, 2, 3 }, new Object[] { 3L, null, null, null }));
+
+        assertThat(departmentIntervalService.renumber()).isEqualTo(1);
+        verify(departmentRepository).updateInterval(3L, 5, 6);
+        verify(departmentRepository, times(1)).updateInterval(any(), any(), any());
+    }
+
+    @Test
+    void testScopedUserReachesTheirSubtreeOnly() {
+        givenIntervals();
+        authenticate("scoped");
+
+        DepartmentScope scope = departmentScopeService.getCurrentScope();
+        assertThat(scope.getLft()).isEqualTo(2);
+        assertThat(scope.getRgt()).isEqualTo(7);
+
+        departmentScopeService.checkDepartment(2L);
+        departmentScopeService.checkDepartment(4L);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartment(3L)).isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartment(1L)).isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartment(null)).isInstanceOf(AccessDeniedException.class);
+
+        when(groupRepository.findDepartmentIdById(10L)).thenReturn(Optional.of(5L));
+        departmentScopeService.checkGroup(10L);
+        assertThatThrownBy(() -> departmentScopeService.checkGroup(11L)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void testScopedUserCannotMoveTheirDepartmentOut() {
+        givenIntervals();
+        authenticate("scoped");
+        when(departmentRepository.findIdParentById(2L)).thenReturn(Optional.of(1L));
+
+        departmentScopeService.checkDepartmentUpdate(2L, 1L, false);
+        departmentScopeService.checkDepartmentUpdate(2L, null, true);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartmentUpdate(2L, 3L, false)).isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartmentUpdate(2L, null, false)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void testUnlistedUsers() {
+        // No interval is read when the scoping is disabled
+        applicationProperties.getDepartmentScoping().setEnabled(false);
+        authenticate("user", AuthoritiesConstants.USER);
+        assertThat(departmentScopeService.getCurrentScope().isUnrestricted()).isTrue();
+        departmentScopeService.checkDepartment(3L);
+        verify(departmentRepository, never()).findAllIntervals();
+
+        applicationProperties.getDepartmentScoping().setEnabled(true);
+        authenticate("admin", AuthoritiesConstants.ADMIN);
+        assertThat(departmentScopeService.getCurrentScope().isUnrestricted()).isTrue();
+        departmentScopeService.checkDepartment(3L);
+
+        authenticate("user", AuthoritiesConstants.USER);
+        assertThat(departmentScopeService.getCurrentScope()).isSameAs(DepartmentScope.NONE);
+        assertThatThrownBy(() -> departmentScopeService.checkDepartment(3L)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void testIntervalsReloadedOnceADepartmentWriteIsCommitted() {
+        givenIntervals();
+        authenticate("scoped");
+        departmentScopeService.checkDepartment(4L);
+        departmentScopeService.checkDepartment(5L);
+        verify(departmentRepository, times(1)).findAllIntervals();
+
+        // Department 4 moved out of the subtree of department 2
+        when(departmentRepository.findAllIntervals())
+            .thenReturn(List.of(new Object[] { 1L, 1, 10 }, new Object[] { 2L, 2, 5 }, new Object[] { 4L, 6, 7 }));
+        when(changeLogService.getChangeCounter("department")).thenReturn(2L);
+        ChangeDTO change = new ChangeDTO();
+        change.setEntityName("department");
+        departmentIntervalService.onChangeCommitted(change);
+
+        assertThatThrownBy(() -> departmentScopeService.checkDepartment(4L)).isInstanceOf(AccessDeniedException.class);
+        verify(departmentRepository, times(2)).findAllIntervals();
+    }
+
+    private void givenIntervals() {
+        when(changeLogService.getChangeCounter("department")).thenReturn(1L);
+        when(departmentRepository.findAllIntervals())
+            .thenReturn(
+                List.of(
+                    new Object[] { 1L, 1, 10 },
+                    new Object[] { 2L, 2, 7 },
+                    new Object[] { 4L, 3, 4 },
+                    new Object[] { 5L, 5, 6 },
+                    new Object[] { 3L, 8, 9 }
+                )
+            );
+    }
+
+    private static void authenticate(String login, String... authorities) {
+        List<SimpleGrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (String authority : authorities) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, login, grantedAuthorities));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.service.dto.GroupDTO;
+import com.sevenup.cpm.service.mapper.GroupMapper;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Test class for the {@link GroupService}.
+ */
+class GroupServiceTest {
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> departmentIds;
+
+    private GroupRepository groupRepository;
+
+    private DepartmentRepository departmentRepository;
+
+    private GroupService groupService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        groupRepository = mock(GroupRepository.class);
+        departmentRepository = mock(DepartmentRepository.class);
+        groupService = new GroupService(groupRepository, mock(GroupMapper.class), departmentRepository, mock(ChangeLogService.class));
+    }
+
+    @Test
+    void testFindAllByDepartmentSubtreeReadsTheIdsAsLongs() {
+        // The native recursive query returns the ids as the driver's BigInteger
+        when(departmentRepository.findSubtreeIds(1L)).thenReturn(List.of(BigInteger.ONE, BigInteger.valueOf(2)));
+        when(groupRepository.findByDepartmentIdIn(any(), any(), eq(GroupDTO.class))).thenReturn(Page.empty());
+
+        groupService.findAllByDepartment(1L, true, PageRequest.of(0, 20));
+
+        verify(groupRepository).findByDepartmentIdIn(departmentIds.capture(), any(), eq(GroupDTO.class));
+        assertThat(departmentIds.getValue()).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.mapper.GroupUserMapper;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link GroupUserService}.
+ */
+class GroupUserServiceTest {
+
+    private GroupUserRepository groupUserRepository;
+
+    private ChangeLogService changeLogService;
+
+    private GroupRepository groupRepository;
+
+    private GroupUserService groupUserService;
+
+    @BeforeEach
+    public void setup() {
+        groupUserRepository = mock(GroupUserRepository.class);
+        changeLogService = mock(ChangeLogService.class);
+        groupRepository = mock(GroupRepository.class);
+        groupUserService = new GroupUserService(groupUserRepository, mock(GroupUserMapper.class), changeLogService, groupRepository);
+    }
+
+    @Test
+    void testUpsertRecordsTheCreationOnlyWhenItInserts() {
+        GroupUser groupUser = new GroupUser().groupId(1L).userId(2L);
+        groupUser.setId(3L);
+        when(groupUserRepository.findOneByGroupIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
+        when(groupUserRepository.findLockedByGroupIdAndUserId(1L, 2L)).thenReturn(Optional.of(groupUser));
+
+        // A concurrent call inserted the membership between the read and the insert
+        when(groupUserRepository.insertIfAbsent(eq(1L), eq(2L), anyString(), any())).thenReturn(0);
+        assertThat(groupUserService.upsert(1L, 2L).isCreated()).isFalse();
+        verify(changeLogService, never()).record(anyString(), any(GroupUser.class), any(ChangeOperation.class));
+
+        when(groupUserRepository.insertIfAbsent(eq(1L), eq(2L), anyString(), any())).thenReturn(1);
+        assertThat(groupUserService.upsert(1L, 2L).isCreated()).isTrue();
+        verify(changeLogService).record("groupUser", groupUser, ChangeOperation.CREATE);
+    }
+
+    @Test
+    void testSyncMembersOfMissingGroup() {
+        when(groupRepository.existsById(1L)).thenReturn(false);
+
+        assertThat(groupUserService.syncMembers(1L, List.of(2L, 3L))).isEmpty();
+        verify(groupUserRepository, never()).findIdAndUserIdByGroupId(anyLong());
+        verify(groupUserRepository, never()).insertAllIfAbsent(anyLong(), any(), anyString(), any());
+    }
+}
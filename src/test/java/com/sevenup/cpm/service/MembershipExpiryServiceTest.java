@@ -0,0 +1,121 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Test class for the {@link MembershipExpiryService}.
+ */
+class MembershipExpiryServiceTest {
+
+    private GroupUserRepository groupUserRepository;
+
+    private GroupRoleRepository groupRoleRepository;
+
+    private ChangeLogService changeLogService;
+
+    private MembershipExpiryService membershipExpiryService;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> idsCaptor;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        groupUserRepository = mock(GroupUserRepository.class);
+        groupRoleRepository = mock(GroupRoleRepository.class);
+        changeLogService = mock(ChangeLogService.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMembershipExpiry().setSweepInterval(Duration.ofSeconds(5));
+        applicationProperties.getMembershipExpiry().setTick(Duration.ofMillis(100));
+        applicationProperties.getMembershipExpiry().setBatchSize(2);
+        applicationProperties.getMembershipExpiry().setMaxBatchesPerSweep(2);
+        membershipExpiryService =
+            new MembershipExpiryService(
+                groupUserRepository,
+                groupRoleRepository,
+                changeLogService,
+                applicationProperties,
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @Test
+    void testSweepDeletesBoundedBatches() {
+        when(groupUserRepository.findExpiredIdsForUpdate(any(Instant.class), anyInt()))
+            .thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L, 4L))
+            .thenReturn(List.of(5L));
+
+        membershipExpiryService.sweep();
+
+        // The fifth membership is left to the next sweep
+        verify(groupUserRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(groupUserRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        verify(groupUserRepository, times(2)).deleteAllByIdInBatch(anyList());
+        verify(changeLogService).recordDeletions("groupUser", List.of(1L, 2L));
+        verify(groupRoleRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void testMembershipsExpiringBeforeTheNextSweepsAreDeletedOnTime() throws InterruptedException {
+        Instant validUntil = Instant.now().plusMillis(300);
+        when(groupUserRepository.findIdAndValidUntilByValidUntilBetween(any(), any()))
+            .thenReturn(List.<Object[]>of(new Object[] { 7L, validUntil }));
+        when(groupUserRepository.findExpiredIdsForUpdate(anyList(), any(Instant.class))).thenReturn(List.of(7L));
+        membershipExpiryService.sweep();
+
+        membershipExpiryService.tick();
+        verify(groupUserRepository, never()).findExpiredIdsForUpdate(anyList(), any(Instant.class));
+
+        Thread.sleep(Duration.between(Instant.now(), validUntil).toMillis() + 100);
+        membershipExpiryService.tick();
+        verify(groupUserRepository).findExpiredIdsForUpdate(eq(List.of(7L)), any(Instant.class));
+        verify(changeLogService).recordDeletions("groupUser", List.of(7L));
+    }
+
+    @Test
+    void testCommittedMembershipsGoOnTheWheel() throws InterruptedException {
+        Instant validUntil = Instant.now().plusMillis(200);
+        ChangeDTO change = new ChangeDTO();
+        change.setEntityName("groupUser");
+        change.setEntityId(8L);
+        change.setOperation(ChangeOperation.CREATE);
+        change.setEntity(new GroupUser().validUntil(validUntil));
+        membershipExpiryService.onChangeCommitted(change);
+        // A membership without expiry stays off the wheel
+        change.setEntityId(9L);
+        change.setEntity(new GroupUser());
+        membershipExpiryService.onChangeCommitted(change);
+
+        Thread.sleep(Duration.between(Instant.now(), validUntil).toMillis() + 100);
+        membershipExpiryService.tick();
+        verify(groupUserRepository, times(1)).findExpiredIdsForUpdate(idsCaptor.capture(), any(Instant.class));
+        assertThat(idsCaptor.getValue()).containsExactly(8L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link NameIndex}.
+ */
+class NameIndexTest {
+
+    private NameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new NameIndex();
+        index.put("group", 1L, "Phòng Đào tạo", 10L);
+        index.put("group", 2L, "Ban đào tạo và phát triển", 10L);
+        index.put("department", 3L, "Đảo Phú Quốc", 3L);
+        index.put("role", 4L, "Quản trị viên", null);
+        index.put("role", 5L, "Kế toán", null);
+        index.put("role", 6L, "Kế toán trưởng", null);
+    }
+
+    @Test
+    void testNormalizationFoldsCaseAndAccents() {
+        assertThat(NameIndex.normalize("Phòng ĐÀO TẠO")).isEqualTo("phong dao tao");
+        assertThat(NameIndex.normalize("Quản trị viên")).isEqualTo("quan tri vien");
+        assertThat(NameIndex.normalize("Straße")).isEqualTo("strasse");
+        assertThat(NameIndex.words(" Kế-toán, trưởng ")).containsExactly("ke", "toan", "truong");
+        // Precomposed and decomposed forms of the same name are the same
+        assertThat(NameIndex.normalize("Vi\u1ec7t")).isEqualTo(NameIndex.normalize("Vie\u0302\u0323t"));
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixes() {
+        assertThat(ids("dao")).containsExactly(3L, 1L, 2L);
+        assertThat(ids("ĐÀO")).containsExactly(3L, 1L, 2L);
+        assertThat(ids("tao")).containsExactly(1L, 2L);
+        assertThat(ids("phat tr")).containsExactly(2L);
+        assertThat(ids("ke toan")).containsExactly(5L, 6L);
+        // Every word of the query must start a word of the name
+        assertThat(ids("dao quan")).isEmpty();
+        assertThat(ids("ao")).isEmpty();
+        assertThat(ids(" - ")).isEmpty();
+    }
+
+    @Test
+    void testSearchRanksExactWordsThenFirstWordsThenShortNames() {
+        index.put("group", 7L, "Daohang", 10L);
+        // Equal to the query, first word first, then shortest; then the longer words
+        assertThat(ids("dao")).containsExactly(3L, 1L, 2L, 7L);
+        assertThat(ids("k")).containsExactly(5L, 6L);
+    }
+
+    @Test
+    void testSearchRanksLongerWordsByFirstWordThenLengthRatherThanByWord() {
+        index.put("role", 20L, "Team sabre", null);
+        index.put("role", 21L, "Sales", null);
+        index.put("role", 22L, "Sales department", null);
+        index.put("role", 23L, "Samba", null);
+        assertThat(ids("sa")).containsExactly(21L, 23L, 22L, 20L);
+        assertThat(index.search("sa", entry -> true, 2, 1).stream().map(NameIndex.Entry::getId)).containsExactly(22L);
+    }
+
+    @Test
+    void testSearchPagesAndFilters() {
+        assertThat(index.search("dao", entry -> true, 1, 1).stream().map(NameIndex.Entry::getId)).containsExactly(1L);
+        assertThat(index.search("dao", entry -> true, 3, 10)).isEmpty();
+        assertThat(index.search("dao", entry -> "group".equals(entry.getType()), 0, 10).stream().map(NameIndex.Entry::getId))
+            .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testWritesReplaceTheNames() {
+        index.put("group", 1L, "Phòng Hành chính", 10L);
+        assertThat(ids("dao")).containsExactly(3L, 2L);
+        assertThat(ids("hanh chinh")).containsExactly(1L);
+
+        index.remove("role", 5L);
+        assertThat(ids("ke")).containsExactly(6L);
+        index.put("role", 6L, null, null);
+        assertThat(ids("ke")).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, entry -> true, 0, 100).stream().map(NameIndex.Entry::getId).collect(Collectors.toList());
+    }
+}
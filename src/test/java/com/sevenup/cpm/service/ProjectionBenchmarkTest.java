@@ -0,0 +1,45 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.domain.GroupUser;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import com.sevenup.cpm.service.mapper.GroupUserMapper;
+import com.sevenup.cpm.service.mapper.GroupUserMapperImpl;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares the reads of the services projecting into the DTOs with the reads of entities mapped to the DTOs which they
+ * replace, both in read-only transactions.
+ * <p>
+ * Only runs when asked to, as timings are too noisy for the build:
+ * {@code ./mvnw test -Dtest=ProjectionBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionBenchmarkTest extends AbstractPersistenceBenchmark {
+
+    private final GroupUserMapper groupUserMapper = new GroupUserMapperImpl();
+
+    @Test
+    void benchmarkReads() {
+        long entities = measure("Entities mapped to DTOs", () -> transaction(true).execute(status -> readEntities()));
+        long projections = measure("DTO projections", () -> transaction(true).execute(status -> readProjections()));
+
+        // Without the entities, their entries in the persistence context and the auditing columns
+        assertThat(projections).isLessThan(entities);
+    }
+
+    private int readEntities() {
+        Instant now = Instant.now();
+        List<GroupUser> groupUsers = groupUserRepository.findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(now, GroupUser.class);
+        return groupUserMapper.toDto(groupUsers).size();
+    }
+
+    private int readProjections() {
+        Instant now = Instant.now();
+        return groupUserRepository.findAllProjectedByValidUntilIsNullOrValidUntilGreaterThan(now, GroupUserDTO.class).size();
+    }
+}
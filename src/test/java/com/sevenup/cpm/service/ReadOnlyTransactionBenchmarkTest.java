@@ -0,0 +1,32 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Compares the reads of entities in the read-only transactions of the services with the reads in the read-write
+ * transactions which they replace.
+ * <p>
+ * Only runs when asked to, as timings are too noisy for the build:
+ * {@code ./mvnw test -Dtest=ReadOnlyTransactionBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReadOnlyTransactionBenchmarkTest extends AbstractPersistenceBenchmark {
+
+    @Test
+    void benchmarkEntityReads() {
+        long readWrite = measure(
+            "Entities, read-write transaction",
+            () -> transaction(false).execute(status -> groupUserRepository.findAll().size())
+        );
+        long readOnly = measure(
+            "Entities, read-only transaction",
+            () -> transaction(true).execute(status -> groupUserRepository.findAll().size())
+        );
+
+        // Without the snapshots of the loaded state, kept for the dirty checking of the flush on commit
+        assertThat(readOnly).isLessThan(readWrite);
+    }
+}
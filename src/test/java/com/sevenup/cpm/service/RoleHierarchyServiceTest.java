@@ -0,0 +1,135 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import com.sevenup.cpm.domain.RoleInheritance;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
+import com.sevenup.cpm.service.dto.ChangeDTO;
+import com.sevenup.cpm.service.mapper.RoleInheritanceMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RoleHierarchyService} and the closure of the role inheritances.
+ */
+class RoleHierarchyServiceTest {
+
+    private RoleInheritanceRepository roleInheritanceRepository;
+
+    private ChangeLogService changeLogService;
+
+    private RoleHierarchyService roleHierarchyService;
+
+    @BeforeEach
+    public void setup() {
+        roleInheritanceRepository = mock(RoleInheritanceRepository.class);
+        changeLogService = mock(ChangeLogService.class);
+        roleHierarchyService =
+            new RoleHierarchyService(
+                roleInheritanceRepository,
+                mock(RoleInheritanceMapper.class),
+                changeLogService,
+                new ApplicationProperties()
+            );
+    }
+
+    @Test
+    void testClosureFollowsTheInheritancesTransitively() {
+        // admin (1) -> editor (2) -> viewer (3), admin -> auditor (4) -> viewer, 5 and 6 on a cycle
+        RoleHierarchyService.Closure closure = RoleHierarchyService.Closure.of(
+            List.of(edge(1, 2), edge(2, 3), edge(1, 4), edge(4, 3), edge(5, 6), edge(6, 5))
+        );
+
+        assertThat(closure.getInheritedRoleIds(1L)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(closure.getInheritedRoleIds(2L)).containsExactly(2L, 3L);
+        assertThat(closure.getInheritedRoleIds(3L)).containsExactly(3L);
+        assertThat(closure.getInheritingRoleIds(3L)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(closure.getInheritingRoleIds(4L)).containsExactly(1L, 4L);
+        assertThat(closure.inherits(1L, 3L)).isTrue();
+        assertThat(closure.inherits(3L, 1L)).isFalse();
+        assertThat(closure.inherits(2L, 4L)).isFalse();
+        // A role without inheritances only holds itself
+        assertThat(closure.inherits(99L, 99L)).isTrue();
+        assertThat(closure.getInheritedRoleIds(99L)).containsExactly(99L);
+        assertThat(closure.getInheritingRoleIds(99L)).containsExactly(99L);
+        // The inheritance closing the cycle is ignored
+        assertThat(closure.getInheritedRoleIds(5L)).containsExactly(5L, 6L);
+        assertThat(closure.getInheritedRoleIds(6L)).containsExactly(6L);
+    }
+
+    @Test
+    void testClosureBeyondSixtyFourRoles() {
+        // A chain of 150 roles, each inheriting the next one
+        List<Object[]> edges = new ArrayList<>();
+        for (long roleId = 1; roleId < 150; roleId++) {
+            edges.add(edge(roleId, roleId + 1));
+        }
+        RoleHierarchyService.Closure closure = RoleHierarchyService.Closure.of(edges);
+
+        assertThat(closure.getInheritedRoleIds(1L)).isEqualTo(LongStream.rangeClosed(1, 150).boxed().collect(Collectors.toList()));
+        assertThat(closure.getInheritingRoleIds(150L)).hasSize(150);
+        assertThat(closure.inherits(70L, 130L)).isTrue();
+        assertThat(closure.inherits(130L, 70L)).isFalse();
+    }
+
+    @Test
+    void testAddInheritanceRejectsCycles() {
+        when(roleInheritanceRepository.findOneByRoleIdAndInheritedRoleId(any(), any())).thenReturn(Optional.empty());
+        when(roleInheritanceRepository.findAllEdgesForUpdate()).thenReturn(List.of(edge(1, 2), edge(2, 3)));
+
+        assertThatThrownBy(() -> roleHierarchyService.addInheritance(3L, 1L)).isInstanceOf(CyclicRoleInheritanceException.class);
+        assertThatThrownBy(() -> roleHierarchyService.addInheritance(2L, 2L)).isInstanceOf(CyclicRoleInheritanceException.class);
+        verify(roleInheritanceRepository, never()).save(any());
+
+        when(roleInheritanceRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        assertThat(roleHierarchyService.addInheritance(1L, 3L).isCreated()).isTrue();
+        verify(changeLogService, times(3)).lock("roleInheritance");
+    }
+
+    @Test
+    void testAddInheritanceKeepsTheExistingOne() {
+        when(roleInheritanceRepository.findOneByRoleIdAndInheritedRoleId(1L, 2L))
+            .thenReturn(Optional.of(new RoleInheritance().roleId(1L).inheritedRoleId(2L)));
+
+        assertThat(roleHierarchyService.addInheritance(1L, 2L).isCreated()).isFalse();
+        verify(roleInheritanceRepository, never()).findAllEdgesForUpdate();
+        verify(roleInheritanceRepository, never()).save(any());
+    }
+
+    @Test
+    void testClosureReloadedOnceAnInheritanceWriteIsCommitted() {
+        when(changeLogService.getChangeCounter("roleInheritance")).thenReturn(1L);
+        when(roleInheritanceRepository.findAllEdges()).thenReturn(List.<Object[]>of(edge(1, 2)));
+        assertThat(roleHierarchyService.getGrantingRoleIds(2L)).containsExactly(1L, 2L);
+        assertThat(roleHierarchyService.getInheritedRoleIds(1L)).containsExactly(2L);
+        verify(roleInheritanceRepository, times(1)).findAllEdges();
+
+        // Role 2 now inherits role 3
+        when(roleInheritanceRepository.findAllEdges()).thenReturn(List.of(edge(1, 2), edge(2, 3)));
+        when(changeLogService.getChangeCounter("roleInheritance")).thenReturn(2L);
+        ChangeDTO change = new ChangeDTO();
+        change.setEntityName("roleInheritance");
+        roleHierarchyService.onChangeCommitted(change);
+
+        assertThat(roleHierarchyService.getGrantingRoleIds(3L)).containsExactly(1L, 2L, 3L);
+        assertThat(roleHierarchyService.inherits(1L, 3L)).isTrue();
+        verify(roleInheritanceRepository, times(2)).findAllEdges();
+    }
+
+    private static Object[] edge(long roleId, long inheritedRoleId) {
+        return new Object[] { roleId, inheritedRoleId };
+    }
+}
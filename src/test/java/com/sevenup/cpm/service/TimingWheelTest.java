@@ -0,0 +1,63 @@
+package com.sevenup.cpm.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link TimingWheel}.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    void testKeysAreCollectedOnTheirTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 10, START);
+
+        assertThat(wheel.schedule(1L, START + 1500)).isTrue();
+        assertThat(wheel.schedule(2L, START + 2000)).isTrue();
+        assertThat(wheel.schedule(3L, START + 9000)).isTrue();
+
+        // Not before its deadline, even within the tick it falls in
+        assertThat(wheel.advance(START + 1999)).isEmpty();
+        assertThat(wheel.advance(START + 2000)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.advance(START + 8999)).isEmpty();
+        assertThat(wheel.advance(START + 9000)).containsExactly(3L);
+        assertThat(wheel.advance(START + 20000)).isEmpty();
+    }
+
+    @Test
+    void testKeysBeyondTheSpanAreLeftOut() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 10, START);
+
+        assertThat(wheel.getSpan()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(wheel.schedule(1L, START + 10000)).isTrue();
+        assertThat(wheel.schedule(2L, START + 10001)).isFalse();
+
+        // Once the wheel turned, the same deadline is within the span
+        wheel.advance(START + 5000);
+        assertThat(wheel.schedule(2L, START + 10001)).isTrue();
+        assertThat(wheel.advance(START + 11000)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void testOverdueKeysAreCollectedOnTheNextTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 10, START);
+
+        assertThat(wheel.schedule(1L, START - 5000)).isTrue();
+        assertThat(wheel.advance(START + 1000)).containsExactly(1L);
+    }
+
+    @Test
+    void testPauseLongerThanTheSpan() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 10, START);
+        wheel.schedule(1L, START + 3000);
+        wheel.schedule(2L, START + 7000);
+
+        assertThat(wheel.advance(START + 60000)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.schedule(3L, START + 61000)).isTrue();
+        assertThat(wheel.advance(START + 61000)).containsExactly(3L);
+    }
+}
@@ -0,0 +1,24 @@
+package com.sevenup.cpm.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class GroupRoleDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(GroupRoleDTO.class);
+        GroupRoleDTO groupRoleDTO1 = new GroupRoleDTO();
+        groupRoleDTO1.setId(1L);
+        GroupRoleDTO groupRoleDTO2 = new GroupRoleDTO();
+        assertThat(groupRoleDTO1).isNotEqualTo(groupRoleDTO2);
+        groupRoleDTO2.setId(groupRoleDTO1.getId());
+        assertThat(groupRoleDTO1).isEqualTo(groupRoleDTO2);
+        groupRoleDTO2.setId(2L);
+        assertThat(groupRoleDTO1).isNotEqualTo(groupRoleDTO2);
+        groupRoleDTO1.setId(null);
+        assertThat(groupRoleDTO1).isNotEqualTo(groupRoleDTO2);
+    }
+}
@@ -0,0 +1,160 @@
+package com.sevenup.cpm.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sevenup.cpm.config.ApplicationProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+
+class IdempotencyKeyFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Idempotency properties = new ApplicationProperties.Idempotency();
+        properties.setTtl(Duration.ofMinutes(1));
+        properties.setMaxEntries(2);
+        idempotencyKeyFilter = new IdempotencyKeyFilter(properties, clock::get);
+        authenticate("user");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRetryIsReplayed() throws Exception {
+        MockHttpServletResponse first = filter("key-1", "{\"groupId\":1}", echo(HttpStatus.CREATED));
+        MockHttpServletResponse retry = filter("key-1", "{\"groupId\":1}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(1);
+        assertThat(retry.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo("{\"groupId\":1}");
+        assertThat(retry.getHeader(HttpHeaders.LOCATION)).isEqualTo("/api/group-users/1");
+        assertThat(retry.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void testKeyReusedForAnotherRequestIsRejected() throws Exception {
+        filter("key-1", "{\"groupId\":1}", echo(HttpStatus.CREATED));
+        MockHttpServletResponse response = filter("key-1", "{\"groupId\":2}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
+    @Test
+    void testRetryDuringTheRequestIsRejected() throws Exception {
+        AtomicInteger retryStatus = new AtomicInteger();
+        filter(
+            "key-1",
+            "{}",
+            (request, response) -> {
+                retryStatus.set(filter("key-1", "{}", echo(HttpStatus.CREATED)).getStatus());
+                echo(HttpStatus.CREATED).doFilter(request, response);
+            }
+        );
+
+        assertThat(retryStatus).hasValue(HttpStatus.CONFLICT.value());
+        assertThat(handled).hasValue(1);
+    }
+
+    @Test
+    void testServerErrorIsNotRemembered() throws Exception {
+        filter("key-1", "{}", echo(HttpStatus.SERVICE_UNAVAILABLE));
+        MockHttpServletResponse retry = filter("key-1", "{}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+    }
+
+    @Test
+    void testKeysAreScopedToTheUser() throws Exception {
+        filter("key-1", "{}", echo(HttpStatus.CREATED));
+        authenticate("other");
+        MockHttpServletResponse response = filter("key-1", "{}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(2);
+        assertThat(response.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void testExpiredEntriesMakeRoom() throws Exception {
+        filter("key-1", "{}", echo(HttpStatus.CREATED));
+        filter("key-2", "{}", echo(HttpStatus.CREATED));
+        filter("key-3", "{}", echo(HttpStatus.CREATED));
+        assertThat(idempotencyKeyFilter.getEntryCount()).isEqualTo(2);
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        filter("key-1", "{}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(4);
+        assertThat(idempotencyKeyFilter.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsWithoutKeyAreNotRemembered() throws Exception {
+        filter(null, "{}", echo(HttpStatus.CREATED));
+        filter(null, "{}", echo(HttpStatus.CREATED));
+
+        assertThat(handled).hasValue(2);
+        assertThat(idempotencyKeyFilter.getEntryCount()).isZero();
+    }
+
+    private MockHttpServletResponse filter(String key, String body, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/groups/1/users/2");
+        if (key != null) {
+            request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            idempotencyKeyFilter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private FilterChain echo(HttpStatus status) {
+        return (request, response) -> {
+            handled.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status.value());
+            httpResponse.setHeader(HttpHeaders.LOCATION, "/api/group-users/1");
+            httpResponse.setContentType("application/json");
+            copy((HttpServletRequest) request, httpResponse);
+        };
+    }
+
+    private static void copy(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StreamUtils.copy(request.getInputStream(), response.getOutputStream());
+    }
+
+    private static void authenticate(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, "password"));
+    }
+}
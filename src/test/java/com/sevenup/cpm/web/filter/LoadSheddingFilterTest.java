@@ -0,0 +1,159 @@
+package com.sevenup.cpm.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sevenup.cpm.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.problem.jackson.ProblemModule;
+
+class LoadSheddingFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private LoadSheddingFilter loadSheddingFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.LoadShedding properties = new ApplicationProperties.LoadShedding();
+        properties.setInitialLimit(5);
+        properties.setMinLimit(1);
+        meterRegistry = new SimpleMeterRegistry();
+        loadSheddingFilter = new LoadSheddingFilter(properties, meterRegistry, new ObjectMapper().registerModule(new ProblemModule()));
+    }
+
+    @Test
+    void testRequestUnderTheLimitPasses() throws Exception {
+        MockHttpServletResponse response = filter("GET", "/api/roles");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ).getInFlight()).isZero();
+    }
+
+    @Test
+    void testRequestOverTheLimitIsRejected() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ);
+        while (limiter.tryAcquire()) {}
+
+        MockHttpServletResponse response = filter("GET", "/api/roles");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(response.getContentAsString()).contains("\"status\":503").contains("\"message\":\"error.http.503\"");
+        assertThat(meterRegistry.get(LoadSheddingFilter.REJECTED_METER_NAME).tag("endpoint-class", "read").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testAsyncRequestHoldsItsSlotUntilItCompletes() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles/1/users");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        loadSheddingFilter.doFilter(request, response, (servletRequest, servletResponse) -> servletRequest.startAsync());
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        request.getAsyncContext().complete();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testAsyncRequestDurationIsNotALatencySample() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ);
+        for (int i = 0; i < 100; i++) {
+            saturate(limiter, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        int steadyLimit = limiter.getLimit();
+        for (int i = 1; i < steadyLimit; i++) {
+            limiter.tryAcquire();
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles/1/users");
+        request.setAsyncSupported(true);
+
+        loadSheddingFilter.doFilter(
+            request,
+            new MockHttpServletResponse(),
+            (servletRequest, servletResponse) -> servletRequest.startAsync()
+        );
+        // A client slowly reading the stream
+        Thread.sleep(20);
+        request.getAsyncContext().complete();
+
+        assertThat(limiter.getLimit()).isEqualTo(steadyLimit);
+        assertThat(limiter.getInFlight()).isEqualTo(steadyLimit - 1);
+    }
+
+    @Test
+    void testWritesYieldToBusyReads() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+
+        assertThat(filter("GET", "/api/roles").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter("PUT", "/api/roles/1").getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    @Test
+    void testStreamsAreNotLimited() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = loadSheddingFilter.getLimiter(LoadSheddingFilter.EndpointClass.READ);
+        while (limiter.tryAcquire()) {}
+
+        assertThat(filter("GET", "/api/stream/changes").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter("GET", "/management/health").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            saturate(limiter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        int steadyLimit = limiter.getLimit();
+
+        for (int i = 0; i < 2; i++) {
+            saturate(limiter, TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(steadyLimit);
+    }
+
+    @Test
+    void testLimitBacksOffOnFailures() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        limiter.tryAcquire();
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+
+    private MockHttpServletResponse filter(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loadSheddingFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,81 @@
+package com.sevenup.cpm.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.JsonPath;
+import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.domain.enumeration.ChangeOperation;
+import com.sevenup.cpm.repository.ChangeLogRepository;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ChangeLogResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ChangeLogResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/changes";
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restChangeLogMockMvc;
+
+    @Test
+    @Transactional
+    void getChangesSinceWatermark() throws Exception {
+        long watermark = changeLogRepository.findAll().stream().mapToLong(entry -> entry.getId()).max().orElse(0L);
+
+        // Create, update then delete a role, and create another one
+        String location = restChangeLogMockMvc
+            .perform(
+                post("/api/roles")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(RoleResourceIT.createEntity(em)))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+        restChangeLogMockMvc.perform(delete(location)).andExpect(status().isNoContent());
+        String kept = restChangeLogMockMvc
+            .perform(
+                post("/api/roles")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(RoleResourceIT.createUpdatedEntity(em)))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Integer keptId = JsonPath.read(kept, "$.id");
+
+        // The feed has one tombstone and one creation with the entity state
+        restChangeLogMockMvc
+            .perform(get(ENTITY_API_URL + "?since=" + watermark))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hasMore").value(false))
+            .andExpect(jsonPath("$.changes", hasSize(2)))
+            .andExpect(jsonPath("$.changes[0].entityName").value("role"))
+            .andExpect(jsonPath("$.changes[0].operation").value(ChangeOperation.DELETE.toString()))
+            .andExpect(jsonPath("$.changes[0].entity").doesNotExist())
+            .andExpect(jsonPath("$.changes[1].entityId").value(keptId))
+            .andExpect(jsonPath("$.changes[1].operation").value(ChangeOperation.CREATE.toString()))
+            .andExpect(jsonPath("$.changes[1].entity.name").value(RoleResourceIT.createUpdatedEntity(em).getName()));
+    }
+}
@@ -5,10 +5,16 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.config.ApplicationProperties;
 import com.sevenup.cpm.domain.Department;
+import com.sevenup.cpm.domain.Group;
 import com.sevenup.cpm.repository.DepartmentRepository;
+import com.sevenup.cpm.repository.GroupRepository;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
@@ -44,6 +50,15 @@ class DepartmentResourceIT {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private EntityManager em;
 
@@ -130,6 +145,74 @@ class DepartmentResourceIT {
             .andExpect(jsonPath("$.[*].idParent").value(hasItem(DEFAULT_ID_PARENT.intValue())));
     }
 
+    @Test
+    @Transactional
+    void getDepartmentsByIdFiltering() throws Exception {
+        // Initialize the database
+        departmentRepository.saveAndFlush(department);
+
+        Long id = department.getId();
+
+        defaultDepartmentShouldBeFound("id.equals=" + id);
+        defaultDepartmentShouldNotBeFound("id.notEquals=" + id + "&id.equals=" + id);
+
+        defaultDepartmentShouldBeFound("id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+        defaultDepartmentShouldNotBeFound("id.greaterThan=" + id + "&id.lessThanOrEqual=" + id);
+        defaultDepartmentShouldNotBeFound("id.lessThan=" + id + "&id.greaterThanOrEqual=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllDepartmentsByIdParentIsInShouldWork() throws Exception {
+        // Initialize the database
+        departmentRepository.saveAndFlush(department);
+
+        // Get all the departmentList where idParent in DEFAULT_ID_PARENT or UPDATED_ID_PARENT
+        defaultDepartmentShouldBeFound("idParent.in=" + DEFAULT_ID_PARENT + "," + UPDATED_ID_PARENT + "&id.equals=" + department.getId());
+
+        // Get all the departmentList where idParent equals to UPDATED_ID_PARENT
+        defaultDepartmentShouldNotBeFound("idParent.in=" + UPDATED_ID_PARENT + "&id.equals=" + department.getId());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultDepartmentShouldBeFound(String filter) throws Exception {
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(department.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].idParent").value(hasItem(DEFAULT_ID_PARENT.intValue())));
+
+        // Check, that the count call also returns 1
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultDepartmentShouldNotBeFound(String filter) throws Exception {
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getDepartment() throws Exception {
@@ -374,4 +457,115 @@ class DepartmentResourceIT {
         List<Department> departmentList = departmentRepository.findAll();
         assertThat(departmentList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void getDepartmentGroups() throws Exception {
+        // Initialize the database with a department, one of its children and a group in each
+        departmentRepository.saveAndFlush(department);
+        Department child = departmentRepository.saveAndFlush(new Department().name(UPDATED_NAME).idParent(department.getId()));
+        Group group = groupRepository.saveAndFlush(new Group().departmentId(department.getId()).name(DEFAULT_NAME));
+        Group childGroup = groupRepository.saveAndFlush(new Group().departmentId(child.getId()).name(UPDATED_NAME));
+
+        // Get the groups of the department only
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/groups?sort=id,asc", department.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(group.getId().intValue())));
+
+        // Get the groups of the whole department subtree
+        restDepartmentMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/groups?includeSubDepartments=true&sort=id,asc", department.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(group.getId().intValue())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(childGroup.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getGroupsOfNonExistingDepartment() throws Exception {
+        restDepartmentMockMvc.perform(get(ENTITY_API_URL_ID + "/groups", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void deleteDepartmentWithCascade() throws Exception {
+        // Initialize the database with a department, one of its children and a group in each
+        departmentRepository.saveAndFlush(department);
+        Department child = departmentRepository.saveAndFlush(new Department().name(UPDATED_NAME).idParent(department.getId()));
+        Department sibling = departmentRepository.saveAndFlush(new Department().name(UPDATED_NAME));
+        Group group = groupRepository.saveAndFlush(new Group().departmentId(department.getId()).name(DEFAULT_NAME));
+        Group childGroup = groupRepository.saveAndFlush(new Group().departmentId(child.getId()).name(UPDATED_NAME));
+        Group siblingGroup = groupRepository.saveAndFlush(new Group().departmentId(sibling.getId()).name(UPDATED_NAME));
+
+        // Delete the department subtree with its groups
+        restDepartmentMockMvc
+            .perform(delete(ENTITY_API_URL_ID + "?cascade=true", department.getId()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Validate only the subtree is gone
+        assertThat(departmentRepository.existsById(department.getId())).isFalse();
+        assertThat(departmentRepository.existsById(child.getId())).isFalse();
+        assertThat(departmentRepository.existsById(sibling.getId())).isTrue();
+        assertThat(groupRepository.existsById(group.getId())).isFalse();
+        assertThat(groupRepository.existsById(childGroup.getId())).isFalse();
+        assertThat(groupRepository.existsById(siblingGroup.getId())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("scoped")
+    void getDepartmentsInScope() throws Exception {
+        // Initialize the database through the API, which numbers the department tree
+        long root = createDepartment(null);
+        long child = createDepartment(root);
+        long sibling = createDepartment(null);
+
+        ApplicationProperties.DepartmentScoping departmentScoping = applicationProperties.getDepartmentScoping();
+        departmentScoping.setEnabled(true);
+        departmentScoping.setUsers(Map.of("scoped", root));
+        departmentScoping.setMaxStaleness(Duration.ZERO);
+        try {
+            // Get the departments of the subtree only
+            restDepartmentMockMvc
+                .perform(get(ENTITY_API_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem((int) root)))
+                .andExpect(jsonPath("$.[*].id").value(hasItem((int) child)))
+                .andExpect(jsonPath("$.[?(@.id == " + sibling + ")]").isEmpty());
+
+            restDepartmentMockMvc.perform(get(ENTITY_API_URL_ID, child)).andExpect(status().isOk());
+            restDepartmentMockMvc.perform(get(ENTITY_API_URL_ID, sibling)).andExpect(status().isForbidden());
+
+            // Moving a department out of the scope is forbidden
+            restDepartmentMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, child)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"id\":" + child + ",\"idParent\":" + sibling + "}")
+                )
+                .andExpect(status().isForbidden());
+        } finally {
+            departmentScoping.setEnabled(false);
+            departmentScoping.setUsers(Map.of());
+            departmentScoping.setMaxStaleness(Duration.ofSeconds(5));
+        }
+    }
+
+    private long createDepartment(Long idParent) throws Exception {
+        String response = restDepartmentMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new Department().name(DEFAULT_NAME).idParent(idParent)))
+            )
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
 }
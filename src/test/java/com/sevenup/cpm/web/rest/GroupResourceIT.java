@@ -7,7 +7,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.sevenup.cpm.IntegrationTest;
 import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.domain.GroupUser;
 import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,6 +20,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -44,6 +50,12 @@ class GroupResourceIT {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private GroupUserRepository groupUserRepository;
+
+    @Autowired
+    private GroupRoleRepository groupRoleRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -130,6 +142,87 @@ class GroupResourceIT {
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getGroupsByIdFiltering() throws Exception {
+        // Initialize the database
+        groupRepository.saveAndFlush(group);
+
+        Long id = group.getId();
+
+        defaultGroupShouldBeFound("id.equals=" + id);
+        defaultGroupShouldNotBeFound("id.notEquals=" + id + "&id.equals=" + id);
+
+        defaultGroupShouldBeFound("id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupShouldNotBeFound("id.greaterThan=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupShouldNotBeFound("id.lessThan=" + id + "&id.greaterThanOrEqual=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupsByNameContainsSomething() throws Exception {
+        // Initialize the database
+        groupRepository.saveAndFlush(group);
+
+        // Get all the groupList where name contains DEFAULT_NAME
+        defaultGroupShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the groupList where name contains UPDATED_NAME
+        defaultGroupShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupsByDepartmentIdIsInShouldWork() throws Exception {
+        // Initialize the database
+        groupRepository.saveAndFlush(group);
+
+        // Get all the groupList where departmentId in DEFAULT_DEPARTMENT_ID or UPDATED_DEPARTMENT_ID
+        defaultGroupShouldBeFound("departmentId.in=" + DEFAULT_DEPARTMENT_ID + "," + UPDATED_DEPARTMENT_ID + "&id.equals=" + group.getId());
+
+        // Get all the groupList where departmentId equals to UPDATED_DEPARTMENT_ID
+        defaultGroupShouldNotBeFound("departmentId.in=" + UPDATED_DEPARTMENT_ID + "&id.equals=" + group.getId());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultGroupShouldBeFound(String filter) throws Exception {
+        restGroupMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(group.getId().intValue())))
+            .andExpect(jsonPath("$.[*].departmentId").value(hasItem(DEFAULT_DEPARTMENT_ID.intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        // Check, that the count call also returns 1
+        restGroupMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultGroupShouldNotBeFound(String filter) throws Exception {
+        restGroupMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restGroupMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getGroup() throws Exception {
@@ -146,6 +239,55 @@ class GroupResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getGroupNotModified() throws Exception {
+        // Initialize the database
+        groupRepository.saveAndFlush(group);
+
+        // Get the group and its entity tag
+        String eTag = restGroupMockMvc
+            .perform(get(ENTITY_API_URL_ID, group.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Get the group again with its current entity tag
+        restGroupMockMvc
+            .perform(get(ENTITY_API_URL_ID, group.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupsNotModified() throws Exception {
+        // Initialize the database
+        groupRepository.saveAndFlush(group);
+
+        // Get all the groupList and its entity tag
+        String eTag = restGroupMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        restGroupMockMvc.perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        // A write through the API changes the entity tag of the collection
+        restGroupMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(createUpdatedEntity(em)))
+            )
+            .andExpect(status().isCreated());
+        restGroupMockMvc.perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isOk());
+    }
+
     @Test
     @Transactional
     void getNonExistingGroup() throws Exception {
@@ -370,4 +512,24 @@ class GroupResourceIT {
         List<Group> groupList = groupRepository.findAll();
         assertThat(groupList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void deleteGroupWithCascade() throws Exception {
+        // Initialize the database with a group and its memberships
+        groupRepository.saveAndFlush(group);
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(group.getId()).userId(1L));
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(group.getId()).userId(2L));
+        groupRoleRepository.saveAndFlush(new GroupRole().groupId(group.getId()).roleId(1L));
+
+        // Delete the group with its memberships
+        restGroupMockMvc
+            .perform(delete(ENTITY_API_URL_ID + "?cascade=true", group.getId()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Validate the memberships are gone with the group
+        assertThat(groupRepository.existsById(group.getId())).isFalse();
+        assertThat(groupUserRepository.findIdAndUserIdByGroupId(group.getId())).isEmpty();
+        assertThat(groupRoleRepository.findIdsByGroupIdIn(List.of(group.getId()), PageRequest.of(0, 10))).isEmpty();
+    }
 }
@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.sevenup.cpm.IntegrationTest;
 import com.sevenup.cpm.domain.GroupRole;
 import com.sevenup.cpm.repository.GroupRoleRepository;
+import java.time.Instant;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -37,6 +38,7 @@ class GroupRoleResourceIT {
 
     private static final String ENTITY_API_URL = "/api/group-roles";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String MEMBERSHIP_API_URL = "/api/groups/{groupId}/roles/{roleId}";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -130,6 +132,83 @@ class GroupRoleResourceIT {
             .andExpect(jsonPath("$.[*].roleId").value(hasItem(DEFAULT_ROLE_ID.intValue())));
     }
 
+    @Test
+    @Transactional
+    void getGroupRolesByIdFiltering() throws Exception {
+        // Initialize the database
+        groupRoleRepository.saveAndFlush(groupRole);
+
+        Long id = groupRole.getId();
+
+        defaultGroupRoleShouldBeFound("id.equals=" + id);
+        defaultGroupRoleShouldNotBeFound("id.notEquals=" + id + "&id.equals=" + id);
+
+        defaultGroupRoleShouldBeFound("id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupRoleShouldNotBeFound("id.greaterThan=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupRoleShouldNotBeFound("id.lessThan=" + id + "&id.greaterThanOrEqual=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupRolesByRoleIdIsInShouldWork() throws Exception {
+        // Initialize the database
+        groupRoleRepository.saveAndFlush(groupRole);
+
+        // Get all the groupRoleList where roleId in DEFAULT_ROLE_ID or UPDATED_ROLE_ID
+        defaultGroupRoleShouldBeFound("roleId.in=" + DEFAULT_ROLE_ID + "," + UPDATED_ROLE_ID + "&id.equals=" + groupRole.getId());
+
+        // Get all the groupRoleList where roleId equals to UPDATED_ROLE_ID
+        defaultGroupRoleShouldNotBeFound("roleId.in=" + UPDATED_ROLE_ID + "&id.equals=" + groupRole.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupRolesLeavesTheExpiredOnesOut() throws Exception {
+        // Initialize the database with an expired membership
+        groupRoleRepository.saveAndFlush(groupRole.validUntil(Instant.now().minusSeconds(60)));
+
+        defaultGroupRoleShouldNotBeFound("id.equals=" + groupRole.getId());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultGroupRoleShouldBeFound(String filter) throws Exception {
+        restGroupRoleMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(groupRole.getId().intValue())))
+            .andExpect(jsonPath("$.[*].groupId").value(hasItem(DEFAULT_GROUP_ID.intValue())))
+            .andExpect(jsonPath("$.[*].roleId").value(hasItem(DEFAULT_ROLE_ID.intValue())));
+
+        // Check, that the count call also returns 1
+        restGroupRoleMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultGroupRoleShouldNotBeFound(String filter) throws Exception {
+        restGroupRoleMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restGroupRoleMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getGroupRole() throws Exception {
@@ -374,4 +453,27 @@ class GroupRoleResourceIT {
         List<GroupRole> groupRoleList = groupRoleRepository.findAll();
         assertThat(groupRoleList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void upsertGroupRole() throws Exception {
+        int databaseSizeBeforeUpsert = groupRoleRepository.findAll().size();
+
+        // The first call creates the membership, its retries find it in place
+        restGroupRoleMockMvc
+            .perform(put(MEMBERSHIP_API_URL, DEFAULT_GROUP_ID, DEFAULT_ROLE_ID))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.groupId").value(DEFAULT_GROUP_ID.intValue()))
+            .andExpect(jsonPath("$.roleId").value(DEFAULT_ROLE_ID.intValue()));
+        restGroupRoleMockMvc
+            .perform(put(MEMBERSHIP_API_URL, DEFAULT_GROUP_ID, DEFAULT_ROLE_ID))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.groupId").value(DEFAULT_GROUP_ID.intValue()))
+            .andExpect(jsonPath("$.roleId").value(DEFAULT_ROLE_ID.intValue()));
+
+        // Validate the GroupRole in the database
+        List<GroupRole> groupRoleList = groupRoleRepository.findAll();
+        assertThat(groupRoleList).hasSize(databaseSizeBeforeUpsert + 1);
+        assertThat(groupRoleRepository.findOneByGroupIdAndRoleId(DEFAULT_GROUP_ID, DEFAULT_ROLE_ID)).isPresent();
+    }
 }
@@ -5,9 +5,14 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.domain.Group;
 import com.sevenup.cpm.domain.GroupUser;
 import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import java.time.Instant;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,6 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -37,6 +43,8 @@ class GroupUserResourceIT {
 
     private static final String ENTITY_API_URL = "/api/group-users";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String MEMBERSHIP_API_URL = "/api/groups/{groupId}/users/{userId}";
+    private static final String MEMBERS_API_URL = "/api/groups/{groupId}/members";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -130,6 +138,139 @@ class GroupUserResourceIT {
             .andExpect(jsonPath("$.[*].userId").value(hasItem(DEFAULT_USER_ID.intValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllGroupUsersWithFields() throws Exception {
+        // Initialize the database
+        groupUserRepository.saveAndFlush(groupUser);
+
+        // Get the id and user id of the groupUserList
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=id,userId"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(groupUser.getId().intValue())))
+            .andExpect(jsonPath("$.[*].userId").value(hasItem(DEFAULT_USER_ID.intValue())))
+            .andExpect(jsonPath("$.[*].groupId").doesNotExist())
+            .andExpect(jsonPath("$.[*].version").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupUsersInColumns() throws Exception {
+        // Initialize the database
+        groupUserRepository.saveAndFlush(groupUser);
+
+        // Get the groupUserList as one array per field
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&layout=columnar&fields=id,userId"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(hasItem(groupUser.getId().intValue())))
+            .andExpect(jsonPath("$.userId").value(hasItem(DEFAULT_USER_ID.intValue())))
+            .andExpect(jsonPath("$.groupId").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupUsersInCbor() throws Exception {
+        // Initialize the database
+        groupUserRepository.saveAndFlush(groupUser);
+
+        // Get all the groupUserList in CBOR
+        byte[] body = restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR_VALUE))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        List<GroupUserDTO> groupUserList = new CBORMapper()
+            .findAndRegisterModules()
+            .readValue(body, new TypeReference<List<GroupUserDTO>>() {});
+        assertThat(groupUserList).extracting(GroupUserDTO::getId).contains(groupUser.getId());
+        assertThat(groupUserList).extracting(GroupUserDTO::getUserId).contains(DEFAULT_USER_ID);
+    }
+
+    @Test
+    @Transactional
+    void getGroupUsersByIdFiltering() throws Exception {
+        // Initialize the database
+        groupUserRepository.saveAndFlush(groupUser);
+
+        Long id = groupUser.getId();
+
+        defaultGroupUserShouldBeFound("id.equals=" + id);
+        defaultGroupUserShouldNotBeFound("id.notEquals=" + id + "&id.equals=" + id);
+
+        defaultGroupUserShouldBeFound("id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupUserShouldNotBeFound("id.greaterThan=" + id + "&id.lessThanOrEqual=" + id);
+        defaultGroupUserShouldNotBeFound("id.lessThan=" + id + "&id.greaterThanOrEqual=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupUsersByUserIdIsInShouldWork() throws Exception {
+        // Initialize the database
+        groupUserRepository.saveAndFlush(groupUser);
+
+        // Get all the groupUserList where userId in DEFAULT_USER_ID or UPDATED_USER_ID
+        defaultGroupUserShouldBeFound("userId.in=" + DEFAULT_USER_ID + "," + UPDATED_USER_ID + "&id.equals=" + groupUser.getId());
+
+        // Get all the groupUserList where userId equals to UPDATED_USER_ID
+        defaultGroupUserShouldNotBeFound("userId.in=" + UPDATED_USER_ID + "&id.equals=" + groupUser.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAllGroupUsersLeavesTheExpiredOnesOut() throws Exception {
+        // Initialize the database with an expired membership
+        groupUserRepository.saveAndFlush(groupUser.validUntil(Instant.now().minusSeconds(60)));
+
+        defaultGroupUserShouldNotBeFound("id.equals=" + groupUser.getId());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultGroupUserShouldBeFound(String filter) throws Exception {
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(groupUser.getId().intValue())))
+            .andExpect(jsonPath("$.[*].groupId").value(hasItem(DEFAULT_GROUP_ID.intValue())))
+            .andExpect(jsonPath("$.[*].userId").value(hasItem(DEFAULT_USER_ID.intValue())));
+
+        // Check, that the count call also returns 1
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultGroupUserShouldNotBeFound(String filter) throws Exception {
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restGroupUserMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getGroupUser() throws Exception {
@@ -374,4 +515,81 @@ class GroupUserResourceIT {
         List<GroupUser> groupUserList = groupUserRepository.findAll();
         assertThat(groupUserList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void upsertGroupUser() throws Exception {
+        int databaseSizeBeforeUpsert = groupUserRepository.findAll().size();
+
+        // The first call creates the membership, its retries find it in place
+        restGroupUserMockMvc
+            .perform(put(MEMBERSHIP_API_URL, DEFAULT_GROUP_ID, DEFAULT_USER_ID))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.groupId").value(DEFAULT_GROUP_ID.intValue()))
+            .andExpect(jsonPath("$.userId").value(DEFAULT_USER_ID.intValue()));
+        restGroupUserMockMvc
+            .perform(put(MEMBERSHIP_API_URL, DEFAULT_GROUP_ID, DEFAULT_USER_ID))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.groupId").value(DEFAULT_GROUP_ID.intValue()))
+            .andExpect(jsonPath("$.userId").value(DEFAULT_USER_ID.intValue()));
+
+        // Validate the GroupUser in the database
+        List<GroupUser> groupUserList = groupUserRepository.findAll();
+        assertThat(groupUserList).hasSize(databaseSizeBeforeUpsert + 1);
+        assertThat(groupUserRepository.findOneByGroupIdAndUserId(DEFAULT_GROUP_ID, DEFAULT_USER_ID)).isPresent();
+    }
+
+    @Test
+    @Transactional
+    void syncGroupMembers() throws Exception {
+        // Initialize the database
+        Group group = GroupResourceIT.createEntity(em);
+        em.persist(group);
+        em.flush();
+        Long groupId = group.getId();
+        Long otherGroupId = groupId + 1;
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(groupId).userId(10L));
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(groupId).userId(20L));
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(groupId).userId(30L));
+        groupUserRepository.saveAndFlush(new GroupUser().groupId(otherGroupId).userId(10L));
+
+        // Replace the members: 10 is removed, 20 and 30 stay, 40 and 50 are added
+        restGroupUserMockMvc
+            .perform(
+                put(MEMBERS_API_URL, groupId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(50L, 20L, 40L, 30L, 20L)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.groupId").value(groupId.intValue()))
+            .andExpect(jsonPath("$.added").value(2))
+            .andExpect(jsonPath("$.removed").value(1))
+            .andExpect(jsonPath("$.unchanged").value(2));
+
+        // Validate the GroupUser in the database
+        assertThat(groupUserRepository.findIdAndUserIdByGroupId(groupId))
+            .extracting(row -> row[1])
+            .containsExactly(20L, 30L, 40L, 50L);
+        assertThat(groupUserRepository.findIdAndUserIdByGroupId(otherGroupId)).extracting(row -> row[1]).containsExactly(10L);
+    }
+
+    @Test
+    @Transactional
+    void syncNonExistingGroupMembers() throws Exception {
+        restGroupUserMockMvc
+            .perform(
+                put(MEMBERS_API_URL, Long.MAX_VALUE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(10L)))
+            )
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void syncGroupMembersWithNullUserId() throws Exception {
+        restGroupUserMockMvc
+            .perform(put(MEMBERS_API_URL, DEFAULT_GROUP_ID).contentType(MediaType.APPLICATION_JSON).content("[1, null]"))
+            .andExpect(status().isBadRequest());
+    }
 }
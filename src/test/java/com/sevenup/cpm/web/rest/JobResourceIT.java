@@ -0,0 +1,172 @@
+package com.sevenup.cpm.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.domain.Job;
+import com.sevenup.cpm.domain.enumeration.JobStatus;
+import com.sevenup.cpm.repository.JobRepository;
+import com.sevenup.cpm.service.dto.JobDTO;
+import com.sevenup.cpm.service.job.CascadeDeleteJobHandler;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link JobResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class JobResourceIT {
+
+    private static final String DEFAULT_PARAMETERS = "{\"entityName\":\"role\",\"entityId\":\"1\"}";
+
+    private static final String ENTITY_API_URL = "/api/jobs";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_CANCEL = ENTITY_API_URL_ID + "/cancel";
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restJobMockMvc;
+
+    private Job job;
+
+    /**
+     * Create an entity for this test.
+     */
+    public static Job createEntity(EntityManager em) {
+        return new Job()
+            .type(CascadeDeleteJobHandler.TYPE)
+            .status(JobStatus.QUEUED)
+            .parameters(DEFAULT_PARAMETERS)
+            .createdBy("user")
+            .createdDate(Instant.now());
+    }
+
+    @BeforeEach
+    public void initTest() {
+        job = createEntity(em);
+    }
+
+    @Test
+    @Transactional
+    void submitJob() throws Exception {
+        int databaseSizeBeforeCreate = jobRepository.findAll().size();
+        JobDTO jobDTO = new JobDTO();
+        jobDTO.setType(CascadeDeleteJobHandler.TYPE);
+        jobDTO.setParameters(CascadeDeleteJobHandler.parameters("role", 1L));
+
+        restJobMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(jobDTO)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(JobStatus.QUEUED.toString()))
+            .andExpect(jsonPath("$.parameters.entityName").value("role"))
+            .andExpect(jsonPath("$.createdBy").value("user"));
+
+        List<Job> jobList = jobRepository.findAll();
+        assertThat(jobList).hasSize(databaseSizeBeforeCreate + 1);
+        Job testJob = jobList.get(jobList.size() - 1);
+        assertThat(testJob.getType()).isEqualTo(CascadeDeleteJobHandler.TYPE);
+        assertThat(testJob.getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(testJob.getProgress()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void submitJobOfUnknownType() throws Exception {
+        int databaseSizeBeforeCreate = jobRepository.findAll().size();
+        JobDTO jobDTO = new JobDTO();
+        jobDTO.setType("unknown");
+
+        restJobMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(jobDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(jobRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void getAllJobs() throws Exception {
+        jobRepository.saveAndFlush(job);
+
+        restJobMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(job.getId().intValue())))
+            .andExpect(jsonPath("$.[*].type").value(hasItem(CascadeDeleteJobHandler.TYPE)));
+    }
+
+    @Test
+    @Transactional
+    void getJob() throws Exception {
+        jobRepository.saveAndFlush(job);
+
+        restJobMockMvc
+            .perform(get(ENTITY_API_URL_ID, job.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(job.getId().intValue()))
+            .andExpect(jsonPath("$.type").value(CascadeDeleteJobHandler.TYPE))
+            .andExpect(jsonPath("$.status").value(JobStatus.QUEUED.toString()))
+            .andExpect(jsonPath("$.parameters.entityId").value("1"))
+            .andExpect(jsonPath("$.progress").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingJob() throws Exception {
+        restJobMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void cancelQueuedJob() throws Exception {
+        jobRepository.saveAndFlush(job);
+
+        restJobMockMvc
+            .perform(post(ENTITY_API_URL_CANCEL, job.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(JobStatus.CANCELLED.toString()));
+    }
+
+    @Test
+    @Transactional
+    void cancelRunningJob() throws Exception {
+        jobRepository.saveAndFlush(job.status(JobStatus.RUNNING).owner("instance").heartbeatDate(Instant.now()));
+
+        restJobMockMvc
+            .perform(post(ENTITY_API_URL_CANCEL, job.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(JobStatus.RUNNING.toString()))
+            .andExpect(jsonPath("$.cancelRequested").value(true));
+        em.clear();
+
+        // The instance running the job finds out at its next checkpoint
+        assertThat(jobRepository.saveProgress(job.getId(), "instance", 1, null, null, Instant.now())).isZero();
+    }
+
+    @Test
+    @Transactional
+    void cancelNonExistingJob() throws Exception {
+        restJobMockMvc.perform(post(ENTITY_API_URL_CANCEL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+}
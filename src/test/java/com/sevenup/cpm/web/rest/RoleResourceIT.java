@@ -6,7 +6,13 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.domain.GroupRole;
+import com.sevenup.cpm.domain.GroupUser;
 import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.domain.RoleInheritance;
+import com.sevenup.cpm.repository.GroupRoleRepository;
+import com.sevenup.cpm.repository.GroupUserRepository;
+import com.sevenup.cpm.repository.RoleInheritanceRepository;
 import com.sevenup.cpm.repository.RoleRepository;
 import java.util.List;
 import java.util.Random;
@@ -16,9 +22,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -44,6 +52,15 @@ class RoleResourceIT {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private GroupUserRepository groupUserRepository;
+
+    @Autowired
+    private GroupRoleRepository groupRoleRepository;
+
+    @Autowired
+    private RoleInheritanceRepository roleInheritanceRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -130,6 +147,74 @@ class RoleResourceIT {
             .andExpect(jsonPath("$.[*].system").value(hasItem(DEFAULT_SYSTEM)));
     }
 
+    @Test
+    @Transactional
+    void getRolesByIdFiltering() throws Exception {
+        // Initialize the database
+        roleRepository.saveAndFlush(role);
+
+        Long id = role.getId();
+
+        defaultRoleShouldBeFound("id.equals=" + id);
+        defaultRoleShouldNotBeFound("id.notEquals=" + id + "&id.equals=" + id);
+
+        defaultRoleShouldBeFound("id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+        defaultRoleShouldNotBeFound("id.greaterThan=" + id + "&id.lessThanOrEqual=" + id);
+        defaultRoleShouldNotBeFound("id.lessThan=" + id + "&id.greaterThanOrEqual=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllRolesBySystemIsEqualToSomething() throws Exception {
+        // Initialize the database
+        roleRepository.saveAndFlush(role);
+
+        // Get all the roleList where system equals to DEFAULT_SYSTEM
+        defaultRoleShouldBeFound("system.equals=" + DEFAULT_SYSTEM + "&id.equals=" + role.getId());
+
+        // Get all the roleList where system equals to UPDATED_SYSTEM
+        defaultRoleShouldNotBeFound("system.equals=" + UPDATED_SYSTEM + "&id.equals=" + role.getId());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultRoleShouldBeFound(String filter) throws Exception {
+        restRoleMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(role.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].system").value(hasItem(DEFAULT_SYSTEM)));
+
+        // Check, that the count call also returns 1
+        restRoleMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultRoleShouldNotBeFound(String filter) throws Exception {
+        restRoleMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restRoleMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getRole() throws Exception {
@@ -372,4 +457,110 @@ class RoleResourceIT {
         List<Role> roleList = roleRepository.findAll();
         assertThat(roleList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    void getRoleUsers() throws Exception {
+        // Initialize the database: the streamed body is read outside of the test transaction, so the data is committed
+        roleRepository.saveAndFlush(role);
+        GroupRole groupRole1 = groupRoleRepository.saveAndFlush(new GroupRole().groupId(1L).roleId(role.getId()));
+        GroupRole groupRole2 = groupRoleRepository.saveAndFlush(new GroupRole().groupId(2L).roleId(role.getId()));
+        GroupUser groupUser1 = groupUserRepository.saveAndFlush(new GroupUser().groupId(1L).userId(30L));
+        GroupUser groupUser2 = groupUserRepository.saveAndFlush(new GroupUser().groupId(2L).userId(10L));
+        GroupUser groupUser3 = groupUserRepository.saveAndFlush(new GroupUser().groupId(2L).userId(30L));
+
+        try {
+            // Get the users of the role, deduplicated and sorted
+            MvcResult result = restRoleMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/users", role.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restRoleMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RoleResource.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string("10\n30\n"));
+
+            // Resume after the first user id
+            result = restRoleMockMvc.perform(get(ENTITY_API_URL_ID + "/users?after=10", role.getId())).andReturn();
+            restRoleMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(content().string("30\n"));
+        } finally {
+            groupUserRepository.deleteAll(List.of(groupUser1, groupUser2, groupUser3));
+            groupRoleRepository.deleteAll(List.of(groupRole1, groupRole2));
+            roleRepository.delete(role);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getUsersOfNonExistingRole() throws Exception {
+        restRoleMockMvc.perform(get(ENTITY_API_URL_ID + "/users", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void inheritRoles() throws Exception {
+        // Initialize the database: the closure is dropped once the inheritances are committed, so the data is committed
+        Role admin = roleRepository.saveAndFlush(createEntity(em));
+        Role editor = roleRepository.saveAndFlush(createEntity(em));
+        Role viewer = roleRepository.saveAndFlush(createEntity(em));
+        GroupRole groupRole = groupRoleRepository.saveAndFlush(new GroupRole().groupId(1L).roleId(admin.getId()));
+        GroupUser groupUser = groupUserRepository.saveAndFlush(new GroupUser().groupId(1L).userId(10L));
+
+        try {
+            restRoleMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", admin.getId(), editor.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.roleId").value(admin.getId().intValue()))
+                .andExpect(jsonPath("$.inheritedRoleId").value(editor.getId().intValue()));
+            restRoleMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", editor.getId(), viewer.getId()))
+                .andExpect(status().isCreated());
+            // Retrying is a no-op
+            restRoleMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", editor.getId(), viewer.getId()))
+                .andExpect(status().isOk());
+            // The viewer cannot inherit the admin, which inherits it through the editor
+            restRoleMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", viewer.getId(), admin.getId()))
+                .andExpect(status().isBadRequest());
+            restRoleMockMvc
+                .perform(put(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", viewer.getId(), viewer.getId()))
+                .andExpect(status().isBadRequest());
+
+            restRoleMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/inherited-roles", admin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" + editor.getId() + "]"));
+            restRoleMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/inherited-roles?transitive=true", admin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" + editor.getId() + "," + viewer.getId() + "]"));
+
+            // The users of the admin group hold the viewer role through the inheritances
+            MvcResult result = restRoleMockMvc.perform(get(ENTITY_API_URL_ID + "/users", viewer.getId())).andReturn();
+            restRoleMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(content().string("10\n"));
+
+            restRoleMockMvc
+                .perform(delete(ENTITY_API_URL_ID + "/inherited-roles/{inheritedRoleId}", editor.getId(), viewer.getId()))
+                .andExpect(status().isNoContent());
+            restRoleMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/inherited-roles?transitive=true", admin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[" + editor.getId() + "]"));
+
+            // Deleting a role deletes its inheritances
+            restRoleMockMvc.perform(delete(ENTITY_API_URL_ID, editor.getId())).andExpect(status().isNoContent());
+            assertThat(roleInheritanceRepository.findByRoleIdOrderByInheritedRoleId(admin.getId(), RoleInheritance.class)).isEmpty();
+        } finally {
+            groupUserRepository.delete(groupUser);
+            groupRoleRepository.delete(groupRole);
+            for (Role created : List.of(admin, editor, viewer)) {
+                roleInheritanceRepository.deleteAllByIdInBatch(
+                    roleInheritanceRepository.findIdsByRoleIdOrInheritedRoleId(created.getId(), Pageable.unpaged())
+                );
+                if (roleRepository.existsById(created.getId())) {
+                    roleRepository.delete(created);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.sevenup.cpm.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.JsonPath;
+import com.sevenup.cpm.IntegrationTest;
+import com.sevenup.cpm.domain.Group;
+import com.sevenup.cpm.domain.Role;
+import com.sevenup.cpm.repository.GroupRepository;
+import com.sevenup.cpm.repository.RoleRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchResource} REST controller.
+ * <p>
+ * Not transactional, as the index is only updated once the writes are committed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SearchResourceIT {
+
+    private static final String API_URL = "/api/search";
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private MockMvc restSearchMockMvc;
+
+    @Test
+    void searchFollowsTheWrites() throws Exception {
+        // A word no other name holds
+        String word = "Xứ" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String query = "xu" + word.substring(2, 8).toUpperCase();
+        Long groupId = null;
+        Role role = roleRepository.saveAndFlush(new Role().name("Đào tạo " + word));
+        try {
+            // The role is written before the index is built, or applied to it once committed
+            restSearchMockMvc
+                .perform(get(API_URL + "?q={q}", "dao " + query))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits.[*].id").value(hasItem(role.getId().intValue())))
+                .andExpect(jsonPath("$.hits.[*].type").value(hasItem("role")));
+
+            String created = restSearchMockMvc
+                .perform(
+                    post("/api/groups")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(new Group().departmentId(1L).name("Phòng " + word)))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            groupId = ((Number) JsonPath.read(created, "$.id")).longValue();
+
+            restSearchMockMvc
+                .perform(get(API_URL + "?q={q}&types=group", "PHONG " + query))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits.[*].id").value(hasItem(groupId.intValue())))
+                .andExpect(jsonPath("$.hits.[*].type").value(not(hasItem("role"))))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+            restSearchMockMvc.perform(delete("/api/groups/{id}", groupId)).andExpect(status().isNoContent());
+            groupId = null;
+
+            restSearchMockMvc
+                .perform(get(API_URL + "?q={q}&types=group", query))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").isEmpty());
+        } finally {
+            if (groupId != null) {
+                groupRepository.deleteById(groupId);
+            }
+            roleRepository.deleteById(role.getId());
+        }
+    }
+
+    @Test
+    void searchUnknownType() throws Exception {
+        restSearchMockMvc.perform(get(API_URL + "?q=a&types=user")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,123 @@
+package com.sevenup.cpm.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.sevenup.cpm.config.JacksonConfiguration;
+import com.sevenup.cpm.service.dto.GroupUserDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Test class for the {@link ListRepresentationAdvice} and the {@link ColumnarList}.
+ */
+class ListRepresentationAdviceTest {
+
+    private ObjectMapper mapper;
+
+    private ListRepresentationAdvice advice;
+
+    @BeforeEach
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new JacksonConfiguration().fieldsFilterCustomizer().customize(builder);
+        mapper = builder.build();
+        advice = new ListRepresentationAdvice();
+    }
+
+    @Test
+    void testWritesEveryFieldByDefault() throws Exception {
+        List<GroupUserDTO> rows = List.of(groupUser(1L, 10L, 100L));
+
+        JsonNode json = write(rows, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        assertThat(json.get(0).has("groupId")).isTrue();
+        assertThat(json.get(0).has("version")).isTrue();
+    }
+
+    @Test
+    void testWritesTheFieldsAsked() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(ListRepresentationAdvice.FIELDS_PARAMETER, "id, userId,unknown");
+
+        JsonNode json = write(List.of(groupUser(1L, 10L, 100L), groupUser(2L, 10L, 200L)), request, new MockHttpServletResponse());
+
+        assertThat(json).hasSize(2);
+        assertThat(json.get(1).get("id").asLong()).isEqualTo(2L);
+        assertThat(json.get(1).get("userId").asLong()).isEqualTo(200L);
+        assertThat(json.get(1).size()).isEqualTo(2);
+    }
+
+    @Test
+    void testWritesTheColumns() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(ListRepresentationAdvice.FIELDS_PARAMETER, "userId,id");
+        request.setParameter(ListRepresentationAdvice.LAYOUT_PARAMETER, ListRepresentationAdvice.COLUMNAR_LAYOUT);
+
+        JsonNode json = write(List.of(groupUser(1L, 10L, 100L), groupUser(2L, 10L, 200L)), request, new MockHttpServletResponse());
+
+        assertThat(json.isObject()).isTrue();
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get("id").toString()).isEqualTo("[1,2]");
+        assertThat(json.get("userId").toString()).isEqualTo("[100,200]");
+
+        request.removeParameter(ListRepresentationAdvice.FIELDS_PARAMETER);
+        json = write(List.of(groupUser(1L, 10L, 100L), groupUser(2L, 10L, null)), request, new MockHttpServletResponse());
+        assertThat(json.get("groupId").toString()).isEqualTo("[10,10]");
+        // The columns stay aligned on the missing values
+        assertThat(json.get("userId").toString()).isEqualTo("[100,null]");
+
+        assertThat(write(List.of(), request, new MockHttpServletResponse()).toString()).isEqualTo("{}");
+    }
+
+    @Test
+    void testLeavesTheOtherBodiesAlone() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(ListRepresentationAdvice.FIELDS_PARAMETER, "id");
+        GroupUserDTO single = groupUser(1L, 10L, 100L);
+        List<String> strings = List.of("a");
+
+        assertThat(beforeBodyWrite(single, request, new MockHttpServletResponse())).isSameAs(single);
+        assertThat(beforeBodyWrite(strings, request, new MockHttpServletResponse())).isSameAs(strings);
+    }
+
+    private JsonNode write(List<GroupUserDTO> rows, MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        Object body = beforeBodyWrite(rows, request, response);
+        if (body instanceof MappingJacksonValue) {
+            MappingJacksonValue value = (MappingJacksonValue) body;
+            FilterProvider filters = value.getFilters();
+            return mapper.readTree(mapper.writer(filters).writeValueAsString(value.getValue()));
+        }
+        return mapper.readTree(mapper.writeValueAsString(body));
+    }
+
+    private Object beforeBodyWrite(Object body, MockHttpServletRequest request, MockHttpServletResponse response) {
+        return advice.beforeBodyWrite(
+            body,
+            null,
+            MediaType.APPLICATION_JSON,
+            MappingJackson2HttpMessageConverter.class,
+            new ServletServerHttpRequest(request),
+            new ServletServerHttpResponse(response)
+        );
+    }
+
+    private static GroupUserDTO groupUser(Long id, Long groupId, Long userId) {
+        GroupUserDTO groupUser = new GroupUserDTO();
+        groupUser.setId(id);
+        groupUser.setGroupId(groupId);
+        groupUser.setUserId(userId);
+        return groupUser;
+    }
+}